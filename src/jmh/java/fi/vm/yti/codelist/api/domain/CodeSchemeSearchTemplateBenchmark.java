@@ -0,0 +1,101 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.script.mustache.SearchTemplateRequest;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fi.vm.yti.codelist.common.model.Status;
+import static fi.vm.yti.codelist.api.domain.ElasticSearchTemplates.TEMPLATE_CODESCHEMES;
+
+/**
+ * Compares preparing the request body of a code scheme search by building and serializing the query client side
+ * against building the parameters of the stored search template and serializing the template request. The size of
+ * the serialized body is reported as the payloadBytes counter, and the allocations per request with -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeSchemeSearchTemplateBenchmark {
+
+    private static final String BOOSTSTATUS = "boostStatus";
+    private static final List<String> STATUSES = Arrays.asList(Status.VALID.toString(), Status.DRAFT.toString(), Status.INCOMPLETE.toString());
+    private static final List<String> ORGANIZATION_IDS = Collections.singletonList("7d3a3c00-5a6b-489b-a3ed-63bb58c26a63");
+
+    @Param({ "", "kunta" })
+    public String searchTerm;
+
+    private DomainImpl domain;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        // Building the queries only needs the query factories DomainImpl creates itself, so the injected
+        // dependencies are left null and the last two, the deep search request cache flag and the uri list
+        // threshold, get their defaults.
+        final Constructor<?> constructor = DomainImpl.class.getDeclaredConstructors()[0];
+        constructor.setAccessible(true);
+        final Object[] args = new Object[constructor.getParameterCount()];
+        args[args.length - 2] = true;
+        args[args.length - 1] = 5000;
+        domain = (DomainImpl) constructor.newInstance(args);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPayload(final Payload payload) {
+        payload.payloadBytes = 0;
+    }
+
+    @Benchmark
+    public BytesReference clientSideQuery(final Payload payload) throws IOException {
+        final SearchSourceBuilder source = domain.createCodeSchemesSearchSource(BOOSTSTATUS, null, ORGANIZATION_IDS, false, null, null, null, null, "fi", searchTerm, Collections.emptySet(), new ArrayList<>(STATUSES), null, null, null, null);
+        final BytesReference body = XContentHelper.toXContent(source, XContentType.JSON, false);
+        payload.payloadBytes = body.length();
+        return body;
+    }
+
+    @Benchmark
+    public BytesReference storedTemplate(final Payload payload) throws IOException {
+        final Map<String, Object> params = domain.createCodeSchemesTemplateParams(BOOSTSTATUS, null, ORGANIZATION_IDS, false, null, null, null, null, "fi", searchTerm, Collections.emptySet(), new ArrayList<>(STATUSES), null, null, null, null);
+        final SearchTemplateRequest request = new SearchTemplateRequest();
+        request.setScriptType(ScriptType.STORED);
+        request.setScript(TEMPLATE_CODESCHEMES);
+        request.setScriptParams(params);
+        final BytesReference body = XContentHelper.toXContent(request, XContentType.JSON, false);
+        payload.payloadBytes = body.length();
+        return body;
+    }
+}
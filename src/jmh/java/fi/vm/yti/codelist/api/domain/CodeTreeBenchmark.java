@@ -0,0 +1,85 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building the code tree of a synthetic code scheme and walking it in one pass, with either a flat list of
+ * codes or a hierarchy of the given branching factor. The retained size of the hierarchy arrays is reported as the
+ * treeBytes counter, and the allocations of the build with -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class CodeTreeBenchmark {
+
+    @Param({ "100000" })
+    public int codeCount;
+
+    @Param({ "0", "10" })
+    public int branching;
+
+    private String[] ids;
+    private String[] broaderIds;
+    private CodeTree<String> tree;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long treeBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        ids = new String[codeCount];
+        broaderIds = new String[codeCount];
+        for (int i = 0; i < codeCount; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            broaderIds[i] = branching > 0 && i > 0 ? ids[(i - 1) / branching] : null;
+        }
+        tree = build();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetFootprint(final Footprint footprint) {
+        footprint.treeBytes = 0;
+    }
+
+    @Benchmark
+    public CodeTree<String> buildTree(final Footprint footprint) {
+        final CodeTree<String> built = build();
+        footprint.treeBytes = built.getMemoryBytes();
+        return built;
+    }
+
+    @Benchmark
+    public int[] walkTree() {
+        return tree.getSubtrees(tree.getRoots());
+    }
+
+    private CodeTree<String> build() {
+        final CodeTree.Builder<String> builder = new CodeTree.Builder<>();
+        for (int i = 0; i < codeCount; i++) {
+            builder.add(ids[i], broaderIds[i], ids[i]);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,119 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fi.vm.yti.codelist.common.model.Status;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_CODE;
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.matchQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termsQuery;
+
+/**
+ * Compares the latency of the code list query of a code scheme with its restrictive clauses in the must context, as
+ * before, and in the filter context. Runs against a live ElasticSearch, by default the one of the integration tests
+ * populated with their test data. Point the host, port, registry and scheme parameters to a production sized index for
+ * representative numbers, e.g. -Djmh.args="FilterContext -p port=9201 -p codeSchemeCodeValue=kunnat".
+ *
+ * The shard request cache is disabled, so that every request is executed, while the node query cache works as it
+ * does for the service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterContextBenchmark {
+
+    private static final String TEXT_ANALYZER = "text_analyzer";
+    private static final List<String> STATUSES = Arrays.asList(Status.VALID.toString(), Status.DRAFT.toString());
+
+    @Param({ "localhost" })
+    public String host;
+
+    @Param({ "9200" })
+    public int port;
+
+    @Param({ "testregistry1" })
+    public String codeRegistryCodeValue;
+
+    @Param({ "testscheme1" })
+    public String codeSchemeCodeValue;
+
+    @Param({ "false", "true" })
+    public boolean sortByScore;
+
+    private RestHighLevelClient client;
+    private SearchRequest mustRequest;
+    private SearchRequest filterRequest;
+
+    @Setup
+    public void setUp() {
+        client = new RestHighLevelClient(RestClient.builder(new HttpHost(host, port, "http")));
+        mustRequest = createCodesRequest(false);
+        filterRequest = createCodesRequest(true);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+    }
+
+    @Benchmark
+    public SearchResponse mustContext() throws IOException {
+        return client.search(mustRequest, RequestOptions.DEFAULT);
+    }
+
+    @Benchmark
+    public SearchResponse filterContext() throws IOException {
+        return client.search(filterRequest, RequestOptions.DEFAULT);
+    }
+
+    private SearchRequest createCodesRequest(final boolean filterContext) {
+        final List<QueryBuilder> clauses = Arrays.asList(
+            matchQuery("codeScheme.codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER),
+            boolQuery().should(matchQuery("codeScheme.codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).should(matchQuery("codeScheme.id", codeSchemeCodeValue.toLowerCase())).minimumShouldMatch(1),
+            termsQuery("status.keyword", STATUSES));
+        final BoolQueryBuilder builder = boolQuery();
+        for (final QueryBuilder clause : clauses) {
+            if (filterContext) {
+                builder.filter(clause);
+            } else {
+                builder.must(clause);
+            }
+        }
+        final SearchSourceBuilder searchBuilder = new SearchSourceBuilder().query(builder).size(100);
+        if (sortByScore) {
+            searchBuilder.sort(SortBuilders.scoreSort());
+        }
+        searchBuilder.sort(SortBuilders.fieldSort("order").order(SortOrder.ASC).unmappedType("long"));
+        return new SearchRequest(ELASTIC_INDEX_CODE).source(searchBuilder).requestCache(false);
+    }
+}
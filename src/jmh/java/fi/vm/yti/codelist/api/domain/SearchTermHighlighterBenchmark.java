@@ -0,0 +1,69 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares highlighting the labels of one page of deep search hits with a replaceAll per word and label, as the deep
+ * query factories used to do, against one SearchTermHighlighter compiled per search term.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchTermHighlighterBenchmark {
+
+    private static final String[] WORDS = { "kunta", "maakunta", "alue", "luokitus", "toimiala", "kieli", "valtio", "osoite", "asema", "palvelu" };
+
+    @Param({ "kunta", "kunta alue", "kunta alue luokitus 2020" })
+    public String searchTerm;
+
+    @Param({ "100" })
+    public int labelCount;
+
+    private String[] labels;
+
+    @Setup
+    public void setUp() {
+        labels = new String[labelCount];
+        for (int i = 0; i < labelCount; i++) {
+            labels[i] = "Suomen " + WORDS[i % WORDS.length] + "luokitus " + (2000 + i % 30) + " ja " + WORDS[(i * 7) % WORDS.length] + "jako";
+        }
+    }
+
+    @Benchmark
+    public void legacyReplaceAll(final Blackhole blackhole) {
+        final String[] words = searchTerm.split("\\s+");
+        for (final String label : labels) {
+            String highlighted = label;
+            for (final String word : words) {
+                final String matchString = Pattern.quote(word);
+                highlighted = highlighted.replaceAll("(?i)(?<text>\\b" + matchString + "|" + matchString + "\\b)", "<b>${text}</b>");
+            }
+            blackhole.consume(highlighted);
+        }
+    }
+
+    @Benchmark
+    public void compiledHighlighter(final Blackhole blackhole) {
+        final SearchTermHighlighter highlighter = SearchTermHighlighter.compile(searchTerm);
+        for (final String label : labels) {
+            blackhole.consume(highlighter.highlight(label));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package fi.vm.yti.codelist.api.resource;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import static fi.vm.yti.codelist.common.constants.ApiConstants.FILTER_NAME_CODE;
+
+/**
+ * Compares preparing the filtered writer of a response by building a new filter provider and modifier per request, as
+ * the resources used to do, against the shared modifiers of createFilterModifier. Run with -prof gc to compare the
+ * allocations per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterModifierBenchmark {
+
+    @Param({ "", "codeScheme,extension,member" })
+    public String expand;
+
+    private AbstractBaseResource resource;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        resource = new AbstractBaseResource() {
+        };
+        writer = new ObjectMapper().writer();
+    }
+
+    @Benchmark
+    public ObjectWriter newModifierPerRequest() {
+        final AbstractBaseResource.FilterModifier modifier = new AbstractBaseResource.FilterModifier(resource.createSimpleFilterProvider(FILTER_NAME_CODE, expand), null);
+        return modifier.modify(null, null, null, writer, null);
+    }
+
+    @Benchmark
+    public ObjectWriter sharedModifier() {
+        return resource.createFilterModifier(FILTER_NAME_CODE, expand, null).modify(null, null, null, writer, null);
+    }
+}
@@ -9,16 +9,40 @@ import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
 import fi.vm.yti.codelist.api.configuration.VersionInformation;
+import fi.vm.yti.codelist.api.domain.CodeCatalogReplica;
+import fi.vm.yti.codelist.api.domain.ElasticSearchTemplates;
+import fi.vm.yti.codelist.api.domain.ReferenceDataReplica;
+import fi.vm.yti.codelist.api.domain.ResourceExistenceFilter;
+import fi.vm.yti.codelist.api.domain.ResourceSuggestIndex;
+import fi.vm.yti.codelist.api.domain.ResourceUriIndex;
 
 @Component
 public class ServiceInitializer implements ApplicationRunner {
 
     private static final Logger LOG = LoggerFactory.getLogger(ServiceInitializer.class);
     private final VersionInformation versionInformation;
+    private final ElasticSearchTemplates elasticSearchTemplates;
+    private final ReferenceDataReplica referenceDataReplica;
+    private final CodeCatalogReplica codeCatalogReplica;
+    private final ResourceUriIndex resourceUriIndex;
+    private final ResourceExistenceFilter resourceExistenceFilter;
+    private final ResourceSuggestIndex resourceSuggestIndex;
 
     @Inject
-    public ServiceInitializer(final VersionInformation versionInformation) {
+    public ServiceInitializer(final VersionInformation versionInformation,
+                              final ElasticSearchTemplates elasticSearchTemplates,
+                              final ReferenceDataReplica referenceDataReplica,
+                              final CodeCatalogReplica codeCatalogReplica,
+                              final ResourceUriIndex resourceUriIndex,
+                              final ResourceExistenceFilter resourceExistenceFilter,
+                              final ResourceSuggestIndex resourceSuggestIndex) {
         this.versionInformation = versionInformation;
+        this.elasticSearchTemplates = elasticSearchTemplates;
+        this.referenceDataReplica = referenceDataReplica;
+        this.codeCatalogReplica = codeCatalogReplica;
+        this.resourceUriIndex = resourceUriIndex;
+        this.resourceExistenceFilter = resourceExistenceFilter;
+        this.resourceSuggestIndex = resourceSuggestIndex;
     }
 
     @Override
@@ -28,6 +52,14 @@ public class ServiceInitializer implements ApplicationRunner {
 
     private void initialize() {
         printLogo();
+        elasticSearchTemplates.registerTemplates();
+        referenceDataReplica.refresh();
+        codeCatalogReplica.refresh();
+        referenceDataReplica.start();
+        codeCatalogReplica.start();
+        resourceUriIndex.start();
+        resourceExistenceFilter.start();
+        resourceSuggestIndex.start();
     }
 
     private void printLogo() {
@@ -1,5 +1,6 @@
 package fi.vm.yti.codelist.api.configuration;
 
+import javax.inject.Inject;
 import javax.ws.rs.ApplicationPath;
 
 import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJaxbJsonProvider;
@@ -15,6 +16,8 @@ import fi.vm.yti.codelist.api.filter.CacheFilter;
 import fi.vm.yti.codelist.api.filter.CharsetResponseFilter;
 import fi.vm.yti.codelist.api.filter.RequestLoggingFilter;
 import fi.vm.yti.codelist.api.filter.RobotsFilter;
+import fi.vm.yti.codelist.api.resource.BatchRequestExecutor;
+import fi.vm.yti.codelist.api.resource.BatchResource;
 import fi.vm.yti.codelist.api.resource.CodeRegistryResource;
 import fi.vm.yti.codelist.api.resource.CodeSchemeResource;
 import fi.vm.yti.codelist.api.resource.ExtensionResource;
@@ -23,6 +26,7 @@ import fi.vm.yti.codelist.api.resource.IntegrationResource;
 import fi.vm.yti.codelist.api.resource.MemberResource;
 import fi.vm.yti.codelist.api.resource.PingResource;
 import fi.vm.yti.codelist.api.resource.PropertyTypeResource;
+import fi.vm.yti.codelist.api.resource.SuggestResource;
 import fi.vm.yti.codelist.api.resource.UriResolverResource;
 import fi.vm.yti.codelist.api.resource.ValueTypeResource;
 import fi.vm.yti.codelist.api.resource.VersionResource;
@@ -60,7 +64,8 @@ import io.swagger.v3.oas.annotations.servers.Server;
 @ApplicationPath(ApiConstants.API_BASE_PATH)
 public class JerseyConfig extends ResourceConfig {
 
-    public JerseyConfig() {
+    @Inject
+    public JerseyConfig(final BatchRequestExecutor batchRequestExecutor) {
         final JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
         provider.setMapper(new CustomObjectMapper());
 
@@ -108,5 +113,12 @@ public class JerseyConfig extends ResourceConfig {
 
         // API: URI Resolver
         register(UriResolverResource.class);
+
+        // API: Batch requests
+        register(BatchResource.class);
+        register(batchRequestExecutor);
+
+        // API: Typeahead suggestions
+        register(SuggestResource.class);
     }
 }
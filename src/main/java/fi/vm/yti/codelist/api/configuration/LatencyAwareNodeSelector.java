@@ -0,0 +1,185 @@
+package fi.vm.yti.codelist.api.configuration;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.NodeSelector;
+import org.elasticsearch.client.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * NodeSelector that keeps track of the response latency and failures of each ElasticSearch node.
+ *
+ * Nodes that failed recently are skipped until their cooldown expires, and nodes whose average latency is more than
+ * the configured factor slower than the fastest measured node are skipped while faster nodes are available. Nodes
+ * without measured latency are always used. As the latency of a node is only measured from requests sent to it, a
+ * skipped slow node is let through once per probe interval with its average lowered to the slow node limit, so one
+ * fast response takes it back into use and a slow one skips it again. The selector never rejects all nodes, so the
+ * RestClient can always fall back to its own dead node handling.
+ */
+public class LatencyAwareNodeSelector implements NodeSelector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LatencyAwareNodeSelector.class);
+    private static final String CONTEXT_ATTRIBUTE_START_TIME = LatencyAwareNodeSelector.class.getName() + ".startTime";
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<HttpHost, NodeHealth> nodeHealths = new ConcurrentHashMap<>();
+    private final long deadNodeCooldownNanos;
+    private final double slowNodeFactor;
+    private final long slowNodeProbeIntervalNanos;
+    private RestClient.FailureListener delegateFailureListener;
+
+    public LatencyAwareNodeSelector(final long deadNodeCooldownMillis,
+                                    final double slowNodeFactor,
+                                    final long slowNodeProbeIntervalMillis) {
+        this.deadNodeCooldownNanos = TimeUnit.MILLISECONDS.toNanos(deadNodeCooldownMillis);
+        this.slowNodeFactor = slowNodeFactor;
+        this.slowNodeProbeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(slowNodeProbeIntervalMillis);
+    }
+
+    @Override
+    public void select(final Iterable<Node> nodes) {
+        final long now = System.nanoTime();
+        final List<Node> candidates = new ArrayList<>();
+        double bestLatency = Double.MAX_VALUE;
+        for (final Node node : nodes) {
+            final NodeHealth health = getNodeHealth(node.getHost());
+            if (!health.isDead(now)) {
+                candidates.add(node);
+                if (health.isMeasured()) {
+                    bestLatency = Math.min(bestLatency, health.getLatencyMillis());
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        final Iterator<Node> iterator = nodes.iterator();
+        while (iterator.hasNext()) {
+            final Node node = iterator.next();
+            final NodeHealth health = getNodeHealth(node.getHost());
+            if (!candidates.contains(node)) {
+                iterator.remove();
+            } else if (health.isMeasured() && health.getLatencyMillis() > bestLatency * slowNodeFactor) {
+                if (health.tryProbe(now, slowNodeProbeIntervalNanos, bestLatency * slowNodeFactor)) {
+                    LOG.debug("Letting a request through to slow ElasticSearch node to measure its latency: " + node.getHost());
+                } else {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public Map<HttpHost, NodeHealth> getNodeHealths() {
+        return nodeHealths;
+    }
+
+    public void setDelegateFailureListener(final RestClient.FailureListener delegateFailureListener) {
+        this.delegateFailureListener = delegateFailureListener;
+    }
+
+    public RestClient.FailureListener createFailureListener() {
+        return new RestClient.FailureListener() {
+
+            @Override
+            public void onFailure(final Node node) {
+                LOG.warn("ElasticSearch node failed, marking it dead temporarily: " + node.getHost());
+                getNodeHealth(node.getHost()).markDead(System.nanoTime() + deadNodeCooldownNanos);
+                if (delegateFailureListener != null) {
+                    delegateFailureListener.onFailure(node);
+                }
+            }
+        };
+    }
+
+    public HttpRequestInterceptor createRequestInterceptor() {
+        return (request, context) -> context.setAttribute(CONTEXT_ATTRIBUTE_START_TIME, System.nanoTime());
+    }
+
+    public HttpResponseInterceptor createResponseInterceptor() {
+        return (response, context) -> {
+            final Object startTime = context.getAttribute(CONTEXT_ATTRIBUTE_START_TIME);
+            final HttpHost host = HttpClientContext.adapt(context).getTargetHost();
+            if (startTime instanceof Long && host != null) {
+                recordLatency(host, System.nanoTime() - (Long) startTime);
+            }
+        };
+    }
+
+    void recordLatency(final HttpHost host,
+                       final long latencyNanos) {
+        getNodeHealth(host).recordLatency(latencyNanos / NANOS_PER_MILLI);
+    }
+
+    private NodeHealth getNodeHealth(final HttpHost host) {
+        return nodeHealths.computeIfAbsent(new HttpHost(host.getHostName(), host.getPort(), host.getSchemeName()), key -> new NodeHealth());
+    }
+
+    public static class NodeHealth {
+
+        private volatile double latencyMillis;
+        private volatile boolean measured;
+        private volatile long deadUntilNanos;
+        private volatile boolean dead;
+        private long lastProbeNanos;
+        private boolean probed;
+
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        public boolean isMeasured() {
+            return measured;
+        }
+
+        public boolean isDead() {
+            return isDead(System.nanoTime());
+        }
+
+        private boolean isDead(final long now) {
+            return dead && now - deadUntilNanos < 0;
+        }
+
+        private synchronized void recordLatency(final double latency) {
+            latencyMillis = measured ? latencyMillis * (1 - EWMA_WEIGHT) + latency * EWMA_WEIGHT : latency;
+            measured = true;
+            dead = false;
+        }
+
+        /**
+         * Returns true at most once per interval, starting from the first time the node is found slow, and then lowers
+         * the average latency to the given limit.
+         */
+        private synchronized boolean tryProbe(final long now,
+                                              final long intervalNanos,
+                                              final double latencyLimitMillis) {
+            if (!probed) {
+                probed = true;
+                lastProbeNanos = now;
+                return false;
+            }
+            if (now - lastProbeNanos < intervalNanos) {
+                return false;
+            }
+            lastProbeNanos = now;
+            latencyMillis = Math.min(latencyMillis, latencyLimitMillis);
+            return true;
+        }
+
+        private void markDead(final long untilNanos) {
+            deadUntilNanos = untilNanos;
+            dead = true;
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package fi.vm.yti.codelist.api.configuration;
 
+import java.util.Arrays;
+
 import org.apache.catalina.connector.Connector;
 import org.apache.coyote.ajp.AjpNioProtocol;
 import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.sniff.SniffOnFailureListener;
+import org.elasticsearch.client.sniff.Sniffer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.ErrorPage;
 import org.springframework.context.annotation.Bean;
@@ -15,6 +24,9 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 @Configuration
 @PropertySource(value = "classpath", ignoreResourceNotFound = true)
 public class SpringAppConfig {
@@ -27,6 +39,18 @@ public class SpringAppConfig {
     @Value("${yti_codelist_public_api_service_elastic_port}")
     protected Integer elasticsearchPort;
 
+    @Value("${yti_codelist_public_api_service_elastic_hosts:}")
+    protected String elasticsearchHosts;
+
+    @Value("${elastic.client.max-connections-total:100}")
+    private int elasticMaxConnectionsTotal;
+
+    @Value("${elastic.client.max-connections-per-route:30}")
+    private int elasticMaxConnectionsPerRoute;
+
+    @Value("${elastic.client.keep-alive-ms:60000}")
+    private long elasticKeepAliveMillis;
+
     @Value(value = "${application.contextPath}")
     private String contextPath;
 
@@ -59,15 +83,85 @@ public class SpringAppConfig {
         return tomcat;
     }
 
+    @Bean
+    protected LatencyAwareNodeSelector elasticNodeSelector(@Value("${elastic.client.dead-node-cooldown-ms:30000}") final long deadNodeCooldownMillis,
+                                                           @Value("${elastic.client.slow-node-factor:3.0}") final double slowNodeFactor,
+                                                           @Value("${elastic.client.slow-node-probe-interval-ms:5000}") final long slowNodeProbeIntervalMillis) {
+        return new LatencyAwareNodeSelector(deadNodeCooldownMillis, slowNodeFactor, slowNodeProbeIntervalMillis);
+    }
+
+    @Bean(destroyMethod = "")
+    protected PoolingNHttpClientConnectionManager elasticConnectionManager() throws IOReactorException {
+        final PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT));
+        connectionManager.setMaxTotal(elasticMaxConnectionsTotal);
+        connectionManager.setDefaultMaxPerRoute(elasticMaxConnectionsPerRoute);
+        return connectionManager;
+    }
+
+    @Bean
+    protected MeterBinder elasticConnectionPoolMetrics(final PoolingNHttpClientConnectionManager elasticConnectionManager,
+                                                       final LatencyAwareNodeSelector elasticNodeSelector) {
+        return registry -> {
+            Gauge.builder("elasticsearch.client.connections.leased", elasticConnectionManager, manager -> manager.getTotalStats().getLeased()).register(registry);
+            Gauge.builder("elasticsearch.client.connections.available", elasticConnectionManager, manager -> manager.getTotalStats().getAvailable()).register(registry);
+            Gauge.builder("elasticsearch.client.connections.pending", elasticConnectionManager, manager -> manager.getTotalStats().getPending()).register(registry);
+            Gauge.builder("elasticsearch.client.connections.max", elasticConnectionManager, manager -> manager.getTotalStats().getMax()).register(registry);
+            for (final HttpHost host : resolveElasticHosts()) {
+                Gauge.builder("elasticsearch.client.node.latency", elasticNodeSelector, selector -> selector.getNodeHealths().containsKey(host) ? selector.getNodeHealths().get(host).getLatencyMillis() : 0)
+                    .tag("node", host.toHostString())
+                    .baseUnit("milliseconds")
+                    .register(registry);
+                Gauge.builder("elasticsearch.client.node.dead", elasticNodeSelector, selector -> selector.getNodeHealths().containsKey(host) && selector.getNodeHealths().get(host).isDead() ? 1 : 0)
+                    .tag("node", host.toHostString())
+                    .register(registry);
+            }
+        };
+    }
+
     @Bean
     @SuppressWarnings("resource")
-    protected RestHighLevelClient elasticSearchRestHighLevelClient() {
-        final RestClientBuilder builder = RestClient.builder(
-            new HttpHost(elasticsearchHost, elasticsearchPort, "http"))
+    protected RestHighLevelClient elasticSearchRestHighLevelClient(final PoolingNHttpClientConnectionManager elasticConnectionManager,
+                                                                   final LatencyAwareNodeSelector elasticNodeSelector) {
+        final RestClientBuilder builder = RestClient.builder(resolveElasticHosts())
+            .setNodeSelector(elasticNodeSelector)
+            .setFailureListener(elasticNodeSelector.createFailureListener())
             .setRequestConfigCallback(
                 requestConfigBuilder -> requestConfigBuilder
                     .setConnectTimeout(ES_CONNECTION_TIMEOUT)
-                    .setSocketTimeout(ES_CONNECTION_TIMEOUT));
+                    .setSocketTimeout(ES_CONNECTION_TIMEOUT))
+            .setHttpClientConfigCallback(
+                httpClientBuilder -> httpClientBuilder
+                    .setConnectionManager(elasticConnectionManager)
+                    .setKeepAliveStrategy((response, context) -> elasticKeepAliveMillis)
+                    .addInterceptorFirst(elasticNodeSelector.createRequestInterceptor())
+                    .addInterceptorLast(elasticNodeSelector.createResponseInterceptor()));
         return new RestHighLevelClient(builder);
     }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "elastic.client.sniff.enabled", havingValue = "true")
+    protected Sniffer elasticSniffer(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                                     final LatencyAwareNodeSelector elasticNodeSelector,
+                                     @Value("${elastic.client.sniff.interval-ms:300000}") final int sniffIntervalMillis,
+                                     @Value("${elastic.client.sniff.after-failure-delay-ms:60000}") final int sniffAfterFailureDelayMillis) {
+        final SniffOnFailureListener sniffOnFailureListener = new SniffOnFailureListener();
+        final Sniffer sniffer = Sniffer.builder(elasticSearchRestHighLevelClient.getLowLevelClient())
+            .setSniffIntervalMillis(sniffIntervalMillis)
+            .setSniffAfterFailureDelayMillis(sniffAfterFailureDelayMillis)
+            .build();
+        sniffOnFailureListener.setSniffer(sniffer);
+        elasticNodeSelector.setDelegateFailureListener(sniffOnFailureListener);
+        return sniffer;
+    }
+
+    private HttpHost[] resolveElasticHosts() {
+        if (elasticsearchHosts == null || elasticsearchHosts.isBlank()) {
+            return new HttpHost[]{ new HttpHost(elasticsearchHost, elasticsearchPort, "http") };
+        }
+        return Arrays.stream(elasticsearchHosts.split(","))
+            .map(String::trim)
+            .filter(host -> !host.isEmpty())
+            .map(HttpHost::create)
+            .toArray(HttpHost[]::new);
+    }
 }
@@ -0,0 +1,374 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.elasticsearch.client.RestHighLevelClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fi.vm.yti.codelist.api.exception.JsonParsingException;
+import fi.vm.yti.codelist.common.dto.CodeRegistryDTO;
+import fi.vm.yti.codelist.common.dto.CodeSchemeDTO;
+import fi.vm.yti.codelist.common.dto.Meta;
+import fi.vm.yti.codelist.common.model.Status;
+import static fi.vm.yti.codelist.api.exception.ErrorConstants.ERR_MSG_USER_406;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_CODEREGISTRY;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_CODESCHEME;
+
+/**
+ * In-memory catalog of the code registries and code schemes.
+ *
+ * There are only hundreds of registries and a few thousand code schemes, so listing them with the structured filters
+ * (organizations, statuses, info domains, registry, code value and label, modified range) and the language aware
+ * sorting is done in process against replicated documents. The organization, status, info domain, registry and
+ * extension property type filters are evaluated with a bitmap index. Free text and deep searches still go to
+ * ElasticSearch.
+ *
+ * A background task checks the index change signatures once per refresh interval, a few seconds by default, and
+ * reloads the changed indices while requests are served from the previously loaded documents. Single resource lookups
+ * that miss the replica are retried from ElasticSearch by the caller, so that new resources are found before the next
+ * refresh.
+ *
+ * The returned DTOs are new instances created from the replicated sources, because the resources modify them.
+ */
+@Component
+public class CodeCatalogReplica {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CodeCatalogReplica.class);
+    static final Map<String, Integer> STATUS_BOOSTS = new HashMap<>();
+
+    static {
+        STATUS_BOOSTS.put(Status.VALID.toString(), 1000);
+        STATUS_BOOSTS.put(Status.DRAFT.toString(), 800);
+        STATUS_BOOSTS.put(Status.SUGGESTED.toString(), 700);
+        STATUS_BOOSTS.put(Status.SUPERSEDED.toString(), 600);
+        STATUS_BOOSTS.put(Status.RETIRED.toString(), 500);
+        STATUS_BOOSTS.put(Status.INVALID.toString(), 400);
+        STATUS_BOOSTS.put(Status.INCOMPLETE.toString(), 300);
+    }
+
+    private final ElasticIndexReplica<CodeRegistryDTO> codeRegistries;
+    private final ElasticIndexReplica<CodeSchemeDTO> codeSchemes;
+    private final LuceneQueryFactory luceneQueryFactory;
+    private final boolean enabled;
+    private final long refreshIntervalMillis;
+    private ScheduledExecutorService executor;
+    private volatile CodeSchemeFacetIndex facetIndex;
+
+    @Inject
+    public CodeCatalogReplica(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                              final ElasticConcurrencyLimiter concurrencyLimiter,
+                              @Value("${elastic.replica.enabled:true}") final boolean enabled,
+                              @Value("${elastic.replica.refresh-interval-ms:5000}") final long refreshIntervalMillis) {
+        this.codeRegistries = new ElasticIndexReplica<>(elasticSearchRestHighLevelClient, concurrencyLimiter, ELASTIC_INDEX_CODEREGISTRY, CodeRegistryDTO.class);
+        this.codeSchemes = new ElasticIndexReplica<>(elasticSearchRestHighLevelClient, concurrencyLimiter, ELASTIC_INDEX_CODESCHEME, CodeSchemeDTO.class);
+        this.luceneQueryFactory = new LuceneQueryFactory();
+        this.enabled = enabled;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Loads or reloads the catalog if the indices have changed.
+     */
+    public void refresh() {
+        if (enabled) {
+            codeRegistries.refreshNow();
+            codeSchemes.refreshNow();
+            getFacetIndex();
+        }
+    }
+
+    /**
+     * Starts refreshing the catalog in the background after the refresh interval.
+     */
+    public synchronized void start() {
+        if (enabled && executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "code-catalog-replica");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long interval = Math.max(refreshIntervalMillis, 1000);
+            executor.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public boolean isCodeRegistriesAvailable() {
+        return isAvailable(codeRegistries);
+    }
+
+    public boolean isCodeSchemesAvailable() {
+        return isAvailable(codeSchemes);
+    }
+
+    CodeRegistryDTO getCodeRegistry(final String codeRegistryCodeValue) {
+        final List<ElasticIndexReplica.Entry<CodeRegistryDTO>> matches = ReplicaFilters.select(codeRegistries.getEntries(), source -> matchesIdOrCodeValue(source, codeRegistryCodeValue), codeValueComparator(), null);
+        return !matches.isEmpty() ? newValue(codeRegistries, matches.get(0)) : null;
+    }
+
+    boolean containsCodeRegistry(final String codeRegistryCodeValue) {
+        return entriesOf(codeRegistries).stream().anyMatch(entry -> matchesIdOrCodeValue(entry.getSource(), codeRegistryCodeValue));
+    }
+
+    Set<CodeRegistryDTO> getCodeRegistries(final String codeRegistryCodeValue,
+                                           final String codeRegistryPrefLabel,
+                                           final Meta meta,
+                                           final List<String> organizations) {
+        validateQuery(codeRegistryPrefLabel);
+        final Predicate<JsonNode> predicate = source -> ReplicaFilters.matchesPrefix(source, "codeValue", codeRegistryCodeValue) &&
+            ReplicaFilters.matchesPrefixSuffix(ReplicaFilters.getLabelValues(source, "prefLabel"), codeRegistryPrefLabel) &&
+            ReplicaFilters.matchesModifiedRange(source, meta) &&
+            (organizations == null || organizations.isEmpty() || containsAny(source, "organizations", "id", organizations));
+        return newValues(codeRegistries, ReplicaFilters.select(codeRegistries.getEntries(), predicate, codeValueComparator(), meta));
+    }
+
+    CodeSchemeDTO getCodeScheme(final String codeSchemeId) {
+        final ElasticIndexReplica.Entry<CodeSchemeDTO> entry = getFacetIndex().getById(codeSchemeId);
+        return entry != null ? newValue(codeSchemes, entry) : null;
+    }
+
+    CodeSchemeDTO getCodeScheme(final String codeRegistryCodeValue,
+                                final String codeSchemeCodeValue) {
+        final List<ElasticIndexReplica.Entry<CodeSchemeDTO>> matches = ReplicaFilters.select(codeSchemes.getEntries(), source -> matchesCodeScheme(source, codeRegistryCodeValue, codeSchemeCodeValue), codeValueComparator(), null);
+        return !matches.isEmpty() ? newValue(codeSchemes, matches.get(0)) : null;
+    }
+
+    boolean containsCodeScheme(final String codeSchemeId) {
+        return getFacetIndex().getById(codeSchemeId) != null;
+    }
+
+    boolean containsCodeScheme(final String codeRegistryCodeValue,
+                               final String codeSchemeCodeValue) {
+        return entriesOf(codeSchemes).stream().anyMatch(entry -> matchesCodeScheme(entry.getSource(), codeRegistryCodeValue, codeSchemeCodeValue));
+    }
+
+    /**
+     * Returns the lowercased ids of the code schemes with one of the given lowercased URIs.
+     */
+    Set<String> getCodeSchemeIds(final Collection<String> uris) {
+        final Set<String> uriSet = uris instanceof Set ? (Set<String>) uris : new HashSet<>(uris);
+        final Set<String> ids = new LinkedHashSet<>();
+        for (final ElasticIndexReplica.Entry<CodeSchemeDTO> entry : entriesOf(codeSchemes)) {
+            final String uri = ElasticRequestUtils.getTextValueOrNull(entry.getSource(), "uri");
+            final String id = ElasticRequestUtils.getTextValueOrNull(entry.getSource(), "id");
+            if (uri != null && id != null && uriSet.contains(uri.toLowerCase())) {
+                ids.add(id.toLowerCase());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Lists code schemes with the same structured filters as DomainImpl.getCodeSchemes without a search term.
+     */
+    Set<CodeSchemeDTO> getCodeSchemes(final boolean boostStatus,
+                                      final List<String> organizationIds,
+                                      final List<String> userOrganizationIds,
+                                      final boolean includeIncomplete,
+                                      final String codeRegistryCodeValue,
+                                      final String codeRegistryPrefLabel,
+                                      final String codeSchemeCodeValue,
+                                      final String codeSchemePrefLabel,
+                                      final String language,
+                                      final List<String> statuses,
+                                      final List<String> infoDomains,
+                                      final String extensionPropertyType,
+                                      final Meta meta) {
+        final CodeSchemeFacetIndex index = getFacetIndex();
+        final BitSet matches = filterCodeSchemes(index, organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, statuses, infoDomains, extensionPropertyType, meta);
+        Comparator<JsonNode> comparator = ReplicaFilters.languagePrefLabelComparator(language, codeValueComparator(), codeValueComparator());
+        if (boostStatus) {
+            comparator = Comparator.<JsonNode, Integer>comparing(source -> STATUS_BOOSTS.getOrDefault(ElasticRequestUtils.getTextValueOrNull(source, "status"), 0)).reversed().thenComparing(comparator);
+        }
+        return newValues(codeSchemes, ReplicaFilters.select(index.getEntries(), matches, source -> true, comparator, meta));
+    }
+
+    /**
+     * Counts the code schemes matching the same filters as getCodeSchemes.
+     */
+    int countCodeSchemes(final List<String> organizationIds,
+                         final List<String> userOrganizationIds,
+                         final boolean includeIncomplete,
+                         final String codeRegistryCodeValue,
+                         final String codeRegistryPrefLabel,
+                         final String codeSchemeCodeValue,
+                         final String codeSchemePrefLabel,
+                         final List<String> statuses,
+                         final List<String> infoDomains,
+                         final String extensionPropertyType,
+                         final Meta meta) {
+        return filterCodeSchemes(getFacetIndex(), organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, statuses, infoDomains, extensionPropertyType, meta).cardinality();
+    }
+
+    /**
+     * Counts the status, info domain and organization values of the code schemes matching the same filters as
+     * getCodeSchemes.
+     */
+    Map<String, Map<String, Long>> getCodeSchemeFacets(final List<String> organizationIds,
+                                                       final List<String> userOrganizationIds,
+                                                       final boolean includeIncomplete,
+                                                       final String codeRegistryCodeValue,
+                                                       final String codeRegistryPrefLabel,
+                                                       final String codeSchemeCodeValue,
+                                                       final String codeSchemePrefLabel,
+                                                       final List<String> statuses,
+                                                       final List<String> infoDomains,
+                                                       final String extensionPropertyType,
+                                                       final Meta meta) {
+        final CodeSchemeFacetIndex index = getFacetIndex();
+        final BitSet matches = filterCodeSchemes(index, organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, statuses, infoDomains, extensionPropertyType, meta);
+        if (meta != null) {
+            meta.setTotalResults(matches.cardinality());
+            meta.setResultCount(0);
+        }
+        return index.getFacetCounts(matches);
+    }
+
+    private BitSet filterCodeSchemes(final CodeSchemeFacetIndex index,
+                                     final List<String> organizationIds,
+                                     final List<String> userOrganizationIds,
+                                     final boolean includeIncomplete,
+                                     final String codeRegistryCodeValue,
+                                     final String codeRegistryPrefLabel,
+                                     final String codeSchemeCodeValue,
+                                     final String codeSchemePrefLabel,
+                                     final List<String> statuses,
+                                     final List<String> infoDomains,
+                                     final String extensionPropertyType,
+                                     final Meta meta) {
+        validateQuery(codeRegistryPrefLabel);
+        validateQuery(codeSchemeCodeValue);
+        validateQuery(codeSchemePrefLabel);
+        final BitSet matches = index.filter(organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, statuses, infoDomains, extensionPropertyType);
+        final List<ElasticIndexReplica.Entry<CodeSchemeDTO>> entries = index.getEntries();
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            final JsonNode source = entries.get(ordinal).getSource();
+            if (!ReplicaFilters.matchesModifiedRange(source, meta) ||
+                !ReplicaFilters.matchesPrefixSuffix(singleValue(source, "codeValue"), codeSchemeCodeValue) ||
+                !ReplicaFilters.matchesPrefixSuffix(ReplicaFilters.getLabelValues(source, "prefLabel"), codeSchemePrefLabel) ||
+                !ReplicaFilters.matchesPrefixSuffix(ReplicaFilters.getLabelValues(source.path("codeRegistry"), "prefLabel"), codeRegistryPrefLabel)) {
+                matches.clear(ordinal);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the facet index of the currently loaded code schemes, rebuilding it after the replica has reloaded.
+     */
+    private CodeSchemeFacetIndex getFacetIndex() {
+        final List<ElasticIndexReplica.Entry<CodeSchemeDTO>> entries = entriesOf(codeSchemes);
+        CodeSchemeFacetIndex index = facetIndex;
+        if (index == null || index.getEntries() != entries) {
+            index = new CodeSchemeFacetIndex(entries);
+            facetIndex = index;
+        }
+        return index;
+    }
+
+    private static <T> List<ElasticIndexReplica.Entry<T>> entriesOf(final ElasticIndexReplica<T> replica) {
+        return replica.getEntries() != null ? replica.getEntries() : Collections.emptyList();
+    }
+
+    private boolean isAvailable(final ElasticIndexReplica<?> replica) {
+        if (!enabled) {
+            return false;
+        }
+        return replica.isLoaded();
+    }
+
+    private void validateQuery(final String query) {
+        if (query != null && !query.isEmpty()) {
+            luceneQueryFactory.buildPrefixSuffixQuery(query);
+        }
+    }
+
+    private static boolean matchesIdOrCodeValue(final JsonNode source,
+                                                final String identifier) {
+        return identifier.equalsIgnoreCase(ElasticRequestUtils.getTextValueOrNull(source, "id")) ||
+            identifier.equalsIgnoreCase(ElasticRequestUtils.getTextValueOrNull(source, "codeValue"));
+    }
+
+    private static boolean matchesCodeScheme(final JsonNode source,
+                                             final String codeRegistryCodeValue,
+                                             final String codeSchemeCodeValue) {
+        return matchesIdOrCodeValue(source, codeSchemeCodeValue) &&
+            codeRegistryCodeValue.equalsIgnoreCase(ElasticRequestUtils.getTextValueOrNull(source.get("codeRegistry"), "codeValue"));
+    }
+
+    private static Comparator<JsonNode> codeValueComparator() {
+        return ReplicaFilters.keywordComparator(source -> {
+            final String codeValue = ElasticRequestUtils.getTextValueOrNull(source, "codeValue");
+            return codeValue != null ? codeValue.toLowerCase(Locale.ROOT) : null;
+        });
+    }
+
+    private static List<String> singleValue(final JsonNode source,
+                                            final String field) {
+        final List<String> values = new ArrayList<>();
+        values.add(ElasticRequestUtils.getTextValueOrNull(source, field));
+        return values;
+    }
+
+    private static boolean containsAny(final JsonNode source,
+                                       final String arrayField,
+                                       final String field,
+                                       final Collection<String> values) {
+        for (final JsonNode element : source.path(arrayField)) {
+            if (values.contains(ElasticRequestUtils.getTextValueOrNull(element, field))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> Set<T> newValues(final ElasticIndexReplica<T> replica,
+                                        final List<ElasticIndexReplica.Entry<T>> entries) {
+        final Set<T> values = new LinkedHashSet<>();
+        for (final ElasticIndexReplica.Entry<T> entry : entries) {
+            values.add(newValue(replica, entry));
+        }
+        return values;
+    }
+
+    private static <T> T newValue(final ElasticIndexReplica<T> replica,
+                                  final ElasticIndexReplica.Entry<T> entry) {
+        try {
+            return replica.newValue(entry);
+        } catch (final IOException e) {
+            LOG.error("Creating value from replicated source failed: " + entry.getSource(), e);
+            throw new JsonParsingException(ERR_MSG_USER_406);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.tophits.TopHits;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import fi.vm.yti.codelist.api.dto.CodeReferencesDTO;
+import fi.vm.yti.codelist.api.dto.ExtensionReferenceDTO;
+import fi.vm.yti.codelist.api.exception.YtiCodeListException;
+import fi.vm.yti.codelist.common.dto.ErrorModel;
+import fi.vm.yti.codelist.common.dto.ExtensionDTO;
+import static fi.vm.yti.codelist.api.domain.ElasticRequestUtils.partition;
+import static fi.vm.yti.codelist.api.exception.ErrorConstants.ELASTIC_QUERY_ERROR;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_EXTENSION;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_MEMBER;
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termsQuery;
+
+/**
+ * Reverse index from codes to the extensions and members referencing them, for answering where codes are used.
+ *
+ * The references of the uncached codes of a batch are read with one aggregation search, terms on the member code id
+ * with extension id sub buckets, each carrying the embedded extension of one member. Results are cached per code,
+ * including codes without references. The cache is cleared when the change signature of the member and extension
+ * indices changes, which is checked at most once per refresh interval.
+ */
+@Component
+public class CodeReferenceIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CodeReferenceIndex.class);
+    private static final String[] INDICES = { ELASTIC_INDEX_MEMBER, ELASTIC_INDEX_EXTENSION };
+    private static final String FIELD_CODE_ID = "code.id.keyword";
+    private static final String FIELD_EXTENSION_ID = "extension.id";
+    private static final String FIELD_EXTENSION = "extension";
+    private static final String AGGREGATION_CODES = "codes";
+    private static final String AGGREGATION_EXTENSIONS = "extensions";
+    private static final String AGGREGATION_EXTENSION = "extension";
+    private static final int MAX_CODES_PER_SEARCH = 1000;
+    private static final int MAX_EXTENSIONS_PER_CODE = 1000;
+
+    private final RestHighLevelClient client;
+    private final ElasticConcurrencyLimiter concurrencyLimiter;
+    private final ElasticIndexScanner scanner;
+    private final ObjectMapper mapper;
+    private final boolean enabled;
+    private final long refreshIntervalNanos;
+    private final Map<String, CodeReferencesDTO> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private ElasticIndexScanner.Signature signature;
+    private long lastCheck;
+
+    @Inject
+    public CodeReferenceIndex(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                              final ElasticConcurrencyLimiter concurrencyLimiter,
+                              @Value("${elastic.code-references.cache.enabled:true}") final boolean enabled,
+                              @Value("${elastic.code-references.cache.max-size:20000}") final int maxSize,
+                              @Value("${elastic.code-references.cache.refresh-interval-ms:10000}") final long refreshIntervalMillis) {
+        this.client = elasticSearchRestHighLevelClient;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.scanner = new ElasticIndexScanner(elasticSearchRestHighLevelClient, concurrencyLimiter);
+        this.mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        this.enabled = enabled;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMillis);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, CodeReferencesDTO>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CodeReferencesDTO> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the references of the codes keyed by code id in request order.
+     */
+    public Map<String, CodeReferencesDTO> getReferences(final Collection<String> codeIds) {
+        final Set<String> ids = new LinkedHashSet<>();
+        for (final String codeId : codeIds) {
+            if (codeId != null && !codeId.trim().isEmpty()) {
+                ids.add(codeId.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        final Map<String, CodeReferencesDTO> references = new HashMap<>();
+        final List<String> missingIds = new ArrayList<>();
+        if (enabled) {
+            invalidateIfChanged();
+            for (final String id : ids) {
+                final CodeReferencesDTO cached = cache.get(id);
+                if (cached != null) {
+                    references.put(id, cached);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+        } else {
+            missingIds.addAll(ids);
+        }
+        if (!missingIds.isEmpty()) {
+            final long loadGeneration = generation.get();
+            final Map<String, CodeReferencesDTO> loaded = new HashMap<>();
+            for (final List<String> chunk : partition(missingIds, MAX_CODES_PER_SEARCH)) {
+                loaded.putAll(load(chunk));
+            }
+            references.putAll(loaded);
+            if (enabled) {
+                synchronized (cache) {
+                    if (generation.get() == loadGeneration) {
+                        cache.putAll(loaded);
+                    }
+                }
+            }
+        }
+        final Map<String, CodeReferencesDTO> results = new LinkedHashMap<>();
+        for (final String id : ids) {
+            results.put(id, references.get(id));
+        }
+        return results;
+    }
+
+    private void invalidateIfChanged() {
+        synchronized (this) {
+            if (lastCheck != 0 && System.nanoTime() - lastCheck < refreshIntervalNanos) {
+                return;
+            }
+            lastCheck = System.nanoTime();
+            try {
+                final ElasticIndexScanner.Signature currentSignature = scanner.readSignature(INDICES);
+                if (!currentSignature.equals(signature)) {
+                    synchronized (cache) {
+                        generation.incrementAndGet();
+                        cache.clear();
+                    }
+                    signature = currentSignature;
+                }
+            } catch (final IOException | ElasticsearchException e) {
+                LOG.warn("Reading code reference index signature failed, clearing cache: " + e.getMessage());
+                synchronized (cache) {
+                    generation.incrementAndGet();
+                    cache.clear();
+                }
+                signature = null;
+            }
+        }
+    }
+
+    private Map<String, CodeReferencesDTO> load(final List<String> codeIds) {
+        final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+        searchBuilder.size(0);
+        searchBuilder.query(boolQuery().filter(termsQuery(FIELD_CODE_ID, codeIds)));
+        searchBuilder.aggregation(AggregationBuilders.terms(AGGREGATION_CODES).field(FIELD_CODE_ID).size(codeIds.size())
+            .subAggregation(AggregationBuilders.terms(AGGREGATION_EXTENSIONS).field(FIELD_EXTENSION_ID).size(MAX_EXTENSIONS_PER_CODE)
+                .subAggregation(AggregationBuilders.topHits(AGGREGATION_EXTENSION).size(1).fetchSource(new String[]{ FIELD_EXTENSION }, null))));
+        final SearchRequest searchRequest = new SearchRequest(ELASTIC_INDEX_MEMBER).source(searchBuilder);
+        searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+        final Map<String, CodeReferencesDTO> references = new HashMap<>();
+        try {
+            final SearchResponse response = concurrencyLimiter.execute(() -> client.search(searchRequest, RequestOptions.DEFAULT));
+            final Terms codes = response.getAggregations() != null ? response.getAggregations().get(AGGREGATION_CODES) : null;
+            if (codes != null) {
+                for (final Terms.Bucket codeBucket : codes.getBuckets()) {
+                    final String codeId = codeBucket.getKeyAsString().toLowerCase(Locale.ROOT);
+                    references.put(codeId, createReferences(codeId, codeBucket));
+                }
+            }
+        } catch (final IOException | ElasticsearchException e) {
+            LOG.error("Code reference search failed!", e);
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+        }
+        for (final String codeId : codeIds) {
+            references.putIfAbsent(codeId, new CodeReferencesDTO(codeId, 0, Collections.emptyList()));
+        }
+        return references;
+    }
+
+    private CodeReferencesDTO createReferences(final String codeId,
+                                               final Terms.Bucket codeBucket) {
+        final List<ExtensionReferenceDTO> extensions = new ArrayList<>();
+        final Terms extensionBuckets = codeBucket.getAggregations().get(AGGREGATION_EXTENSIONS);
+        for (final Terms.Bucket extensionBucket : extensionBuckets.getBuckets()) {
+            final TopHits topHits = extensionBucket.getAggregations().get(AGGREGATION_EXTENSION);
+            final SearchHit[] hits = topHits.getHits().getHits();
+            final Object source = hits.length > 0 ? hits[0].getSourceAsMap().get(FIELD_EXTENSION) : null;
+            final ExtensionDTO extension = source != null ? mapper.convertValue(source, ExtensionDTO.class) : null;
+            extensions.add(new ExtensionReferenceDTO(extension, extensionBucket.getDocCount()));
+        }
+        extensions.sort(Comparator.comparingLong(ExtensionReferenceDTO::getMemberCount).reversed());
+        return new CodeReferencesDTO(codeId, codeBucket.getDocCount(), Collections.unmodifiableList(extensions));
+    }
+}
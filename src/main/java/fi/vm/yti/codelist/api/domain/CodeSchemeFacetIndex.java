@@ -0,0 +1,188 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fi.vm.yti.codelist.common.dto.CodeSchemeDTO;
+import fi.vm.yti.codelist.common.model.Status;
+
+/**
+ * Bitmap index over the replicated code schemes.
+ *
+ * Every code scheme gets a dense ordinal, its position in the replica, and every facet value a bitmap of the
+ * ordinals having that value. The structured code scheme filters and the status visibility rules are evaluated as
+ * bitwise AND/OR operations, and facet counts are the cardinalities of the facet bitmaps intersected with the filtered
+ * bitmap.
+ */
+final class CodeSchemeFacetIndex {
+
+    static final String FACET_STATUS = "status";
+    static final String FACET_INFODOMAIN = "infoDomain";
+    static final String FACET_ORGANIZATION = "organization";
+
+    private static final String[] REGULAR_STATUSES = { Status.DRAFT.toString(), Status.SUGGESTED.toString(), Status.VALID.toString(), Status.INVALID.toString(), Status.RETIRED.toString(), Status.SUPERSEDED.toString() };
+
+    private final List<ElasticIndexReplica.Entry<CodeSchemeDTO>> entries;
+    private final BitSet all;
+    private final Map<String, Integer> ordinalsById = new HashMap<>();
+    private final Map<String, BitSet> statuses = new HashMap<>();
+    private final Map<String, BitSet> infoDomains = new HashMap<>();
+    private final Map<String, BitSet> organizations = new HashMap<>();
+    private final Map<String, BitSet> parentOrganizations = new HashMap<>();
+    private final Map<String, BitSet> codeRegistries = new HashMap<>();
+    private final Map<String, BitSet> extensionPropertyTypes = new HashMap<>();
+
+    CodeSchemeFacetIndex(final List<ElasticIndexReplica.Entry<CodeSchemeDTO>> entries) {
+        this.entries = entries;
+        this.all = new BitSet(entries.size());
+        all.set(0, entries.size());
+        for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+            final JsonNode source = entries.get(ordinal).getSource();
+            final String id = lowerCase(ElasticRequestUtils.getTextValueOrNull(source, "id"));
+            if (id != null) {
+                ordinalsById.put(id, ordinal);
+            }
+            add(statuses, ElasticRequestUtils.getTextValueOrNull(source, "status"), ordinal);
+            add(codeRegistries, lowerCase(ElasticRequestUtils.getTextValueOrNull(source.get("codeRegistry"), "codeValue")), ordinal);
+            for (final JsonNode infoDomain : source.path("infoDomains")) {
+                add(infoDomains, ElasticRequestUtils.getTextValueOrNull(infoDomain, "codeValue"), ordinal);
+            }
+            for (final JsonNode organization : source.path("organizations")) {
+                add(organizations, ElasticRequestUtils.getTextValueOrNull(organization, "id"), ordinal);
+                add(parentOrganizations, ElasticRequestUtils.getTextValueOrNull(organization.get("parent"), "id"), ordinal);
+            }
+            for (final JsonNode extension : source.path("extensions")) {
+                add(extensionPropertyTypes, lowerCase(ElasticRequestUtils.getTextValueOrNull(extension.get("propertyType"), "localName")), ordinal);
+            }
+        }
+    }
+
+    List<ElasticIndexReplica.Entry<CodeSchemeDTO>> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the code scheme with the id, or null if it is not in the index.
+     */
+    ElasticIndexReplica.Entry<CodeSchemeDTO> getById(final String id) {
+        final Integer ordinal = id != null ? ordinalsById.get(lowerCase(id)) : null;
+        return ordinal != null ? entries.get(ordinal) : null;
+    }
+
+    /**
+     * Returns the ordinals of the code schemes matching the structured filters of DomainImpl.getCodeSchemes, with the
+     * same status and visibility rules: incomplete code schemes are included only when requested or for members of
+     * their organizations.
+     */
+    BitSet filter(final List<String> organizationIds,
+                  final List<String> userOrganizationIds,
+                  final boolean includeIncomplete,
+                  final String codeRegistryCodeValue,
+                  final List<String> statusFilter,
+                  final List<String> infoDomainFilter,
+                  final String extensionPropertyType) {
+        final BitSet result = (BitSet) all.clone();
+        if (organizationIds != null && !organizationIds.isEmpty()) {
+            final BitSet organizationMatches = union(organizations, organizationIds);
+            organizationMatches.or(union(parentOrganizations, organizationIds));
+            result.and(organizationMatches);
+        }
+        if (codeRegistryCodeValue != null && !codeRegistryCodeValue.isEmpty()) {
+            result.and(get(codeRegistries, lowerCase(codeRegistryCodeValue)));
+        }
+        if (infoDomainFilter != null && !infoDomainFilter.isEmpty()) {
+            result.and(union(infoDomains, infoDomainFilter));
+        }
+        if (extensionPropertyType != null) {
+            result.and(get(extensionPropertyTypes, lowerCase(extensionPropertyType)));
+        }
+        result.and(visibleStatuses(statusFilter, userOrganizationIds, includeIncomplete));
+        return result;
+    }
+
+    /**
+     * Counts the status, info domain and organization values of the given code schemes.
+     */
+    Map<String, Map<String, Long>> getFacetCounts(final BitSet filtered) {
+        final Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put(FACET_STATUS, count(statuses, filtered));
+        facets.put(FACET_INFODOMAIN, count(infoDomains, filtered));
+        facets.put(FACET_ORGANIZATION, count(organizations, filtered));
+        return facets;
+    }
+
+    private BitSet visibleStatuses(final List<String> statusFilter,
+                                   final List<String> userOrganizationIds,
+                                   final boolean includeIncomplete) {
+        final boolean hasUserOrganizationIds = userOrganizationIds != null && !userOrganizationIds.isEmpty();
+        final BitSet incomplete = get(statuses, Status.INCOMPLETE.toString());
+        if (statusFilter != null && !statusFilter.isEmpty()) {
+            final BitSet visible = union(statuses, statusFilter);
+            if (statusFilter.contains(Status.INCOMPLETE.toString()) && !includeIncomplete && hasUserOrganizationIds) {
+                visible.andNot(incomplete);
+            }
+            return visible;
+        }
+        final BitSet visible = new BitSet(entries.size());
+        for (final String status : REGULAR_STATUSES) {
+            visible.or(get(statuses, status));
+        }
+        if (includeIncomplete) {
+            visible.or(incomplete);
+        } else if (hasUserOrganizationIds) {
+            final BitSet userIncomplete = union(organizations, userOrganizationIds);
+            userIncomplete.and(incomplete);
+            visible.or(userIncomplete);
+        }
+        return visible;
+    }
+
+    private static Map<String, Long> count(final Map<String, BitSet> facet,
+                                           final BitSet filtered) {
+        final Map<String, Long> counts = new TreeMap<>();
+        facet.forEach((value, bitmap) -> {
+            final BitSet matches = (BitSet) bitmap.clone();
+            matches.and(filtered);
+            final int cardinality = matches.cardinality();
+            if (cardinality > 0) {
+                counts.put(value, (long) cardinality);
+            }
+        });
+        return counts;
+    }
+
+    private BitSet union(final Map<String, BitSet> facet,
+                         final Collection<String> values) {
+        final BitSet result = new BitSet(entries.size());
+        for (final String value : values) {
+            result.or(get(facet, value));
+        }
+        return result;
+    }
+
+    private static BitSet get(final Map<String, BitSet> facet,
+                              final String value) {
+        final BitSet bitmap = facet.get(value);
+        return bitmap != null ? bitmap : new BitSet();
+    }
+
+    private static void add(final Map<String, BitSet> facet,
+                            final String value,
+                            final int ordinal) {
+        if (value != null) {
+            facet.computeIfAbsent(value, key -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private static String lowerCase(final String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+}
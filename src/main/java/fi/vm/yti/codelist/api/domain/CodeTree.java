@@ -0,0 +1,229 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable broader / narrower hierarchy of the codes of a code scheme.
+ *
+ * Nodes are addressed by their position in insertion order. The parent of every node is resolved with an open
+ * addressing table from the 64-bit id hashes of {@link UriHashIndex#hash(String)} to node positions, and the children
+ * of all nodes are stored in one position array with per node offsets, so the hierarchy takes a few primitive arrays
+ * besides the node values. Children keep the insertion order. Codes whose broader code is missing are roots, and
+ * codes in broader code cycles are attached as roots from the first cycle member in insertion order.
+ */
+final class CodeTree<T> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final String[] ids;
+    private final List<T> values;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] roots;
+    private final long[] hashTable;
+    private final int[] indexTable;
+
+    private CodeTree(final String[] ids,
+                     final List<T> values,
+                     final int[] parents,
+                     final long[] hashTable,
+                     final int[] indexTable) {
+        this.ids = ids;
+        this.values = values;
+        this.parents = parents;
+        this.hashTable = hashTable;
+        this.indexTable = indexTable;
+        final int size = ids.length;
+        breakCycles(parents);
+        this.childOffsets = new int[size + 2];
+        int rootCount = 0;
+        for (final int parent : parents) {
+            if (parent < 0) {
+                rootCount++;
+            } else {
+                childOffsets[parent + 2]++;
+            }
+        }
+        for (int i = 2; i < childOffsets.length; i++) {
+            childOffsets[i] += childOffsets[i - 1];
+        }
+        this.children = new int[size - rootCount];
+        this.roots = new int[rootCount];
+        int rootPosition = 0;
+        for (int i = 0; i < size; i++) {
+            if (parents[i] < 0) {
+                roots[rootPosition++] = i;
+            } else {
+                children[childOffsets[parents[i] + 1]++] = i;
+            }
+        }
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    T get(final int node) {
+        return values.get(node);
+    }
+
+    String getId(final int node) {
+        return ids[node];
+    }
+
+    /**
+     * Returns the position of the node with the id, or -1 if there is none.
+     */
+    int indexOf(final String id) {
+        return id != null ? find(hashTable, indexTable, ids, id) : -1;
+    }
+
+    int getParent(final int node) {
+        return parents[node];
+    }
+
+    int[] getRoots() {
+        return roots.clone();
+    }
+
+    int[] getChildren(final int node) {
+        final int from = childOffsets[node];
+        final int to = childOffsets[node + 1];
+        return from < to ? Arrays.copyOfRange(children, from, to) : EMPTY;
+    }
+
+    /**
+     * Returns the descendants of the node in depth first pre-order, excluding the node itself.
+     */
+    int[] getDescendants(final int node) {
+        final int[] subtree = getSubtrees(node);
+        return Arrays.copyOfRange(subtree, 1, subtree.length);
+    }
+
+    /**
+     * Returns the nodes and their descendants in depth first pre-order, one subtree after another, walking all of
+     * them with one shared stack. The nodes must not be in each other's subtrees, as the roots are not.
+     */
+    int[] getSubtrees(final int... nodes) {
+        final int[] result = new int[size()];
+        final int[] stack = new int[size()];
+        int count = 0;
+        for (final int node : nodes) {
+            int top = 0;
+            stack[top++] = node;
+            while (top > 0) {
+                final int current = stack[--top];
+                result[count++] = current;
+                final int from = childOffsets[current];
+                for (int i = childOffsets[current + 1] - 1; i >= from; i--) {
+                    stack[top++] = children[i];
+                }
+            }
+        }
+        return count < result.length ? Arrays.copyOf(result, count) : result;
+    }
+
+    /**
+     * Returns the approximate heap size of the hierarchy arrays, excluding the ids and node values.
+     */
+    long getMemoryBytes() {
+        return (long) (parents.length + childOffsets.length + children.length + roots.length + indexTable.length) * Integer.BYTES + (long) hashTable.length * Long.BYTES;
+    }
+
+    private static void breakCycles(final int[] parents) {
+        final byte[] states = new byte[parents.length];
+        final int[] path = new int[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            int length = 0;
+            int current = i;
+            while (current >= 0 && states[current] == 0) {
+                states[current] = 1;
+                path[length++] = current;
+                current = parents[current];
+            }
+            if (current >= 0 && states[current] == 1) {
+                int first = current;
+                for (int j = length - 1; j >= 0 && path[j] != current; j--) {
+                    first = Math.min(first, path[j]);
+                }
+                parents[first] = -1;
+            }
+            for (int j = 0; j < length; j++) {
+                states[path[j]] = 2;
+            }
+        }
+    }
+
+    private static int find(final long[] hashTable,
+                            final int[] indexTable,
+                            final String[] ids,
+                            final String id) {
+        final long hash = UriHashIndex.hash(id);
+        final int mask = indexTable.length - 1;
+        for (int slot = (int) (hash ^ (hash >>> 32)) & mask; indexTable[slot] >= 0; slot = (slot + 1) & mask) {
+            if (hashTable[slot] == hash && ids[indexTable[slot]].equals(id)) {
+                return indexTable[slot];
+            }
+        }
+        return -1;
+    }
+
+    static final class Builder<T> {
+
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> broaderIds = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+
+        /**
+         * Adds a node. Nodes with an id that has already been added are ignored.
+         */
+        Builder<T> add(final String id,
+                       final String broaderId,
+                       final T value) {
+            ids.add(id);
+            broaderIds.add(broaderId);
+            values.add(value);
+            return this;
+        }
+
+        CodeTree<T> build() {
+            final int tableSize = Integer.highestOneBit(Math.max(ids.size(), 1) * 2 - 1) << 1;
+            final long[] hashTable = new long[tableSize];
+            final int[] indexTable = new int[tableSize];
+            Arrays.fill(indexTable, -1);
+            final List<String> uniqueIds = new ArrayList<>(ids.size());
+            final List<String> uniqueBroaderIds = new ArrayList<>(ids.size());
+            final List<T> uniqueValues = new ArrayList<>(ids.size());
+            final String[] idArray = new String[ids.size()];
+            final int mask = tableSize - 1;
+            for (int i = 0; i < ids.size(); i++) {
+                final String id = ids.get(i);
+                if (id == null || find(hashTable, indexTable, idArray, id) >= 0) {
+                    continue;
+                }
+                final long hash = UriHashIndex.hash(id);
+                int slot = (int) (hash ^ (hash >>> 32)) & mask;
+                while (indexTable[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                hashTable[slot] = hash;
+                indexTable[slot] = uniqueIds.size();
+                idArray[uniqueIds.size()] = id;
+                uniqueIds.add(id);
+                uniqueBroaderIds.add(broaderIds.get(i));
+                uniqueValues.add(values.get(i));
+            }
+            final String[] nodeIds = uniqueIds.toArray(new String[0]);
+            final int[] parents = new int[nodeIds.length];
+            for (int i = 0; i < nodeIds.length; i++) {
+                final String broaderId = uniqueBroaderIds.get(i);
+                final int parent = broaderId != null ? find(hashTable, indexTable, nodeIds, broaderId) : -1;
+                parents[i] = parent != i ? parent : -1;
+            }
+            return new CodeTree<>(nodeIds, uniqueValues, parents, hashTable, indexTable);
+        }
+    }
+}
@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Pattern;
 
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
@@ -87,6 +86,7 @@ class DeepCodeQueryFactory {
                                                              final SearchResultWithMetaDataDTO result,
                                                              final String searchTerm) {
         final Map<String, List<DeepSearchHitListDTO<?>>> ret = new HashMap<>();
+        final SearchTermHighlighter highlighter = SearchTermHighlighter.compile(searchTerm);
         try {
             final Terms groupBy = response.getAggregations().get("group_by_codescheme");
             for (final Terms.Bucket bucket : groupBy.getBuckets()) {
@@ -112,7 +112,7 @@ class DeepCodeQueryFactory {
                         dto.setStatus(codeStatus);
                         dto.setPrefLabel(prefLabelMap);
                         dto.setCodeValue(codeCodeValue);
-                        addHighlightTagsToDto(searchTerm, dto);
+                        addHighlightTagsToDto(highlighter, dto);
                         final CodeSchemeDTO fat = domain.getCodeScheme(codeSchemeUuid);
                         final CodeSchemeDTO lean = new CodeSchemeDTO();
                         lean.setId(fat.getId());
@@ -142,36 +142,12 @@ class DeepCodeQueryFactory {
         return ret;
     }
 
-    private void addHighlightTagsToDto(final String searchTerm,
+    private void addHighlightTagsToDto(final SearchTermHighlighter highlighter,
                                        final CodeDTO codeDto) {
-        highlightLabels(searchTerm, codeDto);
-        highlightCodeValue(searchTerm, codeDto);
-    }
-
-    private void highlightLabels(final String highlightText,
-                                 final CodeDTO codeDto) {
-        if (highlightText != null && highlightText.length() > 0) {
-            final String[] highLights = highlightText.split("\\s+");
-            for (final String highLight : highLights) {
-                if (codeDto.getPrefLabel() != null) {
-                    codeDto.getPrefLabel().forEach((lang, label) -> {
-                        final String matchString = Pattern.quote(highLight);
-                        codeDto.getPrefLabel().put(lang, label.replaceAll("(?i)(?<text>\\b" + matchString + "|" + matchString + "\\b)", "<b>${text}</b>"));
-                    });
-                }
-            }
-        }
-    }
-
-    private void highlightCodeValue(final String highlightText,
-                                    final CodeDTO codeDto) {
-        if (highlightText != null && highlightText.length() > 0) {
-            final String[] highLights = highlightText.split("\\s+");
-            for (final String highLight : highLights) {
-                final String matchString = Pattern.quote(highLight);
-                codeDto.setCodeValue(codeDto.getCodeValue().replaceAll("(?i)(?<text>\\b" + matchString + "|" + matchString + "\\b)", "<b>${text}</b>"));
-            }
+        if (codeDto.getPrefLabel() != null) {
+            codeDto.getPrefLabel().replaceAll((lang, label) -> highlighter.highlight(label));
         }
+        codeDto.setCodeValue(highlighter.highlight(codeDto.getCodeValue()));
     }
 
     private void populateSearchHits(final Set<String> codeSchemeUuids,
@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Pattern;
 
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
@@ -70,7 +69,7 @@ class DeepExtensionQueryFactory {
         boolQueryBuilder.minimumShouldMatch(1);
 
         if (extensionPropertyType != null) {
-            boolQueryBuilder.must(matchQuery("propertyType.localName", extensionPropertyType));
+            boolQueryBuilder.filter(matchQuery("propertyType.localName", extensionPropertyType));
         }
 
         return new SearchRequest(ELASTIC_INDEX_EXTENSION)
@@ -93,6 +92,7 @@ class DeepExtensionQueryFactory {
                                                              final SearchResultWithMetaDataDTO result,
                                                              final String searchTerm) {
         final Map<String, List<DeepSearchHitListDTO<?>>> ret = new HashMap<>();
+        final SearchTermHighlighter highlighter = SearchTermHighlighter.compile(searchTerm);
         try {
             final Terms groupBy = response.getAggregations().get("group_by_codescheme");
             for (final Terms.Bucket bucket : groupBy.getBuckets()) {
@@ -114,7 +114,7 @@ class DeepExtensionQueryFactory {
                         dto.setId(UUID.fromString(codeId));
                         dto.setPrefLabel(prefLabelMap);
                         dto.setCodeValue(codeCodeValue);
-                        addHighlightTagsToDto(searchTerm, dto);
+                        addHighlightTagsToDto(highlighter, dto);
                         CodeSchemeDTO fat = domain.getCodeScheme(codeSchemeUuid);
                         CodeSchemeDTO lean = new CodeSchemeDTO();
                         lean.setId(fat.getId());
@@ -143,36 +143,12 @@ class DeepExtensionQueryFactory {
         return ret;
     }
 
-    private void addHighlightTagsToDto(final String searchTerm,
+    private void addHighlightTagsToDto(final SearchTermHighlighter highlighter,
                                        final ExtensionDTO extensionDto) {
-        highlightLabels(searchTerm, extensionDto);
-        highlightCodeValue(searchTerm, extensionDto);
-    }
-
-    private void highlightLabels(final String highlightText,
-                                 final ExtensionDTO extensionDto) {
-        if (highlightText != null && highlightText.length() > 0) {
-            final String[] highLights = highlightText.split("\\s+");
-            for (final String highLight : highLights) {
-                if (extensionDto.getPrefLabel() != null) {
-                    extensionDto.getPrefLabel().forEach((lang, label) -> {
-                        final String matchString = Pattern.quote(highLight);
-                        extensionDto.getPrefLabel().put(lang, label.replaceAll("(?i)(?<text>\\b" + matchString + "|" + matchString + "\\b)", "<b>${text}</b>"));
-                    });
-                }
-            }
-        }
-    }
-
-    private void highlightCodeValue(final String highlightText,
-                                    final ExtensionDTO extensionDto) {
-        if (highlightText != null && highlightText.length() > 0) {
-            final String[] highLights = highlightText.split("\\s+");
-            for (final String highLight : highLights) {
-                final String matchString = Pattern.quote(highLight);
-                extensionDto.setCodeValue(extensionDto.getCodeValue().replaceAll("(?i)(?<text>\\b" + matchString + "|" + matchString + "\\b)", "<b>${text}</b>"));
-            }
+        if (extensionDto.getPrefLabel() != null) {
+            extensionDto.getPrefLabel().replaceAll((lang, label) -> highlighter.highlight(label));
         }
+        extensionDto.setCodeValue(highlighter.highlight(extensionDto.getCodeValue()));
     }
 
     private void populateSearchHits(final Set<String> codeSchemeUuids,
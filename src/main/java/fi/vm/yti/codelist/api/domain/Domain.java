@@ -1,9 +1,15 @@
 package fi.vm.yti.codelist.api.domain;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import fi.vm.yti.codelist.api.dto.CodeReferencesDTO;
+import fi.vm.yti.codelist.api.dto.CodeTreeNodeDTO;
+import fi.vm.yti.codelist.api.dto.FacetsDTO;
 import fi.vm.yti.codelist.api.dto.ResourceDTO;
+import fi.vm.yti.codelist.api.dto.SuggestionDTO;
 import fi.vm.yti.codelist.common.dto.CodeDTO;
 import fi.vm.yti.codelist.common.dto.CodeRegistryDTO;
 import fi.vm.yti.codelist.common.dto.CodeSchemeDTO;
@@ -18,6 +24,8 @@ public interface Domain {
 
     CodeRegistryDTO getCodeRegistry(final String codeRegistryCodeValue);
 
+    boolean codeRegistryExists(final String codeRegistryCodeValue);
+
     Set<CodeRegistryDTO> getCodeRegistries();
 
     Set<CodeRegistryDTO> getCodeRegistries(final String codeRegistryCodeValue,
@@ -27,9 +35,20 @@ public interface Domain {
 
     CodeSchemeDTO getCodeScheme(final String codeSchemeId);
 
+    CodeSchemeDTO getCodeScheme(final String codeSchemeId,
+                                final SourceFilter sourceFilter);
+
+    boolean codeSchemeExists(final String codeSchemeId);
+
+    byte[] getCodeSchemeSource(final String codeSchemeId,
+                               final SourceFilter sourceFilter);
+
     CodeSchemeDTO getCodeScheme(final String codeRegistryCodeValue,
                                 final String codeSchemeCodeValue);
 
+    boolean codeSchemeExists(final String codeRegistryCodeValue,
+                             final String codeSchemeCodeValue);
+
     Set<CodeSchemeDTO> getCodeSchemes();
 
     Set<CodeSchemeDTO> getCodeSchemesByCodeRegistryCodeValue(final String codeRegistryCodeValue,
@@ -55,12 +74,72 @@ public interface Domain {
                                       final String extensionPropertyType,
                                       final Meta meta);
 
+    Set<CodeSchemeDTO> getCodeSchemes(final String sortMode,
+                                      final List<String> organizationIds,
+                                      final List<String> userOrganizationIds,
+                                      final boolean includeIncomplete,
+                                      final String codeRegistryCodeValue,
+                                      final String codeRegistryPrefLabel,
+                                      final String codeSchemeCodeValue,
+                                      final String codeSchemeCodePrefLabel,
+                                      final String language,
+                                      final String searchTerm,
+                                      final boolean searchCodes,
+                                      final boolean searchExtensions,
+                                      final List<String> statuses,
+                                      final List<String> infoDomains,
+                                      final String extensionPropertyType,
+                                      final Meta meta,
+                                      final SourceFilter sourceFilter);
+
+    int countCodeSchemes(final List<String> organizationIds,
+                         final List<String> userOrganizationIds,
+                         final boolean includeIncomplete,
+                         final String codeRegistryCodeValue,
+                         final String codeRegistryPrefLabel,
+                         final String codeSchemeCodeValue,
+                         final String codeSchemeCodePrefLabel,
+                         final String searchTerm,
+                         final boolean searchCodes,
+                         final boolean searchExtensions,
+                         final List<String> statuses,
+                         final List<String> infoDomains,
+                         final String extensionPropertyType,
+                         final Meta meta);
+
+    FacetsDTO getCodeSchemeFacets(final List<String> organizationIds,
+                                  final List<String> userOrganizationIds,
+                                  final boolean includeIncomplete,
+                                  final String codeRegistryCodeValue,
+                                  final String codeRegistryPrefLabel,
+                                  final String codeSchemeCodeValue,
+                                  final String codeSchemeCodePrefLabel,
+                                  final String searchTerm,
+                                  final boolean searchCodes,
+                                  final boolean searchExtensions,
+                                  final List<String> statuses,
+                                  final List<String> infoDomains,
+                                  final String extensionPropertyType,
+                                  final Meta meta);
+
     CodeDTO getCode(final String codeId);
 
+    CodeDTO getCode(final String codeId,
+                    final SourceFilter sourceFilter);
+
+    boolean codeExists(final String codeId);
+
+    byte[] getCodeSource(final String codeId,
+                         final SourceFilter sourceFilter);
+
     CodeDTO getCode(final String codeRegistryCodeValue,
                     final String codeSchemeCodeValue,
                     final String codeCodeValue);
 
+    boolean codeExists(final String codeRegistryCodeValue,
+                       final String codeSchemeCodeValue,
+                       final String codeCodeValue);
+
     Set<CodeDTO> getCodesByCodeRegistryCodeValueAndCodeSchemeCodeValue(final String codeRegistryCodeValue,
                                                                        final String codeSchemeCodeValue);
 
@@ -74,6 +153,51 @@ public interface Domain {
                           final List<String> statuses,
                           final Meta meta);
 
+    Set<CodeDTO> getCodes(final String codeRegistryCodeValue,
+                          final String codeSchemeCodeValue,
+                          final String codeCodeValue,
+                          final String prefLabel,
+                          final Integer hierarchyLevel,
+                          final String broaderCodeId,
+                          final String language,
+                          final List<String> statuses,
+                          final Meta meta,
+                          final SourceFilter sourceFilter);
+
+    Map<String, CodeDTO> getCodesByUris(final Collection<String> uris);
+
+    Set<CodeTreeNodeDTO> getCodeTree(final String codeRegistryCodeValue,
+                                     final String codeSchemeCodeValue,
+                                     final String codeCodeValue,
+                                     final List<String> statuses,
+                                     final Meta meta,
+                                     final SourceFilter sourceFilter);
+
+    Set<CodeDTO> getCodeDescendants(final String codeRegistryCodeValue,
+                                    final String codeSchemeCodeValue,
+                                    final String codeCodeValue,
+                                    final List<String> statuses,
+                                    final Meta meta,
+                                    final SourceFilter sourceFilter);
+
+    int countCodes(final String codeRegistryCodeValue,
+                   final String codeSchemeCodeValue,
+                   final String codeCodeValue,
+                   final String prefLabel,
+                   final Integer hierarchyLevel,
+                   final String broaderCodeId,
+                   final List<String> statuses,
+                   final Meta meta);
+
+    FacetsDTO getCodeFacets(final String codeRegistryCodeValue,
+                            final String codeSchemeCodeValue,
+                            final String codeCodeValue,
+                            final String prefLabel,
+                            final Integer hierarchyLevel,
+                            final String broaderCodeId,
+                            final List<String> statuses,
+                            final Meta meta);
+
     PropertyTypeDTO getPropertyType(final String propertyTypeId);
 
     Set<PropertyTypeDTO> getPropertyTypes(final String propertyTypePrefLabel,
@@ -101,6 +225,10 @@ public interface Domain {
     Set<ExtensionDTO> getExtensions(final String extensionPrefLabel,
                                     final Meta meta);
 
+    Set<ExtensionDTO> getExtensions(final String extensionPrefLabel,
+                                    final Meta meta,
+                                    final SourceFilter sourceFilter);
+
     Set<ExtensionDTO> getExtensions(final CodeSchemeDTO codeScheme,
                                     final String extensionPrefLabel,
                                     final Meta meta);
@@ -109,16 +237,32 @@ public interface Domain {
                               final String codeSchemeCodeValue,
                               final String extensionCodeValue);
 
+    boolean extensionExists(final String codeRegistryCodeValue,
+                            final String codeSchemeCodeValue,
+                            final String extensionCodeValue);
+
     ExtensionDTO getExtension(final String extensionId);
 
+    boolean extensionExists(final String extensionId);
+
     Set<MemberDTO> getMembers(final Meta meta);
 
+    Set<MemberDTO> getMembers(final Meta meta,
+                              final SourceFilter sourceFilter);
+
     Set<MemberDTO> getMembers(final ExtensionDTO code,
                               final Meta meta);
 
     Set<MemberDTO> getMembers(final CodeDTO code,
                               final Meta meta);
 
+    Map<String, CodeReferencesDTO> getCodeReferences(final Collection<String> codeIds);
+
+    List<SuggestionDTO> getSuggestions(final String term,
+                                       final Collection<String> types,
+                                       final String language,
+                                       final int limit);
+
     MemberDTO getMember(final String memberId,
                         final String extensionCodeValue);
 
@@ -126,6 +270,17 @@ public interface Domain {
                         final String extensionCodeValue,
                         final String parentCodeSchemeValue);
 
+    boolean memberExists(final String memberId,
+                         final String extensionCodeValue,
+                         final String parentCodeSchemeValue);
+
+    boolean codelistResourceExists(final String uri,
+                                   final String codeRegistryCodeValue,
+                                   final String codeSchemeCodeValue,
+                                   final String codeCodeValue,
+                                   final String extensionCodeValue,
+                                   final String memberId);
+
     Set<ResourceDTO> getContainers(final List<String> includedContainerUris,
                                    final List<String> excludedContainerUris,
                                    final String language,
@@ -3,31 +3,53 @@ package fi.vm.yti.codelist.api.domain;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.apache.lucene.search.join.ScoreMode;
 import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryStringQueryBuilder;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.nested.Nested;
+import org.elasticsearch.search.aggregations.bucket.nested.NestedAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.nested.ReverseNested;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -36,7 +58,11 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import fi.vm.yti.codelist.api.dto.CodeReferencesDTO;
+import fi.vm.yti.codelist.api.dto.CodeTreeNodeDTO;
+import fi.vm.yti.codelist.api.dto.FacetsDTO;
 import fi.vm.yti.codelist.api.dto.ResourceDTO;
+import fi.vm.yti.codelist.api.dto.SuggestionDTO;
 import fi.vm.yti.codelist.api.exception.JsonParsingException;
 import fi.vm.yti.codelist.api.exception.YtiCodeListException;
 import fi.vm.yti.codelist.common.dto.CodeDTO;
@@ -53,6 +79,11 @@ import fi.vm.yti.codelist.common.dto.SearchHitDTO;
 import fi.vm.yti.codelist.common.dto.SearchResultWithMetaDataDTO;
 import fi.vm.yti.codelist.common.dto.ValueTypeDTO;
 import fi.vm.yti.codelist.common.model.Status;
+import static fi.vm.yti.codelist.api.domain.ElasticRequestUtils.compareSortValues;
+import static fi.vm.yti.codelist.api.domain.ElasticRequestUtils.partition;
+import static fi.vm.yti.codelist.api.domain.ElasticSearchTemplates.TEMPLATE_CODESCHEMES;
+import static fi.vm.yti.codelist.api.domain.ElasticSearchTemplates.TEMPLATE_RESOURCES;
+import static fi.vm.yti.codelist.api.exception.ErrorConstants.ELASTIC_QUERY_ERROR;
 import static fi.vm.yti.codelist.api.exception.ErrorConstants.ERR_MSG_USER_406;
 import static fi.vm.yti.codelist.common.constants.ApiConstants.*;
 import static java.lang.Math.toIntExact;
@@ -68,32 +99,83 @@ public class DomainImpl implements Domain {
 
     private static final String TEXT_ANALYZER = "text_analyzer";
     private static final String BOOSTSTATUS = "boostStatus";
-    private static final String ELASTIC_QUERY_ERROR = "ElasticSearch index query error!";
+    private static final String FACET_STATUS = CodeSchemeFacetIndex.FACET_STATUS;
+    private static final String FACET_INFODOMAIN = CodeSchemeFacetIndex.FACET_INFODOMAIN;
+    private static final String FACET_ORGANIZATION = CodeSchemeFacetIndex.FACET_ORGANIZATION;
+    private static final String FACET_HIERARCHY_LEVEL = "hierarchyLevel";
+    private static final String FACET_PARENT_COUNT = "parentCount";
+    private static final int MAX_FACET_SIZE = 1000;
+    private static final int CODE_URI_CHUNK_SIZE = 500;
+    private static final int URI_TERMS_CHUNK_SIZE = 1000;
+    private static final Comparator<CodeDTO> CODE_ORDER = Comparator.comparing(CodeDTO::getOrder, Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(CodeDTO::getCodeValue, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
     private static final Set<String> sortLanguages = new HashSet<>(Arrays.asList(LANGUAGE_CODE_FI, LANGUAGE_CODE_EN, LANGUAGE_CODE_SV));
     private final RestHighLevelClient client;
     private final DeepCodeQueryFactory deepCodeQueryFactory;
     private final DeepExtensionQueryFactory deepExtensionQueryFactory;
     private final LuceneQueryFactory luceneQueryFactory;
+    private final ElasticConcurrencyLimiter concurrencyLimiter;
+    private final ElasticRequestHedger requestHedger;
+    private final ElasticSearchTemplates searchTemplates;
+    private final ReferenceDataReplica referenceDataReplica;
+    private final CodeCatalogReplica codeCatalogReplica;
+    private final ResourceUriIndex resourceUriIndex;
+    private final ResourceExistenceFilter existenceFilter;
+    private final CodeReferenceIndex codeReferenceIndex;
+    private final ResourceSuggestIndex suggestIndex;
+    private final ElasticIndexScanner indexScanner;
+    private final boolean deepSearchRequestCache;
+    private final int uriListInMemoryThreshold;
 
     @Inject
-    private DomainImpl(final RestHighLevelClient elasticSearchRestHighLevelClient) {
+    private DomainImpl(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                       final ElasticConcurrencyLimiter concurrencyLimiter,
+                       final ElasticRequestHedger requestHedger,
+                       final ElasticSearchTemplates searchTemplates,
+                       final ReferenceDataReplica referenceDataReplica,
+                       final CodeCatalogReplica codeCatalogReplica,
+                       final ResourceUriIndex resourceUriIndex,
+                       final ResourceExistenceFilter existenceFilter,
+                       final CodeReferenceIndex codeReferenceIndex,
+                       final ResourceSuggestIndex suggestIndex,
+                       @Value("${elastic.deep-search.request-cache:true}") final boolean deepSearchRequestCache,
+                       @Value("${integration.uri-list.in-memory-threshold:5000}") final int uriListInMemoryThreshold) {
         this.client = elasticSearchRestHighLevelClient;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.requestHedger = requestHedger;
+        this.searchTemplates = searchTemplates;
+        this.referenceDataReplica = referenceDataReplica;
+        this.codeCatalogReplica = codeCatalogReplica;
+        this.resourceUriIndex = resourceUriIndex;
+        this.existenceFilter = existenceFilter;
+        this.codeReferenceIndex = codeReferenceIndex;
+        this.suggestIndex = suggestIndex;
+        this.indexScanner = new ElasticIndexScanner(elasticSearchRestHighLevelClient, concurrencyLimiter);
+        this.deepSearchRequestCache = deepSearchRequestCache;
+        this.uriListInMemoryThreshold = uriListInMemoryThreshold;
         this.luceneQueryFactory = new LuceneQueryFactory();
         this.deepCodeQueryFactory = new DeepCodeQueryFactory(new ObjectMapper(), this, luceneQueryFactory);
         this.deepExtensionQueryFactory = new DeepExtensionQueryFactory(new ObjectMapper(), this, luceneQueryFactory);
     }
 
     public CodeRegistryDTO getCodeRegistry(final String codeRegistryCodeValue) {
+        if (codeCatalogReplica.isCodeRegistriesAvailable()) {
+            final CodeRegistryDTO codeRegistry = codeCatalogReplica.getCodeRegistry(codeRegistryCodeValue);
+            if (codeRegistry != null) {
+                return codeRegistry;
+            }
+        }
+        if (!existenceFilter.mightContainResource(ELASTIC_INDEX_CODEREGISTRY, null, codeRegistryCodeValue)) {
+            return null;
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_CODEREGISTRY)) {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
             final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_CODEREGISTRY);
             final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
             searchBuilder.sort("codeValue.raw", SortOrder.ASC);
-            final BoolQueryBuilder builder = boolQuery().should(matchQuery("id", codeRegistryCodeValue.toLowerCase())).should(matchQuery("codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
-            searchBuilder.query(builder);
+            searchBuilder.query(createCodeRegistryQuery(codeRegistryCodeValue));
             searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 if (response.getHits().getTotalHits() > 0) {
                     final SearchHit hit = response.getHits().getAt(0);
                     LOG.debug(String.format("Found %d CodeRegistries", response.getHits().getTotalHits()));
@@ -114,6 +196,20 @@ public class DomainImpl implements Domain {
         return null;
     }
 
+    public boolean codeRegistryExists(final String codeRegistryCodeValue) {
+        if (codeCatalogReplica.isCodeRegistriesAvailable() && codeCatalogReplica.containsCodeRegistry(codeRegistryCodeValue)) {
+            return true;
+        }
+        if (!existenceFilter.mightContainResource(ELASTIC_INDEX_CODEREGISTRY, null, codeRegistryCodeValue)) {
+            return false;
+        }
+        return documentExists(ELASTIC_INDEX_CODEREGISTRY, createCodeRegistryQuery(codeRegistryCodeValue));
+    }
+
+    private BoolQueryBuilder createCodeRegistryQuery(final String codeRegistryCodeValue) {
+        return boolQuery().should(matchQuery("id", codeRegistryCodeValue.toLowerCase())).should(matchQuery("codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
+    }
+
     public Set<CodeRegistryDTO> getCodeRegistries() {
         return getCodeRegistries(null, null, null, null);
     }
@@ -123,6 +219,9 @@ public class DomainImpl implements Domain {
                                                   final Meta meta,
                                                   final List<String> organizations) {
         validatePageSize(meta);
+        if (codeCatalogReplica.isCodeRegistriesAvailable()) {
+            return codeCatalogReplica.getCodeRegistries(codeRegistryCodeValue, codeRegistryPrefLabel, meta, organizations);
+        }
         final Set<CodeRegistryDTO> codeRegistries = new LinkedHashSet<>();
         if (checkIfIndexExists(ELASTIC_INDEX_CODEREGISTRY)) {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
@@ -132,12 +231,12 @@ public class DomainImpl implements Domain {
             final BoolQueryBuilder builder = constructSearchQuery(codeRegistryCodeValue, codeRegistryPrefLabel);
             embedAfterBeforeToBoolQuery(builder, meta);
             if (organizations != null && !organizations.isEmpty()) {
-                builder.must(termsQuery("organizations.id.keyword", organizations));
+                builder.filter(termsQuery("organizations.id.keyword", organizations));
             }
             searchBuilder.query(builder);
             searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 setResultCounts(meta, response);
                 response.getHits().forEach(hit -> {
                     LOG.debug(String.format("Found %d CodeRegistries", response.getHits().getTotalHits()));
@@ -157,35 +256,104 @@ public class DomainImpl implements Domain {
     }
 
     public CodeSchemeDTO getCodeScheme(final String codeSchemeId) {
+        return getCodeScheme(codeSchemeId, (SourceFilter) null);
+    }
+
+    public CodeSchemeDTO getCodeScheme(final String codeSchemeId,
+                                       final SourceFilter sourceFilter) {
+        if (codeCatalogReplica.isCodeSchemesAvailable()) {
+            final CodeSchemeDTO codeScheme = codeCatalogReplica.getCodeScheme(codeSchemeId);
+            if (codeScheme != null) {
+                return codeScheme;
+            }
+        }
+        if (isUuid(codeSchemeId) && !existenceFilter.mightContainId(ELASTIC_INDEX_CODESCHEME, codeSchemeId)) {
+            return null;
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_CODESCHEME)) {
+            if (isUuid(codeSchemeId)) {
+                return getDocumentById(ELASTIC_INDEX_CODESCHEME, codeSchemeId, CodeSchemeDTO.class, sourceFilter);
+            }
             final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
             searchBuilder.sort("codeValue.raw", SortOrder.ASC);
             final BoolQueryBuilder builder = boolQuery().must(matchQuery("id", codeSchemeId.toLowerCase()));
             searchBuilder.query(builder);
+            applySourceFilter(searchBuilder, sourceFilter);
             return doCodeSchemeRequest(searchBuilder);
         }
         return null;
     }
 
+    public boolean codeSchemeExists(final String codeSchemeId) {
+        if (codeCatalogReplica.isCodeSchemesAvailable() && codeCatalogReplica.containsCodeScheme(codeSchemeId)) {
+            return true;
+        }
+        if (isUuid(codeSchemeId) && !existenceFilter.mightContainId(ELASTIC_INDEX_CODESCHEME, codeSchemeId)) {
+            return false;
+        }
+        return documentExists(ELASTIC_INDEX_CODESCHEME, createIdQuery(codeSchemeId));
+    }
+
+    public byte[] getCodeSchemeSource(final String codeSchemeId,
+                                      final SourceFilter sourceFilter) {
+        if (isUuid(codeSchemeId) && !existenceFilter.mightContainId(ELASTIC_INDEX_CODESCHEME, codeSchemeId)) {
+            return null;
+        }
+        if (checkIfIndexExists(ELASTIC_INDEX_CODESCHEME)) {
+            if (isUuid(codeSchemeId)) {
+                return getDocumentSourceById(ELASTIC_INDEX_CODESCHEME, codeSchemeId, sourceFilter);
+            }
+            final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+            searchBuilder.sort("codeValue.raw", SortOrder.ASC);
+            searchBuilder.query(boolQuery().must(matchQuery("id", codeSchemeId.toLowerCase())));
+            applySourceFilter(searchBuilder, sourceFilter);
+            return doSourceRequest(ELASTIC_INDEX_CODESCHEME, searchBuilder);
+        }
+        return null;
+    }
+
     public CodeSchemeDTO getCodeScheme(final String codeRegistryCodeValue,
                                        final String codeSchemeCodeValue) {
+        if (codeCatalogReplica.isCodeSchemesAvailable()) {
+            final CodeSchemeDTO codeScheme = codeCatalogReplica.getCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue);
+            if (codeScheme != null) {
+                return codeScheme;
+            }
+        }
+        if (!existenceFilter.mightContainResource(ELASTIC_INDEX_CODESCHEME, null, codeRegistryCodeValue, codeSchemeCodeValue)) {
+            return null;
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_CODESCHEME)) {
             final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
             searchBuilder.sort("codeValue.raw", SortOrder.ASC);
-            final BoolQueryBuilder builder = boolQuery().should(matchQuery("id", codeSchemeCodeValue.toLowerCase())).should(matchQuery("codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
-            builder.must(matchQuery("codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
-            searchBuilder.query(builder);
+            searchBuilder.query(createCodeSchemeQuery(codeRegistryCodeValue, codeSchemeCodeValue));
             return doCodeSchemeRequest(searchBuilder);
         }
         return null;
     }
 
+    public boolean codeSchemeExists(final String codeRegistryCodeValue,
+                                    final String codeSchemeCodeValue) {
+        if (codeCatalogReplica.isCodeSchemesAvailable() && codeCatalogReplica.containsCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue)) {
+            return true;
+        }
+        if (!existenceFilter.mightContainResource(ELASTIC_INDEX_CODESCHEME, null, codeRegistryCodeValue, codeSchemeCodeValue)) {
+            return false;
+        }
+        return documentExists(ELASTIC_INDEX_CODESCHEME, createCodeSchemeQuery(codeRegistryCodeValue, codeSchemeCodeValue));
+    }
+
+    private BoolQueryBuilder createCodeSchemeQuery(final String codeRegistryCodeValue,
+                                                   final String codeSchemeCodeValue) {
+        final BoolQueryBuilder builder = boolQuery().should(matchQuery("id", codeSchemeCodeValue.toLowerCase())).should(matchQuery("codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
+        builder.filter(matchQuery("codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
+        return builder;
+    }
+
     private CodeSchemeDTO doCodeSchemeRequest(final SearchSourceBuilder searchBuilder) {
         final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
-        final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_CODESCHEME);
-        searchRequest.source(searchBuilder);
         try {
-            final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+            final SearchResponse response = hedgedSearch(ELASTIC_INDEX_CODESCHEME, searchBuilder);
             if (response.getHits().getTotalHits() > 0) {
                 LOG.debug(String.format("Found %d CodeSchemes", response.getHits().getTotalHits()));
                 final SearchHit hit = response.getHits().getAt(0);
@@ -233,6 +401,26 @@ public class DomainImpl implements Domain {
                                              final List<String> infoDomains,
                                              final String extensionPropertyType,
                                              final Meta meta) {
+        return getCodeSchemes(sortMode, organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, language, searchTerm, searchCodes, searchExtensions, statuses, infoDomains, extensionPropertyType, meta, null);
+    }
+
+    public Set<CodeSchemeDTO> getCodeSchemes(final String sortMode,
+                                             final List<String> organizationIds,
+                                             final List<String> userOrganizationIds,
+                                             final boolean includeIncomplete,
+                                             final String codeRegistryCodeValue,
+                                             final String codeRegistryPrefLabel,
+                                             final String codeSchemeCodeValue,
+                                             final String codeSchemePrefLabel,
+                                             final String language,
+                                             final String searchTerm,
+                                             final boolean searchCodes,
+                                             final boolean searchExtensions,
+                                             final List<String> statuses,
+                                             final List<String> infoDomains,
+                                             final String extensionPropertyType,
+                                             final Meta meta,
+                                             final SourceFilter sourceFilter) {
         validatePageSize(meta);
         final Set<String> codeSchemeUuids = new HashSet<>();
         final Set<String> codeSchemeUuidsWithDeepHitsCodes = new HashSet<>();
@@ -256,89 +444,19 @@ public class DomainImpl implements Domain {
         }
 
         final Set<CodeSchemeDTO> codeSchemes = new LinkedHashSet<>();
-        if (checkIfIndexExists(ELASTIC_INDEX_CODESCHEME)) {
+        if ((searchTerm == null || searchTerm.isEmpty()) && codeCatalogReplica.isCodeSchemesAvailable()) {
+            codeSchemes.addAll(codeCatalogReplica.getCodeSchemes(BOOSTSTATUS.equalsIgnoreCase(sortMode), organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, language, statuses, infoDomains, extensionPropertyType, meta));
+        } else if (checkIfIndexExists(ELASTIC_INDEX_CODESCHEME)) {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
             final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_CODESCHEME);
-            final SearchSourceBuilder searchBuilder = createSearchSourceBuilderWithPagination(meta);
-            final BoolQueryBuilder builder = constructBoolQueryWithAfterAndBeforeRange(meta);
-            if (searchTerm != null && !searchTerm.isEmpty()) {
-                final BoolQueryBuilder boolQueryBuilder = boolQuery();
-                boolQueryBuilder.should(luceneQueryFactory.buildPrefixSuffixQuery(searchTerm).field("prefLabel.*"));
-                boolQueryBuilder.should(luceneQueryFactory.buildPrefixSuffixQuery(searchTerm).field("codeValue"));
-                if (!codeSchemeUuids.isEmpty()) {
-                    boolQueryBuilder.should(termsQuery("id", codeSchemeUuids));
-                }
-                boolQueryBuilder.minimumShouldMatch(1);
-                builder.must(boolQueryBuilder);
-            }
-            if (codeSchemeCodeValue != null && !codeSchemeCodeValue.isEmpty()) {
-                builder.must(luceneQueryFactory.buildPrefixSuffixQuery(codeSchemeCodeValue).field("codeValue"));
-            }
-            if (codeSchemePrefLabel != null && !codeSchemePrefLabel.isEmpty()) {
-                builder.must(luceneQueryFactory.buildPrefixSuffixQuery(codeSchemePrefLabel).field("prefLabel.*"));
-            }
-            if (organizationIds != null && !organizationIds.isEmpty()) {
-                BoolQueryBuilder organizationQuery = boolQuery();
-                organizationQuery.should(nestedQuery("organizations", termsQuery("organizations.id.keyword", organizationIds), ScoreMode.None));
-                organizationQuery.should(nestedQuery("organizations", termsQuery("organizations.parent.id.keyword", organizationIds), ScoreMode.None));
-                builder.must(organizationQuery);
-            }
-            if (codeRegistryCodeValue != null && !codeRegistryCodeValue.isEmpty()) {
-                builder.must(matchQuery("codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
-            }
-            if (codeRegistryPrefLabel != null && !codeRegistryPrefLabel.isEmpty()) {
-                builder.must(luceneQueryFactory.buildPrefixSuffixQuery(codeRegistryPrefLabel).field("codeRegistry.prefLabel.*"));
-            }
-            if (infoDomains != null && !infoDomains.isEmpty()) {
-                builder.must(nestedQuery("infoDomains", termsQuery("infoDomains.codeValue.keyword", infoDomains), ScoreMode.None));
-            }
-            if (extensionPropertyType != null) {
-                builder.must(nestedQuery("extensions", matchQuery("extensions.propertyType.localName", extensionPropertyType), ScoreMode.None));
-            }
-            if (BOOSTSTATUS.equalsIgnoreCase(sortMode)) {
-                searchBuilder.sort(SortBuilders.scoreSort());
-                boostStatus(builder);
-            }
-            addLanguagePrefLabelSort(language, "codeValue.raw", "codeValue.raw", searchBuilder);
-            if (statuses != null && !statuses.isEmpty()) {
-                final BoolQueryBuilder boolQueryBuilder = boolQuery();
-                if (statuses.contains(Status.INCOMPLETE.toString())) {
-                    if (includeIncomplete) {
-                        final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
-                        incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
-                        boolQueryBuilder.should(incompleteQueryBuilder);
-                    } else if (userOrganizationIds != null && !userOrganizationIds.isEmpty()) {
-                        final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
-                        incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
-                        incompleteQueryBuilder.must(nestedQuery("organizations", termsQuery("organizations.id.keyword", userOrganizationIds), ScoreMode.None));
-                        boolQueryBuilder.should(incompleteQueryBuilder);
-                        statuses.remove(Status.INCOMPLETE.toString());
-                    }
-                }
-                boolQueryBuilder.should(termsQuery("status.keyword", statuses));
-                builder.must(termsQuery("status.keyword", statuses));
-                boolQueryBuilder.minimumShouldMatch(1);
-                builder.must(boolQueryBuilder);
-            } else {
-                final BoolQueryBuilder boolQueryBuilder = boolQuery();
-                boolQueryBuilder.should(termsQuery("status.keyword", getRegularStatuses()));
-                if (includeIncomplete) {
-                    final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
-                    incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
-                    boolQueryBuilder.should(incompleteQueryBuilder);
-                } else if (userOrganizationIds != null && !userOrganizationIds.isEmpty()) {
-                    final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
-                    incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
-                    incompleteQueryBuilder.must(nestedQuery("organizations", termsQuery("organizations.id.keyword", userOrganizationIds), ScoreMode.None));
-                    boolQueryBuilder.should(incompleteQueryBuilder);
-                }
-                boolQueryBuilder.minimumShouldMatch(1);
-                builder.must(boolQueryBuilder);
-            }
-            searchBuilder.query(builder);
-            searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response;
+                if (searchTemplates.isEnabled()) {
+                    response = searchWithTemplate(searchRequest, TEMPLATE_CODESCHEMES, createCodeSchemesTemplateParams(sortMode, organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, language, searchTerm, codeSchemeUuids, statuses, infoDomains, extensionPropertyType, meta, sourceFilter));
+                } else {
+                    searchRequest.source(createCodeSchemesSearchSource(sortMode, organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, language, searchTerm, codeSchemeUuids, statuses, infoDomains, extensionPropertyType, meta, sourceFilter));
+                    response = search(searchRequest);
+                }
                 setResultCounts(meta, response);
                 response.getHits().forEach(hit -> {
                     try {
@@ -369,13 +487,287 @@ public class DomainImpl implements Domain {
         return codeSchemes;
     }
 
+    public int countCodeSchemes(final List<String> organizationIds,
+                                final List<String> userOrganizationIds,
+                                final boolean includeIncomplete,
+                                final String codeRegistryCodeValue,
+                                final String codeRegistryPrefLabel,
+                                final String codeSchemeCodeValue,
+                                final String codeSchemePrefLabel,
+                                final String searchTerm,
+                                final boolean searchCodes,
+                                final boolean searchExtensions,
+                                final List<String> statuses,
+                                final List<String> infoDomains,
+                                final String extensionPropertyType,
+                                final Meta meta) {
+        int count = 0;
+        if ((searchTerm == null || searchTerm.isEmpty()) && codeCatalogReplica.isCodeSchemesAvailable()) {
+            count = codeCatalogReplica.countCodeSchemes(organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, statuses, infoDomains, extensionPropertyType, meta);
+        } else if (checkIfIndexExists(ELASTIC_INDEX_CODESCHEME)) {
+            final Set<String> codeSchemeUuids = getDeepSearchCodeSchemeUuids(searchTerm, searchCodes, searchExtensions, extensionPropertyType);
+            final SearchSourceBuilder searchBuilder = createCodeSchemesSearchSource(null, organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, null, searchTerm, codeSchemeUuids, statuses, infoDomains, extensionPropertyType, meta, null);
+            count = countDocuments(ELASTIC_INDEX_CODESCHEME, searchBuilder.query());
+        }
+        setCountResult(meta, count);
+        return count;
+    }
+
+    private Set<String> getDeepSearchCodeSchemeUuids(final String searchTerm,
+                                                     final boolean searchCodes,
+                                                     final boolean searchExtensions,
+                                                     final String extensionPropertyType) {
+        final Set<String> codeSchemeUuids = new HashSet<>();
+        if (searchCodes && searchTerm != null) {
+            final Map<String, List<DeepSearchHitListDTO<?>>> deepSearchHits = getCodeSchemesMatchingCodes(searchTerm, new SearchResultWithMetaDataDTO());
+            if (deepSearchHits != null) {
+                codeSchemeUuids.addAll(deepSearchHits.keySet());
+            }
+        }
+        if (searchExtensions && searchTerm != null) {
+            final Map<String, List<DeepSearchHitListDTO<?>>> deepSearchHits = getCodeSchemesMatchingExtensions(searchTerm, extensionPropertyType, new SearchResultWithMetaDataDTO());
+            if (deepSearchHits != null) {
+                codeSchemeUuids.addAll(deepSearchHits.keySet());
+            }
+        }
+        return codeSchemeUuids;
+    }
+
+    public FacetsDTO getCodeSchemeFacets(final List<String> organizationIds,
+                                         final List<String> userOrganizationIds,
+                                         final boolean includeIncomplete,
+                                         final String codeRegistryCodeValue,
+                                         final String codeRegistryPrefLabel,
+                                         final String codeSchemeCodeValue,
+                                         final String codeSchemePrefLabel,
+                                         final String searchTerm,
+                                         final boolean searchCodes,
+                                         final boolean searchExtensions,
+                                         final List<String> statuses,
+                                         final List<String> infoDomains,
+                                         final String extensionPropertyType,
+                                         final Meta meta) {
+        if ((searchTerm == null || searchTerm.isEmpty()) && codeCatalogReplica.isCodeSchemesAvailable()) {
+            return new FacetsDTO(meta, codeCatalogReplica.getCodeSchemeFacets(organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, statuses, infoDomains, extensionPropertyType, meta));
+        }
+        final Set<String> codeSchemeUuids = getDeepSearchCodeSchemeUuids(searchTerm, searchCodes, searchExtensions, extensionPropertyType);
+        final Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        if (checkIfIndexExists(ELASTIC_INDEX_CODESCHEME)) {
+            final SearchSourceBuilder searchBuilder = createCodeSchemesSearchSource(null, organizationIds, userOrganizationIds, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, null, searchTerm, codeSchemeUuids, statuses, infoDomains, extensionPropertyType, meta, null);
+            searchBuilder.from(0);
+            searchBuilder.size(0);
+            searchBuilder.aggregation(AggregationBuilders.terms(FACET_STATUS).field("status.keyword").size(MAX_FACET_SIZE));
+            searchBuilder.aggregation(createNestedTermsAggregation(FACET_INFODOMAIN, "infoDomains", "infoDomains.codeValue.keyword"));
+            searchBuilder.aggregation(createNestedTermsAggregation(FACET_ORGANIZATION, "organizations", "organizations.id.keyword"));
+            try {
+                final SearchResponse response = search(createSearchRequest(ELASTIC_INDEX_CODESCHEME).source(searchBuilder));
+                setResultCounts(meta, response);
+                facets.put(FACET_STATUS, getTermCounts(response.getAggregations().get(FACET_STATUS)));
+                facets.put(FACET_INFODOMAIN, getNestedTermCounts(response.getAggregations().get(FACET_INFODOMAIN)));
+                facets.put(FACET_ORGANIZATION, getNestedTermCounts(response.getAggregations().get(FACET_ORGANIZATION)));
+            } catch (final IOException e) {
+                LOG.error("SearchRequest failed!", e);
+                throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+            }
+        }
+        return new FacetsDTO(meta, facets);
+    }
+
+    private NestedAggregationBuilder createNestedTermsAggregation(final String name,
+                                                                  final String path,
+                                                                  final String field) {
+        return AggregationBuilders.nested(name, path).subAggregation(AggregationBuilders.terms(name).field(field).size(MAX_FACET_SIZE).subAggregation(AggregationBuilders.reverseNested(FACET_PARENT_COUNT)));
+    }
+
+    private Map<String, Long> getNestedTermCounts(final Nested nested) {
+        return nested != null ? getTermCounts(nested.getAggregations().get(nested.getName())) : new TreeMap<>();
+    }
+
+    /**
+     * Returns the document counts of the term buckets, counting parent documents for terms under a nested aggregation.
+     */
+    private Map<String, Long> getTermCounts(final Terms terms) {
+        final Map<String, Long> counts = new TreeMap<>();
+        if (terms != null) {
+            for (final Terms.Bucket bucket : terms.getBuckets()) {
+                final ReverseNested parentCount = bucket.getAggregations().get(FACET_PARENT_COUNT);
+                counts.put(bucket.getKeyAsString(), parentCount != null ? parentCount.getDocCount() : bucket.getDocCount());
+            }
+        }
+        return counts;
+    }
+
+    SearchSourceBuilder createCodeSchemesSearchSource(final String sortMode,
+                                                      final List<String> organizationIds,
+                                                      final List<String> userOrganizationIds,
+                                                      final boolean includeIncomplete,
+                                                      final String codeRegistryCodeValue,
+                                                      final String codeRegistryPrefLabel,
+                                                      final String codeSchemeCodeValue,
+                                                      final String codeSchemePrefLabel,
+                                                      final String language,
+                                                      final String searchTerm,
+                                                      final Set<String> codeSchemeUuids,
+                                                      final List<String> statuses,
+                                                      final List<String> infoDomains,
+                                                      final String extensionPropertyType,
+                                                      final Meta meta,
+                                                      final SourceFilter sourceFilter) {
+        final SearchSourceBuilder searchBuilder = createSearchSourceBuilderWithPagination(meta);
+        final BoolQueryBuilder builder = constructBoolQueryWithAfterAndBeforeRange(meta);
+        if (searchTerm != null && !searchTerm.isEmpty()) {
+            final BoolQueryBuilder boolQueryBuilder = boolQuery();
+            boolQueryBuilder.should(luceneQueryFactory.buildPrefixSuffixQuery(searchTerm).field("prefLabel.*"));
+            boolQueryBuilder.should(luceneQueryFactory.buildPrefixSuffixQuery(searchTerm).field("codeValue"));
+            if (!codeSchemeUuids.isEmpty()) {
+                boolQueryBuilder.should(termsQuery("id", codeSchemeUuids));
+            }
+            boolQueryBuilder.minimumShouldMatch(1);
+            builder.must(boolQueryBuilder);
+        }
+        if (codeSchemeCodeValue != null && !codeSchemeCodeValue.isEmpty()) {
+            builder.must(luceneQueryFactory.buildPrefixSuffixQuery(codeSchemeCodeValue).field("codeValue"));
+        }
+        if (codeSchemePrefLabel != null && !codeSchemePrefLabel.isEmpty()) {
+            builder.must(luceneQueryFactory.buildPrefixSuffixQuery(codeSchemePrefLabel).field("prefLabel.*"));
+        }
+        if (organizationIds != null && !organizationIds.isEmpty()) {
+            BoolQueryBuilder organizationQuery = boolQuery();
+            organizationQuery.should(nestedQuery("organizations", termsQuery("organizations.id.keyword", organizationIds), ScoreMode.None));
+            organizationQuery.should(nestedQuery("organizations", termsQuery("organizations.parent.id.keyword", organizationIds), ScoreMode.None));
+            organizationQuery.minimumShouldMatch(1);
+            builder.filter(organizationQuery);
+        }
+        if (codeRegistryCodeValue != null && !codeRegistryCodeValue.isEmpty()) {
+            builder.filter(matchQuery("codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
+        }
+        if (codeRegistryPrefLabel != null && !codeRegistryPrefLabel.isEmpty()) {
+            builder.must(luceneQueryFactory.buildPrefixSuffixQuery(codeRegistryPrefLabel).field("codeRegistry.prefLabel.*"));
+        }
+        if (infoDomains != null && !infoDomains.isEmpty()) {
+            builder.filter(nestedQuery("infoDomains", termsQuery("infoDomains.codeValue.keyword", infoDomains), ScoreMode.None));
+        }
+        if (extensionPropertyType != null) {
+            builder.filter(nestedQuery("extensions", matchQuery("extensions.propertyType.localName", extensionPropertyType), ScoreMode.None));
+        }
+        if (BOOSTSTATUS.equalsIgnoreCase(sortMode)) {
+            searchBuilder.sort(SortBuilders.scoreSort());
+            boostStatus(builder);
+        }
+        addLanguagePrefLabelSort(language, "codeValue.raw", "codeValue.raw", searchBuilder);
+        if (statuses != null && !statuses.isEmpty()) {
+            BoolQueryBuilder incompleteQueryBuilder = null;
+            if (statuses.contains(Status.INCOMPLETE.toString())) {
+                if (includeIncomplete) {
+                    incompleteQueryBuilder = boolQuery();
+                    incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
+                } else if (userOrganizationIds != null && !userOrganizationIds.isEmpty()) {
+                    incompleteQueryBuilder = boolQuery();
+                    incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
+                    incompleteQueryBuilder.must(nestedQuery("organizations", termsQuery("organizations.id.keyword", userOrganizationIds), ScoreMode.None));
+                    statuses.remove(Status.INCOMPLETE.toString());
+                }
+            }
+            final BoolQueryBuilder boolQueryBuilder = boolQuery();
+            boolQueryBuilder.should(termsQuery("status.keyword", statuses));
+            if (incompleteQueryBuilder != null) {
+                boolQueryBuilder.should(incompleteQueryBuilder);
+            }
+            builder.filter(termsQuery("status.keyword", statuses));
+            boolQueryBuilder.minimumShouldMatch(1);
+            builder.filter(boolQueryBuilder);
+        } else {
+            final BoolQueryBuilder boolQueryBuilder = boolQuery();
+            boolQueryBuilder.should(termsQuery("status.keyword", getRegularStatuses()));
+            if (includeIncomplete) {
+                final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
+                incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
+                boolQueryBuilder.should(incompleteQueryBuilder);
+            } else if (userOrganizationIds != null && !userOrganizationIds.isEmpty()) {
+                final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
+                incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
+                incompleteQueryBuilder.must(nestedQuery("organizations", termsQuery("organizations.id.keyword", userOrganizationIds), ScoreMode.None));
+                boolQueryBuilder.should(incompleteQueryBuilder);
+            }
+            boolQueryBuilder.minimumShouldMatch(1);
+            builder.filter(boolQueryBuilder);
+        }
+        searchBuilder.query(builder);
+        applySourceFilter(searchBuilder, sourceFilter);
+        return searchBuilder;
+    }
+
+    Map<String, Object> createCodeSchemesTemplateParams(final String sortMode,
+                                                        final List<String> organizationIds,
+                                                        final List<String> userOrganizationIds,
+                                                        final boolean includeIncomplete,
+                                                        final String codeRegistryCodeValue,
+                                                        final String codeRegistryPrefLabel,
+                                                        final String codeSchemeCodeValue,
+                                                        final String codeSchemePrefLabel,
+                                                        final String language,
+                                                        final String searchTerm,
+                                                        final Set<String> codeSchemeUuids,
+                                                        final List<String> statuses,
+                                                        final List<String> infoDomains,
+                                                        final String extensionPropertyType,
+                                                        final Meta meta,
+                                                        final SourceFilter sourceFilter) {
+        final Map<String, Object> params = createTemplateParams(meta, searchTerm);
+        params.put("sort", createSortParams(BOOSTSTATUS.equalsIgnoreCase(sortMode), language, "codeValue.raw", "codeValue.raw"));
+        params.put("boostStatus", BOOSTSTATUS.equalsIgnoreCase(sortMode));
+        if (!codeSchemeUuids.isEmpty()) {
+            params.put("hasCodeSchemeUuids", true);
+            params.put("codeSchemeUuids", new ArrayList<>(codeSchemeUuids));
+        }
+        putQueryStringParam(params, "codeSchemeCodeValueQuery", codeSchemeCodeValue);
+        putQueryStringParam(params, "codeSchemePrefLabelQuery", codeSchemePrefLabel);
+        putQueryStringParam(params, "codeRegistryPrefLabelQuery", codeRegistryPrefLabel);
+        putListParam(params, "organizationIds", organizationIds);
+        if (codeRegistryCodeValue != null && !codeRegistryCodeValue.isEmpty()) {
+            params.put("hasCodeRegistryCodeValue", true);
+            params.put("codeRegistryCodeValue", codeRegistryCodeValue.toLowerCase());
+        }
+        putListParam(params, "infoDomains", infoDomains);
+        if (extensionPropertyType != null) {
+            params.put("hasExtensionPropertyType", true);
+            params.put("extensionPropertyType", extensionPropertyType);
+        }
+        final boolean hasUserOrganizationIds = userOrganizationIds != null && !userOrganizationIds.isEmpty();
+        if (statuses != null && !statuses.isEmpty()) {
+            params.put("hasStatusFilter", true);
+            if (statuses.contains(Status.INCOMPLETE.toString())) {
+                if (includeIncomplete) {
+                    params.put("includeIncomplete", true);
+                } else if (hasUserOrganizationIds) {
+                    params.put("hasIncompleteOrganizationIds", true);
+                    params.put("incompleteOrganizationIds", userOrganizationIds);
+                    statuses.remove(Status.INCOMPLETE.toString());
+                }
+            }
+            params.put("statuses", statuses);
+        } else {
+            params.put("statuses", getRegularStatuses());
+            if (includeIncomplete) {
+                params.put("includeIncomplete", true);
+            } else if (hasUserOrganizationIds) {
+                params.put("hasIncompleteOrganizationIds", true);
+                params.put("incompleteOrganizationIds", userOrganizationIds);
+            }
+        }
+        if (sourceFilter != null) {
+            putListParam(params, "sourceExcludes", Arrays.asList(sourceFilter.getExcludes()));
+        }
+        return params;
+    }
+
     private Map<String, List<DeepSearchHitListDTO<?>>> getCodeSchemesMatchingCodes(final String searchTerm,
                                                                                    final SearchResultWithMetaDataDTO result) {
         final Map<String, List<DeepSearchHitListDTO<?>>> deepSearchHits;
         if (checkIfIndexExists(ELASTIC_INDEX_CODE) && searchTerm != null) {
             try {
-                final SearchRequest query = deepCodeQueryFactory.createQuery(searchTerm);
-                final SearchResponse response = client.search(query, RequestOptions.DEFAULT);
+                final SearchRequest query = withDeepSearchRequestCache(deepCodeQueryFactory.createQuery(searchTerm));
+                final SearchResponse response = search(query);
                 deepSearchHits = deepCodeQueryFactory.parseResponse(response, result, searchTerm);
             } catch (final IOException e) {
                 throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
@@ -392,8 +784,8 @@ public class DomainImpl implements Domain {
         final Map<String, List<DeepSearchHitListDTO<?>>> deepSearchHits;
         if (checkIfIndexExists(ELASTIC_INDEX_EXTENSION) && searchTerm != null) {
             try {
-                final SearchRequest query = deepExtensionQueryFactory.createQuery(searchTerm, extensionPropertyType);
-                final SearchResponse response = client.search(query, RequestOptions.DEFAULT);
+                final SearchRequest query = withDeepSearchRequestCache(deepExtensionQueryFactory.createQuery(searchTerm, extensionPropertyType));
+                final SearchResponse response = search(query);
                 deepSearchHits = deepExtensionQueryFactory.parseResponse(response, result, searchTerm);
             } catch (final IOException e) {
                 throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
@@ -404,6 +796,18 @@ public class DomainImpl implements Domain {
         return deepSearchHits;
     }
 
+    /**
+     * Marks an aggregation-only deep search request cacheable in the shard request cache and routes identical
+     * queries to the same shard copies with a preference derived from the query source.
+     */
+    private SearchRequest withDeepSearchRequestCache(final SearchRequest searchRequest) {
+        if (deepSearchRequestCache) {
+            searchRequest.requestCache(true);
+            searchRequest.preference("deepsearch-" + Integer.toHexString(searchRequest.source().toString().hashCode()));
+        }
+        return searchRequest;
+    }
+
     private List<String> getRegularStatuses() {
         final List<String> allStatuses = new ArrayList<>();
         allStatuses.add(Status.DRAFT.toString());
@@ -416,37 +820,89 @@ public class DomainImpl implements Domain {
     }
 
     public CodeDTO getCode(final String codeId) {
+        return getCode(codeId, null);
+    }
+
+    public CodeDTO getCode(final String codeId,
+                           final SourceFilter sourceFilter) {
+        if (isUuid(codeId) && !existenceFilter.mightContainId(ELASTIC_INDEX_CODE, codeId)) {
+            return null;
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_CODE)) {
+            if (isUuid(codeId)) {
+                return getDocumentById(ELASTIC_INDEX_CODE, codeId, CodeDTO.class, sourceFilter);
+            }
             final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
             final BoolQueryBuilder builder = boolQuery().must(matchQuery("id", codeId));
             searchBuilder.query(builder);
+            applySourceFilter(searchBuilder, sourceFilter);
             return doCodeRequest(searchBuilder);
         } else {
             return null;
         }
     }
 
+    public boolean codeExists(final String codeId) {
+        if (isUuid(codeId) && !existenceFilter.mightContainId(ELASTIC_INDEX_CODE, codeId)) {
+            return false;
+        }
+        return documentExists(ELASTIC_INDEX_CODE, createIdQuery(codeId));
+    }
+
+    public byte[] getCodeSource(final String codeId,
+                                final SourceFilter sourceFilter) {
+        if (isUuid(codeId) && !existenceFilter.mightContainId(ELASTIC_INDEX_CODE, codeId)) {
+            return null;
+        }
+        if (checkIfIndexExists(ELASTIC_INDEX_CODE)) {
+            if (isUuid(codeId)) {
+                return getDocumentSourceById(ELASTIC_INDEX_CODE, codeId, sourceFilter);
+            }
+            final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+            searchBuilder.query(boolQuery().must(matchQuery("id", codeId)));
+            applySourceFilter(searchBuilder, sourceFilter);
+            return doSourceRequest(ELASTIC_INDEX_CODE, searchBuilder);
+        }
+        return null;
+    }
+
     public CodeDTO getCode(final String codeRegistryCodeValue,
                            final String codeSchemeCodeValue,
                            final String codeCodeValue) {
+        if (!existenceFilter.mightContainResource(ELASTIC_INDEX_CODE, null, codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue)) {
+            return null;
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_CODE)) {
             final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
-            final BoolQueryBuilder builder = boolQuery().should(matchQuery("id", codeCodeValue.toLowerCase())).should(matchQuery("codeValue", codeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
-            builder.must(boolQuery().should(matchQuery("codeScheme.id", codeSchemeCodeValue.toLowerCase())).should(matchQuery("codeScheme.codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1));
-            builder.must(matchQuery("codeScheme.codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
-            searchBuilder.query(builder);
+            searchBuilder.query(createCodeQuery(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue));
             return doCodeRequest(searchBuilder);
         } else {
             return null;
         }
     }
 
+    public boolean codeExists(final String codeRegistryCodeValue,
+                              final String codeSchemeCodeValue,
+                              final String codeCodeValue) {
+        if (!existenceFilter.mightContainResource(ELASTIC_INDEX_CODE, null, codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue)) {
+            return false;
+        }
+        return documentExists(ELASTIC_INDEX_CODE, createCodeQuery(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue));
+    }
+
+    private BoolQueryBuilder createCodeQuery(final String codeRegistryCodeValue,
+                                             final String codeSchemeCodeValue,
+                                             final String codeCodeValue) {
+        final BoolQueryBuilder builder = boolQuery().should(matchQuery("id", codeCodeValue.toLowerCase())).should(matchQuery("codeValue", codeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
+        builder.filter(boolQuery().should(matchQuery("codeScheme.id", codeSchemeCodeValue.toLowerCase())).should(matchQuery("codeScheme.codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1));
+        builder.filter(matchQuery("codeScheme.codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
+        return builder;
+    }
+
     private CodeDTO doCodeRequest(final SearchSourceBuilder searchBuilder) {
-        final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_CODE);
-        searchRequest.source(searchBuilder);
         final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
         try {
-            final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+            final SearchResponse response = hedgedSearch(ELASTIC_INDEX_CODE, searchBuilder);
             LOG.debug(String.format("getCode found: %d hits.", response.getHits().getTotalHits()));
             if (response.getHits().getTotalHits() > 0) {
                 final SearchHit hit = response.getHits().getAt(0);
@@ -480,6 +936,19 @@ public class DomainImpl implements Domain {
                                  final String language,
                                  final List<String> statuses,
                                  final Meta meta) {
+        return getCodes(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, language, statuses, meta, null);
+    }
+
+    public Set<CodeDTO> getCodes(final String codeRegistryCodeValue,
+                                 final String codeSchemeCodeValue,
+                                 final String codeCodeValue,
+                                 final String prefLabel,
+                                 final Integer hierarchyLevel,
+                                 final String broaderCodeId,
+                                 final String language,
+                                 final List<String> statuses,
+                                 final Meta meta,
+                                 final SourceFilter sourceFilter) {
         validatePageSize(meta);
         boolean fetchMore = false;
         final Set<CodeDTO> codes = new LinkedHashSet<>();
@@ -487,24 +956,12 @@ public class DomainImpl implements Domain {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
             final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_CODE);
             final SearchSourceBuilder searchBuilder = createSearchSourceBuilderWithPagination(meta);
-            final BoolQueryBuilder builder = constructSearchQuery(codeCodeValue, prefLabel);
-            embedAfterBeforeToBoolQuery(builder, meta);
-            builder.must(matchQuery("codeScheme.codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
-            builder.must(boolQuery().should(matchQuery("codeScheme.codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).should(matchQuery("codeScheme.id", codeSchemeCodeValue.toLowerCase())).minimumShouldMatch(1));
-            if (hierarchyLevel != null) {
-                builder.must(rangeQuery("hierarchyLevel").lte(hierarchyLevel));
-            }
-            if (broaderCodeId != null && !broaderCodeId.isEmpty()) {
-                builder.must(matchQuery("broaderCode.id", broaderCodeId.toLowerCase()));
-            }
-            if (statuses != null && !statuses.isEmpty()) {
-                builder.must(termsQuery("status.keyword", statuses));
-            }
             addLanguagePrefLabelSort(language, "codeValue.raw", "order", searchBuilder);
-            searchBuilder.query(builder);
+            searchBuilder.query(constructCodesQuery(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, statuses, meta));
+            applySourceFilter(searchBuilder, sourceFilter);
             searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 setResultCounts(meta, response);
                 if (meta.getResultCount() == MAX_ES_PAGESIZE && meta.getPageSize() == null) {
                     fetchMore = true;
@@ -526,19 +983,281 @@ public class DomainImpl implements Domain {
             } else {
                 meta.setFrom(MAX_ES_PAGESIZE);
                 meta.setPageSize(MAX_ES_PAGESIZE);
-                codes.addAll(getCodes(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, language, statuses, meta));
+                codes.addAll(getCodes(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, language, statuses, meta, sourceFilter));
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Resolves the URIs grouped by code scheme in chunks, one terms query on the analyzed uri field per chunk. All
+     * chunks are sent in a single multi search request, which ElasticSearch executes concurrently.
+     */
+    public Map<String, CodeDTO> getCodesByUris(final Collection<String> uris) {
+        final Map<String, Set<String>> urisByCodeScheme = new LinkedHashMap<>();
+        for (final String uri : uris) {
+            final String codeSchemePath = getCodeSchemePath(uri);
+            if (codeSchemePath != null) {
+                urisByCodeScheme.computeIfAbsent(codeSchemePath, key -> new LinkedHashSet<>()).add(uri.trim().toLowerCase());
+            }
+        }
+        if (urisByCodeScheme.isEmpty() || !checkIfIndexExists(ELASTIC_INDEX_CODE)) {
+            return Collections.emptyMap();
+        }
+        final MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        for (final Set<String> codeSchemeUris : urisByCodeScheme.values()) {
+            for (final List<String> chunk : partition(new ArrayList<>(codeSchemeUris), CODE_URI_CHUNK_SIZE)) {
+                final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+                searchBuilder.size(chunk.size());
+                searchBuilder.query(boolQuery().filter(termsQuery("uri", chunk)));
+                multiSearchRequest.add(createSearchRequest(ELASTIC_INDEX_CODE).source(searchBuilder));
+            }
+        }
+        final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
+        final Map<String, CodeDTO> codesByUri = new HashMap<>();
+        try {
+            final MultiSearchResponse response = concurrencyLimiter.execute(() -> client.msearch(multiSearchRequest, RequestOptions.DEFAULT));
+            for (final MultiSearchResponse.Item item : response.getResponses()) {
+                if (item.isFailure()) {
+                    LOG.error("Code URI batch search failed!", item.getFailure());
+                    throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+                }
+                for (final SearchHit hit : item.getResponse().getHits()) {
+                    try {
+                        final CodeDTO code = mapper.readValue(hit.getSourceAsString(), CodeDTO.class);
+                        if (code.getUri() != null) {
+                            codesByUri.put(code.getUri().trim().toLowerCase(), code);
+                        }
+                    } catch (final IOException e) {
+                        LOG.error("getCodesByUris reading value from JSON string failed: " + hit.getSourceAsString(), e);
+                        throw new JsonParsingException(ERR_MSG_USER_406);
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            LOG.error("MultiSearchRequest failed!", e);
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+        }
+        final Map<String, CodeDTO> codes = new LinkedHashMap<>();
+        for (final String uri : uris) {
+            final CodeDTO code = uri != null ? codesByUri.get(uri.trim().toLowerCase()) : null;
+            if (code != null) {
+                codes.put(uri, code);
             }
         }
         return codes;
     }
 
+    /**
+     * Returns the registry and code scheme part of a code URI path, or null if the URI does not point to a code.
+     */
+    private String getCodeSchemePath(final String uri) {
+        final String path = UriHashIndex.normalize(uri);
+        if (path == null) {
+            return null;
+        }
+        final String[] segments = path.split("/", 4);
+        if (segments.length != 4 || !"code".equals(segments[2])) {
+            return null;
+        }
+        return segments[0] + "/" + segments[1];
+    }
+
+    /**
+     * Returns the hierarchy of the code scheme as nested nodes, either from the root codes or from the given code, or
+     * null if the code is not found.
+     */
+    public Set<CodeTreeNodeDTO> getCodeTree(final String codeRegistryCodeValue,
+                                            final String codeSchemeCodeValue,
+                                            final String codeCodeValue,
+                                            final List<String> statuses,
+                                            final Meta meta,
+                                            final SourceFilter sourceFilter) {
+        final CodeTree<CodeDTO> tree = loadCodeTree(codeRegistryCodeValue, codeSchemeCodeValue, statuses, sourceFilter);
+        final int[] topNodes;
+        if (codeCodeValue != null) {
+            final int node = findCodeTreeNode(tree, codeCodeValue);
+            if (node < 0) {
+                return null;
+            }
+            topNodes = new int[]{ node };
+        } else {
+            topNodes = tree.getRoots();
+        }
+        final CodeTreeNodeDTO[] nodes = new CodeTreeNodeDTO[tree.size()];
+        final Set<CodeTreeNodeDTO> results = new LinkedHashSet<>();
+        final int[] subtrees = tree.getSubtrees(topNodes);
+        for (final int node : subtrees) {
+            nodes[node] = new CodeTreeNodeDTO(tree.get(node));
+            final int parent = tree.getParent(node);
+            if (parent >= 0 && nodes[parent] != null) {
+                nodes[parent].addChild(nodes[node]);
+            } else {
+                results.add(nodes[node]);
+            }
+        }
+        meta.setResultCount(subtrees.length);
+        meta.setTotalResults(subtrees.length);
+        return results;
+    }
+
+    /**
+     * Returns all narrower codes of the given code in depth first order, or null if the code is not found.
+     */
+    public Set<CodeDTO> getCodeDescendants(final String codeRegistryCodeValue,
+                                           final String codeSchemeCodeValue,
+                                           final String codeCodeValue,
+                                           final List<String> statuses,
+                                           final Meta meta,
+                                           final SourceFilter sourceFilter) {
+        final CodeTree<CodeDTO> tree = loadCodeTree(codeRegistryCodeValue, codeSchemeCodeValue, statuses, sourceFilter);
+        final int node = findCodeTreeNode(tree, codeCodeValue);
+        if (node < 0) {
+            return null;
+        }
+        final int[] descendants = tree.getDescendants(node);
+        final Set<CodeDTO> codes = new LinkedHashSet<>(descendants.length * 2);
+        for (final int descendant : descendants) {
+            codes.add(tree.get(descendant));
+        }
+        meta.setResultCount(codes.size());
+        meta.setTotalResults(codes.size());
+        return codes;
+    }
+
+    /**
+     * Loads all codes of the code scheme with a single scroll and assembles their broader code hierarchy in memory,
+     * ordering siblings like the code listings. Codes whose broader code is left out by the status filter are roots.
+     */
+    private CodeTree<CodeDTO> loadCodeTree(final String codeRegistryCodeValue,
+                                           final String codeSchemeCodeValue,
+                                           final List<String> statuses,
+                                           final SourceFilter sourceFilter) {
+        final List<CodeDTO> codes = new ArrayList<>();
+        if (checkIfIndexExists(ELASTIC_INDEX_CODE)) {
+            final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
+            final BoolQueryBuilder query = constructCodesQuery(codeRegistryCodeValue, codeSchemeCodeValue, null, null, null, null, statuses, null);
+            try {
+                indexScanner.scan(query, null, sourceFilter != null && !sourceFilter.isEmpty() ? sourceFilter.getExcludes() : null, hit -> {
+                    try {
+                        codes.add(mapper.readValue(hit.getSourceAsString(), CodeDTO.class));
+                    } catch (final IOException e) {
+                        LOG.error("loadCodeTree reading value from JSON string failed: " + hit.getSourceAsString(), e);
+                        throw new JsonParsingException(ERR_MSG_USER_406);
+                    }
+                }, ELASTIC_INDEX_CODE);
+            } catch (final IOException e) {
+                LOG.error("Scrolling codes failed!", e);
+                throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+            }
+        }
+        final long start = System.nanoTime();
+        codes.sort(CODE_ORDER);
+        final CodeTree.Builder<CodeDTO> builder = new CodeTree.Builder<>();
+        for (final CodeDTO code : codes) {
+            builder.add(code.getId() != null ? code.getId().toString() : null, code.getBroaderCode() != null && code.getBroaderCode().getId() != null ? code.getBroaderCode().getId().toString() : null, code);
+        }
+        final CodeTree<CodeDTO> tree = builder.build();
+        LOG.debug(String.format("Built code tree of %d codes for %s/%s in %d ms, using %d bytes.", tree.size(), codeRegistryCodeValue, codeSchemeCodeValue, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), tree.getMemoryBytes()));
+        return tree;
+    }
+
+    private int findCodeTreeNode(final CodeTree<CodeDTO> tree,
+                                 final String codeCodeValue) {
+        final String value = codeCodeValue.trim();
+        final int node = tree.indexOf(value.toLowerCase());
+        if (node >= 0) {
+            return node;
+        }
+        for (int i = 0; i < tree.size(); i++) {
+            if (value.equalsIgnoreCase(tree.get(i).getCodeValue())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int countCodes(final String codeRegistryCodeValue,
+                          final String codeSchemeCodeValue,
+                          final String codeCodeValue,
+                          final String prefLabel,
+                          final Integer hierarchyLevel,
+                          final String broaderCodeId,
+                          final List<String> statuses,
+                          final Meta meta) {
+        int count = 0;
+        if (checkIfIndexExists(ELASTIC_INDEX_CODE)) {
+            count = countDocuments(ELASTIC_INDEX_CODE, constructCodesQuery(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, statuses, meta));
+        }
+        setCountResult(meta, count);
+        return count;
+    }
+
+    public FacetsDTO getCodeFacets(final String codeRegistryCodeValue,
+                                   final String codeSchemeCodeValue,
+                                   final String codeCodeValue,
+                                   final String prefLabel,
+                                   final Integer hierarchyLevel,
+                                   final String broaderCodeId,
+                                   final List<String> statuses,
+                                   final Meta meta) {
+        final Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        if (checkIfIndexExists(ELASTIC_INDEX_CODE)) {
+            final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+            searchBuilder.size(0);
+            searchBuilder.query(constructCodesQuery(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, statuses, meta));
+            searchBuilder.aggregation(AggregationBuilders.terms(FACET_STATUS).field("status.keyword").size(MAX_FACET_SIZE));
+            searchBuilder.aggregation(AggregationBuilders.terms(FACET_HIERARCHY_LEVEL).field("hierarchyLevel").size(MAX_FACET_SIZE));
+            try {
+                final SearchResponse response = search(createSearchRequest(ELASTIC_INDEX_CODE).source(searchBuilder));
+                setResultCounts(meta, response);
+                facets.put(FACET_STATUS, getTermCounts(response.getAggregations().get(FACET_STATUS)));
+                facets.put(FACET_HIERARCHY_LEVEL, getTermCounts(response.getAggregations().get(FACET_HIERARCHY_LEVEL)));
+            } catch (final IOException e) {
+                LOG.error("SearchRequest failed!", e);
+                throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+            }
+        }
+        return new FacetsDTO(meta, facets);
+    }
+
+    private BoolQueryBuilder constructCodesQuery(final String codeRegistryCodeValue,
+                                                 final String codeSchemeCodeValue,
+                                                 final String codeCodeValue,
+                                                 final String prefLabel,
+                                                 final Integer hierarchyLevel,
+                                                 final String broaderCodeId,
+                                                 final List<String> statuses,
+                                                 final Meta meta) {
+        final BoolQueryBuilder builder = constructSearchQuery(codeCodeValue, prefLabel);
+        embedAfterBeforeToBoolQuery(builder, meta);
+        builder.filter(matchQuery("codeScheme.codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
+        builder.filter(boolQuery().should(matchQuery("codeScheme.codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).should(matchQuery("codeScheme.id", codeSchemeCodeValue.toLowerCase())).minimumShouldMatch(1));
+        if (hierarchyLevel != null) {
+            builder.filter(rangeQuery("hierarchyLevel").lte(hierarchyLevel));
+        }
+        if (broaderCodeId != null && !broaderCodeId.isEmpty()) {
+            builder.filter(matchQuery("broaderCode.id", broaderCodeId.toLowerCase()));
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            builder.filter(termsQuery("status.keyword", statuses));
+        }
+        return builder;
+    }
+
     public PropertyTypeDTO getPropertyType(final String propertyTypeIdentifier) {
+        if (referenceDataReplica.isPropertyTypesAvailable()) {
+            final PropertyTypeDTO propertyType = referenceDataReplica.getPropertyType(propertyTypeIdentifier);
+            if (propertyType != null) {
+                return propertyType;
+            }
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_PROPERTYTYPE)) {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
             final BoolQueryBuilder builder = new BoolQueryBuilder().should(matchQuery("id", propertyTypeIdentifier.toLowerCase())).should(matchQuery("localName", propertyTypeIdentifier.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
             final SearchRequest searchRequest = createSearchRequestWithBoolQueryBuilder(ELASTIC_INDEX_PROPERTYTYPE, builder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 if (response.getHits().getTotalHits() > 0) {
                     final SearchHit hit = response.getHits().getAt(0);
                     try {
@@ -564,6 +1283,9 @@ public class DomainImpl implements Domain {
                                                  final String type,
                                                  final Meta meta) {
         validatePageSize(meta);
+        if (referenceDataReplica.isPropertyTypesAvailable()) {
+            return referenceDataReplica.getPropertyTypes(propertyTypePrefLabel, context, language, type, meta);
+        }
         final Set<PropertyTypeDTO> propertyTypes = new LinkedHashSet<>();
         if (checkIfIndexExists(ELASTIC_INDEX_PROPERTYTYPE)) {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
@@ -572,16 +1294,16 @@ public class DomainImpl implements Domain {
             final BoolQueryBuilder builder = constructSearchQuery(null, propertyTypePrefLabel);
             embedAfterBeforeToBoolQuery(builder, meta);
             if (context != null) {
-                builder.must(prefixQuery("context", context.toLowerCase()));
+                builder.filter(prefixQuery("context", context.toLowerCase()));
             }
             if (type != null) {
-                builder.must(prefixQuery("type", type.toLowerCase()));
+                builder.filter(prefixQuery("type", type.toLowerCase()));
             }
             addLanguagePrefLabelSort(language, "localName.keyword", "localName.keyword", searchBuilder);
             searchBuilder.query(builder);
             searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 setResultCounts(meta, response);
                 response.getHits().forEach(hit -> {
                     try {
@@ -601,12 +1323,18 @@ public class DomainImpl implements Domain {
     }
 
     public ValueTypeDTO getValueType(final String valueTypeIdentifier) {
+        if (referenceDataReplica.isValueTypesAvailable()) {
+            final ValueTypeDTO valueType = referenceDataReplica.getValueType(valueTypeIdentifier);
+            if (valueType != null) {
+                return valueType;
+            }
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_VALUETYPE)) {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
             final BoolQueryBuilder builder = new BoolQueryBuilder().should(matchQuery("id", valueTypeIdentifier.toLowerCase())).should(matchQuery("localName", valueTypeIdentifier.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
-            final SearchRequest searchRequest = createSearchRequestWithBoolQueryBuilder(ELASTIC_INDEX_PROPERTYTYPE, builder);
+            final SearchRequest searchRequest = createSearchRequestWithBoolQueryBuilder(ELASTIC_INDEX_VALUETYPE, builder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 if (response.getHits().getTotalHits() > 0) {
                     final SearchHit hit = response.getHits().getAt(0);
                     try {
@@ -629,6 +1357,9 @@ public class DomainImpl implements Domain {
     public Set<ValueTypeDTO> getValueTypes(final String localName,
                                            final Meta meta) {
         validatePageSize(meta);
+        if (referenceDataReplica.isValueTypesAvailable()) {
+            return referenceDataReplica.getValueTypes(localName, meta);
+        }
         final Set<ValueTypeDTO> valueTypes = new LinkedHashSet<>();
         if (checkIfIndexExists(ELASTIC_INDEX_VALUETYPE)) {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
@@ -636,12 +1367,12 @@ public class DomainImpl implements Domain {
             final SearchSourceBuilder searchBuilder = createSearchSourceBuilderWithPagination(meta);
             final BoolQueryBuilder builder = constructBoolQueryWithAfterAndBeforeRange(meta);
             if (localName != null) {
-                builder.must(prefixQuery("localName", localName.toLowerCase()));
+                builder.filter(prefixQuery("localName", localName.toLowerCase()));
             }
             searchBuilder.query(builder);
             searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 setResultCounts(meta, response);
                 response.getHits().forEach(hit -> {
                     try {
@@ -662,11 +1393,14 @@ public class DomainImpl implements Domain {
 
     public ExternalReferenceDTO getExternalReference(final String externalReferenceId) {
         if (checkIfIndexExists(ELASTIC_INDEX_EXTERNALREFERENCE)) {
+            if (isUuid(externalReferenceId)) {
+                return getDocumentById(ELASTIC_INDEX_EXTERNALREFERENCE, externalReferenceId, ExternalReferenceDTO.class);
+            }
             final BoolQueryBuilder builder = boolQuery().must(matchQuery("id", externalReferenceId.toLowerCase()));
             final SearchRequest searchRequest = createSearchRequestWithBoolQueryBuilder(ELASTIC_INDEX_EXTERNALREFERENCE, builder);
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 if (response.getHits().getTotalHits() > 0) {
                     final SearchHit hit = response.getHits().getAt(0);
                     try {
@@ -705,12 +1439,12 @@ public class DomainImpl implements Domain {
             if (codeScheme != null) {
                 builder.should(boolQuery().should(boolQuery().must(matchQuery("parentCodeScheme.codeRegistry.codeValue", codeScheme.getCodeRegistry().getCodeValue().toLowerCase()).analyzer(TEXT_ANALYZER)).must(matchQuery("parentCodeScheme.id", codeScheme.getId().toString().toLowerCase()))).should(boolQuery().must(matchQuery("global", true))));
             } else if (!full) {
-                builder.must(matchQuery("global", true));
+                builder.filter(matchQuery("global", true));
             }
             searchBuilder.query(builder);
             searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 setResultCounts(meta, response);
                 response.getHits().forEach(hit -> {
                     try {
@@ -735,12 +1469,25 @@ public class DomainImpl implements Domain {
 
     public Set<ExtensionDTO> getExtensions(final String extensionPrefLabel,
                                            final Meta meta) {
-        return getExtensions(null, extensionPrefLabel, meta);
+        return getExtensions(null, extensionPrefLabel, meta, null);
+    }
+
+    public Set<ExtensionDTO> getExtensions(final String extensionPrefLabel,
+                                           final Meta meta,
+                                           final SourceFilter sourceFilter) {
+        return getExtensions(null, extensionPrefLabel, meta, sourceFilter);
     }
 
     public Set<ExtensionDTO> getExtensions(final CodeSchemeDTO codeScheme,
                                            final String extensionPrefLabel,
                                            final Meta meta) {
+        return getExtensions(codeScheme, extensionPrefLabel, meta, null);
+    }
+
+    private Set<ExtensionDTO> getExtensions(final CodeSchemeDTO codeScheme,
+                                            final String extensionPrefLabel,
+                                            final Meta meta,
+                                            final SourceFilter sourceFilter) {
         validatePageSize(meta);
         final Set<ExtensionDTO> extensions = new LinkedHashSet<>();
         if (checkIfIndexExists(ELASTIC_INDEX_EXTENSION)) {
@@ -751,12 +1498,13 @@ public class DomainImpl implements Domain {
             final BoolQueryBuilder builder = constructSearchQuery(null, extensionPrefLabel);
             embedAfterBeforeToBoolQuery(builder, meta);
             if (codeScheme != null) {
-                builder.must(matchQuery("parentCodeScheme.id", codeScheme.getId().toString().toLowerCase()));
+                builder.filter(matchQuery("parentCodeScheme.id", codeScheme.getId().toString().toLowerCase()));
             }
             searchBuilder.query(builder);
+            applySourceFilter(searchBuilder, sourceFilter);
             searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 setResultCounts(meta, response);
                 response.getHits().forEach(hit -> {
                     try {
@@ -778,20 +1526,44 @@ public class DomainImpl implements Domain {
     public ExtensionDTO getExtension(final String codeRegistryCodeValue,
                                      final String codeSchemeCodeValue,
                                      final String extensionCodeValue) {
+        if (!existenceFilter.mightContainResource(ELASTIC_INDEX_EXTENSION, null, codeRegistryCodeValue, codeSchemeCodeValue, extensionCodeValue)) {
+            return null;
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_EXTENSION)) {
             final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
             searchBuilder.sort("codeValue.raw", SortOrder.ASC);
-            final BoolQueryBuilder builder = boolQuery().should(matchQuery("id", extensionCodeValue.toLowerCase())).should(matchQuery("codeValue", extensionCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
-            builder.must(matchQuery("parentCodeScheme.codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
-            builder.must(matchQuery("parentCodeScheme.codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
-            searchBuilder.query(builder);
+            searchBuilder.query(createExtensionQuery(codeRegistryCodeValue, codeSchemeCodeValue, extensionCodeValue));
             return doExtensionRequest(searchBuilder);
         }
         return null;
     }
 
+    public boolean extensionExists(final String codeRegistryCodeValue,
+                                   final String codeSchemeCodeValue,
+                                   final String extensionCodeValue) {
+        if (!existenceFilter.mightContainResource(ELASTIC_INDEX_EXTENSION, null, codeRegistryCodeValue, codeSchemeCodeValue, extensionCodeValue)) {
+            return false;
+        }
+        return documentExists(ELASTIC_INDEX_EXTENSION, createExtensionQuery(codeRegistryCodeValue, codeSchemeCodeValue, extensionCodeValue));
+    }
+
+    private BoolQueryBuilder createExtensionQuery(final String codeRegistryCodeValue,
+                                                  final String codeSchemeCodeValue,
+                                                  final String extensionCodeValue) {
+        final BoolQueryBuilder builder = boolQuery().should(matchQuery("id", extensionCodeValue.toLowerCase())).should(matchQuery("codeValue", extensionCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER)).minimumShouldMatch(1);
+        builder.filter(matchQuery("parentCodeScheme.codeRegistry.codeValue", codeRegistryCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
+        builder.filter(matchQuery("parentCodeScheme.codeValue", codeSchemeCodeValue.toLowerCase()).analyzer(TEXT_ANALYZER));
+        return builder;
+    }
+
     public ExtensionDTO getExtension(final String extensionId) {
+        if (isUuid(extensionId) && !existenceFilter.mightContainId(ELASTIC_INDEX_EXTENSION, extensionId)) {
+            return null;
+        }
         if (checkIfIndexExists(ELASTIC_INDEX_EXTENSION)) {
+            if (isUuid(extensionId)) {
+                return getDocumentById(ELASTIC_INDEX_EXTENSION, extensionId, ExtensionDTO.class);
+            }
             final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
             final BoolQueryBuilder builder = boolQuery().must(matchQuery("id", extensionId.toLowerCase()));
             searchBuilder.query(builder);
@@ -800,12 +1572,19 @@ public class DomainImpl implements Domain {
         return null;
     }
 
+    public boolean extensionExists(final String extensionId) {
+        if (isUuid(extensionId) && !existenceFilter.mightContainId(ELASTIC_INDEX_EXTENSION, extensionId)) {
+            return false;
+        }
+        return documentExists(ELASTIC_INDEX_EXTENSION, createIdQuery(extensionId));
+    }
+
     private ExtensionDTO doExtensionRequest(final SearchSourceBuilder searchBuilder) {
         final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_EXTENSION);
         searchRequest.source(searchBuilder);
         final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
         try {
-            final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+            final SearchResponse response = search(searchRequest);
             if (response.getHits().getTotalHits() > 0) {
                 final SearchHit hit = response.getHits().getAt(0);
                 try {
@@ -835,12 +1614,12 @@ public class DomainImpl implements Domain {
             searchBuilder.sort("order", SortOrder.ASC);
             final BoolQueryBuilder builder = constructBoolQueryWithAfterAndBeforeRange(meta);
             if (code != null) {
-                builder.must(matchQuery("code.id", code.getId().toString().toLowerCase()));
+                builder.filter(matchQuery("code.id", code.getId().toString().toLowerCase()));
             }
             searchBuilder.query(builder);
             searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 setResultCounts(meta, response);
                 response.getHits().forEach(hit -> {
                     try {
@@ -859,7 +1638,23 @@ public class DomainImpl implements Domain {
         return members;
     }
 
+    public Map<String, CodeReferencesDTO> getCodeReferences(final Collection<String> codeIds) {
+        return codeReferenceIndex.getReferences(codeIds);
+    }
+
+    public List<SuggestionDTO> getSuggestions(final String term,
+                                              final Collection<String> types,
+                                              final String language,
+                                              final int limit) {
+        return suggestIndex.suggest(term, types, language, limit);
+    }
+
     public Set<MemberDTO> getMembers(final Meta meta) {
+        return getMembers(meta, null);
+    }
+
+    public Set<MemberDTO> getMembers(final Meta meta,
+                                     final SourceFilter sourceFilter) {
         validatePageSize(meta);
         final Set<MemberDTO> members;
         if (checkIfIndexExists(ELASTIC_INDEX_MEMBER)) {
@@ -867,6 +1662,7 @@ public class DomainImpl implements Domain {
             searchBuilder.sort("order", SortOrder.ASC);
             final BoolQueryBuilder builder = constructBoolQueryWithAfterAndBeforeRange(meta);
             searchBuilder.query(builder);
+            applySourceFilter(searchBuilder, sourceFilter);
             members = doMemberRequest(searchBuilder, meta);
         } else {
             members = new LinkedHashSet<>();
@@ -884,7 +1680,7 @@ public class DomainImpl implements Domain {
             final BoolQueryBuilder builder = constructBoolQueryWithAfterAndBeforeRange(meta);
             searchBuilder.query(builder);
             if (extension != null) {
-                builder.must(matchQuery("extension.id", extension.getId().toString().toLowerCase()));
+                builder.filter(matchQuery("extension.id", extension.getId().toString().toLowerCase()));
             }
             members = doMemberRequest(searchBuilder, meta);
         } else {
@@ -900,7 +1696,7 @@ public class DomainImpl implements Domain {
         searchRequest.source(searchBuilder);
         final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
         try {
-            final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+            final SearchResponse response = search(searchRequest);
             setResultCounts(meta, response);
             response.getHits().forEach(hit -> {
                 try {
@@ -921,35 +1717,20 @@ public class DomainImpl implements Domain {
         return getMember(memberId, extensionCodeValue, null);
     }
 
-    @SuppressWarnings({ "ResultOfMethodCallIgnored" })
     public MemberDTO getMember(final String memberId,
                                final String extensionCodeValue,
                                String parentCodeSchemeValue) {
-        boolean memberIdIsUuid = true;
-        try {
-            UUID.fromString(memberId);
-        } catch (final Exception e) {
-            memberIdIsUuid = false;
-        }
         if (checkIfIndexExists(ELASTIC_INDEX_MEMBER)) {
+            if (isUuid(memberId)) {
+                return getDocumentById(ELASTIC_INDEX_MEMBER, memberId, MemberDTO.class);
+            }
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
             final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_MEMBER);
             final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
-            if (memberIdIsUuid) {
-                final BoolQueryBuilder builder = boolQuery().must(matchQuery("id", memberId.toLowerCase()));
-                searchBuilder.query(builder);
-                searchRequest.source(searchBuilder);
-            } else {
-                final BoolQueryBuilder builder = boolQuery().must(matchQuery("sequenceId", memberId)).must(matchQuery("extension.codeValue", extensionCodeValue));
-
-                if (parentCodeSchemeValue != null) {
-                    builder.must(matchQuery("extension.parentCodeScheme.codeValue", parentCodeSchemeValue));
-                }
-                searchBuilder.query(builder);
-                searchRequest.source(searchBuilder);
-            }
+            searchBuilder.query(createMemberQuery(memberId, extensionCodeValue, parentCodeSchemeValue));
+            searchRequest.source(searchBuilder);
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+                final SearchResponse response = search(searchRequest);
                 if (response.getHits().getTotalHits() > 0) {
                     final SearchHit hit = response.getHits().getAt(0);
                     try {
@@ -968,6 +1749,75 @@ public class DomainImpl implements Domain {
         return null;
     }
 
+    public boolean memberExists(final String memberId,
+                                final String extensionCodeValue,
+                                final String parentCodeSchemeValue) {
+        return documentExists(ELASTIC_INDEX_MEMBER, isUuid(memberId) ? createIdQuery(memberId) : createMemberQuery(memberId, extensionCodeValue, parentCodeSchemeValue));
+    }
+
+    public boolean codelistResourceExists(final String uri,
+                                          final String codeRegistryCodeValue,
+                                          final String codeSchemeCodeValue,
+                                          final String codeCodeValue,
+                                          final String extensionCodeValue,
+                                          final String memberId) {
+        if (memberId == null && resourceUriIndex.contains(uri)) {
+            return true;
+        }
+        if (memberId != null) {
+            final BoolQueryBuilder builder = isUuid(memberId) ? boolQuery().filter(matchQuery("id", memberId.toLowerCase())).filter(matchQuery("extension.codeValue", extensionCodeValue)).filter(matchQuery("extension.parentCodeScheme.codeValue", codeSchemeCodeValue)) : createMemberQuery(memberId, extensionCodeValue, codeSchemeCodeValue);
+            return resourceExists(ELASTIC_INDEX_MEMBER, uri, builder);
+        } else if (codeCodeValue != null) {
+            if (!existenceFilter.mightContainResource(ELASTIC_INDEX_CODE, uri, codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue)) {
+                return false;
+            }
+            return resourceExists(ELASTIC_INDEX_CODE, uri, createCodeQuery(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue));
+        } else if (extensionCodeValue != null) {
+            if (!existenceFilter.mightContainResource(ELASTIC_INDEX_EXTENSION, uri, codeRegistryCodeValue, codeSchemeCodeValue, extensionCodeValue)) {
+                return false;
+            }
+            return resourceExists(ELASTIC_INDEX_EXTENSION, uri, createExtensionQuery(codeRegistryCodeValue, codeSchemeCodeValue, extensionCodeValue));
+        } else if (codeSchemeCodeValue != null) {
+            if (codeCatalogReplica.isCodeSchemesAvailable() && codeCatalogReplica.containsCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue)) {
+                return true;
+            }
+            if (!existenceFilter.mightContainResource(ELASTIC_INDEX_CODESCHEME, uri, codeRegistryCodeValue, codeSchemeCodeValue)) {
+                return false;
+            }
+            return resourceExists(ELASTIC_INDEX_CODESCHEME, uri, createCodeSchemeQuery(codeRegistryCodeValue, codeSchemeCodeValue));
+        }
+        return codeRegistryExists(codeRegistryCodeValue);
+    }
+
+    /**
+     * Finds the resource either by its indexed URI or by its code value and the parent code values embedded in the
+     * document, so that a resource path is validated with a single request to the index of the deepest resource. The
+     * uri field is indexed lowercased, so the URI is lowercased before the term lookup.
+     */
+    private boolean resourceExists(final String indexName,
+                                   final String uri,
+                                   final BoolQueryBuilder pathQuery) {
+        final BoolQueryBuilder builder = boolQuery().should(pathQuery).minimumShouldMatch(1);
+        if (uri != null && !uri.trim().isEmpty()) {
+            builder.should(termQuery("uri", uri.trim().toLowerCase()));
+        }
+        return documentExists(indexName, builder);
+    }
+
+    private BoolQueryBuilder createIdQuery(final String id) {
+        return boolQuery().filter(matchQuery("id", id.toLowerCase()));
+    }
+
+    private BoolQueryBuilder createMemberQuery(final String memberId,
+                                              final String extensionCodeValue,
+                                              final String parentCodeSchemeValue) {
+        final BoolQueryBuilder builder = boolQuery().filter(matchQuery("sequenceId", memberId)).filter(matchQuery("extension.codeValue", extensionCodeValue));
+        if (parentCodeSchemeValue != null) {
+            builder.filter(matchQuery("extension.parentCodeScheme.codeValue", parentCodeSchemeValue));
+        }
+        return builder;
+    }
+
     public Set<ResourceDTO> getContainers(final List<String> includedContainerUris,
                                           final List<String> excludedContainerUris,
                                           final String language,
@@ -980,54 +1830,22 @@ public class DomainImpl implements Domain {
         final Set<ResourceDTO> containers = new LinkedHashSet<>();
         if (checkIfIndexExists(ELASTIC_INDEX_CODESCHEME)) {
             final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
-            final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_CODESCHEME);
-            final SearchSourceBuilder searchBuilder = createSearchSourceBuilderWithPagination(meta);
-            final BoolQueryBuilder builder = constructAndOrQueryForPrefLabelAndCodeValue(searchTerm);
-            embedAfterBeforeToBoolQuery(builder, meta);
-            addLanguagePrefLabelSort(language, "codeValue.raw", "codeValue.raw", searchBuilder);
-            if (includedContainerUris != null && !includedContainerUris.isEmpty()) {
-                builder.must(termsQuery("uri", includedContainerUris));
-            } else if (excludedContainerUris != null && !excludedContainerUris.isEmpty()) {
-                builder.mustNot(termsQuery("uri", excludedContainerUris));
-            }
-            if (statuses != null && !statuses.isEmpty()) {
-                final BoolQueryBuilder boolQueryBuilder = boolQuery();
-                if (!includeIncomplete && statuses.contains(Status.INCOMPLETE.toString())) {
-                    if (includeIncompleteFrom != null && !includeIncompleteFrom.isEmpty()) {
-                        final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
-                        incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
-                        incompleteQueryBuilder.must(nestedQuery("organizations", termsQuery("organizations.id.keyword", includeIncompleteFrom), ScoreMode.None));
-                        boolQueryBuilder.should(incompleteQueryBuilder);
-                    }
-                    statuses.remove(Status.INCOMPLETE.toString());
-                }
-                boolQueryBuilder.should(termsQuery("status.keyword", statuses));
-                boolQueryBuilder.minimumShouldMatch(1);
-                builder.must(boolQueryBuilder);
-            } else {
-                final BoolQueryBuilder boolQueryBuilder = boolQuery();
-                boolQueryBuilder.should(termsQuery("status.keyword", getRegularStatuses()));
-                if (includeIncomplete) {
-                    final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
-                    incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
-                    boolQueryBuilder.should(incompleteQueryBuilder);
-                } else if (includeIncompleteFrom != null && !includeIncompleteFrom.isEmpty()) {
-                    final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
-                    incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
-                    incompleteQueryBuilder.must(nestedQuery("organizations", termsQuery("organizations.id.keyword", includeIncompleteFrom), ScoreMode.None));
-                    boolQueryBuilder.should(incompleteQueryBuilder);
-                }
-                boolQueryBuilder.minimumShouldMatch(1);
-                builder.must(boolQueryBuilder);
-            }
-            final String[] includeFields = new String[]{ "id", "codeValue", "prefLabel", "description", "created", "modified", "contentModified", "statusModified", "status", "uri", "organizations", "languageCodes" };
-            searchBuilder.fetchSource(includeFields, null);
-            searchBuilder.query(builder);
-            searchRequest.source(searchBuilder);
+            final List<String> includedUris = distinctUris(includedContainerUris);
+            final List<String> excludedUris = includedUris.isEmpty() ? distinctUris(excludedContainerUris) : Collections.emptyList();
             try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
-                setResultCounts(meta, response);
-                response.getHits().forEach(hit -> {
+                final Iterable<SearchHit> hits;
+                if (Math.max(includedUris.size(), excludedUris.size()) > uriListInMemoryThreshold && codeCatalogReplica.isCodeSchemesAvailable()) {
+                    hits = searchContainersByCodeSchemeIds(includedUris, excludedUris, language, statuses, searchTerm, includeIncompleteFrom, includeIncomplete, meta);
+                } else if (includedUris.size() > URI_TERMS_CHUNK_SIZE) {
+                    hits = searchByUriChunks(createSearchRequest(ELASTIC_INDEX_CODESCHEME), includedUris, chunk -> createContainersSearchSource(chunk, excludedUris, language, statuses, searchTerm, includeIncompleteFrom, includeIncomplete, meta), meta);
+                } else {
+                    final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_CODESCHEME);
+                    searchRequest.source(createContainersSearchSource(includedUris, excludedUris, language, statuses, searchTerm, includeIncompleteFrom, includeIncomplete, meta));
+                    final SearchResponse response = search(searchRequest);
+                    setResultCounts(meta, response);
+                    hits = response.getHits();
+                }
+                hits.forEach(hit -> {
                     try {
                         final CodeSchemeDTO codeSchemeDto = mapper.readValue(hit.getSourceAsString(), CodeSchemeDTO.class);
                         containers.add(new ResourceDTO(codeSchemeDto));
@@ -1044,6 +1862,88 @@ public class DomainImpl implements Domain {
         return containers;
     }
 
+    /**
+     * Resolves a long URI list to code scheme ids with the code catalog replica and filters the search by the ids, so
+     * that neither the URI list nor a scan of the code schemes is sent to ElasticSearch. Code schemes added after the
+     * last replica refresh are not matched until the next refresh.
+     */
+    private List<SearchHit> searchContainersByCodeSchemeIds(final List<String> includedUris,
+                                                            final List<String> excludedUris,
+                                                            final String language,
+                                                            final List<String> statuses,
+                                                            final String searchTerm,
+                                                            final List<String> includeIncompleteFrom,
+                                                            final boolean includeIncomplete,
+                                                            final Meta meta) throws IOException {
+        final boolean include = !includedUris.isEmpty();
+        final Set<String> codeSchemeIds = codeCatalogReplica.getCodeSchemeIds(include ? includedUris : excludedUris);
+        if (include && codeSchemeIds.isEmpty()) {
+            return page(Collections.emptyList(), meta);
+        }
+        final SearchSourceBuilder searchBuilder = createContainersSearchSource(null, null, language, statuses, searchTerm, includeIncompleteFrom, includeIncomplete, meta);
+        final BoolQueryBuilder builder = (BoolQueryBuilder) searchBuilder.query();
+        if (include) {
+            builder.filter(createChunkedTermsQuery("id", codeSchemeIds));
+        } else if (!codeSchemeIds.isEmpty()) {
+            builder.mustNot(createChunkedTermsQuery("id", codeSchemeIds));
+        }
+        final SearchRequest searchRequest = createSearchRequest(ELASTIC_INDEX_CODESCHEME);
+        searchRequest.source(searchBuilder);
+        final SearchResponse response = search(searchRequest);
+        setResultCounts(meta, response);
+        return Arrays.asList(response.getHits().getHits());
+    }
+
+    private SearchSourceBuilder createContainersSearchSource(final Collection<String> includedUris,
+                                                             final Collection<String> excludedUris,
+                                                             final String language,
+                                                             final List<String> statuses,
+                                                             final String searchTerm,
+                                                             final List<String> includeIncompleteFrom,
+                                                             final boolean includeIncomplete,
+                                                             final Meta meta) {
+        final SearchSourceBuilder searchBuilder = createSearchSourceBuilderWithPagination(meta);
+        final BoolQueryBuilder builder = constructAndOrQueryForPrefLabelAndCodeValue(searchTerm);
+        embedAfterBeforeToBoolQuery(builder, meta);
+        addLanguagePrefLabelSort(language, "codeValue.raw", "codeValue.raw", searchBuilder);
+        addUriFilter(builder, includedUris, excludedUris);
+        if (statuses != null && !statuses.isEmpty()) {
+            final List<String> statusList = new ArrayList<>(statuses);
+            final BoolQueryBuilder boolQueryBuilder = boolQuery();
+            if (!includeIncomplete && statusList.contains(Status.INCOMPLETE.toString())) {
+                if (includeIncompleteFrom != null && !includeIncompleteFrom.isEmpty()) {
+                    final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
+                    incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
+                    incompleteQueryBuilder.must(nestedQuery("organizations", termsQuery("organizations.id.keyword", includeIncompleteFrom), ScoreMode.None));
+                    boolQueryBuilder.should(incompleteQueryBuilder);
+                }
+                statusList.remove(Status.INCOMPLETE.toString());
+            }
+            boolQueryBuilder.should(termsQuery("status.keyword", statusList));
+            boolQueryBuilder.minimumShouldMatch(1);
+            builder.filter(boolQueryBuilder);
+        } else {
+            final BoolQueryBuilder boolQueryBuilder = boolQuery();
+            boolQueryBuilder.should(termsQuery("status.keyword", getRegularStatuses()));
+            if (includeIncomplete) {
+                final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
+                incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
+                boolQueryBuilder.should(incompleteQueryBuilder);
+            } else if (includeIncompleteFrom != null && !includeIncompleteFrom.isEmpty()) {
+                final BoolQueryBuilder incompleteQueryBuilder = boolQuery();
+                incompleteQueryBuilder.must(matchQuery("status.keyword", Status.INCOMPLETE.toString()));
+                incompleteQueryBuilder.must(nestedQuery("organizations", termsQuery("organizations.id.keyword", includeIncompleteFrom), ScoreMode.None));
+                boolQueryBuilder.should(incompleteQueryBuilder);
+            }
+            boolQueryBuilder.minimumShouldMatch(1);
+            builder.filter(boolQueryBuilder);
+        }
+        final String[] includeFields = new String[]{ "id", "codeValue", "prefLabel", "description", "created", "modified", "contentModified", "statusModified", "status", "uri", "organizations", "languageCodes" };
+        searchBuilder.fetchSource(includeFields, null);
+        searchBuilder.query(builder);
+        return searchBuilder;
+    }
+
     public Set<ResourceDTO> getResources(final List<String> containerUris,
                                          final List<String> includedResourceUris,
                                          final List<String> excludedResourceUris,
@@ -1069,66 +1969,24 @@ public class DomainImpl implements Domain {
                 searchRequest.indices(ELASTIC_INDEX_CODE, ELASTIC_INDEX_EXTENSION);
                 searchRequest.types(ELASTIC_TYPE_CODE, ELASTIC_TYPE_EXTENSION);
             }
-            final SearchSourceBuilder searchBuilder = createSearchSourceBuilderWithPagination(meta);
-            final BoolQueryBuilder builder = constructAndOrQueryForPrefLabelAndCodeValue(searchTerm);
-            embedAfterBeforeToBoolQuery(builder, meta);
-            if (containerUris != null && !containerUris.isEmpty()) {
-                final BoolQueryBuilder codeschemeUriQueryBuilder = boolQuery();
-                codeschemeUriQueryBuilder.should(termsQuery("codeScheme.uri", containerUris));
-                codeschemeUriQueryBuilder.should(termsQuery("parentCodeScheme.uri", containerUris));
-                codeschemeUriQueryBuilder.minimumShouldMatch(1);
-                builder.must(codeschemeUriQueryBuilder);
-            } else {
-                final BoolQueryBuilder codeSchemeStatusQueryBuilder = boolQuery();
-                codeSchemeStatusQueryBuilder.should(termsQuery("codeScheme.status.keyword", getRegularStatuses()));
-                codeSchemeStatusQueryBuilder.should(termsQuery("parentCodeScheme.status.keyword", getRegularStatuses()));
-                if (includeIncomplete) {
-                    final BoolQueryBuilder codeSchemeIncompleteQueryBuilder = boolQuery();
-                    if (type == null || type.equalsIgnoreCase(ELASTIC_TYPE_CODE)) {
-                        codeSchemeIncompleteQueryBuilder.should(matchQuery("codeScheme.status.keyword", Status.INCOMPLETE.toString()));
-                    }
-                    if (type == null || type.equalsIgnoreCase(ELASTIC_TYPE_EXTENSION)) {
-                        codeSchemeIncompleteQueryBuilder.should(matchQuery("parentCodeScheme.status.keyword", Status.INCOMPLETE.toString()));
-                    }
-                    codeSchemeIncompleteQueryBuilder.minimumShouldMatch(1);
-                    codeSchemeStatusQueryBuilder.should(codeSchemeIncompleteQueryBuilder);
-                } else if (includeIncompleteFrom != null && !includeIncompleteFrom.isEmpty()) {
-                    final BoolQueryBuilder codeSchemeIncompleteQueryBuilder = boolQuery();
-                    if (type == null || type.equalsIgnoreCase(ELASTIC_TYPE_CODE)) {
-                        final BoolQueryBuilder codeSchemeCodeStatusQueryBuilder = boolQuery();
-                        codeSchemeCodeStatusQueryBuilder.must(matchQuery("codeScheme.status.keyword", Status.INCOMPLETE.toString()));
-                        codeSchemeCodeStatusQueryBuilder.must(nestedQuery("codeScheme.organizations", termsQuery("codeScheme.organizations.id.keyword", includeIncompleteFrom), ScoreMode.None).ignoreUnmapped(true));
-                        codeSchemeIncompleteQueryBuilder.should(codeSchemeCodeStatusQueryBuilder);
-                    }
-                    if (type == null || type.equalsIgnoreCase(ELASTIC_TYPE_EXTENSION)) {
-                        final BoolQueryBuilder extensionParentCodeSchemeStatusQueryBuilder = boolQuery();
-                        extensionParentCodeSchemeStatusQueryBuilder.must(matchQuery("parentCodeScheme.status.keyword", Status.INCOMPLETE.toString()));
-                        extensionParentCodeSchemeStatusQueryBuilder.must(nestedQuery("parentCodeScheme.organizations", termsQuery("parentCodeScheme.organizations.id.keyword", includeIncompleteFrom), ScoreMode.None).ignoreUnmapped(true));
-                        codeSchemeIncompleteQueryBuilder.should(extensionParentCodeSchemeStatusQueryBuilder);
+            final List<String> includedUris = distinctUris(includedResourceUris);
+            final List<String> excludedUris = includedUris.isEmpty() ? distinctUris(excludedResourceUris) : Collections.emptyList();
+            try {
+                final Iterable<SearchHit> hits;
+                if (includedUris.size() > URI_TERMS_CHUNK_SIZE) {
+                    hits = searchByUriChunks(searchRequest, includedUris, chunk -> createResourcesSearchSource(containerUris, chunk, excludedUris, language, statuses, searchTerm, type, includeIncompleteFrom, includeIncomplete, meta), meta);
+                } else {
+                    final SearchResponse response;
+                    if (searchTemplates.isEnabled() && excludedUris.size() <= URI_TERMS_CHUNK_SIZE) {
+                        response = searchWithTemplate(searchRequest, TEMPLATE_RESOURCES, createResourcesTemplateParams(containerUris, includedUris, excludedUris, language, statuses, searchTerm, type, includeIncompleteFrom, includeIncomplete, meta));
+                    } else {
+                        searchRequest.source(createResourcesSearchSource(containerUris, includedUris, excludedUris, language, statuses, searchTerm, type, includeIncompleteFrom, includeIncomplete, meta));
+                        response = search(searchRequest);
                     }
-                    codeSchemeIncompleteQueryBuilder.minimumShouldMatch(1);
-                    codeSchemeStatusQueryBuilder.should(codeSchemeIncompleteQueryBuilder);
+                    setResultCounts(meta, response);
+                    hits = response.getHits();
                 }
-                codeSchemeStatusQueryBuilder.minimumShouldMatch(1);
-                builder.must(codeSchemeStatusQueryBuilder);
-            }
-            if (statuses != null && !statuses.isEmpty()) {
-                builder.must(termsQuery("status.keyword", statuses));
-            }
-            if (includedResourceUris != null && !includedResourceUris.isEmpty()) {
-                builder.must(termsQuery("uri", includedResourceUris));
-            } else if (excludedResourceUris != null && !excludedResourceUris.isEmpty()) {
-                builder.mustNot(termsQuery("uri", excludedResourceUris));
-            }
-            addLanguagePrefLabelSort(language, "codeValue.raw", "codeValue.raw", searchBuilder);
-            final String[] includeFields = new String[]{ "id", "codeValue", "prefLabel", "description", "created", "modified", "contentModified", "statusModified", "status", "uri", "codeScheme", "parentCodeScheme" };
-            searchBuilder.fetchSource(includeFields, null);
-            searchBuilder.query(builder);
-            searchRequest.source(searchBuilder);
-            try {
-                final SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
-                setResultCounts(meta, response);
-                response.getHits().forEach(hit -> {
+                hits.forEach(hit -> {
                     try {
                         final String objectType = hit.getType();
                         if (ELASTIC_TYPE_CODE.equalsIgnoreCase(objectType)) {
@@ -1151,11 +2009,283 @@ public class DomainImpl implements Domain {
         return resources;
     }
 
+    private SearchSourceBuilder createResourcesSearchSource(final List<String> containerUris,
+                                                            final Collection<String> includedResourceUris,
+                                                            final Collection<String> excludedResourceUris,
+                                                            final String language,
+                                                            final List<String> statuses,
+                                                            final String searchTerm,
+                                                            final String type,
+                                                            final List<String> includeIncompleteFrom,
+                                                            final boolean includeIncomplete,
+                                                            final Meta meta) {
+        final SearchSourceBuilder searchBuilder = createSearchSourceBuilderWithPagination(meta);
+        final BoolQueryBuilder builder = constructAndOrQueryForPrefLabelAndCodeValue(searchTerm);
+        embedAfterBeforeToBoolQuery(builder, meta);
+        if (containerUris != null && !containerUris.isEmpty()) {
+            final BoolQueryBuilder codeschemeUriQueryBuilder = boolQuery();
+            codeschemeUriQueryBuilder.should(termsQuery("codeScheme.uri", containerUris));
+            codeschemeUriQueryBuilder.should(termsQuery("parentCodeScheme.uri", containerUris));
+            codeschemeUriQueryBuilder.minimumShouldMatch(1);
+            builder.filter(codeschemeUriQueryBuilder);
+        } else {
+            final BoolQueryBuilder codeSchemeStatusQueryBuilder = boolQuery();
+            codeSchemeStatusQueryBuilder.should(termsQuery("codeScheme.status.keyword", getRegularStatuses()));
+            codeSchemeStatusQueryBuilder.should(termsQuery("parentCodeScheme.status.keyword", getRegularStatuses()));
+            if (includeIncomplete) {
+                final BoolQueryBuilder codeSchemeIncompleteQueryBuilder = boolQuery();
+                if (type == null || type.equalsIgnoreCase(ELASTIC_TYPE_CODE)) {
+                    codeSchemeIncompleteQueryBuilder.should(matchQuery("codeScheme.status.keyword", Status.INCOMPLETE.toString()));
+                }
+                if (type == null || type.equalsIgnoreCase(ELASTIC_TYPE_EXTENSION)) {
+                    codeSchemeIncompleteQueryBuilder.should(matchQuery("parentCodeScheme.status.keyword", Status.INCOMPLETE.toString()));
+                }
+                codeSchemeIncompleteQueryBuilder.minimumShouldMatch(1);
+                codeSchemeStatusQueryBuilder.should(codeSchemeIncompleteQueryBuilder);
+            } else if (includeIncompleteFrom != null && !includeIncompleteFrom.isEmpty()) {
+                final BoolQueryBuilder codeSchemeIncompleteQueryBuilder = boolQuery();
+                if (type == null || type.equalsIgnoreCase(ELASTIC_TYPE_CODE)) {
+                    final BoolQueryBuilder codeSchemeCodeStatusQueryBuilder = boolQuery();
+                    codeSchemeCodeStatusQueryBuilder.must(matchQuery("codeScheme.status.keyword", Status.INCOMPLETE.toString()));
+                    codeSchemeCodeStatusQueryBuilder.must(nestedQuery("codeScheme.organizations", termsQuery("codeScheme.organizations.id.keyword", includeIncompleteFrom), ScoreMode.None).ignoreUnmapped(true));
+                    codeSchemeIncompleteQueryBuilder.should(codeSchemeCodeStatusQueryBuilder);
+                }
+                if (type == null || type.equalsIgnoreCase(ELASTIC_TYPE_EXTENSION)) {
+                    final BoolQueryBuilder extensionParentCodeSchemeStatusQueryBuilder = boolQuery();
+                    extensionParentCodeSchemeStatusQueryBuilder.must(matchQuery("parentCodeScheme.status.keyword", Status.INCOMPLETE.toString()));
+                    extensionParentCodeSchemeStatusQueryBuilder.must(nestedQuery("parentCodeScheme.organizations", termsQuery("parentCodeScheme.organizations.id.keyword", includeIncompleteFrom), ScoreMode.None).ignoreUnmapped(true));
+                    codeSchemeIncompleteQueryBuilder.should(extensionParentCodeSchemeStatusQueryBuilder);
+                }
+                codeSchemeIncompleteQueryBuilder.minimumShouldMatch(1);
+                codeSchemeStatusQueryBuilder.should(codeSchemeIncompleteQueryBuilder);
+            }
+            codeSchemeStatusQueryBuilder.minimumShouldMatch(1);
+            builder.filter(codeSchemeStatusQueryBuilder);
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            builder.filter(termsQuery("status.keyword", statuses));
+        }
+        addUriFilter(builder, includedResourceUris, excludedResourceUris);
+        addLanguagePrefLabelSort(language, "codeValue.raw", "codeValue.raw", searchBuilder);
+        final String[] includeFields = new String[]{ "id", "codeValue", "prefLabel", "description", "created", "modified", "contentModified", "statusModified", "status", "uri", "codeScheme", "parentCodeScheme" };
+        searchBuilder.fetchSource(includeFields, null);
+        searchBuilder.query(builder);
+        return searchBuilder;
+    }
+
+    private Map<String, Object> createResourcesTemplateParams(final List<String> containerUris,
+                                                              final List<String> includedResourceUris,
+                                                              final List<String> excludedResourceUris,
+                                                              final String language,
+                                                              final List<String> statuses,
+                                                              final String searchTerm,
+                                                              final String type,
+                                                              final List<String> includeIncompleteFrom,
+                                                              final boolean includeIncomplete,
+                                                              final Meta meta) {
+        final Map<String, Object> params = createTemplateParams(meta, searchTerm);
+        params.put("sort", createSortParams(false, language, "codeValue.raw", "codeValue.raw"));
+        if (containerUris != null && !containerUris.isEmpty()) {
+            putListParam(params, "containerUris", containerUris);
+        } else {
+            params.put("regularStatuses", getRegularStatuses());
+            params.put("includeCodes", type == null || type.equalsIgnoreCase(ELASTIC_TYPE_CODE));
+            params.put("includeExtensions", type == null || type.equalsIgnoreCase(ELASTIC_TYPE_EXTENSION));
+            if (includeIncomplete) {
+                params.put("includeIncomplete", true);
+            } else {
+                putListParam(params, "includeIncompleteFrom", includeIncompleteFrom);
+            }
+        }
+        putListParam(params, "statuses", statuses);
+        if (includedResourceUris != null && !includedResourceUris.isEmpty()) {
+            putListParam(params, "includedResourceUris", includedResourceUris);
+        } else {
+            putListParam(params, "excludedResourceUris", excludedResourceUris);
+        }
+        return params;
+    }
+
+    /**
+     * Returns the distinct URIs lowercased, as the uri field is indexed lowercased.
+     */
+    private List<String> distinctUris(final List<String> uris) {
+        if (uris == null) {
+            return Collections.emptyList();
+        }
+        final Set<String> distinct = new LinkedHashSet<>();
+        for (final String uri : uris) {
+            if (uri != null && !uri.trim().isEmpty()) {
+                distinct.add(uri.trim().toLowerCase());
+            }
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Filters by the included URIs, or if there are none, excludes the excluded URIs. Long lists are split into several
+     * terms queries to stay within the terms count limit of a single query.
+     */
+    private void addUriFilter(final BoolQueryBuilder builder,
+                              final Collection<String> includedUris,
+                              final Collection<String> excludedUris) {
+        if (includedUris != null && !includedUris.isEmpty()) {
+            builder.filter(createChunkedTermsQuery("uri", includedUris));
+        } else if (excludedUris != null && !excludedUris.isEmpty()) {
+            builder.mustNot(createChunkedTermsQuery("uri", excludedUris));
+        }
+    }
+
+    private QueryBuilder createChunkedTermsQuery(final String field,
+                                                 final Collection<String> values) {
+        if (values.size() <= URI_TERMS_CHUNK_SIZE) {
+            return termsQuery(field, values);
+        }
+        final BoolQueryBuilder builder = boolQuery();
+        for (final List<String> chunk : partition(new ArrayList<>(values), URI_TERMS_CHUNK_SIZE)) {
+            builder.should(termsQuery(field, chunk));
+        }
+        return builder.minimumShouldMatch(1);
+    }
+
+    /**
+     * Runs the search once per chunk of the included URIs in a single multi search request, so that ElasticSearch
+     * searches the chunks in parallel. The chunks return only the uri field and the sort values of all their hits, which
+     * are merged in sort order and paged here. Only the documents of the requested page are then fetched in full.
+     */
+    private List<SearchHit> searchByUriChunks(final SearchRequest searchRequest,
+                                              final List<String> includedUris,
+                                              final Function<List<String>, SearchSourceBuilder> searchSourceFactory,
+                                              final Meta meta) throws IOException {
+        final MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        for (final List<String> chunk : partition(includedUris, URI_TERMS_CHUNK_SIZE)) {
+            final SearchSourceBuilder searchBuilder = searchSourceFactory.apply(chunk);
+            searchBuilder.from(0).size(chunk.size()).fetchSource("uri", null);
+            multiSearchRequest.add(new SearchRequest(searchRequest.indices()).types(searchRequest.types()).source(searchBuilder));
+        }
+        final MultiSearchResponse response = concurrencyLimiter.execute(() -> client.msearch(multiSearchRequest, RequestOptions.DEFAULT));
+        final Map<String, SearchHit> hits = new LinkedHashMap<>();
+        for (final MultiSearchResponse.Item item : response.getResponses()) {
+            if (item.isFailure()) {
+                throw new IOException("URI chunk search failed", item.getFailure());
+            }
+            for (final SearchHit hit : item.getResponse().getHits()) {
+                hits.putIfAbsent(hit.getIndex() + "/" + hit.getId(), hit);
+            }
+        }
+        final List<SearchHit> merged = new ArrayList<>(hits.values());
+        merged.sort((first, second) -> compareSortValues(first.getSortValues(), second.getSortValues()));
+        final List<SearchHit> pageHits = page(merged, meta);
+        final List<String> pageUris = new ArrayList<>();
+        for (final SearchHit hit : pageHits) {
+            final Object uri = hit.getSourceAsMap().get("uri");
+            if (uri instanceof String) {
+                pageUris.add(((String) uri).toLowerCase());
+            }
+        }
+        if (pageUris.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final SearchSourceBuilder pageBuilder = searchSourceFactory.apply(pageUris);
+        pageBuilder.from(0).size(pageUris.size());
+        final SearchResponse pageResponse = search(new SearchRequest(searchRequest.indices()).types(searchRequest.types()).source(pageBuilder));
+        return Arrays.asList(pageResponse.getHits().getHits());
+    }
+
+    /**
+     * Returns the page of the hits defined by the meta and sets the result counts.
+     */
+    private List<SearchHit> page(final List<SearchHit> hits,
+                                 final Meta meta) {
+        final int from = Math.min(meta != null && meta.getFrom() != null ? meta.getFrom() : 0, hits.size());
+        final int to = Math.min(from + (meta != null && meta.getPageSize() != null ? meta.getPageSize() : MAX_ES_PAGESIZE), hits.size());
+        final List<SearchHit> results = hits.subList(from, to);
+        if (meta != null) {
+            meta.setTotalResults(hits.size());
+            meta.setResultCount(results.size());
+        }
+        return results;
+    }
+
+    private Map<String, Object> createTemplateParams(final Meta meta,
+                                                     final String searchTerm) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put("from", meta != null && meta.getFrom() != null ? meta.getFrom() : 0);
+        params.put("size", meta != null && meta.getPageSize() != null ? meta.getPageSize() : MAX_ES_PAGESIZE);
+        putQueryStringParam(params, "searchQuery", searchTerm);
+        if (meta != null) {
+            final StdDateFormat dateFormat = new StdDateFormat();
+            if (meta.getAfter() != null) {
+                params.put("hasAfter", true);
+                params.put("after", dateFormat.format(meta.getAfter()));
+            }
+            if (meta.getBefore() != null) {
+                params.put("hasBefore", true);
+                params.put("before", dateFormat.format(meta.getBefore()));
+            }
+        }
+        return params;
+    }
+
+    private void putQueryStringParam(final Map<String, Object> params,
+                                     final String name,
+                                     final String searchTerm) {
+        if (searchTerm != null && !searchTerm.isEmpty()) {
+            final QueryStringQueryBuilder queryStringQuery = luceneQueryFactory.buildPrefixSuffixQuery(searchTerm);
+            if (queryStringQuery != null) {
+                params.put(createFlagParamName(name), true);
+                params.put(name, queryStringQuery.queryString());
+            }
+        }
+    }
+
+    private void putListParam(final Map<String, Object> params,
+                              final String name,
+                              final Collection<String> values) {
+        if (values != null && !values.isEmpty()) {
+            params.put(createFlagParamName(name), true);
+            params.put(name, new ArrayList<>(values));
+        }
+    }
+
+    private String createFlagParamName(final String name) {
+        return "has" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private List<Map<String, Object>> createSortParams(final boolean scoreSort,
+                                                       final String language,
+                                                       final String backupSortField,
+                                                       final String sortFieldWithoutLanguage) {
+        final List<Map<String, Object>> sort = new ArrayList<>();
+        if (scoreSort) {
+            sort.add(Collections.singletonMap("_score", Collections.singletonMap("order", "desc")));
+        }
+        if (language != null && !language.isEmpty()) {
+            sort.add(createKeywordFieldSortParam("prefLabel." + language + ".keyword"));
+            sortLanguages.forEach(sortLanguage -> {
+                if (!language.equalsIgnoreCase(sortLanguage)) {
+                    sort.add(createKeywordFieldSortParam("prefLabel." + sortLanguage + ".keyword"));
+                }
+            });
+            sort.add(Collections.singletonMap(backupSortField, Collections.singletonMap("order", "asc")));
+        } else {
+            sort.add(Collections.singletonMap(sortFieldWithoutLanguage, Collections.singletonMap("order", "asc")));
+        }
+        return sort;
+    }
+
+    private Map<String, Object> createKeywordFieldSortParam(final String field) {
+        final Map<String, Object> fieldSort = new HashMap<>();
+        fieldSort.put("order", "asc");
+        fieldSort.put("unmapped_type", "keyword");
+        return Collections.singletonMap(field, fieldSort);
+    }
+
     private BoolQueryBuilder constructSearchQuery(final String codeValue,
                                                   final String prefLabel) {
         final BoolQueryBuilder builder = boolQuery();
         if (codeValue != null) {
-            builder.must(prefixQuery("codeValue", codeValue.toLowerCase()));
+            builder.filter(prefixQuery("codeValue", codeValue.toLowerCase()));
         }
         if (prefLabel != null && !prefLabel.isEmpty()) {
             builder.must(luceneQueryFactory.buildPrefixSuffixQuery(prefLabel).field("prefLabel.*"));
@@ -1192,7 +2322,7 @@ public class DomainImpl implements Domain {
                 modifiedAfterQuery.should(rangeQuery("modified").gte(afterString));
                 modifiedAfterQuery.should(rangeQuery("contentModified").gte(afterString));
                 modifiedAfterQuery.minimumShouldMatch(1);
-                builder.must(modifiedAfterQuery);
+                builder.filter(modifiedAfterQuery);
             }
             final Date before = meta.getBefore();
             if (before != null) {
@@ -1201,7 +2331,7 @@ public class DomainImpl implements Domain {
                 modifiedBeforeQuery.should(rangeQuery("modified").lt(beforeString));
                 modifiedBeforeQuery.should(rangeQuery("contentModified").lt(beforeString));
                 modifiedBeforeQuery.minimumShouldMatch(1);
-                builder.must(modifiedBeforeQuery);
+                builder.filter(modifiedBeforeQuery);
             }
         }
     }
@@ -1217,6 +2347,14 @@ public class DomainImpl implements Domain {
         LOG.debug(String.format("Search found: %d total hits.", totalResults));
     }
 
+    private void setCountResult(final Meta meta,
+                                final int count) {
+        if (meta != null) {
+            meta.setTotalResults(count);
+            meta.setResultCount(0);
+        }
+    }
+
     private void boostStatus(final BoolQueryBuilder builder) {
         builder.should(constantScoreQuery(termQuery("status.keyword", Status.VALID.toString())).boost(1000f));
         builder.should(constantScoreQuery(termQuery("status.keyword", Status.DRAFT.toString())).boost(800f));
@@ -1264,13 +2402,163 @@ public class DomainImpl implements Domain {
         final GetIndexRequest request = new GetIndexRequest();
         request.indices(indexName);
         try {
-            return client.indices().exists(request, RequestOptions.DEFAULT);
+            return concurrencyLimiter.execute(() -> client.indices().exists(request, RequestOptions.DEFAULT));
         } catch (final IOException e) {
             LOG.error("Index checking request failed for index: " + indexName, e);
             throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
         }
     }
 
+    private SearchResponse search(final SearchRequest searchRequest) throws IOException {
+        return concurrencyLimiter.execute(() -> client.search(searchRequest, RequestOptions.DEFAULT));
+    }
+
+    /**
+     * Counts the documents matching the query with the count API, without scoring or fetching any hits.
+     */
+    private int countDocuments(final String indexName,
+                               final QueryBuilder query) {
+        final CountRequest countRequest = new CountRequest(indexName);
+        countRequest.types(getTypeName(indexName));
+        countRequest.source(new SearchSourceBuilder().query(query));
+        try {
+            return toIntExact(concurrencyLimiter.execute(() -> client.count(countRequest, RequestOptions.DEFAULT)).getCount());
+        } catch (final IOException e) {
+            LOG.error("CountRequest failed!", e);
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+        }
+    }
+
+    /**
+     * Checks if any document matches the query. No hits are fetched and every shard stops collecting after the first
+     * match. A missing index is treated as having no matches, which saves the separate index existence check.
+     */
+    private boolean documentExists(final String indexName,
+                                   final QueryBuilder query) {
+        final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+        searchBuilder.query(query);
+        searchBuilder.size(0);
+        searchBuilder.terminateAfter(1);
+        final SearchRequest searchRequest = createSearchRequest(indexName).source(searchBuilder);
+        searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+        try {
+            return search(searchRequest).getHits().getTotalHits() > 0;
+        } catch (final IOException e) {
+            LOG.error("SearchRequest failed!", e);
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+        }
+    }
+
+    private <T> T getDocumentById(final String indexName,
+                                  final String documentId,
+                                  final Class<T> type) {
+        return getDocumentById(indexName, documentId, type, null);
+    }
+
+    private <T> T getDocumentById(final String indexName,
+                                  final String documentId,
+                                  final Class<T> type,
+                                  final SourceFilter sourceFilter) {
+        final ObjectMapper mapper = createObjectMapperWithRegisteredModules();
+        try {
+            final GetResponse response = getDocument(indexName, documentId, sourceFilter);
+            if (response.isExists()) {
+                try {
+                    return mapper.readValue(response.getSourceAsString(), type);
+                } catch (final IOException e) {
+                    LOG.error("getDocumentById reading value from JSON string failed: " + response.getSourceAsString(), e);
+                    throw new JsonParsingException(ERR_MSG_USER_406);
+                }
+            }
+        } catch (final IOException e) {
+            LOG.error("GetRequest failed!", e);
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+        }
+        return null;
+    }
+
+    private byte[] getDocumentSourceById(final String indexName,
+                                         final String documentId,
+                                         final SourceFilter sourceFilter) {
+        try {
+            final GetResponse response = getDocument(indexName, documentId, sourceFilter);
+            if (response.isExists()) {
+                return response.getSourceAsBytes();
+            }
+        } catch (final IOException e) {
+            LOG.error("GetRequest failed!", e);
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+        }
+        return null;
+    }
+
+    private GetResponse getDocument(final String indexName,
+                                    final String documentId,
+                                    final SourceFilter sourceFilter) throws IOException {
+        final String normalizedId = UUID.fromString(documentId).toString();
+        return concurrencyLimiter.execute(() -> requestHedger.<GetResponse>execute((preference, listener) -> {
+            final GetRequest getRequest = new GetRequest(indexName, getTypeName(indexName), normalizedId);
+            if (sourceFilter != null && !sourceFilter.isEmpty()) {
+                getRequest.fetchSourceContext(sourceFilter.toFetchSourceContext());
+            }
+            if (preference != null) {
+                getRequest.preference(preference);
+            }
+            client.getAsync(getRequest, RequestOptions.DEFAULT, listener);
+        }));
+    }
+
+    private byte[] doSourceRequest(final String indexName,
+                                   final SearchSourceBuilder searchBuilder) {
+        try {
+            final SearchResponse response = hedgedSearch(indexName, searchBuilder);
+            if (response.getHits().getTotalHits() > 0) {
+                return BytesReference.toBytes(response.getHits().getAt(0).getSourceRef());
+            }
+        } catch (final IOException e) {
+            LOG.error("SearchRequest failed!", e);
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
+        }
+        return null;
+    }
+
+    private void applySourceFilter(final SearchSourceBuilder searchBuilder,
+                                   final SourceFilter sourceFilter) {
+        if (sourceFilter != null) {
+            sourceFilter.applyTo(searchBuilder);
+        }
+    }
+
+    private boolean isUuid(final String id) {
+        if (id == null || id.length() != 36) {
+            return false;
+        }
+        try {
+            UUID.fromString(id);
+            return true;
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private SearchResponse searchWithTemplate(final SearchRequest searchRequest,
+                                              final String templateId,
+                                              final Map<String, Object> params) throws IOException {
+        return concurrencyLimiter.execute(() -> searchTemplates.search(searchRequest, templateId, params));
+    }
+
+    private SearchResponse hedgedSearch(final String indexName,
+                                        final SearchSourceBuilder searchBuilder) throws IOException {
+        return concurrencyLimiter.execute(() -> requestHedger.execute((preference, listener) -> {
+            final SearchRequest searchRequest = createSearchRequest(indexName);
+            searchRequest.source(searchBuilder);
+            if (preference != null) {
+                searchRequest.preference(preference);
+            }
+            client.searchAsync(searchRequest, RequestOptions.DEFAULT, listener);
+        }));
+    }
+
     private SearchSourceBuilder createSearchSourceBuilderWithPagination(final Meta meta) {
         final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
         searchBuilder.size(meta != null && meta.getPageSize() != null ? meta.getPageSize() : MAX_ES_PAGESIZE);
@@ -1296,25 +2584,29 @@ public class DomainImpl implements Domain {
     }
 
     private SearchRequest createSearchRequest(final String indexName) {
+        return createSearchRequest(indexName, getTypeName(indexName));
+    }
+
+    private String getTypeName(final String indexName) {
         switch (indexName) {
             case ELASTIC_INDEX_CODEREGISTRY:
-                return createSearchRequest(ELASTIC_INDEX_CODEREGISTRY, ELASTIC_TYPE_CODEREGISTRY);
+                return ELASTIC_TYPE_CODEREGISTRY;
             case ELASTIC_INDEX_CODESCHEME:
-                return createSearchRequest(ELASTIC_INDEX_CODESCHEME, ELASTIC_TYPE_CODESCHEME);
+                return ELASTIC_TYPE_CODESCHEME;
             case ELASTIC_INDEX_CODE:
-                return createSearchRequest(ELASTIC_INDEX_CODE, ELASTIC_TYPE_CODE);
+                return ELASTIC_TYPE_CODE;
             case ELASTIC_INDEX_EXTENSION:
-                return createSearchRequest(ELASTIC_INDEX_EXTENSION, ELASTIC_TYPE_EXTENSION);
+                return ELASTIC_TYPE_EXTENSION;
             case ELASTIC_INDEX_MEMBER:
-                return createSearchRequest(ELASTIC_INDEX_MEMBER, ELASTIC_TYPE_MEMBER);
+                return ELASTIC_TYPE_MEMBER;
             case ELASTIC_INDEX_EXTERNALREFERENCE:
-                return createSearchRequest(ELASTIC_INDEX_EXTERNALREFERENCE, ELASTIC_TYPE_EXTERNALREFERENCE);
+                return ELASTIC_TYPE_EXTERNALREFERENCE;
             case ELASTIC_INDEX_PROPERTYTYPE:
-                return createSearchRequest(ELASTIC_INDEX_PROPERTYTYPE, ELASTIC_TYPE_PROPERTYTYPE);
+                return ELASTIC_TYPE_PROPERTYTYPE;
             case ELASTIC_INDEX_VALUETYPE:
-                return createSearchRequest(ELASTIC_INDEX_VALUETYPE, ELASTIC_TYPE_VALUETYPE);
+                return ELASTIC_TYPE_VALUETYPE;
             default:
-                LOG.error("Trying to create search request with non-supported index: " + indexName);
+                LOG.error("Trying to create request with non-supported index: " + indexName);
                 throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), ELASTIC_QUERY_ERROR));
         }
     }
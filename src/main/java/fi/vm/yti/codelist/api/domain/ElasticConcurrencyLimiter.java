@@ -0,0 +1,144 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import fi.vm.yti.codelist.api.exception.YtiCodeListException;
+import fi.vm.yti.codelist.common.dto.ErrorModel;
+import static fi.vm.yti.codelist.api.exception.ErrorConstants.ERR_MSG_USER_503;
+
+/**
+ * Adaptive (AIMD) concurrency limiter for outgoing ElasticSearch requests.
+ *
+ * The limit grows by one while requests complete under the latency threshold and the limit is actually in use, and
+ * is multiplied by the backoff ratio when a request is slow or fails. Requests exceeding the current limit wait in
+ * queue for at most the queue timeout before being rejected.
+ */
+@Component
+public class ElasticConcurrencyLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticConcurrencyLimiter.class);
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final long queueTimeoutNanos;
+    private final double backoffRatio;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    public ElasticConcurrencyLimiter(@Value("${elastic.limiter.enabled:true}") final boolean enabled,
+                                     @Value("${elastic.limiter.initial-limit:20}") final int initialLimit,
+                                     @Value("${elastic.limiter.min-limit:4}") final int minLimit,
+                                     @Value("${elastic.limiter.max-limit:200}") final int maxLimit,
+                                     @Value("${elastic.limiter.latency-threshold-ms:1000}") final long latencyThresholdMillis,
+                                     @Value("${elastic.limiter.queue-timeout-ms:5000}") final long queueTimeoutMillis,
+                                     @Value("${elastic.limiter.backoff-ratio:0.9}") final double backoffRatio) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.backoffRatio = backoffRatio;
+    }
+
+    public <T> T execute(final ElasticCall<T> call) throws IOException {
+        if (!enabled) {
+            return call.execute();
+        }
+        acquire();
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final T result = call.execute();
+            failed = false;
+            return result;
+        } finally {
+            release(System.nanoTime() - start, failed);
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire() {
+        lock.lock();
+        try {
+            long remainingNanos = queueTimeoutNanos;
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    rejected++;
+                    LOG.warn(String.format("ElasticSearch request rejected, %d requests in flight with limit %d.", inFlight, (int) limit));
+                    throw new YtiCodeListException(new ErrorModel(HttpStatus.SERVICE_UNAVAILABLE.value(), ERR_MSG_USER_503));
+                }
+                remainingNanos = slotAvailable.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.SERVICE_UNAVAILABLE.value(), ERR_MSG_USER_503));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(final long latencyNanos,
+                         final boolean failed) {
+        lock.lock();
+        try {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            inFlight--;
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ElasticCall<T> {
+
+        T execute() throws IOException;
+    }
+}
@@ -0,0 +1,146 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import static fi.vm.yti.codelist.api.domain.DomainImpl.MAX_ES_PAGESIZE;
+
+/**
+ * In-memory copy of all documents of a small ElasticSearch index.
+ *
+ * The owner refreshes the replica from a background task. The documents are reloaded only when the change signature of
+ * the index from {@link ElasticIndexScanner#readSignature(String...)} has changed, and requests are served from the
+ * previously loaded documents meanwhile. Each entry keeps both the parsed source tree for in-process filtering and the
+ * deserialized DTO.
+ */
+final class ElasticIndexReplica<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticIndexReplica.class);
+
+    private final RestHighLevelClient client;
+    private final ElasticConcurrencyLimiter concurrencyLimiter;
+    private final String indexName;
+    private final Class<T> type;
+    private final ElasticIndexScanner scanner;
+    private final ObjectMapper mapper;
+    private volatile List<Entry<T>> entries;
+    private volatile ElasticIndexScanner.Signature signature;
+
+    ElasticIndexReplica(final RestHighLevelClient client,
+                        final ElasticConcurrencyLimiter concurrencyLimiter,
+                        final String indexName,
+                        final Class<T> type) {
+        this.client = client;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.indexName = indexName;
+        this.type = type;
+        this.scanner = new ElasticIndexScanner(client, concurrencyLimiter);
+        this.mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    }
+
+    boolean isLoaded() {
+        return entries != null;
+    }
+
+    /**
+     * Returns the replicated documents, or null if the replica has not been loaded.
+     */
+    List<Entry<T>> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Creates a new DTO from the source of the entry, for callers that modify the returned objects.
+     */
+    T newValue(final Entry<T> entry) throws IOException {
+        return mapper.treeToValue(entry.getSource(), type);
+    }
+
+    /**
+     * Refreshes the replica. Failures are logged and leave the previously loaded documents in place.
+     */
+    synchronized void refreshNow() {
+        try {
+            refresh();
+        } catch (final IOException | ElasticsearchException e) {
+            LOG.warn(String.format("Refreshing in-memory replica of index %s failed: %s", indexName, e.getMessage()));
+        }
+    }
+
+    /**
+     * Reloads the documents if the index has changed since the previous load.
+     *
+     * @return true if the documents were reloaded
+     */
+    synchronized boolean refresh() throws IOException {
+        final ElasticIndexScanner.Signature currentSignature = scanner.readSignature(indexName);
+        if (entries != null && currentSignature.equals(signature)) {
+            return false;
+        }
+        final List<Entry<T>> loaded = load();
+        if (loaded == null) {
+            LOG.warn(String.format("Index %s has more than %d documents, not keeping it in memory.", indexName, MAX_ES_PAGESIZE));
+            entries = null;
+            signature = null;
+            return false;
+        }
+        entries = loaded;
+        signature = currentSignature;
+        LOG.info(String.format("Loaded %d documents from index %s to memory.", entries.size(), indexName));
+        return true;
+    }
+
+    private List<Entry<T>> load() throws IOException {
+        final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+        searchBuilder.size(MAX_ES_PAGESIZE);
+        final SearchRequest searchRequest = new SearchRequest(indexName).source(searchBuilder);
+        final SearchResponse response = concurrencyLimiter.execute(() -> client.search(searchRequest, RequestOptions.DEFAULT));
+        if (response.getHits().getTotalHits() > MAX_ES_PAGESIZE) {
+            return null;
+        }
+        final List<Entry<T>> loaded = new ArrayList<>();
+        for (final SearchHit hit : response.getHits()) {
+            final JsonNode source = mapper.readTree(hit.getSourceAsString());
+            loaded.add(new Entry<>(source, mapper.treeToValue(source, type)));
+        }
+        return Collections.unmodifiableList(loaded);
+    }
+
+    static final class Entry<T> {
+
+        private final JsonNode source;
+        private final T value;
+
+        Entry(final JsonNode source,
+              final T value) {
+            this.source = source;
+            this.value = value;
+        }
+
+        JsonNode getSource() {
+            return source;
+        }
+
+        T getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.metrics.max.Max;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads change signatures of indices and scrolls through their documents for the in-memory lookup structures.
+ *
+ * Missing indices are ignored, so that the structures can be built before the first indexing run.
+ */
+final class ElasticIndexScanner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticIndexScanner.class);
+    private static final String[] SIGNATURE_DATE_FIELDS = { "modified", "contentModified" };
+    private static final int SCROLL_SIZE = 5000;
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+    private final RestHighLevelClient client;
+    private final ElasticConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    ElasticIndexScanner(final RestHighLevelClient client,
+                        final ElasticConcurrencyLimiter concurrencyLimiter) {
+        this.client = client;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Reads the total document count combined with the latest modified timestamps and the write and refresh counters of
+     * the indices. The counters change on every index, update and delete operation, also ones that leave the
+     * timestamps as they were, and again when the refresh that makes the operations visible to searches has run.
+     */
+    Signature readSignature(final String... indices) throws IOException {
+        final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+        searchBuilder.size(0);
+        for (final String field : SIGNATURE_DATE_FIELDS) {
+            searchBuilder.aggregation(AggregationBuilders.max(field).field(field));
+        }
+        final SearchRequest searchRequest = new SearchRequest(indices).source(searchBuilder);
+        searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+        final SearchResponse response = concurrencyLimiter.execute(() -> client.search(searchRequest, RequestOptions.DEFAULT));
+        final StringBuilder builder = new StringBuilder();
+        for (final String field : SIGNATURE_DATE_FIELDS) {
+            final Max max = response.getAggregations() != null ? response.getAggregations().get(field) : null;
+            builder.append(':').append(max != null ? max.getValue() : "");
+        }
+        appendWriteCounters(builder, indices);
+        return new Signature(response.getHits().getTotalHits(), builder.toString());
+    }
+
+    private void appendWriteCounters(final StringBuilder builder,
+                                     final String... indices) throws IOException {
+        final Request request = new Request("GET", "/" + String.join(",", indices) + "/_stats/indexing,refresh");
+        request.addParameter("ignore_unavailable", "true");
+        final Response response = concurrencyLimiter.execute(() -> client.getLowLevelClient().performRequest(request));
+        try (final InputStream content = response.getEntity().getContent()) {
+            final JsonNode indexStats = mapper.readTree(content).path("indices");
+            final Set<String> names = new TreeSet<>();
+            indexStats.fieldNames().forEachRemaining(names::add);
+            for (final String name : names) {
+                final JsonNode stats = indexStats.path(name);
+                builder.append(':').append(stats.path("uuid").asText())
+                    .append(':').append(stats.path("primaries").path("indexing").path("index_total").asLong())
+                    .append(':').append(stats.path("primaries").path("indexing").path("delete_total").asLong())
+                    .append(':').append(stats.path("total").path("refresh").path("total").asLong());
+            }
+        }
+    }
+
+    /**
+     * Passes every document of the indices to the consumer, fetching only the given source fields.
+     */
+    void scan(final String[] includes,
+              final Consumer<SearchHit> consumer,
+              final String... indices) throws IOException {
+        scan(null, includes, null, consumer, indices);
+    }
+
+    /**
+     * Passes every document of the indices matching the query to the consumer, with source filtering.
+     */
+    void scan(final QueryBuilder query,
+              final String[] includes,
+              final String[] excludes,
+              final Consumer<SearchHit> consumer,
+              final String... indices) throws IOException {
+        final SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+        searchBuilder.size(SCROLL_SIZE);
+        if (query != null) {
+            searchBuilder.query(query);
+        }
+        searchBuilder.fetchSource(includes, excludes);
+        searchBuilder.sort("_doc");
+        final SearchRequest searchRequest = new SearchRequest(indices).source(searchBuilder).scroll(SCROLL_KEEP_ALIVE);
+        searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+        SearchResponse response = concurrencyLimiter.execute(() -> client.search(searchRequest, RequestOptions.DEFAULT));
+        String scrollId = response.getScrollId();
+        try {
+            while (response.getHits().getHits().length > 0) {
+                for (final SearchHit hit : response.getHits()) {
+                    consumer.accept(hit);
+                }
+                if (scrollId == null) {
+                    break;
+                }
+                final SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId).scroll(SCROLL_KEEP_ALIVE);
+                response = concurrencyLimiter.execute(() -> client.scroll(scrollRequest, RequestOptions.DEFAULT));
+                scrollId = response.getScrollId();
+            }
+        } finally {
+            clearScroll(scrollId);
+        }
+    }
+
+    private void clearScroll(final String scrollId) {
+        if (scrollId != null) {
+            final ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+            clearScrollRequest.addScrollId(scrollId);
+            try {
+                concurrencyLimiter.execute(() -> client.clearScroll(clearScrollRequest, RequestOptions.DEFAULT));
+            } catch (final IOException | ElasticsearchException e) {
+                LOG.debug("Clearing scroll failed: " + e.getMessage());
+            }
+        }
+    }
+
+    static final class Signature {
+
+        private final long totalHits;
+        private final String modified;
+
+        Signature(final long totalHits,
+                  final String modified) {
+            this.totalHits = totalHits;
+            this.modified = modified;
+        }
+
+        long getTotalHits() {
+            return totalHits;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+            final Signature other = (Signature) o;
+            return totalHits == other.totalHits && modified.equals(other.modified);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(totalHits, modified);
+        }
+    }
+}
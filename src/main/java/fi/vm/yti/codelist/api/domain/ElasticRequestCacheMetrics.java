@@ -0,0 +1,103 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_CODE;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_EXTENSION;
+
+/**
+ * Exposes the ElasticSearch shard request cache statistics of the deep search indices as metrics.
+ *
+ * The statistics are read from the _stats/request_cache endpoint and cached for the configured refresh interval, so
+ * that scraping the metrics endpoint does not hit ElasticSearch on every gauge read.
+ */
+@Component
+public class ElasticRequestCacheMetrics implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticRequestCacheMetrics.class);
+    private static final String[] INDICES = { ELASTIC_INDEX_CODE, ELASTIC_INDEX_EXTENSION };
+
+    private final RestHighLevelClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final long refreshIntervalNanos;
+    private volatile Map<String, JsonNode> requestCacheStats = Collections.emptyMap();
+    private volatile long lastRefresh;
+
+    @Inject
+    public ElasticRequestCacheMetrics(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                                      @Value("${elastic.request-cache.stats-refresh-ms:30000}") final long refreshIntervalMillis) {
+        this.client = elasticSearchRestHighLevelClient;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMillis);
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        for (final String index : INDICES) {
+            Gauge.builder("elasticsearch.request_cache.hits", this, metrics -> metrics.getStat(index, "hit_count")).tag("index", index).register(registry);
+            Gauge.builder("elasticsearch.request_cache.misses", this, metrics -> metrics.getStat(index, "miss_count")).tag("index", index).register(registry);
+            Gauge.builder("elasticsearch.request_cache.evictions", this, metrics -> metrics.getStat(index, "evictions")).tag("index", index).register(registry);
+            Gauge.builder("elasticsearch.request_cache.memory", this, metrics -> metrics.getStat(index, "memory_size_in_bytes")).tag("index", index).baseUnit("bytes").register(registry);
+            Gauge.builder("elasticsearch.request_cache.hit_ratio", this, metrics -> metrics.getHitRatio(index)).tag("index", index).register(registry);
+        }
+    }
+
+    public double getHitRatio(final String index) {
+        final double hits = getStat(index, "hit_count");
+        final double misses = getStat(index, "miss_count");
+        return hits + misses > 0 ? hits / (hits + misses) : 0;
+    }
+
+    private double getStat(final String index,
+                           final String field) {
+        refreshIfStale();
+        final JsonNode stats = requestCacheStats.get(index);
+        return stats != null ? stats.path(field).asDouble() : 0;
+    }
+
+    private synchronized void refreshIfStale() {
+        final long now = System.nanoTime();
+        if (lastRefresh != 0 && now - lastRefresh < refreshIntervalNanos) {
+            return;
+        }
+        lastRefresh = now;
+        final Request request = new Request("GET", "/" + String.join(",", INDICES) + "/_stats/request_cache");
+        request.addParameter("ignore_unavailable", "true");
+        try {
+            final Response response = client.getLowLevelClient().performRequest(request);
+            try (final InputStream content = response.getEntity().getContent()) {
+                final JsonNode indices = mapper.readTree(content).path("indices");
+                final Map<String, JsonNode> stats = new HashMap<>();
+                for (final String index : INDICES) {
+                    final JsonNode indexStats = indices.path(index).path("total").path("request_cache");
+                    if (!indexStats.isMissingNode()) {
+                        stats.put(index, indexStats);
+                    }
+                }
+                requestCacheStats = stats;
+            }
+        } catch (final IOException e) {
+            LOG.warn("Reading ElasticSearch request cache statistics failed.", e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.action.ActionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hedging for idempotent single document ElasticSearch lookups.
+ *
+ * When enabled, a duplicate request is sent if the primary request has not completed within the observed p95 latency.
+ * The duplicate uses a different search preference so that it can be served by another shard copy, and the first
+ * response wins. Hedges are limited to the configured percentage of all hedgeable requests.
+ */
+@Component
+public class ElasticRequestHedger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticRequestHedger.class);
+    private static final int LATENCY_WINDOW_SIZE = 1024;
+    private static final int P95_RECALCULATION_INTERVAL = 64;
+
+    private final boolean enabled;
+    private final double hedgePercentage;
+    private final long minDelayNanos;
+    private final long[] latencyWindow = new long[LATENCY_WINDOW_SIZE];
+    private final AtomicInteger latencySamples = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private volatile long p95Nanos;
+
+    public ElasticRequestHedger(@Value("${elastic.hedging.enabled:false}") final boolean enabled,
+                                @Value("${elastic.hedging.percentage:5}") final double hedgePercentage,
+                                @Value("${elastic.hedging.min-delay-ms:10}") final long minDelayMillis) {
+        this.enabled = enabled;
+        this.hedgePercentage = hedgePercentage;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.p95Nanos = minDelayNanos;
+    }
+
+    public <T> T execute(final HedgeableCall<T> call) throws IOException {
+        if (!enabled) {
+            final CompletableFuture<T> result = new CompletableFuture<>();
+            call.execute(null, new FirstResponseListener<>(result, 1, false));
+            return await(result);
+        }
+        requests.incrementAndGet();
+        final long start = System.nanoTime();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger outstanding = new AtomicInteger(1);
+        call.execute(null, new FirstResponseListener<>(result, outstanding, false));
+        try {
+            final T response = result.get(getHedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            recordLatency(System.nanoTime() - start);
+            return response;
+        } catch (final TimeoutException e) {
+            if (tryAcquireHedge(outstanding)) {
+                LOG.debug("ElasticSearch request did not complete within p95, sending hedged request.");
+                call.execute("hedge-" + UUID.randomUUID(), new FirstResponseListener<>(result, outstanding, true));
+            }
+        } catch (final ExecutionException e) {
+            throw unwrap(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for ElasticSearch response", e);
+        }
+        final T response = await(result);
+        recordLatency(System.nanoTime() - start);
+        return response;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getHedges() {
+        return hedges.get();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    public long getHedgeDelayNanos() {
+        return Math.max(minDelayNanos, p95Nanos);
+    }
+
+    /**
+     * Takes one hedge from the budget and registers it as outstanding, both with a single bounded atomic update. No
+     * hedge is taken if the primary request has already failed.
+     */
+    private boolean tryAcquireHedge(final AtomicInteger outstanding) {
+        final long budget = (long) (requests.get() * hedgePercentage / 100);
+        if (hedges.getAndUpdate(current -> current < budget ? current + 1 : current) >= budget) {
+            return false;
+        }
+        if (outstanding.getAndUpdate(count -> count > 0 ? count + 1 : count) == 0) {
+            hedges.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void recordLatency(final long latencyNanos) {
+        final int sample = latencySamples.getAndIncrement();
+        latencyWindow[sample % LATENCY_WINDOW_SIZE] = latencyNanos;
+        if (sample % P95_RECALCULATION_INTERVAL == P95_RECALCULATION_INTERVAL - 1) {
+            final int count = Math.min(sample + 1, LATENCY_WINDOW_SIZE);
+            final long[] sorted = Arrays.copyOf(latencyWindow, count);
+            Arrays.sort(sorted);
+            p95Nanos = sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+    }
+
+    private <T> T await(final CompletableFuture<T> result) throws IOException {
+        try {
+            return result.get();
+        } catch (final ExecutionException e) {
+            throw unwrap(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for ElasticSearch response", e);
+        }
+    }
+
+    private IOException unwrap(final ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+            return (IOException) e.getCause();
+        } else if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+        }
+        return new IOException(e.getCause());
+    }
+
+    @FunctionalInterface
+    public interface HedgeableCall<T> {
+
+        /**
+         * Starts an asynchronous request with the given search preference, null meaning the default preference.
+         */
+        void execute(String preference,
+                     ActionListener<T> listener);
+    }
+
+    private class FirstResponseListener<T> implements ActionListener<T> {
+
+        private final CompletableFuture<T> result;
+        private final AtomicInteger outstanding;
+        private final boolean hedge;
+
+        FirstResponseListener(final CompletableFuture<T> result,
+                              final int outstanding,
+                              final boolean hedge) {
+            this(result, new AtomicInteger(outstanding), hedge);
+        }
+
+        FirstResponseListener(final CompletableFuture<T> result,
+                              final AtomicInteger outstanding,
+                              final boolean hedge) {
+            this.result = result;
+            this.outstanding = outstanding;
+            this.hedge = hedge;
+        }
+
+        @Override
+        public void onResponse(final T response) {
+            if (result.complete(response) && hedge) {
+                hedgeWins.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onFailure(final Exception e) {
+            if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            } else {
+                LOG.debug("ElasticSearch request failed while another copy of it is still in flight.", e);
+            }
+        }
+    }
+}
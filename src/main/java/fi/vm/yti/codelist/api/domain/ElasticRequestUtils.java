@@ -1,7 +1,9 @@
 package fi.vm.yti.codelist.api.domain;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -39,4 +41,43 @@ final class ElasticRequestUtils {
         }
         return null;
     }
+
+    /**
+     * Splits the list into consecutive sublist views of at most the given size.
+     */
+    static <T> List<List<T>> partition(final List<T> list,
+                                       final int size) {
+        final List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += size) {
+            chunks.add(list.subList(i, Math.min(i + size, list.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Compares the sort values of two search hits field by field in ascending order, with missing values last.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static int compareSortValues(final Object[] first,
+                                 final Object[] second) {
+        final int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            final Object a = first[i];
+            final Object b = second[i];
+            final int result;
+            if (a == null || b == null) {
+                result = a == null ? (b == null ? 0 : 1) : -1;
+            } else if (a instanceof Number && b instanceof Number) {
+                result = Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+            } else if (a instanceof Comparable && a.getClass() == b.getClass()) {
+                result = ((Comparable) a).compareTo(b);
+            } else {
+                result = a.toString().compareTo(b.toString());
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(first.length, second.length);
+    }
 }
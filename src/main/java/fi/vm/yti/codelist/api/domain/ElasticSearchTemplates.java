@@ -0,0 +1,121 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.apache.commons.io.IOUtils;
+import org.elasticsearch.action.admin.cluster.storedscripts.PutStoredScriptRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.script.mustache.SearchTemplateRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static fi.vm.yti.codelist.api.util.FileUtils.loadFileFromClassPath;
+
+/**
+ * Stored mustache search templates for the heaviest DomainImpl query shapes.
+ *
+ * The templates are registered to the cluster once at startup, after which searches only send the template id and
+ * parameters. If templates are disabled or the registration fails, DomainImpl builds the queries client side.
+ */
+@Component
+public class ElasticSearchTemplates {
+
+    public static final String TEMPLATE_CODESCHEMES = "yti-codelist-codeschemes";
+    public static final String TEMPLATE_RESOURCES = "yti-codelist-resources";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticSearchTemplates.class);
+    private static final String TEMPLATE_PATH = "/searchtemplates/";
+    private static final String[] TEMPLATES = { TEMPLATE_CODESCHEMES, TEMPLATE_RESOURCES };
+
+    private final RestHighLevelClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final boolean enabled;
+    private volatile boolean registered;
+
+    @Inject
+    public ElasticSearchTemplates(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                                  @Value("${elastic.search-templates.enabled:false}") final boolean enabled) {
+        this.client = elasticSearchRestHighLevelClient;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled && registered;
+    }
+
+    public void registerTemplates() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (final String templateId : TEMPLATES) {
+                final PutStoredScriptRequest request = new PutStoredScriptRequest();
+                request.id(templateId);
+                request.content(new BytesArray(createScriptContent(loadTemplate(templateId))), XContentType.JSON);
+                client.putScript(request, RequestOptions.DEFAULT);
+                LOG.info("Registered search template: " + templateId);
+            }
+            registered = true;
+        } catch (final Exception e) {
+            LOG.error("Registering search templates failed, falling back to client side query building.", e);
+            registered = false;
+        }
+    }
+
+    SearchResponse search(final SearchRequest searchRequest,
+                          final String templateId,
+                          final Map<String, Object> params) throws IOException {
+        final SearchTemplateRequest request = new SearchTemplateRequest();
+        request.setRequest(searchRequest);
+        request.setScriptType(ScriptType.STORED);
+        request.setScript(templateId);
+        request.setScriptParams(params);
+        return client.searchTemplate(request, RequestOptions.DEFAULT).getResponse();
+    }
+
+    /**
+     * Renders the template from the classpath with the given parameters without executing a search, so that the
+     * rendered query can be compared with the one DomainImpl builds client side.
+     */
+    BytesReference render(final String templateId,
+                          final Map<String, Object> params) throws IOException {
+        final SearchTemplateRequest request = new SearchTemplateRequest();
+        request.setScriptType(ScriptType.INLINE);
+        request.setScript(loadTemplate(templateId));
+        request.setScriptParams(params);
+        request.setSimulate(true);
+        return client.searchTemplate(request, RequestOptions.DEFAULT).getSource();
+    }
+
+    private String loadTemplate(final String templateId) throws IOException {
+        try (final InputStream inputStream = loadFileFromClassPath(TEMPLATE_PATH + templateId + ".mustache")) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    private String createScriptContent(final String template) throws IOException {
+        final Map<String, Object> script = new HashMap<>();
+        script.put("lang", "mustache");
+        script.put("source", template);
+        final Map<String, Object> content = new HashMap<>();
+        content.put("script", script);
+        return mapper.writeValueAsString(content);
+    }
+}
@@ -0,0 +1,38 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+
+/**
+ * Streaming counterpart of the resource layer Jackson property filters.
+ *
+ * Properties of expanded objects are passed through as is, while nested objects that are not expanded are reduced to
+ * the same identifying fields that the property filters keep.
+ */
+final class ExpandTokenFilter extends TokenFilter {
+
+    private final String filterName;
+    private final Set<String> expanded;
+    private final boolean reduced;
+
+    ExpandTokenFilter(final String filterName,
+                      final Set<String> expanded,
+                      final boolean reduced) {
+        this.filterName = filterName;
+        this.expanded = expanded;
+        this.reduced = reduced;
+    }
+
+    @Override
+    public TokenFilter includeProperty(final String name) {
+        if (reduced) {
+            return SourceFilter.getKeptFields(filterName).contains(name) ? TokenFilter.INCLUDE_ALL : null;
+        }
+        final String nestedFilterName = SourceFilter.getNestedObjects(filterName).get(name);
+        if (nestedFilterName == null) {
+            return TokenFilter.INCLUDE_ALL;
+        }
+        return new ExpandTokenFilter(nestedFilterName, expanded, !expanded.contains(nestedFilterName));
+    }
+}
@@ -0,0 +1,106 @@
+package fi.vm.yti.codelist.api.domain;
+
+/**
+ * Immutable Bloom filter of string keys.
+ *
+ * The bit positions are derived from the 64-bit key hash of {@link UriHashIndex#hash(String)} with double hashing, so
+ * a lookup costs one pass over the key. A false result means that the key was never added. A true result is wrong
+ * with the expected false positive probability, which is computed from the share of set bits after the build.
+ */
+final class KeyBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final int MIN_BITS = Long.SIZE;
+
+    private final long[] bits;
+    private final long bitSize;
+    private final int hashCount;
+    private final long size;
+    private final double expectedFpp;
+
+    private KeyBloomFilter(final long[] bits,
+                           final int hashCount,
+                           final long size) {
+        this.bits = bits;
+        this.bitSize = (long) bits.length * Long.SIZE;
+        this.hashCount = hashCount;
+        this.size = size;
+        long setBits = 0;
+        for (final long word : bits) {
+            setBits += Long.bitCount(word);
+        }
+        this.expectedFpp = Math.pow((double) setBits / bitSize, hashCount);
+    }
+
+    boolean mightContain(final String key) {
+        final long hash = UriHashIndex.hash(key);
+        for (int i = 1; i <= hashCount; i++) {
+            if (!isSet(bits, bitIndex(hash, i, bitSize))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of added keys, counting duplicates.
+     */
+    long size() {
+        return size;
+    }
+
+    long getMemoryBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    double getExpectedFpp() {
+        return expectedFpp;
+    }
+
+    private static long bitIndex(final long hash,
+                                 final int i,
+                                 final long bitSize) {
+        final long combined = (hash & 0xffffffffL) + i * (hash >>> 32);
+        return (combined & Long.MAX_VALUE) % bitSize;
+    }
+
+    private static boolean isSet(final long[] bits,
+                                 final long index) {
+        return (bits[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    static final class Builder {
+
+        private final long[] bits;
+        private final long bitSize;
+        private final int hashCount;
+        private long size;
+
+        /**
+         * Sizes the filter for the expected key count and false positive probability.
+         */
+        Builder(final long expectedInsertions,
+                final double fpp) {
+            final long n = Math.max(expectedInsertions, 1);
+            final long optimalBits = (long) Math.ceil(-n * Math.log(fpp) / (LN2 * LN2));
+            final int words = (int) Math.min(Integer.MAX_VALUE - 8, (Math.max(optimalBits, MIN_BITS) + Long.SIZE - 1) / Long.SIZE);
+            this.bits = new long[words];
+            this.bitSize = (long) words * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / n * LN2));
+        }
+
+        Builder add(final String key) {
+            final long hash = UriHashIndex.hash(key);
+            for (int i = 1; i <= hashCount; i++) {
+                final long index = bitIndex(hash, i, bitSize);
+                bits[(int) (index >>> 6)] |= 1L << index;
+            }
+            size++;
+            return this;
+        }
+
+        KeyBloomFilter build() {
+            return new KeyBloomFilter(bits, hashCount, size);
+        }
+    }
+}
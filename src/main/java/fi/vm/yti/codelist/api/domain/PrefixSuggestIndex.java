@@ -0,0 +1,242 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix index for typeahead suggestions.
+ *
+ * Every value is indexed with its normalized code value and with its normalized labels, both from the start and from
+ * every later word start, so that typing any word of a label finds it. The keys are kept in sorted arrays, one per
+ * label language and boost, which serve as a flattened trie: the keys starting with a prefix are one contiguous range
+ * found with a binary search. Suggestions are taken from the highest boost first, so the first results are the best
+ * ones without ranking the whole range, and in key order within a boost.
+ */
+final class PrefixSuggestIndex<T> {
+
+    private static final String LANGUAGE_NONE = "";
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[\\s\\-_/(),.:;]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_WORD_STARTS = 8;
+    private static final int MAX_SCAN_PER_LIMIT = 16;
+
+    private final List<T> values;
+    private final List<Partition> partitions;
+    private final int keyCount;
+
+    private PrefixSuggestIndex(final List<T> values,
+                               final List<Partition> partitions) {
+        this.values = values;
+        this.partitions = partitions;
+        int count = 0;
+        for (final Partition partition : partitions) {
+            count += partition.keys.length;
+        }
+        this.keyCount = count;
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Returns at most limit values with a key starting with the prefix, in descending boost order. With a language,
+     * only the labels in that language and the code values are matched.
+     */
+    List<T> suggest(final String prefix,
+                    final String language,
+                    final int limit) {
+        final String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        final String normalizedLanguage = language != null ? language.trim().toLowerCase(Locale.ROOT) : null;
+        final Set<Integer> results = new LinkedHashSet<>();
+        int index = 0;
+        while (index < partitions.size() && results.size() < limit) {
+            final int boost = partitions.get(index).boost;
+            final List<Candidate> candidates = new ArrayList<>();
+            for (; index < partitions.size() && partitions.get(index).boost == boost; index++) {
+                final Partition partition = partitions.get(index);
+                if (normalizedLanguage == null || normalizedLanguage.isEmpty() || partition.language.equals(LANGUAGE_NONE) || partition.language.equals(normalizedLanguage)) {
+                    partition.collect(normalizedPrefix, results, limit - results.size(), candidates);
+                }
+            }
+            candidates.sort(Comparator.comparing((Candidate candidate) -> candidate.key).thenComparingInt(candidate -> candidate.entry));
+            for (final Candidate candidate : candidates) {
+                if (results.size() >= limit) {
+                    break;
+                }
+                results.add(candidate.entry);
+            }
+        }
+        final List<T> suggestions = new ArrayList<>(results.size());
+        for (final int entry : results) {
+            suggestions.add(values.get(entry));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Lower cases the text and collapses whitespace, like the keyword analyzer with the lowercase and trim filters.
+     */
+    static String normalize(final String text) {
+        return text != null ? WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ") : "";
+    }
+
+    private static final class Partition {
+
+        private final String language;
+        private final int boost;
+        private final String[] keys;
+        private final int[] entries;
+
+        private Partition(final String language,
+                          final int boost,
+                          final String[] keys,
+                          final int[] entries) {
+            this.language = language;
+            this.boost = boost;
+            this.keys = keys;
+            this.entries = entries;
+        }
+
+        /**
+         * Adds the first entries of the prefix range that are not in the results yet, at most limit distinct ones.
+         */
+        private void collect(final String prefix,
+                             final Set<Integer> results,
+                             final int limit,
+                             final List<Candidate> candidates) {
+            final Set<Integer> collected = new HashSet<>();
+            final int maxScan = Math.max(limit, 1) * MAX_SCAN_PER_LIMIT;
+            for (int i = lowerBound(prefix), scanned = 0; i < keys.length && collected.size() < limit && scanned < maxScan && keys[i].startsWith(prefix); i++, scanned++) {
+                if (!results.contains(entries[i]) && collected.add(entries[i])) {
+                    candidates.add(new Candidate(keys[i], entries[i]));
+                }
+            }
+        }
+
+        private int lowerBound(final String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Candidate {
+
+        private final String key;
+        private final int entry;
+
+        private Candidate(final String key,
+                          final int entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+
+    static final class Builder<T> {
+
+        private final List<T> values = new ArrayList<>();
+        private final Map<String, Map<Integer, List<Candidate>>> keysByLanguage = new HashMap<>();
+
+        /**
+         * Adds a value with its code value and its labels keyed by language.
+         */
+        Builder<T> add(final T value,
+                       final int boost,
+                       final String codeValue,
+                       final Map<String, String> labels) {
+            final int entry = values.size();
+            values.add(value);
+            final Set<String> codeValueKeys = new HashSet<>();
+            addKey(codeValueKeys, normalize(codeValue));
+            addKeys(LANGUAGE_NONE, boost, entry, codeValueKeys);
+            if (labels != null) {
+                for (final Map.Entry<String, String> label : labels.entrySet()) {
+                    if (label.getKey() != null) {
+                        addKeys(label.getKey().trim().toLowerCase(Locale.ROOT), boost, entry, createLabelKeys(normalize(label.getValue())));
+                    }
+                }
+            }
+            return this;
+        }
+
+        PrefixSuggestIndex<T> build() {
+            final List<Partition> partitions = new ArrayList<>();
+            for (final Map.Entry<String, Map<Integer, List<Candidate>>> language : keysByLanguage.entrySet()) {
+                for (final Map.Entry<Integer, List<Candidate>> boost : language.getValue().entrySet()) {
+                    final List<Candidate> candidates = boost.getValue();
+                    candidates.sort(Comparator.comparing((Candidate candidate) -> candidate.key).thenComparingInt(candidate -> candidate.entry));
+                    final String[] keys = new String[candidates.size()];
+                    final int[] entries = new int[candidates.size()];
+                    for (int i = 0; i < candidates.size(); i++) {
+                        keys[i] = candidates.get(i).key;
+                        entries[i] = candidates.get(i).entry;
+                    }
+                    partitions.add(new Partition(language.getKey(), boost.getKey(), keys, entries));
+                }
+            }
+            partitions.sort(Comparator.comparingInt((Partition partition) -> -partition.boost).thenComparing(partition -> partition.language));
+            return new PrefixSuggestIndex<>(Collections.unmodifiableList(new ArrayList<>(values)), partitions);
+        }
+
+        private void addKeys(final String language,
+                             final int boost,
+                             final int entry,
+                             final Set<String> keys) {
+            if (!keys.isEmpty()) {
+                final List<Candidate> candidates = keysByLanguage.computeIfAbsent(language, key -> new TreeMap<>()).computeIfAbsent(boost, key -> new ArrayList<>());
+                for (final String key : keys) {
+                    candidates.add(new Candidate(key, entry));
+                }
+            }
+        }
+
+        private static Set<String> createLabelKeys(final String label) {
+            final Set<String> keys = new HashSet<>();
+            addKey(keys, label);
+            final String[] words = WORD_SEPARATOR.split(label);
+            int position = 0;
+            for (int i = 0; i < words.length && keys.size() <= MAX_WORD_STARTS; i++) {
+                if (words[i].isEmpty()) {
+                    continue;
+                }
+                position = label.indexOf(words[i], position);
+                addKey(keys, label.substring(position));
+                position += words[i].length();
+            }
+            return keys;
+        }
+
+        private static void addKey(final Set<String> keys,
+                                   final String key) {
+            if (key != null && !key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+    }
+}
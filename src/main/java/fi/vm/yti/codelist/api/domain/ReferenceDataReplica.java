@@ -0,0 +1,159 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.elasticsearch.client.RestHighLevelClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fi.vm.yti.codelist.common.dto.Meta;
+import fi.vm.yti.codelist.common.dto.PropertyTypeDTO;
+import fi.vm.yti.codelist.common.dto.ValueTypeDTO;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_PROPERTYTYPE;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_VALUETYPE;
+
+/**
+ * In-memory replica of the property type and value type indices.
+ *
+ * Both indices hold a few dozen rarely changing documents, so they are loaded fully at startup and served with
+ * in-process filtering, sorting and paging. A background task checks the index change signatures once per refresh
+ * interval and reloads a replica only when its signature has changed. If a replica cannot be loaded, or a lookup misses
+ * it, the callers fall back to querying ElasticSearch.
+ */
+@Component
+public class ReferenceDataReplica {
+
+    private final ElasticIndexReplica<PropertyTypeDTO> propertyTypes;
+    private final ElasticIndexReplica<ValueTypeDTO> valueTypes;
+    private final LuceneQueryFactory luceneQueryFactory;
+    private final boolean enabled;
+    private final long refreshIntervalMillis;
+    private ScheduledExecutorService executor;
+
+    @Inject
+    public ReferenceDataReplica(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                                final ElasticConcurrencyLimiter concurrencyLimiter,
+                                @Value("${elastic.replica.enabled:true}") final boolean enabled,
+                                @Value("${elastic.replica.refresh-interval-ms:5000}") final long refreshIntervalMillis) {
+        this.propertyTypes = new ElasticIndexReplica<>(elasticSearchRestHighLevelClient, concurrencyLimiter, ELASTIC_INDEX_PROPERTYTYPE, PropertyTypeDTO.class);
+        this.valueTypes = new ElasticIndexReplica<>(elasticSearchRestHighLevelClient, concurrencyLimiter, ELASTIC_INDEX_VALUETYPE, ValueTypeDTO.class);
+        this.luceneQueryFactory = new LuceneQueryFactory();
+        this.enabled = enabled;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Loads or reloads the replicas if the indices have changed.
+     */
+    public void refresh() {
+        if (enabled) {
+            propertyTypes.refreshNow();
+            valueTypes.refreshNow();
+        }
+    }
+
+    /**
+     * Starts refreshing the replicas in the background after the refresh interval.
+     */
+    public synchronized void start() {
+        if (enabled && executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "reference-data-replica");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long interval = Math.max(refreshIntervalMillis, 1000);
+            executor.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public boolean isPropertyTypesAvailable() {
+        return isAvailable(propertyTypes);
+    }
+
+    public boolean isValueTypesAvailable() {
+        return isAvailable(valueTypes);
+    }
+
+    PropertyTypeDTO getPropertyType(final String propertyTypeIdentifier) {
+        return findFirst(propertyTypes, propertyTypeIdentifier);
+    }
+
+    Set<PropertyTypeDTO> getPropertyTypes(final String propertyTypePrefLabel,
+                                          final String context,
+                                          final String language,
+                                          final String type,
+                                          final Meta meta) {
+        validateQuery(propertyTypePrefLabel);
+        return filter(propertyTypes, source -> ReplicaFilters.matchesPrefixSuffix(ReplicaFilters.getLabelValues(source, "prefLabel"), propertyTypePrefLabel) &&
+            ReplicaFilters.matchesModifiedRange(source, meta) &&
+            ReplicaFilters.matchesPrefix(source, "context", context) &&
+            ReplicaFilters.matchesPrefix(source, "type", type), ReplicaFilters.languagePrefLabelComparator(language, "localName", "localName"), meta);
+    }
+
+    ValueTypeDTO getValueType(final String valueTypeIdentifier) {
+        return findFirst(valueTypes, valueTypeIdentifier);
+    }
+
+    Set<ValueTypeDTO> getValueTypes(final String localName,
+                                    final Meta meta) {
+        return filter(valueTypes, source -> ReplicaFilters.matchesModifiedRange(source, meta) &&
+            ReplicaFilters.matchesPrefix(source, "localName", localName), null, meta);
+    }
+
+    private void validateQuery(final String query) {
+        if (query != null && !query.isEmpty()) {
+            luceneQueryFactory.buildPrefixSuffixQuery(query);
+        }
+    }
+
+    private <T> T findFirst(final ElasticIndexReplica<T> replica,
+                            final String identifier) {
+        final List<ElasticIndexReplica.Entry<T>> entries = replica.getEntries();
+        if (entries != null) {
+            for (final ElasticIndexReplica.Entry<T> entry : entries) {
+                if (identifier.equalsIgnoreCase(ElasticRequestUtils.getTextValueOrNull(entry.getSource(), "id")) ||
+                    identifier.equalsIgnoreCase(ElasticRequestUtils.getTextValueOrNull(entry.getSource(), "localName"))) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private <T> Set<T> filter(final ElasticIndexReplica<T> replica,
+                              final Predicate<JsonNode> predicate,
+                              final Comparator<JsonNode> comparator,
+                              final Meta meta) {
+        final Set<T> values = new LinkedHashSet<>();
+        ReplicaFilters.select(replica.getEntries(), predicate, comparator, meta).forEach(entry -> values.add(entry.getValue()));
+        return values;
+    }
+
+    private boolean isAvailable(final ElasticIndexReplica<?> replica) {
+        if (!enabled) {
+            return false;
+        }
+        return replica.isLoaded();
+    }
+}
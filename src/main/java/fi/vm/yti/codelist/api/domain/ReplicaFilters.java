@@ -0,0 +1,238 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+
+import fi.vm.yti.codelist.common.dto.Meta;
+import static fi.vm.yti.codelist.api.domain.DomainImpl.MAX_ES_PAGESIZE;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.*;
+
+/**
+ * In-process equivalents of the ElasticSearch filters, sorts and paging used by DomainImpl, evaluated against the
+ * source trees of replicated documents.
+ */
+final class ReplicaFilters {
+
+    private static final Pattern TOKEN_SPLITTER = Pattern.compile("[^\\p{L}\\p{N}*]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final List<String> SORT_LANGUAGES = Arrays.asList(LANGUAGE_CODE_FI, LANGUAGE_CODE_EN, LANGUAGE_CODE_SV);
+
+    private ReplicaFilters() {
+        // prevent construction
+    }
+
+    /**
+     * Matches the after and before parameters of the meta against the modified and contentModified timestamps.
+     */
+    static boolean matchesModifiedRange(final JsonNode source,
+                                        final Meta meta) {
+        if (meta == null) {
+            return true;
+        }
+        final Date modified = parseDate(source, "modified");
+        final Date contentModified = parseDate(source, "contentModified");
+        final Date after = meta.getAfter();
+        if (after != null && !isOnOrAfter(modified, after) && !isOnOrAfter(contentModified, after)) {
+            return false;
+        }
+        final Date before = meta.getBefore();
+        return before == null || (modified != null && modified.before(before)) || (contentModified != null && contentModified.before(before));
+    }
+
+    /**
+     * Prefix match against the analyzed tokens of a text field, like a prefix query with a lower cased value.
+     */
+    static boolean matchesPrefix(final JsonNode source,
+                                 final String field,
+                                 final String prefix) {
+        if (prefix == null) {
+            return true;
+        }
+        final String value = ElasticRequestUtils.getTextValueOrNull(source, field);
+        if (value == null) {
+            return false;
+        }
+        final String lowerCasePrefix = prefix.toLowerCase(Locale.ROOT);
+        final String lowerCaseValue = value.toLowerCase(Locale.ROOT);
+        if (lowerCaseValue.startsWith(lowerCasePrefix)) {
+            return true;
+        }
+        for (final String token : TOKEN_SPLITTER.split(lowerCaseValue)) {
+            if (token.startsWith(lowerCasePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates a search term the same way as LuceneQueryFactory.buildPrefixSuffixQuery against the given values.
+     *
+     * Plain terms must all match a token exactly, as a prefix or as a suffix. Terms with explicit wildcards are
+     * matched as token patterns, any of them matching.
+     */
+    static boolean matchesPrefixSuffix(final List<String> values,
+                                       final String searchTerm) {
+        if (searchTerm == null || searchTerm.isEmpty()) {
+            return true;
+        }
+        final List<String> tokens = new ArrayList<>();
+        for (final String value : values) {
+            if (value != null) {
+                tokens.addAll(Arrays.asList(TOKEN_SPLITTER.split(value.toLowerCase(Locale.ROOT))));
+            }
+        }
+        final String[] terms = WHITESPACE.split(searchTerm.trim().toLowerCase(Locale.ROOT));
+        if (searchTerm.contains("*")) {
+            for (final String term : terms) {
+                final Pattern pattern = Pattern.compile(Pattern.quote(term).replace("*", "\\E.*\\Q"));
+                if (tokens.stream().anyMatch(token -> pattern.matcher(token).matches())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (final String term : terms) {
+            for (final String part : TOKEN_SPLITTER.split(term)) {
+                if (!part.isEmpty() && tokens.stream().noneMatch(token -> token.startsWith(part) || token.endsWith(part))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    static List<String> getLabelValues(final JsonNode source,
+                                       final String field) {
+        final List<String> values = new ArrayList<>();
+        final JsonNode labelNode = source.get(field);
+        if (labelNode != null) {
+            final Iterator<JsonNode> iterator = labelNode.elements();
+            while (iterator.hasNext()) {
+                final JsonNode value = iterator.next();
+                if (value.isTextual()) {
+                    values.add(value.textValue());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Sort order equivalent to DomainImpl.addLanguagePrefLabelSort: the prefLabel in the requested language first,
+     * then the other sort languages and the backup field, or only the field without language when no language is
+     * given. Values are compared like keyword fields, case sensitively, and missing values sort last.
+     */
+    static Comparator<JsonNode> languagePrefLabelComparator(final String language,
+                                                            final String backupSortField,
+                                                            final String sortFieldWithoutLanguage) {
+        return languagePrefLabelComparator(language, keywordComparator(source -> ElasticRequestUtils.getTextValueOrNull(source, backupSortField)), keywordComparator(source -> ElasticRequestUtils.getTextValueOrNull(source, sortFieldWithoutLanguage)));
+    }
+
+    static Comparator<JsonNode> languagePrefLabelComparator(final String language,
+                                                            final Comparator<JsonNode> backupComparator,
+                                                            final Comparator<JsonNode> comparatorWithoutLanguage) {
+        if (language == null || language.isEmpty()) {
+            return comparatorWithoutLanguage;
+        }
+        Comparator<JsonNode> comparator = keywordComparator(source -> getPrefLabel(source, language));
+        for (final String sortLanguage : SORT_LANGUAGES) {
+            if (!language.equalsIgnoreCase(sortLanguage)) {
+                comparator = comparator.thenComparing(keywordComparator(source -> getPrefLabel(source, sortLanguage)));
+            }
+        }
+        return comparator.thenComparing(backupComparator);
+    }
+
+    static Comparator<JsonNode> keywordComparator(final Function<JsonNode, String> valueExtractor) {
+        return Comparator.comparing(valueExtractor, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Selects the entries matching the predicate in the comparator order, paged by the meta.
+     */
+    static <T> List<ElasticIndexReplica.Entry<T>> select(final List<ElasticIndexReplica.Entry<T>> entries,
+                                                         final Predicate<JsonNode> predicate,
+                                                         final Comparator<JsonNode> comparator,
+                                                         final Meta meta) {
+        final List<ElasticIndexReplica.Entry<T>> matches = new ArrayList<>();
+        if (entries != null) {
+            for (final ElasticIndexReplica.Entry<T> entry : entries) {
+                if (predicate.test(entry.getSource())) {
+                    matches.add(entry);
+                }
+            }
+        }
+        if (comparator != null) {
+            matches.sort((a, b) -> comparator.compare(a.getSource(), b.getSource()));
+        }
+        return page(matches, meta);
+    }
+
+    /**
+     * Selects the entries at the candidate ordinals matching the predicate in the comparator order, paged by the meta.
+     */
+    static <T> List<ElasticIndexReplica.Entry<T>> select(final List<ElasticIndexReplica.Entry<T>> entries,
+                                                         final BitSet candidates,
+                                                         final Predicate<JsonNode> predicate,
+                                                         final Comparator<JsonNode> comparator,
+                                                         final Meta meta) {
+        final List<ElasticIndexReplica.Entry<T>> matches = new ArrayList<>(candidates.cardinality());
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            matches.add(entries.get(ordinal));
+        }
+        return select(matches, predicate, comparator, meta);
+    }
+
+    /**
+     * Applies the paging of the meta to the matched values and sets the result counts like a search would.
+     */
+    static <T> List<T> page(final List<T> matches,
+                            final Meta meta) {
+        final int from = meta != null && meta.getFrom() != null ? meta.getFrom() : 0;
+        final int size = meta != null && meta.getPageSize() != null ? meta.getPageSize() : MAX_ES_PAGESIZE;
+        final List<T> page = from < matches.size() ? new ArrayList<>(matches.subList(from, Math.min(matches.size(), from + size))) : Collections.emptyList();
+        if (meta != null) {
+            meta.setTotalResults(matches.size());
+            meta.setResultCount(page.size());
+        }
+        return page;
+    }
+
+    private static String getPrefLabel(final JsonNode source,
+                                       final String language) {
+        return ElasticRequestUtils.getTextValueOrNull(source.get("prefLabel"), language);
+    }
+
+    private static boolean isOnOrAfter(final Date date,
+                                       final Date after) {
+        return date != null && !date.before(after);
+    }
+
+    private static Date parseDate(final JsonNode source,
+                                  final String field) {
+        final String value = ElasticRequestUtils.getTextValueOrNull(source, field);
+        if (value != null) {
+            try {
+                return new StdDateFormat().parse(value);
+            } catch (final ParseException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,305 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.search.SearchHit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.*;
+
+/**
+ * Optional per index Bloom filters of the ids, code value paths and URIs of all code registries, code schemes, codes
+ * and extensions, for rejecting lookups of missing resources without ElasticSearch.
+ *
+ * A background task reads the combined change signature of the indices once per refresh interval. When it has changed,
+ * the filter of every index whose own signature differs from the one its filter was built from is dropped before it
+ * is rebuilt, so a miss is only trusted while the index is unchanged since the build, up to the refresh interval. No
+ * miss is trusted if the signatures have not been checked within two refresh intervals, for example while another
+ * filter is being rebuilt.
+ * Code value paths are the lower case code values of the parent registry and code scheme followed by the code value
+ * of the resource, matching the analyzed code value lookups. Paths with a UUID segment may be matched by id and are
+ * never rejected. Empty indices, indices without a built filter and all indices after a failed signature check are
+ * not filtered.
+ */
+@Component
+public class ResourceExistenceFilter implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceExistenceFilter.class);
+    private static final Map<String, String[]> PATH_FIELDS;
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_URI = "uri";
+    private static final String KEY_ID = "id:";
+    private static final String KEY_URI = "uri:";
+    private static final String KEY_PATH = "path:";
+    private static final int KEYS_PER_DOCUMENT = 3;
+
+    static {
+        final Map<String, String[]> pathFields = new HashMap<>();
+        pathFields.put(ELASTIC_INDEX_CODEREGISTRY, new String[]{ "codeValue" });
+        pathFields.put(ELASTIC_INDEX_CODESCHEME, new String[]{ "codeRegistry.codeValue", "codeValue" });
+        pathFields.put(ELASTIC_INDEX_CODE, new String[]{ "codeScheme.codeRegistry.codeValue", "codeScheme.codeValue", "codeValue" });
+        pathFields.put(ELASTIC_INDEX_EXTENSION, new String[]{ "parentCodeScheme.codeRegistry.codeValue", "parentCodeScheme.codeValue", "codeValue" });
+        PATH_FIELDS = Collections.unmodifiableMap(pathFields);
+    }
+
+    private final ElasticIndexScanner scanner;
+    private final boolean enabled;
+    private final long refreshIntervalMillis;
+    private final double fpp;
+    private final Map<String, KeyBloomFilter> filters = new ConcurrentHashMap<>();
+    private final Map<String, ElasticIndexScanner.Signature> signatures = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> rejections = new HashMap<>();
+    private ScheduledExecutorService executor;
+    private ElasticIndexScanner.Signature combinedSignature;
+    private volatile long verifiedNanos;
+
+    @Inject
+    public ResourceExistenceFilter(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                                   final ElasticConcurrencyLimiter concurrencyLimiter,
+                                   @Value("${elastic.existence-filter.enabled:false}") final boolean enabled,
+                                   @Value("${elastic.existence-filter.refresh-interval-ms:1000}") final long refreshIntervalMillis,
+                                   @Value("${elastic.existence-filter.fpp:0.01}") final double fpp) {
+        this.scanner = new ElasticIndexScanner(elasticSearchRestHighLevelClient, concurrencyLimiter);
+        this.enabled = enabled;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.fpp = fpp;
+        for (final String index : PATH_FIELDS.keySet()) {
+            rejections.put(index, new AtomicLong());
+        }
+    }
+
+    /**
+     * Starts building and refreshing the filters in the background.
+     */
+    public synchronized void start() {
+        if (enabled && executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "resource-existence-filter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::refresh, 0, Math.max(refreshIntervalMillis, 100), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        for (final String index : PATH_FIELDS.keySet()) {
+            Gauge.builder("codelist.existence_filter.keys", this, filter -> filter.getStat(index, KeyBloomFilter::size)).tag("index", index).register(registry);
+            Gauge.builder("codelist.existence_filter.memory", this, filter -> filter.getStat(index, KeyBloomFilter::getMemoryBytes)).tag("index", index).baseUnit("bytes").register(registry);
+            Gauge.builder("codelist.existence_filter.expected_fpp", this, filter -> filter.getStat(index, KeyBloomFilter::getExpectedFpp)).tag("index", index).register(registry);
+            Gauge.builder("codelist.existence_filter.rejections", rejections.get(index), AtomicLong::get).tag("index", index).register(registry);
+        }
+    }
+
+    /**
+     * Returns false if no document with the id exists in the index. True means that the document may exist.
+     */
+    boolean mightContainId(final String index,
+                           final String id) {
+        final KeyBloomFilter filter = getVerifiedFilter(index);
+        if (filter == null || id == null) {
+            return true;
+        }
+        return countRejection(index, filter.mightContain(KEY_ID + normalizeValue(id)));
+    }
+
+    /**
+     * Returns false if no document in the index has the URI or the code value path. True means that the document may
+     * exist.
+     */
+    boolean mightContainResource(final String index,
+                                 final String uri,
+                                 final String... codeValues) {
+        final KeyBloomFilter filter = getVerifiedFilter(index);
+        if (filter == null) {
+            return true;
+        }
+        for (final String codeValue : codeValues) {
+            if (codeValue == null || isUuid(codeValue.trim())) {
+                return true;
+            }
+        }
+        final String uriPath = UriHashIndex.normalize(uri);
+        if (uriPath != null && filter.mightContain(KEY_URI + uriPath)) {
+            return true;
+        }
+        return countRejection(index, filter.mightContain(KEY_PATH + createPath(codeValues)));
+    }
+
+    void refresh() {
+        final long start = System.nanoTime();
+        final ElasticIndexScanner.Signature currentSignature;
+        try {
+            currentSignature = scanner.readSignature(PATH_FIELDS.keySet().toArray(new String[0]));
+        } catch (final IOException | ElasticsearchException e) {
+            LOG.warn("Reading existence filter signatures failed, not filtering until the next refresh: " + e.getMessage());
+            filters.clear();
+            signatures.clear();
+            combinedSignature = null;
+            return;
+        }
+        if (currentSignature.equals(combinedSignature)) {
+            verifiedNanos = start;
+            return;
+        }
+        boolean complete = true;
+        for (final String index : PATH_FIELDS.keySet()) {
+            complete &= refresh(index);
+        }
+        combinedSignature = complete ? currentSignature : null;
+        verifiedNanos = start;
+    }
+
+    private boolean refresh(final String index) {
+        try {
+            final ElasticIndexScanner.Signature signature = scanner.readSignature(index);
+            if (filters.containsKey(index) && signature.equals(signatures.get(index))) {
+                return true;
+            }
+            filters.remove(index);
+            signatures.remove(index);
+            if (signature.getTotalHits() == 0) {
+                return true;
+            }
+            final long start = System.nanoTime();
+            final KeyBloomFilter filter = load(index, signature.getTotalHits());
+            signatures.put(index, signature);
+            filters.put(index, filter);
+            LOG.info(String.format("Built existence filter of index %s with %d keys in %d ms, using %d bytes with expected false positive probability %.4f.", index, filter.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), filter.getMemoryBytes(), filter.getExpectedFpp()));
+            return true;
+        } catch (final IOException | ElasticsearchException e) {
+            LOG.warn(String.format("Refreshing existence filter of index %s failed: %s", index, e.getMessage()));
+            filters.remove(index);
+            signatures.remove(index);
+            return false;
+        }
+    }
+
+    private KeyBloomFilter load(final String index,
+                                final long documentCount) throws IOException {
+        final String[] pathFields = PATH_FIELDS.get(index);
+        final Set<String> includes = new LinkedHashSet<>();
+        includes.add(FIELD_ID);
+        includes.add(FIELD_URI);
+        Collections.addAll(includes, pathFields);
+        final KeyBloomFilter.Builder builder = new KeyBloomFilter.Builder(documentCount * KEYS_PER_DOCUMENT, fpp);
+        scanner.scan(includes.toArray(new String[0]), hit -> addKeys(builder, hit, pathFields), index);
+        return builder.build();
+    }
+
+    private static void addKeys(final KeyBloomFilter.Builder builder,
+                                final SearchHit hit,
+                                final String[] pathFields) {
+        final Map<String, Object> source = hit.getSourceAsMap();
+        final Object id = source.get(FIELD_ID);
+        builder.add(KEY_ID + normalizeValue(id instanceof String ? (String) id : hit.getId()));
+        final Object uri = source.get(FIELD_URI);
+        final String uriPath = uri instanceof String ? UriHashIndex.normalize((String) uri) : null;
+        if (uriPath != null) {
+            builder.add(KEY_URI + uriPath);
+        }
+        final String[] codeValues = new String[pathFields.length];
+        for (int i = 0; i < pathFields.length; i++) {
+            codeValues[i] = getPathValue(source, pathFields[i]);
+            if (codeValues[i] == null) {
+                return;
+            }
+        }
+        builder.add(KEY_PATH + createPath(codeValues));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String getPathValue(final Map<String, Object> source,
+                                       final String field) {
+        Object value = source;
+        for (final String name : field.split("\\.")) {
+            if (!(value instanceof Map)) {
+                return null;
+            }
+            value = ((Map<String, Object>) value).get(name);
+        }
+        return value instanceof String ? (String) value : null;
+    }
+
+    private static String createPath(final String... codeValues) {
+        final StringBuilder builder = new StringBuilder();
+        for (final String codeValue : codeValues) {
+            if (builder.length() > 0) {
+                builder.append('/');
+            }
+            builder.append(normalizeValue(codeValue));
+        }
+        return builder.toString();
+    }
+
+    private static String normalizeValue(final String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isUuid(final String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private KeyBloomFilter getVerifiedFilter(final String index) {
+        final long verified = verifiedNanos;
+        if (verified == 0 || System.nanoTime() - verified > TimeUnit.MILLISECONDS.toNanos(Math.max(refreshIntervalMillis, 100) * 2)) {
+            return null;
+        }
+        return filters.get(index);
+    }
+
+    private boolean countRejection(final String index,
+                                   final boolean mightContain) {
+        if (!mightContain) {
+            rejections.get(index).incrementAndGet();
+        }
+        return mightContain;
+    }
+
+    private double getStat(final String index,
+                           final ToDoubleFunction<KeyBloomFilter> stat) {
+        final KeyBloomFilter filter = filters.get(index);
+        return filter != null ? stat.applyAsDouble(filter) : 0;
+    }
+}
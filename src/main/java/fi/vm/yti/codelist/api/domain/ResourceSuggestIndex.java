@@ -0,0 +1,198 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fi.vm.yti.codelist.api.dto.SuggestionDTO;
+import fi.vm.yti.codelist.api.exception.YtiCodeListException;
+import fi.vm.yti.codelist.common.dto.ErrorModel;
+import fi.vm.yti.codelist.common.model.Status;
+import static fi.vm.yti.codelist.api.domain.ElasticRequestUtils.getTextValueOrNull;
+import static fi.vm.yti.codelist.api.domain.ElasticRequestUtils.labelFromKeyValueNode;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_CODE;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.ELASTIC_INDEX_CODESCHEME;
+
+/**
+ * In-memory typeahead index over the prefLabels and code values of code schemes and codes.
+ *
+ * A background task reads the change signatures of the code scheme and code indices and rebuilds the prefix index of
+ * an index with a scroll over the needed fields when its signature has changed. Suggestions are served from memory
+ * only, ranked by status boost. Incomplete code schemes and their codes are not suggested.
+ */
+@Component
+public class ResourceSuggestIndex {
+
+    public static final String TYPE_CODESCHEME = "codescheme";
+    public static final String TYPE_CODE = "code";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceSuggestIndex.class);
+    private static final String[] CODESCHEME_FIELDS = { "id", "uri", "codeValue", "prefLabel", "status", "codeRegistry.codeValue" };
+    private static final String[] CODE_FIELDS = { "id", "uri", "codeValue", "prefLabel", "status", "codeScheme.codeValue", "codeScheme.status", "codeScheme.codeRegistry.codeValue" };
+
+    private final ElasticIndexScanner scanner;
+    private final ObjectMapper mapper;
+    private final boolean enabled;
+    private final boolean codesEnabled;
+    private final long refreshIntervalMillis;
+    private ScheduledExecutorService executor;
+    private volatile PrefixSuggestIndex<SuggestionDTO> codeSchemeIndex;
+    private volatile PrefixSuggestIndex<SuggestionDTO> codeIndex;
+    private ElasticIndexScanner.Signature codeSchemeSignature;
+    private ElasticIndexScanner.Signature codeSignature;
+
+    @Inject
+    public ResourceSuggestIndex(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                                final ElasticConcurrencyLimiter concurrencyLimiter,
+                                @Value("${elastic.suggest-index.enabled:true}") final boolean enabled,
+                                @Value("${elastic.suggest-index.codes.enabled:true}") final boolean codesEnabled,
+                                @Value("${elastic.suggest-index.refresh-interval-ms:60000}") final long refreshIntervalMillis) {
+        this.scanner = new ElasticIndexScanner(elasticSearchRestHighLevelClient, concurrencyLimiter);
+        this.mapper = new ObjectMapper();
+        this.enabled = enabled;
+        this.codesEnabled = codesEnabled;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Starts building and refreshing the index in the background.
+     */
+    public synchronized void start() {
+        if (enabled && executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "resource-suggest-index");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::refresh, 0, Math.max(refreshIntervalMillis, 1000), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Returns at most limit suggestions of the given types for the term, in descending status boost order.
+     */
+    public List<SuggestionDTO> suggest(final String term,
+                                       final Collection<String> types,
+                                       final String language,
+                                       final int limit) {
+        final List<SuggestionDTO> suggestions = new ArrayList<>();
+        if (types.contains(TYPE_CODESCHEME)) {
+            suggestions.addAll(getIndex(codeSchemeIndex, enabled).suggest(term, language, limit));
+        }
+        if (types.contains(TYPE_CODE)) {
+            suggestions.addAll(getIndex(codeIndex, enabled && codesEnabled).suggest(term, language, limit));
+        }
+        suggestions.sort(Comparator.comparingInt((SuggestionDTO suggestion) -> getBoost(suggestion.getStatus())).reversed());
+        return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+    }
+
+    private static PrefixSuggestIndex<SuggestionDTO> getIndex(final PrefixSuggestIndex<SuggestionDTO> index,
+                                                              final boolean indexEnabled) {
+        if (!indexEnabled || index == null) {
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.SERVICE_UNAVAILABLE.value(), "Suggestions are not available."));
+        }
+        return index;
+    }
+
+    void refresh() {
+        try {
+            final ElasticIndexScanner.Signature currentCodeSchemeSignature = scanner.readSignature(ELASTIC_INDEX_CODESCHEME);
+            if (codeSchemeIndex == null || !currentCodeSchemeSignature.equals(codeSchemeSignature)) {
+                final long start = System.nanoTime();
+                codeSchemeIndex = load(ELASTIC_INDEX_CODESCHEME, CODESCHEME_FIELDS, TYPE_CODESCHEME);
+                codeSchemeSignature = currentCodeSchemeSignature;
+                LOG.info(String.format("Indexed %d code scheme suggestions with %d keys in %d ms.", codeSchemeIndex.size(), codeSchemeIndex.getKeyCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            }
+            if (!codesEnabled) {
+                return;
+            }
+            final ElasticIndexScanner.Signature currentCodeSignature = scanner.readSignature(ELASTIC_INDEX_CODE);
+            if (codeIndex == null || !currentCodeSignature.equals(codeSignature)) {
+                final long start = System.nanoTime();
+                codeIndex = load(ELASTIC_INDEX_CODE, CODE_FIELDS, TYPE_CODE);
+                codeSignature = currentCodeSignature;
+                LOG.info(String.format("Indexed %d code suggestions with %d keys in %d ms.", codeIndex.size(), codeIndex.getKeyCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            }
+        } catch (final IOException | ElasticsearchException e) {
+            LOG.warn("Refreshing resource suggest index failed: " + e.getMessage());
+        }
+    }
+
+    private PrefixSuggestIndex<SuggestionDTO> load(final String index,
+                                                   final String[] fields,
+                                                   final String type) throws IOException {
+        final PrefixSuggestIndex.Builder<SuggestionDTO> builder = new PrefixSuggestIndex.Builder<>();
+        final List<IOException> errors = new ArrayList<>(1);
+        scanner.scan(fields, hit -> {
+            try {
+                final SuggestionDTO suggestion = createSuggestion(mapper.readTree(hit.getSourceAsString()), type);
+                if (suggestion != null) {
+                    builder.add(suggestion, getBoost(suggestion.getStatus()), suggestion.getCodeValue(), suggestion.getPrefLabel());
+                }
+            } catch (final IOException e) {
+                errors.add(e);
+            }
+        }, index);
+        if (!errors.isEmpty()) {
+            throw errors.get(0);
+        }
+        return builder.build();
+    }
+
+    private static SuggestionDTO createSuggestion(final JsonNode source,
+                                                  final String type) {
+        final String status = getTextValueOrNull(source, "status");
+        if (Status.INCOMPLETE.toString().equals(status)) {
+            return null;
+        }
+        final SuggestionDTO suggestion = new SuggestionDTO();
+        suggestion.setType(type);
+        suggestion.setId(getTextValueOrNull(source, "id"));
+        suggestion.setUri(getTextValueOrNull(source, "uri"));
+        suggestion.setCodeValue(getTextValueOrNull(source, "codeValue"));
+        suggestion.setStatus(status);
+        suggestion.setPrefLabel(labelFromKeyValueNode(source.get("prefLabel")));
+        if (TYPE_CODE.equals(type)) {
+            final JsonNode codeScheme = source.get("codeScheme");
+            if (codeScheme == null || Status.INCOMPLETE.toString().equals(getTextValueOrNull(codeScheme, "status"))) {
+                return null;
+            }
+            suggestion.setCodeSchemeCodeValue(getTextValueOrNull(codeScheme, "codeValue"));
+            suggestion.setCodeRegistryCodeValue(getTextValueOrNull(codeScheme.get("codeRegistry"), "codeValue"));
+        } else {
+            suggestion.setCodeRegistryCodeValue(getTextValueOrNull(source.get("codeRegistry"), "codeValue"));
+        }
+        return suggestion;
+    }
+
+    private static int getBoost(final String status) {
+        return status != null ? CodeCatalogReplica.STATUS_BOOSTS.getOrDefault(status, 0) : 0;
+    }
+}
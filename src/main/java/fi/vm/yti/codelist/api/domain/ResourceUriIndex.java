@@ -0,0 +1,109 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static fi.vm.yti.codelist.common.constants.ApiConstants.*;
+
+/**
+ * Optional in-memory index of the URIs of all code registries, code schemes, codes and extensions for the URI resolver.
+ *
+ * A background task reads the change signature of the indices, the total document count combined with the latest
+ * modified timestamps, and rebuilds the index with a scroll over the uri fields when the signature has changed. URIs
+ * found in the index are resolved without ElasticSearch. Other URIs, and all URIs before the first build, are looked
+ * up from ElasticSearch as before. Removed resources may resolve until the next refresh.
+ */
+@Component
+public class ResourceUriIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceUriIndex.class);
+    private static final String[] INDICES = { ELASTIC_INDEX_CODEREGISTRY, ELASTIC_INDEX_CODESCHEME, ELASTIC_INDEX_CODE, ELASTIC_INDEX_EXTENSION };
+    private static final String FIELD_URI = "uri";
+
+    private final ElasticIndexScanner scanner;
+    private final boolean enabled;
+    private final long refreshIntervalMillis;
+    private ScheduledExecutorService executor;
+    private volatile UriHashIndex index;
+    private volatile ElasticIndexScanner.Signature signature;
+
+    @Inject
+    public ResourceUriIndex(final RestHighLevelClient elasticSearchRestHighLevelClient,
+                            final ElasticConcurrencyLimiter concurrencyLimiter,
+                            @Value("${elastic.uri-index.enabled:false}") final boolean enabled,
+                            @Value("${elastic.uri-index.refresh-interval-ms:60000}") final long refreshIntervalMillis) {
+        this.scanner = new ElasticIndexScanner(elasticSearchRestHighLevelClient, concurrencyLimiter);
+        this.enabled = enabled;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Starts building and refreshing the index in the background.
+     */
+    public synchronized void start() {
+        if (enabled && executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "resource-uri-index");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::refresh, 0, Math.max(refreshIntervalMillis, 1000), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Returns true if the URI is known to point to an existing resource. False means unknown, not missing.
+     */
+    boolean contains(final String uri) {
+        final UriHashIndex currentIndex = index;
+        return currentIndex != null && currentIndex.contains(uri);
+    }
+
+    void refresh() {
+        try {
+            final ElasticIndexScanner.Signature currentSignature = scanner.readSignature(INDICES);
+            if (index != null && currentSignature.equals(signature)) {
+                return;
+            }
+            final long start = System.nanoTime();
+            final UriHashIndex loaded = load();
+            index = loaded;
+            signature = currentSignature;
+            final double bytesPerMillion = loaded.size() > 0 ? (double) loaded.getMemoryBytes() / loaded.size() * 1_000_000 : 0;
+            LOG.info(String.format("Indexed %d resource URIs in %d ms, using %d bytes (%.1f MB per million entries).", loaded.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), loaded.getMemoryBytes(), bytesPerMillion / (1024 * 1024)));
+        } catch (final IOException | ElasticsearchException e) {
+            LOG.warn("Refreshing resource URI index failed: " + e.getMessage());
+        }
+    }
+
+    private UriHashIndex load() throws IOException {
+        final UriHashIndex.Builder builder = new UriHashIndex.Builder();
+        scanner.scan(new String[]{ FIELD_URI }, hit -> {
+            final Object uri = hit.getSourceAsMap().get(FIELD_URI);
+            if (uri instanceof String) {
+                builder.add((String) uri);
+            }
+        }, INDICES);
+        return builder.build();
+    }
+}
@@ -0,0 +1,68 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Wraps the words of a search term in bold tags where they begin or end a word of a text.
+ *
+ * The words are compiled once into one case insensitive alternation, longest words first, and every text is
+ * highlighted in a single pass, so the tags of one word are never matched by another.
+ */
+final class SearchTermHighlighter {
+
+    private static final SearchTermHighlighter NONE = new SearchTermHighlighter(null);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Pattern pattern;
+
+    private SearchTermHighlighter(final Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    static SearchTermHighlighter compile(final String searchTerm) {
+        if (searchTerm == null) {
+            return NONE;
+        }
+        final Set<String> seen = new LinkedHashSet<>();
+        final List<String> words = new ArrayList<>();
+        for (final String word : WHITESPACE.split(searchTerm)) {
+            if (!word.isEmpty() && seen.add(word.toLowerCase(Locale.ROOT))) {
+                words.add(word);
+            }
+        }
+        if (words.isEmpty()) {
+            return NONE;
+        }
+        words.sort(Comparator.comparingInt(String::length).reversed());
+        final StringBuilder alternation = new StringBuilder("(?:");
+        for (int i = 0; i < words.size(); i++) {
+            alternation.append(i > 0 ? "|" : "").append(Pattern.quote(words.get(i)));
+        }
+        alternation.append(')');
+        return new SearchTermHighlighter(Pattern.compile("\\b" + alternation + "|" + alternation + "\\b", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+    }
+
+    String highlight(final String text) {
+        if (pattern == null || text == null || text.isEmpty()) {
+            return text;
+        }
+        final Matcher matcher = pattern.matcher(text);
+        if (!matcher.find()) {
+            return text;
+        }
+        final StringBuilder builder = new StringBuilder(text.length() + 16);
+        int position = 0;
+        do {
+            builder.append(text, position, matcher.start()).append("<b>").append(text, matcher.start(), matcher.end()).append("</b>");
+            position = matcher.end();
+        } while (matcher.find());
+        return builder.append(text, position, text.length()).toString();
+    }
+}
@@ -0,0 +1,164 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+
+import static fi.vm.yti.codelist.common.constants.ApiConstants.*;
+
+/**
+ * ElasticSearch source filtering derived from the same base filter and expand list that the resources use for
+ * serialization.
+ *
+ * Nested objects that are not expanded are serialized only with their uri and url (or id), so the rest of their
+ * content is excluded already when fetching the documents. Exports and other callers that need the full documents
+ * pass no source filter. The same expand rules are available as a streaming token filter for raw source output.
+ */
+public final class SourceFilter {
+
+    private static final int MAX_DEPTH = 3;
+    private static final List<String> LABEL_FIELDS = Arrays.asList("prefLabel", "definition", "description", "changeNote");
+    private static final Map<String, Map<String, String>> NESTED_OBJECTS = new HashMap<>();
+    private static final Map<String, List<String>> FILTERED_OUT_FIELDS = new HashMap<>();
+    private static final Map<String, Set<String>> KEPT_FIELDS = new HashMap<>();
+
+    static {
+        addNestedObject(FILTER_NAME_CODEREGISTRY, "organizations", FILTER_NAME_ORGANIZATION);
+        addNestedObject(FILTER_NAME_CODESCHEME, "codeRegistry", FILTER_NAME_CODEREGISTRY);
+        addNestedObject(FILTER_NAME_CODESCHEME, "organizations", FILTER_NAME_ORGANIZATION);
+        addNestedObject(FILTER_NAME_CODESCHEME, "externalReferences", FILTER_NAME_EXTERNALREFERENCE);
+        addNestedObject(FILTER_NAME_CODESCHEME, "extensions", FILTER_NAME_EXTENSION);
+        addNestedObject(FILTER_NAME_CODESCHEME, "infoDomains", FILTER_NAME_CODE);
+        addNestedObject(FILTER_NAME_CODESCHEME, "languageCodes", FILTER_NAME_CODE);
+        addNestedObject(FILTER_NAME_CODESCHEME, "defaultCode", FILTER_NAME_CODE);
+        addNestedObject(FILTER_NAME_CODE, "codeScheme", FILTER_NAME_CODESCHEME);
+        addNestedObject(FILTER_NAME_CODE, "externalReferences", FILTER_NAME_EXTERNALREFERENCE);
+        addNestedObject(FILTER_NAME_CODE, "members", FILTER_NAME_MEMBER);
+        addNestedObject(FILTER_NAME_CODE, "broaderCode", FILTER_NAME_CODE);
+        addNestedObject(FILTER_NAME_CODE, "subCodeScheme", FILTER_NAME_CODESCHEME);
+        addNestedObject(FILTER_NAME_EXTENSION, "parentCodeScheme", FILTER_NAME_CODESCHEME);
+        addNestedObject(FILTER_NAME_EXTENSION, "propertyType", FILTER_NAME_PROPERTYTYPE);
+        addNestedObject(FILTER_NAME_EXTENSION, "members", FILTER_NAME_MEMBER);
+        addNestedObject(FILTER_NAME_EXTENSION, "codeSchemes", FILTER_NAME_CODESCHEME);
+        addNestedObject(FILTER_NAME_MEMBER, "extension", FILTER_NAME_EXTENSION);
+        addNestedObject(FILTER_NAME_MEMBER, "code", FILTER_NAME_CODE);
+        addNestedObject(FILTER_NAME_MEMBER, "relatedMember", FILTER_NAME_MEMBER);
+        addNestedObject(FILTER_NAME_MEMBER, "memberValues", FILTER_NAME_MEMBERVALUE);
+        addNestedObject(FILTER_NAME_EXTERNALREFERENCE, "parentCodeScheme", FILTER_NAME_CODESCHEME);
+        addNestedObject(FILTER_NAME_EXTERNALREFERENCE, "propertyType", FILTER_NAME_PROPERTYTYPE);
+
+        for (final String filterName : Arrays.asList(FILTER_NAME_CODEREGISTRY, FILTER_NAME_CODESCHEME, FILTER_NAME_CODE, FILTER_NAME_EXTENSION, FILTER_NAME_MEMBER, FILTER_NAME_PROPERTYTYPE)) {
+            final List<String> fields = new ArrayList<>(LABEL_FIELDS);
+            fields.addAll(NESTED_OBJECTS.getOrDefault(filterName, Collections.emptyMap()).keySet());
+            FILTERED_OUT_FIELDS.put(filterName, fields);
+        }
+        FILTERED_OUT_FIELDS.put(FILTER_NAME_ORGANIZATION, Arrays.asList("prefLabel", "description", "url"));
+        FILTERED_OUT_FIELDS.put(FILTER_NAME_EXTERNALREFERENCE, Arrays.asList("title", "description", "propertyType", "parentCodeScheme"));
+
+        for (final String filterName : Arrays.asList(FILTER_NAME_CODEREGISTRY, FILTER_NAME_CODESCHEME, FILTER_NAME_CODE, FILTER_NAME_PROPERTYTYPE, FILTER_NAME_EXTENSION, FILTER_NAME_MEMBER, FILTER_NAME_VALUETYPE)) {
+            KEPT_FIELDS.put(filterName, new HashSet<>(Arrays.asList(FIELD_NAME_URI, FIELD_NAME_URL)));
+        }
+        KEPT_FIELDS.put(FILTER_NAME_EXTERNALREFERENCE, Collections.singleton(FIELD_NAME_URL));
+        KEPT_FIELDS.put(FILTER_NAME_INFODOMAIN, Collections.singleton(FIELD_NAME_URL));
+        KEPT_FIELDS.put(FILTER_NAME_ORGANIZATION, Collections.singleton(FIELD_NAME_ID));
+        KEPT_FIELDS.put(FILTER_NAME_MEMBERVALUE, Collections.singleton(FIELD_NAME_ID));
+    }
+
+    private final String baseFilter;
+    private final Set<String> expanded;
+    private final String[] excludes;
+
+    private SourceFilter(final String baseFilter,
+                         final Set<String> expanded,
+                         final String[] excludes) {
+        this.baseFilter = baseFilter;
+        this.expanded = expanded;
+        this.excludes = excludes;
+    }
+
+    /**
+     * Creates the source filter matching AbstractBaseResource.createSimpleFilterProvider(baseFilter, expand).
+     */
+    public static SourceFilter of(final String baseFilter,
+                                  final String expand) {
+        final Set<String> expanded = new HashSet<>();
+        expanded.add(baseFilter.trim());
+        if (expand != null && !expand.isEmpty()) {
+            for (final String filter : expand.split(",")) {
+                expanded.add(filter.trim());
+            }
+        }
+        final Set<String> excludes = new LinkedHashSet<>();
+        addExcludes(excludes, "", baseFilter.trim(), expanded, 0);
+        return new SourceFilter(baseFilter.trim(), Collections.unmodifiableSet(expanded), excludes.toArray(new String[0]));
+    }
+
+    public String[] getExcludes() {
+        return excludes.clone();
+    }
+
+    public boolean isEmpty() {
+        return excludes.length == 0;
+    }
+
+    /**
+     * Creates a token filter that applies the expand rules to a raw JSON source while it is being copied.
+     */
+    public TokenFilter createTokenFilter() {
+        return new ExpandTokenFilter(baseFilter, expanded, false);
+    }
+
+    void applyTo(final SearchSourceBuilder searchBuilder) {
+        if (!isEmpty()) {
+            searchBuilder.fetchSource(null, excludes);
+        }
+    }
+
+    FetchSourceContext toFetchSourceContext() {
+        return new FetchSourceContext(true, null, excludes);
+    }
+
+    private static void addExcludes(final Set<String> excludes,
+                                    final String prefix,
+                                    final String filterName,
+                                    final Set<String> expanded,
+                                    final int depth) {
+        for (final Map.Entry<String, String> nestedObject : getNestedObjects(filterName).entrySet()) {
+            final String path = prefix + nestedObject.getKey();
+            final String nestedFilterName = nestedObject.getValue();
+            if (!expanded.contains(nestedFilterName)) {
+                for (final String field : FILTERED_OUT_FIELDS.getOrDefault(nestedFilterName, Collections.emptyList())) {
+                    excludes.add(path + "." + field);
+                }
+            } else if (depth + 1 < MAX_DEPTH) {
+                addExcludes(excludes, path + ".", nestedFilterName, expanded, depth + 1);
+            }
+        }
+    }
+
+    static Map<String, String> getNestedObjects(final String filterName) {
+        return NESTED_OBJECTS.getOrDefault(filterName, Collections.emptyMap());
+    }
+
+    static Set<String> getKeptFields(final String filterName) {
+        return KEPT_FIELDS.getOrDefault(filterName, Collections.emptySet());
+    }
+
+    private static void addNestedObject(final String filterName,
+                                        final String field,
+                                        final String nestedFilterName) {
+        NESTED_OBJECTS.computeIfAbsent(filterName, name -> new LinkedHashMap<>()).put(field, nestedFilterName);
+    }
+}
@@ -0,0 +1,106 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Immutable set of codelist resource URIs stored as a sorted array of 64-bit hashes of the normalized resource paths.
+ *
+ * An entry takes 8 bytes regardless of the URI length. Lookups are binary searches. Two different paths can share a
+ * hash, but with 64-bit hashes the chance that an unknown path is reported as present is in the order of n / 2^64.
+ */
+final class UriHashIndex {
+
+    private static final String CODELIST_PATH = "/codelist/";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] hashes;
+
+    private UriHashIndex(final long[] hashes) {
+        this.hashes = hashes;
+    }
+
+    boolean contains(final String uri) {
+        final String path = normalize(uri);
+        return path != null && Arrays.binarySearch(hashes, hash(path)) >= 0;
+    }
+
+    int size() {
+        return hashes.length;
+    }
+
+    long getMemoryBytes() {
+        return (long) hashes.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the lower case resource path following the codelist context path without a query string or trailing
+     * slashes, or null if the URI does not point to a codelist resource.
+     */
+    static String normalize(final String uri) {
+        if (uri == null) {
+            return null;
+        }
+        final String lowerCaseUri = uri.toLowerCase(Locale.ROOT);
+        final int start = lowerCaseUri.indexOf(CODELIST_PATH);
+        if (start < 0) {
+            return null;
+        }
+        final int pathStart = start + CODELIST_PATH.length();
+        int end = lowerCaseUri.indexOf('?', pathStart);
+        if (end < 0) {
+            end = lowerCaseUri.length();
+        }
+        while (end > pathStart && lowerCaseUri.charAt(end - 1) == '/') {
+            end--;
+        }
+        return end > pathStart ? lowerCaseUri.substring(pathStart, end) : null;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units followed by the MurmurHash3 finalizer to spread the bits.
+     */
+    static long hash(final String path) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < path.length(); i++) {
+            hash ^= path.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    static final class Builder {
+
+        private long[] hashes = new long[1024];
+        private int size;
+
+        Builder add(final String uri) {
+            final String path = normalize(uri);
+            if (path != null) {
+                if (size == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, size * 2);
+                }
+                hashes[size++] = hash(path);
+            }
+            return this;
+        }
+
+        UriHashIndex build() {
+            final long[] sorted = Arrays.copyOf(hashes, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[distinct - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return new UriHashIndex(Arrays.copyOf(sorted, distinct));
+        }
+    }
+}
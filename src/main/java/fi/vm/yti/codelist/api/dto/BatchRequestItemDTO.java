@@ -0,0 +1,50 @@
+package fi.vm.yti.codelist.api.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@XmlRootElement
+@XmlType(propOrder = { "path", "params" })
+@Schema(name = "BatchRequestItem", description = "Batch request item DTO that represents a single GET request relative to the API base path.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchRequestItemDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String path;
+    private Map<String, String> params;
+
+    public BatchRequestItemDTO() {
+    }
+
+    public BatchRequestItemDTO(final String path,
+                               final Map<String, String> params) {
+        this.path = path;
+        this.params = params;
+    }
+
+    @Schema(description = "Request path relative to the API base path, for example /v1/coderegistries/.")
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    @Schema(description = "Query parameters of the request.")
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public void setParams(final Map<String, String> params) {
+        this.params = params;
+    }
+}
@@ -0,0 +1,75 @@
+package fi.vm.yti.codelist.api.dto;
+
+import java.io.Serializable;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@XmlRootElement
+@XmlType(propOrder = { "path", "status", "durationMs", "body" })
+@Schema(name = "BatchResponseItem", description = "Batch response item DTO that represents the response of a single request in a batch.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResponseItemDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String path;
+    private int status;
+    private long durationMs;
+    private String body;
+
+    public BatchResponseItemDTO() {
+    }
+
+    public BatchResponseItemDTO(final String path,
+                                final int status,
+                                final long durationMs,
+                                final String body) {
+        this.path = path;
+        this.status = status;
+        this.durationMs = durationMs;
+        this.body = body;
+    }
+
+    @Schema(description = "Request path of the batch request item.")
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    @Schema(description = "HTTP status code of the response.")
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    @Schema(description = "Execution time of the request in milliseconds.")
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(final long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    @JsonRawValue
+    @Schema(description = "Response body, embedded as is for JSON responses and as a string otherwise.")
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(final String body) {
+        this.body = body;
+    }
+}
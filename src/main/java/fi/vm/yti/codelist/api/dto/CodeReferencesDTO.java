@@ -0,0 +1,62 @@
+package fi.vm.yti.codelist.api.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@XmlRootElement
+@XmlType(propOrder = { "codeId", "memberCount", "extensions" })
+@Schema(name = "CodeReferences", description = "Code references DTO that represents the Extensions and Members referencing a Code.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CodeReferencesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String codeId;
+    private long memberCount;
+    private List<ExtensionReferenceDTO> extensions;
+
+    public CodeReferencesDTO() {
+    }
+
+    public CodeReferencesDTO(final String codeId,
+                             final long memberCount,
+                             final List<ExtensionReferenceDTO> extensions) {
+        this.codeId = codeId;
+        this.memberCount = memberCount;
+        this.extensions = extensions;
+    }
+
+    @Schema(description = "Id of the referenced Code.")
+    public String getCodeId() {
+        return codeId;
+    }
+
+    public void setCodeId(final String codeId) {
+        this.codeId = codeId;
+    }
+
+    @Schema(description = "Total number of Members referencing the Code.")
+    public long getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(final long memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    @Schema(description = "Extensions with Members referencing the Code, ordered by member count.")
+    public List<ExtensionReferenceDTO> getExtensions() {
+        return extensions;
+    }
+
+    public void setExtensions(final List<ExtensionReferenceDTO> extensions) {
+        this.extensions = extensions;
+    }
+}
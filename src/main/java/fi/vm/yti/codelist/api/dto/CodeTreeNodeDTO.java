@@ -0,0 +1,56 @@
+package fi.vm.yti.codelist.api.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import fi.vm.yti.codelist.common.dto.CodeDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@XmlRootElement
+@XmlType(propOrder = { "code", "children" })
+@Schema(name = "CodeTreeNode", description = "Code tree node DTO that represents a Code with its narrower Codes in a hierarchy.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CodeTreeNodeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private CodeDTO code;
+    private List<CodeTreeNodeDTO> children;
+
+    public CodeTreeNodeDTO() {
+    }
+
+    public CodeTreeNodeDTO(final CodeDTO code) {
+        this.code = code;
+    }
+
+    public CodeDTO getCode() {
+        return code;
+    }
+
+    public void setCode(final CodeDTO code) {
+        this.code = code;
+    }
+
+    @Schema(description = "Narrower Codes in order, left out for leaf Codes.")
+    public List<CodeTreeNodeDTO> getChildren() {
+        return children;
+    }
+
+    public void setChildren(final List<CodeTreeNodeDTO> children) {
+        this.children = children;
+    }
+
+    public void addChild(final CodeTreeNodeDTO child) {
+        if (children == null) {
+            children = new ArrayList<>();
+        }
+        children.add(child);
+    }
+}
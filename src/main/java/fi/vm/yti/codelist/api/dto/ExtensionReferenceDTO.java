@@ -0,0 +1,49 @@
+package fi.vm.yti.codelist.api.dto;
+
+import java.io.Serializable;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import fi.vm.yti.codelist.common.dto.ExtensionDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@XmlRootElement
+@XmlType(propOrder = { "extension", "memberCount" })
+@Schema(name = "ExtensionReference", description = "Extension reference DTO that represents an Extension with the number of its Members referencing a Code.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExtensionReferenceDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private ExtensionDTO extension;
+    private long memberCount;
+
+    public ExtensionReferenceDTO() {
+    }
+
+    public ExtensionReferenceDTO(final ExtensionDTO extension,
+                                 final long memberCount) {
+        this.extension = extension;
+        this.memberCount = memberCount;
+    }
+
+    public ExtensionDTO getExtension() {
+        return extension;
+    }
+
+    public void setExtension(final ExtensionDTO extension) {
+        this.extension = extension;
+    }
+
+    @Schema(description = "Number of Members of the Extension referencing the Code.")
+    public long getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(final long memberCount) {
+        this.memberCount = memberCount;
+    }
+}
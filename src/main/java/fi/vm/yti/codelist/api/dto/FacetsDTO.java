@@ -0,0 +1,49 @@
+package fi.vm.yti.codelist.api.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import fi.vm.yti.codelist.common.dto.Meta;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@XmlRootElement
+@XmlType(propOrder = { "meta", "facets" })
+@Schema(name = "Facets", description = "Facets DTO that represents value counts of the resources matching the given filters.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Meta meta;
+    private Map<String, Map<String, Long>> facets;
+
+    public FacetsDTO() {
+    }
+
+    public FacetsDTO(final Meta meta,
+                     final Map<String, Map<String, Long>> facets) {
+        this.meta = meta;
+        this.facets = facets;
+    }
+
+    public Meta getMeta() {
+        return meta;
+    }
+
+    public void setMeta(final Meta meta) {
+        this.meta = meta;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(final Map<String, Map<String, Long>> facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,96 @@
+package fi.vm.yti.codelist.api.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@XmlRootElement
+@XmlType(propOrder = { "type", "id", "uri", "codeValue", "prefLabel", "status", "codeRegistryCodeValue", "codeSchemeCodeValue" })
+@Schema(name = "Suggestion", description = "Suggestion DTO that represents a CodeScheme or a Code matching a typeahead prefix.")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String type;
+    private String id;
+    private String uri;
+    private String codeValue;
+    private Map<String, String> prefLabel;
+    private String status;
+    private String codeRegistryCodeValue;
+    private String codeSchemeCodeValue;
+
+    @Schema(description = "Resource type, codescheme or code.")
+    public String getType() {
+        return type;
+    }
+
+    public void setType(final String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(final String uri) {
+        this.uri = uri;
+    }
+
+    public String getCodeValue() {
+        return codeValue;
+    }
+
+    public void setCodeValue(final String codeValue) {
+        this.codeValue = codeValue;
+    }
+
+    public Map<String, String> getPrefLabel() {
+        return prefLabel;
+    }
+
+    public void setPrefLabel(final Map<String, String> prefLabel) {
+        this.prefLabel = prefLabel;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(final String status) {
+        this.status = status;
+    }
+
+    @Schema(description = "CodeRegistry codeValue of the CodeScheme.")
+    public String getCodeRegistryCodeValue() {
+        return codeRegistryCodeValue;
+    }
+
+    public void setCodeRegistryCodeValue(final String codeRegistryCodeValue) {
+        this.codeRegistryCodeValue = codeRegistryCodeValue;
+    }
+
+    @Schema(description = "CodeScheme codeValue of the Code, left out for CodeSchemes.")
+    public String getCodeSchemeCodeValue() {
+        return codeSchemeCodeValue;
+    }
+
+    public void setCodeSchemeCodeValue(final String codeSchemeCodeValue) {
+        this.codeSchemeCodeValue = codeSchemeCodeValue;
+    }
+}
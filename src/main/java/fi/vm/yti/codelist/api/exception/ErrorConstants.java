@@ -5,7 +5,9 @@ public class ErrorConstants {
     public static final String ERR_MSG_USER_500 = "ERR_MSG_USER_500";
     public static final String ERR_MSG_USER_406 = "ERR_MSG_USER_406";
     public static final String ERR_MSG_USER_404 = "ERR_MSG_USER_404";
+    public static final String ERR_MSG_USER_503 = "ERR_MSG_USER_503";
     public static final String ERR_MSG_USER_ERROR_ENCODING_STRING = "ERR_MSG_USER_ERROR_ENCODING_STRING";
+    public static final String ELASTIC_QUERY_ERROR = "ElasticSearch index query error!";
 
     private ErrorConstants() {
     }
@@ -4,9 +4,17 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
@@ -18,15 +26,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.databind.util.ISO8601DateFormat;
 
+import fi.vm.yti.codelist.api.api.ResponseWrapper;
+import fi.vm.yti.codelist.api.exception.NotFoundException;
 import fi.vm.yti.codelist.api.exception.YtiCodeListException;
 import fi.vm.yti.codelist.common.dto.ErrorModel;
+import fi.vm.yti.codelist.common.dto.Meta;
 import fi.vm.yti.codelist.common.model.Status;
 import static fi.vm.yti.codelist.api.util.EncodingUtils.urlDecodeString;
 import static fi.vm.yti.codelist.common.constants.ApiConstants.*;
@@ -46,9 +61,37 @@ abstract class AbstractBaseResource {
     private static final String DOWNLOAD_FILENAME_MEMBERS = "members";
     private static final String HEADER_CONTENT_DISPOSITION = "content-disposition";
     private static final String DOWNLOAD_FILENAME_CROSS_REFERENCE_LIST = "crossreferencelist";
+    private static final Set<String> FILTER_NAMES = new HashSet<>(Arrays.asList(FILTER_NAME_CODEREGISTRY, FILTER_NAME_CODESCHEME, FILTER_NAME_CODE, FILTER_NAME_EXTERNALREFERENCE, FILTER_NAME_PROPERTYTYPE, FILTER_NAME_INFODOMAIN, FILTER_NAME_ORGANIZATION, FILTER_NAME_EXTENSION, FILTER_NAME_MEMBER, FILTER_NAME_VALUETYPE, FILTER_NAME_MEMBERVALUE, FILTER_NAME_SEARCHHIT));
+    private static final Map<String, FilterModifier> FILTER_MODIFIERS = new ConcurrentHashMap<>();
 
-    SimpleFilterProvider createSimpleFilterProvider() {
-        return createSimpleFilterProvider(FILTER_NAME_RESOURCE, null);
+    FilterModifier createFilterModifier(final String pretty) {
+        return createFilterModifier(FILTER_NAME_RESOURCE, null, pretty);
+    }
+
+    /**
+     * Returns a shared filter modifier for the base filter, expand set and pretty flag. The filter providers are built
+     * once per distinct combination, with the expand list canonicalized to the known filter names in sorted order.
+     */
+    FilterModifier createFilterModifier(final String baseFilter,
+                                        final String expand,
+                                        final String pretty) {
+        final String canonicalExpand = canonicalizeExpand(expand);
+        final String key = baseFilter + ";" + canonicalExpand + ";" + (pretty != null);
+        return FILTER_MODIFIERS.computeIfAbsent(key, k -> new FilterModifier(createSimpleFilterProvider(baseFilter, canonicalExpand), pretty));
+    }
+
+    static String canonicalizeExpand(final String expand) {
+        if (expand == null || expand.isEmpty()) {
+            return null;
+        }
+        final Set<String> filterNames = new TreeSet<>();
+        for (final String filter : expand.split(",")) {
+            final String filterName = filter.trim();
+            if (FILTER_NAMES.contains(filterName)) {
+                filterNames.add(filterName);
+            }
+        }
+        return filterNames.isEmpty() ? null : String.join(",", filterNames);
     }
 
     SimpleFilterProvider createSimpleFilterProvider(final String baseFilter,
@@ -210,6 +253,46 @@ abstract class AbstractBaseResource {
         return Response.ok(stream, "text/csv").header(HEADER_CONTENT_DISPOSITION, "attachment; filename = " + createDownloadFilename(FORMAT_CSV, filename)).build();
     }
 
+    Response streamRawSourceOutput(final byte[] source,
+                                   final TokenFilter tokenFilter,
+                                   final String pretty) {
+        final StreamingOutput stream = output -> {
+            final JsonFactory jsonFactory = new JsonFactory();
+            try (final JsonParser parser = jsonFactory.createParser(source);
+                 final JsonGenerator generator = jsonFactory.createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                if (pretty != null) {
+                    generator.useDefaultPrettyPrinter();
+                }
+                final JsonGenerator filteringGenerator = new FilteringGeneratorDelegate(generator, tokenFilter, true, true);
+                while (parser.nextToken() != null) {
+                    filteringGenerator.copyCurrentEvent(parser);
+                }
+            } catch (final Exception e) {
+                LOG.error("JSON source output generation issue.", e);
+                throw new YtiCodeListException(new ErrorModel(HttpStatus.INTERNAL_SERVER_ERROR.value(), "JSON output generation failed!"));
+            }
+        };
+        return Response.ok(stream, MediaType.APPLICATION_JSON + ";charset=UTF-8").build();
+    }
+
+    /**
+     * Answers a HEAD request with an empty 200 response if the resource exists.
+     */
+    Response existsResponse(final boolean exists) {
+        if (exists) {
+            return Response.ok().build();
+        }
+        throw new NotFoundException();
+    }
+
+    <T> ResponseWrapper<T> createCountWrapper(final Meta meta) {
+        final ResponseWrapper<T> wrapper = new ResponseWrapper<>();
+        wrapper.setMeta(meta);
+        wrapper.setResults(Collections.emptySet());
+        return wrapper;
+    }
+
     Response streamExcelCodesOutput(final Workbook workbook) {
         return streamExcelOutput(workbook, DOWNLOAD_FILENAME_CODES);
     }
@@ -280,10 +363,17 @@ abstract class AbstractBaseResource {
         }
     }
 
+    /**
+     * Applies the filter provider to the writer of the endpoint. The filtered writers are kept per base writer, as the
+     * same shared modifier may serve endpoints with different base writers.
+     */
     static class FilterModifier extends ObjectWriterModifier {
 
+        private static final int MAX_FILTERED_WRITERS = 8;
+
         private final FilterProvider provider;
         private final boolean pretty;
+        private final Map<ObjectWriter, ObjectWriter> filteredWriters = new ConcurrentHashMap<>();
 
         FilterModifier(final FilterProvider provider,
                        final String pretty) {
@@ -300,7 +390,15 @@ abstract class AbstractBaseResource {
             if (pretty) {
                 jsonGenerator.useDefaultPrettyPrinter();
             }
-            return writer.with(provider);
+            ObjectWriter filteredWriter = filteredWriters.get(writer);
+            if (filteredWriter == null) {
+                if (filteredWriters.size() >= MAX_FILTERED_WRITERS) {
+                    filteredWriters.clear();
+                }
+                filteredWriter = writer.with(provider);
+                filteredWriters.put(writer, filteredWriter);
+            }
+            return filteredWriter;
         }
     }
 
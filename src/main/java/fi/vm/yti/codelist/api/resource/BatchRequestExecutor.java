@@ -0,0 +1,223 @@
+package fi.vm.yti.codelist.api.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fi.vm.yti.codelist.api.dto.BatchRequestItemDTO;
+import fi.vm.yti.codelist.api.dto.BatchResponseItemDTO;
+
+/**
+ * Executes batches of GET requests against the API inside the service.
+ *
+ * Each request is dispatched through the Jersey application handler on a bounded thread pool, so the same resource
+ * methods, filters, exception mappers and shared caches serve the requests as if they had arrived over HTTP. Only
+ * paths under the versioned API are accepted, excluding the batch API itself. Requests that do not fit in the pool
+ * queue are answered with 503 and requests that do not complete before the batch timeout with 504.
+ */
+@Component
+public class BatchRequestExecutor implements ContainerLifecycleListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchRequestExecutor.class);
+    private static final String ALLOWED_PATH_PREFIX = "/v1/";
+    private static final String BATCH_PATH = "/v1/batch";
+
+    private final ThreadPoolExecutor executor;
+    private final int maxRequests;
+    private final long timeoutMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile ApplicationHandler applicationHandler;
+
+    @Inject
+    public BatchRequestExecutor(@Value("${batch.max-threads:8}") final int maxThreads,
+                                @Value("${batch.queue-capacity:200}") final int queueCapacity,
+                                @Value("${batch.max-requests:50}") final int maxRequests,
+                                @Value("${batch.timeout-ms:30000}") final long timeoutMillis) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final int threads = Math.max(maxThreads, 1);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)), runnable -> {
+            final Thread thread = new Thread(runnable, "batch-request-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.maxRequests = maxRequests;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void onStartup(final Container container) {
+        applicationHandler = container.getApplicationHandler();
+    }
+
+    @Override
+    public void onReload(final Container container) {
+        applicationHandler = container.getApplicationHandler();
+    }
+
+    @Override
+    public void onShutdown(final Container container) {
+        applicationHandler = null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    /**
+     * Executes the requests concurrently and returns their responses in request order.
+     */
+    public List<BatchResponseItemDTO> execute(final List<BatchRequestItemDTO> requests,
+                                              final URI baseUri,
+                                              final SecurityContext securityContext) {
+        final ApplicationHandler handler = applicationHandler;
+        final List<Future<BatchResponseItemDTO>> futures = new ArrayList<>(requests.size());
+        final BatchResponseItemDTO[] responses = new BatchResponseItemDTO[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            final BatchRequestItemDTO request = requests.get(i);
+            final String path = request != null ? request.getPath() : null;
+            if (handler == null) {
+                responses[i] = createErrorResponse(path, HttpStatus.SERVICE_UNAVAILABLE, 0);
+            } else if (!isAllowedPath(path)) {
+                responses[i] = createErrorResponse(path, HttpStatus.BAD_REQUEST, 0);
+            } else {
+                try {
+                    futures.add(executor.submit(() -> dispatch(handler, request, baseUri, securityContext)));
+                    continue;
+                } catch (final RejectedExecutionException e) {
+                    responses[i] = createErrorResponse(path, HttpStatus.SERVICE_UNAVAILABLE, 0);
+                }
+            }
+            futures.add(null);
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (int i = 0; i < futures.size(); i++) {
+            final Future<BatchResponseItemDTO> future = futures.get(i);
+            if (future != null) {
+                responses[i] = await(future, requests.get(i).getPath(), deadline);
+            }
+        }
+        return List.of(responses);
+    }
+
+    private BatchResponseItemDTO await(final Future<BatchResponseItemDTO> future,
+                                       final String path,
+                                       final long deadline) {
+        try {
+            return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException | CancellationException e) {
+            future.cancel(true);
+            return createErrorResponse(path, HttpStatus.GATEWAY_TIMEOUT, timeoutMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return createErrorResponse(path, HttpStatus.SERVICE_UNAVAILABLE, 0);
+        } catch (final ExecutionException e) {
+            LOG.error("Batch request to " + path + " failed.", e.getCause());
+            return createErrorResponse(path, HttpStatus.INTERNAL_SERVER_ERROR, 0);
+        }
+    }
+
+    private BatchResponseItemDTO dispatch(final ApplicationHandler handler,
+                                          final BatchRequestItemDTO request,
+                                          final URI baseUri,
+                                          final SecurityContext securityContext) throws Exception {
+        final long start = System.nanoTime();
+        final URI requestUri = baseUri.resolve(createRelativeUri(request));
+        final ContainerRequest containerRequest = new ContainerRequest(baseUri, requestUri, HttpMethod.GET, securityContext, new MapPropertiesDelegate(), handler.getConfiguration());
+        containerRequest.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ContainerResponse response = handler.apply(containerRequest, output).get();
+        final long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new BatchResponseItemDTO(request.getPath(), response.getStatus(), durationMs, createBody(response.getMediaType(), output.toString(StandardCharsets.UTF_8)));
+    }
+
+    private String createBody(final MediaType mediaType,
+                              final String content) throws JsonProcessingException {
+        if (content.isEmpty()) {
+            return null;
+        }
+        if (mediaType != null && MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType)) {
+            return content;
+        }
+        return objectMapper.writeValueAsString(content);
+    }
+
+    private BatchResponseItemDTO createErrorResponse(final String path,
+                                                     final HttpStatus status,
+                                                     final long durationMs) {
+        try {
+            return new BatchResponseItemDTO(path, status.value(), durationMs, objectMapper.writeValueAsString(status.getReasonPhrase()));
+        } catch (final JsonProcessingException e) {
+            return new BatchResponseItemDTO(path, status.value(), durationMs, null);
+        }
+    }
+
+    private static String createRelativeUri(final BatchRequestItemDTO request) {
+        final StringBuilder builder = new StringBuilder(request.getPath().substring(1));
+        final Map<String, String> params = request.getParams();
+        if (params != null) {
+            char separator = '?';
+            for (final Map.Entry<String, String> param : params.entrySet()) {
+                if (param.getKey() == null || param.getValue() == null) {
+                    continue;
+                }
+                builder.append(separator).append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8)).append('=').append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return builder.toString();
+    }
+
+    static boolean isAllowedPath(final String path) {
+        if (path == null || !path.startsWith(ALLOWED_PATH_PREFIX) || path.contains("?") || path.contains("#")) {
+            return false;
+        }
+        try {
+            final String normalized = URI.create(path).normalize().getPath();
+            return normalized.startsWith(ALLOWED_PATH_PREFIX) && !normalized.equals(BATCH_PATH) && !normalized.startsWith(BATCH_PATH + "/");
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
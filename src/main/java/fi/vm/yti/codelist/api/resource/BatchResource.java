@@ -0,0 +1,87 @@
+package fi.vm.yti.codelist.api.resource;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriInfo;
+
+import org.glassfish.jersey.jackson.internal.jackson.jaxrs.cfg.ObjectWriterInjector;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fi.vm.yti.codelist.api.api.ResponseWrapper;
+import fi.vm.yti.codelist.api.dto.BatchRequestItemDTO;
+import fi.vm.yti.codelist.api.dto.BatchResponseItemDTO;
+import fi.vm.yti.codelist.api.exception.YtiCodeListException;
+import fi.vm.yti.codelist.common.dto.ErrorModel;
+import fi.vm.yti.codelist.common.dto.Meta;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Component
+@Path("/v1/batch")
+@Produces({ MediaType.APPLICATION_JSON + ";charset=UTF-8" })
+@Tag(name = "Batch")
+public class BatchResource extends AbstractBaseResource {
+
+    private final BatchRequestExecutor batchRequestExecutor;
+
+    @Inject
+    public BatchResource(final BatchRequestExecutor batchRequestExecutor) {
+        this.batchRequestExecutor = batchRequestExecutor;
+    }
+
+    @POST
+    @Operation(description = "API for executing multiple GET requests in one round trip. Paths are relative to the API base path, for example /v1/coderegistries/.")
+    @ApiResponse(responseCode = "200", description = "Returns the responses in request order, each with its status code, body and execution time.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    public Response executeBatch(@Parameter(description = "Batch requests as a JSON array payload of path and params objects.") @RequestBody final String batchRequestData,
+                                 @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty,
+                                 @Context final UriInfo uriInfo,
+                                 @Context final SecurityContext securityContext) {
+        final List<BatchRequestItemDTO> requests = parseBatchRequests(batchRequestData);
+        if (requests.size() > batchRequestExecutor.getMaxRequests()) {
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.NOT_ACCEPTABLE.value(), "Too many requests in batch, the maximum is " + batchRequestExecutor.getMaxRequests() + "!"));
+        }
+        final List<BatchResponseItemDTO> responses = batchRequestExecutor.execute(requests, uriInfo.getBaseUri(), securityContext);
+        ObjectWriterInjector.set(createFilterModifier(pretty));
+        final Meta meta = new Meta();
+        meta.setCode(200);
+        meta.setResultCount(responses.size());
+        final ResponseWrapper<BatchResponseItemDTO> wrapper = new ResponseWrapper<>();
+        wrapper.setResults(new LinkedHashSet<>(responses));
+        wrapper.setMeta(meta);
+        return Response.ok(wrapper).build();
+    }
+
+    private List<BatchRequestItemDTO> parseBatchRequests(final String batchRequestData) {
+        try {
+            final ObjectMapper mapper = new ObjectMapper();
+            final List<BatchRequestItemDTO> requests = mapper.readValue(batchRequestData, new TypeReference<List<BatchRequestItemDTO>>() {
+            });
+            if (requests == null) {
+                throw new YtiCodeListException(new ErrorModel(HttpStatus.NOT_ACCEPTABLE.value(), "Malformed batch requests in request body!"));
+            }
+            return requests;
+        } catch (final IOException e) {
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.NOT_ACCEPTABLE.value(), "Malformed batch requests in request body!"));
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package fi.vm.yti.codelist.api.resource;
 
+import java.io.IOException;
 import java.util.*;
 
 import javax.inject.Inject;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.Encoded;
 import javax.ws.rs.GET;
+import javax.ws.rs.HEAD;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -15,15 +18,22 @@ import javax.ws.rs.core.Response;
 
 import org.apache.poi.ss.usermodel.Workbook;
 import org.glassfish.jersey.jackson.internal.jackson.jaxrs.cfg.ObjectWriterInjector;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import fi.vm.yti.codelist.api.api.ApiUtils;
 import fi.vm.yti.codelist.api.api.ResponseWrapper;
 import fi.vm.yti.codelist.api.domain.Domain;
+import fi.vm.yti.codelist.api.domain.SourceFilter;
+import fi.vm.yti.codelist.api.dto.CodeTreeNodeDTO;
+import fi.vm.yti.codelist.api.dto.FacetsDTO;
 import fi.vm.yti.codelist.api.exception.NotFoundException;
+import fi.vm.yti.codelist.api.exception.YtiCodeListException;
 import fi.vm.yti.codelist.api.export.CodeExporter;
 import fi.vm.yti.codelist.api.export.CodeRegistryExporter;
 import fi.vm.yti.codelist.api.export.CodeSchemeExporter;
@@ -32,6 +42,7 @@ import fi.vm.yti.codelist.api.export.MemberExporter;
 import fi.vm.yti.codelist.common.dto.CodeDTO;
 import fi.vm.yti.codelist.common.dto.CodeRegistryDTO;
 import fi.vm.yti.codelist.common.dto.CodeSchemeDTO;
+import fi.vm.yti.codelist.common.dto.ErrorModel;
 import fi.vm.yti.codelist.common.dto.ExtensionDTO;
 import fi.vm.yti.codelist.common.dto.ExternalReferenceDTO;
 import fi.vm.yti.codelist.common.dto.MemberDTO;
@@ -102,7 +113,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
             final Workbook workbook = codeRegistryExporter.createExcel(codeRegistries, format);
             return streamExcelCodeRegistriesOutput(workbook);
         } else {
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODEREGISTRY, expand), pretty));
+            ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODEREGISTRY, expand, pretty));
             final ResponseWrapper<CodeRegistryDTO> wrapper = new ResponseWrapper<>();
             wrapper.setResults(codeRegistries);
             wrapper.setMeta(meta);
@@ -123,7 +134,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                                     @Parameter(description = "User organizations filtering parameter, for filtering unfinished code schemes") @QueryParam("userOrganizations") final String userOrganizationsCsv,
                                     @Parameter(description = "Include INCOMPLETE statused code schemes.", in = ParameterIn.QUERY) @QueryParam("includeIncomplete") @DefaultValue("false") final boolean includeIncomplete,
                                     @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODEREGISTRY, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODEREGISTRY, expand, pretty));
         final List<String> userOrganizations = userOrganizationsCsv == null ? null : asList(userOrganizationsCsv.toLowerCase().split(","));
         final CodeRegistryDTO codeRegistry = domain.getCodeRegistry(codeRegistryCodeValue);
         if (codeRegistry != null) {
@@ -136,6 +147,16 @@ public class CodeRegistryResource extends AbstractBaseResource {
         }
     }
 
+    @HEAD
+    @Path("{codeRegistryCodeValue}")
+    @Operation(description = "Check if one specific CodeRegistry exists.")
+    @ApiResponse(responseCode = "200", description = "CodeRegistry exists.")
+    @ApiResponse(responseCode = "404", description = "CodeRegistry not found.")
+    @Tag(name = "CodeRegistry")
+    public Response headCodeRegistry(@Parameter(description = "CodeRegistry CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeRegistryCodeValue") final String codeRegistryCodeValue) {
+        return existsResponse(domain.codeRegistryExists(codeRegistryCodeValue));
+    }
+
     @GET
     @Path("{codeRegistryCodeValue}/codeschemes/")
     @Operation(description = "Return CodeSchemes for a CodeRegistry.")
@@ -175,7 +196,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                 final Workbook workbook = codeSchemeExporter.createExcel(codeSchemes, format);
                 return streamExcelCodeSchemesOutput(workbook);
             } else {
-                ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODESCHEME, expand), pretty));
+                ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODESCHEME, expand, pretty));
                 final ResponseWrapper<CodeSchemeDTO> wrapper = new ResponseWrapper<>();
                 wrapper.setResults(codeSchemes);
                 wrapper.setMeta(meta);
@@ -201,7 +222,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                                               @Parameter(description = "Boolean that controls whether to embed Extensions in the payload or not.", in = ParameterIn.QUERY) @QueryParam("embedExtensions") @DefaultValue("false") final boolean embedExtensions,
                                               @Parameter(description = "Boolean that controls whether to embed embedMembers in the payload or not.", in = ParameterIn.QUERY) @QueryParam("embedMembers") @DefaultValue("false") final boolean embedMembers,
                                               @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODESCHEME, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODESCHEME, expand, pretty));
         final CodeRegistryDTO codeRegistry = domain.getCodeRegistry(codeRegistryCodeValue);
         if (codeRegistry != null) {
             if (FORMAT_EXCEL.equalsIgnoreCase(format) || FORMAT_EXCEL_XLS.equalsIgnoreCase(format) || FORMAT_EXCEL_XLSX.equalsIgnoreCase(format)) {
@@ -255,22 +276,62 @@ public class CodeRegistryResource extends AbstractBaseResource {
         }
     }
 
+    @HEAD
+    @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}")
+    @Operation(description = "Check if one specific CodeScheme exists.")
+    @ApiResponse(responseCode = "200", description = "CodeScheme exists.")
+    @ApiResponse(responseCode = "404", description = "CodeScheme not found.")
+    @Tag(name = "CodeScheme")
+    public Response headCodeRegistryCodeScheme(@Parameter(description = "CodeRegistry CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeRegistryCodeValue") final String codeRegistryCodeValue,
+                                               @Parameter(description = "CodeScheme CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue) {
+        return existsResponse(domain.codeSchemeExists(codeRegistryCodeValue, codeSchemeCodeValue));
+    }
 
     @GET
     @Path("codes")
     public Set<CodeDTO> getFromList(@QueryParam("uri") List<String> uriList) {
         List<String> statuses = List.of();
-        final Meta meta = new Meta(200, null, 0, parseDateFromString(null), parseDateFromString(null));
-        var codes = new HashSet<CodeDTO>();
+        final Set<List<String>> codeSchemes = new LinkedHashSet<>();
         uriList.forEach(uri -> {
             var splitUri = uri.split("/");
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODE, null), null));
-            var dtos = domain.getCodes(splitUri[splitUri.length-2], splitUri[splitUri.length-1], null, null, null, null, null, statuses, meta);
-            codes.addAll(dtos);
+            codeSchemes.add(List.of(splitUri[splitUri.length-2], splitUri[splitUri.length-1]));
+        });
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODE, null, null));
+        var codes = new HashSet<CodeDTO>();
+        codeSchemes.forEach(codeScheme -> {
+            final Meta meta = new Meta(200, null, 0, parseDateFromString(null), parseDateFromString(null));
+            codes.addAll(domain.getCodes(codeScheme.get(0), codeScheme.get(1), null, null, null, null, null, statuses, meta));
         });
         return codes;
     }
 
+    @GET
+    @Path("codes/batch")
+    @Operation(description = "Return Codes with the given Code URIs.")
+    @ApiResponse(responseCode = "200", description = "Returns the Codes keyed by the requested URI, leaving out URIs that were not found.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    @Tag(name = "Code")
+    public Response getCodesByUris(@Parameter(description = "Code URI, can be repeated.", in = ParameterIn.QUERY) @QueryParam("uri") final List<String> uris,
+                                   @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
+                                   @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODE, expand, pretty));
+        return Response.ok(domain.getCodesByUris(uris)).build();
+    }
+
+    @POST
+    @Path("codes/batch")
+    @Operation(description = "Return Codes with the Code URIs given as a JSON array payload.")
+    @ApiResponse(responseCode = "200", description = "Returns the Codes keyed by the requested URI, leaving out URIs that were not found.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    @Tag(name = "Code")
+    public Response getCodesByUrisPost(@Parameter(description = "Code URIs as a JSON array payload.") @RequestBody final String urisData,
+                                       @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
+                                       @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+        final List<String> uris = parseUris(urisData);
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODE, expand, pretty));
+        return Response.ok(domain.getCodesByUris(uris)).build();
+    }
+
     @GET
     @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/codes/")
     @Operation(description = "Return Codes for a CodeScheme.")
@@ -293,12 +354,22 @@ public class CodeRegistryResource extends AbstractBaseResource {
                                                    @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                                    @Parameter(description = "Returns code codeValues in JSON array format") @QueryParam("array") final String array,
                                                    @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty,
-                                                   @Parameter(description = "True if the JSON array should be downloaded as file", in = ParameterIn.QUERY) @QueryParam("downloadArray") final boolean downloadArray) {
+                                                   @Parameter(description = "True if the JSON array should be downloaded as file", in = ParameterIn.QUERY) @QueryParam("downloadArray") final boolean downloadArray,
+                                                   @Parameter(description = "Return only the number of matching Codes in meta.totalResults.", in = ParameterIn.QUERY) @QueryParam("count") @DefaultValue("false") final boolean count) {
         final Meta meta = new Meta(200, pageSize, from, parseDateFromString(after), parseDateFromString(before));
         final List<String> statusList = parseStatusCsl(status);
+        if (count) {
+            if (!domain.codeSchemeExists(codeRegistryCodeValue, codeSchemeCodeValue)) {
+                throw new NotFoundException();
+            }
+            ObjectWriterInjector.set(createFilterModifier(pretty));
+            domain.countCodes(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, statusList, meta);
+            return Response.ok(createCountWrapper(meta)).build();
+        }
         final CodeSchemeDTO codeScheme = domain.getCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue);
         if (codeScheme != null) {
-            final Set<CodeDTO> codes = domain.getCodes(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, language, statusList, meta);
+            final boolean export = FORMAT_CSV.equalsIgnoreCase(format) || FORMAT_EXCEL.equalsIgnoreCase(format) || FORMAT_EXCEL_XLS.equalsIgnoreCase(format) || FORMAT_EXCEL_XLSX.equalsIgnoreCase(format);
+            final Set<CodeDTO> codes = domain.getCodes(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, language, statusList, meta, export ? null : SourceFilter.of(FILTER_NAME_CODE, expand));
             if (FORMAT_CSV.equalsIgnoreCase(format)) {
                 final String csv = codeExporter.createCsv(codes);
                 return streamCsvCodesOutput(csv);
@@ -315,7 +386,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                 }
                 return response;
             } else {
-                ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODE, expand), pretty));
+                ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODE, expand, pretty));
                 if (pageSize != null && from + pageSize < meta.getTotalResults()) {
                     meta.setNextPage(apiUtils.createNextPageUrl(API_VERSION, API_PATH_CODEREGISTRIES + "/" + codeRegistryCodeValue + API_PATH_CODESCHEMES + "/" + codeSchemeCodeValue + API_PATH_CODES, after, pageSize, from + pageSize));
                 }
@@ -332,6 +403,76 @@ public class CodeRegistryResource extends AbstractBaseResource {
         }
     }
 
+    @GET
+    @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/codetree")
+    @Operation(description = "Return the Code hierarchy of a CodeScheme, built from all of its Codes in one pass.")
+    @ApiResponse(responseCode = "200", description = "Returns the root Codes, or the given Code, with their narrower Codes nested, or with descendants the narrower Codes of the given Code in a flat list.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    @Tag(name = "Code")
+    public Response getCodeRegistryCodeSchemeCodeTree(@Parameter(description = "CodeRegistry CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeRegistryCodeValue") final String codeRegistryCodeValue,
+                                                      @Parameter(description = "CodeScheme CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue,
+                                                      @Parameter(description = "Code codeValue or id of the subtree root.", in = ParameterIn.QUERY) @QueryParam("code") final String codeCodeValue,
+                                                      @Parameter(description = "Return all narrower Codes of the given Code in a flat list.", in = ParameterIn.QUERY) @QueryParam("descendants") @DefaultValue("false") final boolean descendants,
+                                                      @Parameter(description = "Status enumerations in CSL format.", in = ParameterIn.QUERY) @QueryParam("status") final String status,
+                                                      @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
+                                                      @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+        if (!domain.codeSchemeExists(codeRegistryCodeValue, codeSchemeCodeValue)) {
+            throw new NotFoundException();
+        }
+        if (descendants && codeCodeValue == null) {
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.NOT_ACCEPTABLE.value(), "Parameter code is required for descendants."));
+        }
+        final Meta meta = new Meta(200, null, 0, parseDateFromString(null), parseDateFromString(null));
+        final List<String> statusList = parseStatusCsl(status);
+        final SourceFilter sourceFilter = SourceFilter.of(FILTER_NAME_CODE, expand);
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODE, expand, pretty));
+        if (descendants) {
+            final Set<CodeDTO> codes = domain.getCodeDescendants(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, statusList, meta, sourceFilter);
+            if (codes == null) {
+                throw new NotFoundException();
+            }
+            final ResponseWrapper<CodeDTO> wrapper = new ResponseWrapper<>();
+            wrapper.setMeta(meta);
+            wrapper.setResults(codes);
+            return Response.ok(wrapper).build();
+        }
+        final Set<CodeTreeNodeDTO> nodes = domain.getCodeTree(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, statusList, meta, sourceFilter);
+        if (nodes == null) {
+            throw new NotFoundException();
+        }
+        final ResponseWrapper<CodeTreeNodeDTO> wrapper = new ResponseWrapper<>();
+        wrapper.setMeta(meta);
+        wrapper.setResults(nodes);
+        return Response.ok(wrapper).build();
+    }
+
+    @GET
+    @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/codefacets")
+    @Operation(description = "Return status and hierarchy level counts of the Codes of a CodeScheme matching the given filters.")
+    @ApiResponse(responseCode = "200", description = "Returns facet counts of the matching Codes in JSON format.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    @Tag(name = "Code")
+    public Response getCodeRegistryCodeSchemeCodeFacets(@Parameter(description = "CodeRegistry CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeRegistryCodeValue") final String codeRegistryCodeValue,
+                                                        @Parameter(description = "CodeScheme CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue,
+                                                        @Parameter(description = "Code code.", in = ParameterIn.QUERY) @QueryParam("codeValue") final String codeCodeValue,
+                                                        @Parameter(description = "Code PrefLabel.", in = ParameterIn.QUERY) @QueryParam("prefLabel") final String prefLabel,
+                                                        @Parameter(description = "Code Broader Code Id.", in = ParameterIn.QUERY) @QueryParam("broaderCodeId") final String broaderCodeId,
+                                                        @Parameter(description = "Filter for hierarchy level.", in = ParameterIn.QUERY) @QueryParam("hierarchyLevel") final Integer hierarchyLevel,
+                                                        @Parameter(description = "Status enumerations in CSL format.", in = ParameterIn.QUERY) @QueryParam("status") final String status,
+                                                        @Parameter(description = "After date filtering parameter, results will be codes with modified date after this ISO 8601 formatted date string.", in = ParameterIn.QUERY) @QueryParam("after") final String after,
+                                                        @Parameter(description = "Before date filtering parameter, results will be codes with modified date before this ISO 8601 formatted date string.", in = ParameterIn.QUERY) @QueryParam("before") final String before,
+                                                        @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+        final CodeSchemeDTO codeScheme = domain.getCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue);
+        if (codeScheme != null) {
+            final Meta meta = new Meta(200, null, 0, parseDateFromString(after), parseDateFromString(before));
+            ObjectWriterInjector.set(createFilterModifier(pretty));
+            final FacetsDTO facets = domain.getCodeFacets(codeRegistryCodeValue, codeSchemeCodeValue, codeCodeValue, prefLabel, hierarchyLevel, broaderCodeId, parseStatusCsl(status), meta);
+            return Response.ok(facets).build();
+        } else {
+            throw new NotFoundException();
+        }
+    }
+
     @GET
     @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/extensions/")
     @Operation(description = "Return Extensions for a CodeScheme.")
@@ -359,7 +500,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                 final Workbook workbook = extensionExporter.createExcel(extensions, format);
                 return streamExcelExtensionsOutput(workbook);
             } else {
-                ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_EXTENSION, expand), pretty));
+                ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_EXTENSION, expand, pretty));
                 if (pageSize != null && from + pageSize < meta.getTotalResults()) {
                     meta.setNextPage(apiUtils.createNextPageUrl(API_VERSION, API_PATH_CODEREGISTRIES + "/" + codeRegistryCodeValue + API_PATH_CODESCHEMES + "/" + codeSchemeCodeValue + API_PATH_EXTENSIONS, after, pageSize, from + pageSize));
                 }
@@ -404,7 +545,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                     return streamExcelExtensionsOutput(workbook);
                 }
             } else {
-                ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_EXTENSION, expand), pretty));
+                ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_EXTENSION, expand, pretty));
                 return Response.ok(extension).build();
             }
         } else {
@@ -412,6 +553,18 @@ public class CodeRegistryResource extends AbstractBaseResource {
         }
     }
 
+    @HEAD
+    @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/extensions/{extensionCodeValue}")
+    @Operation(description = "Check if one Extension exists in specific CodeScheme under specific CodeRegistry.")
+    @ApiResponse(responseCode = "200", description = "Extension exists.")
+    @ApiResponse(responseCode = "404", description = "Extension not found.")
+    @Tag(name = "Extension")
+    public Response headCodeRegistryCodeSchemeExtension(@Parameter(description = "CodeRegistry CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeRegistryCodeValue") final String codeRegistryCodeValue,
+                                                        @Parameter(description = "CodeScheme CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue,
+                                                        @Parameter(description = "Extension CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("extensionCodeValue") final String extensionCodeValue) {
+        return existsResponse(domain.extensionExists(codeRegistryCodeValue, codeSchemeCodeValue, extensionCodeValue));
+    }
+
     @GET
     @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/extensions/{extensionCodeValue}/members/")
     @Operation(description = "Return Members for an Extension.")
@@ -444,7 +597,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                 final Workbook workbook = memberExporter.createExcel(extension, members, format);
                 return streamExcelMembersOutput(workbook);
             } else {
-                ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_MEMBER, expand), pretty));
+                ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_MEMBER, expand, pretty));
                 if (pageSize != null && from + pageSize < meta.getTotalResults()) {
                     meta.setNextPage(apiUtils.createNextPageUrl(API_VERSION, API_PATH_CODEREGISTRIES + "/" + codeRegistryCodeValue + API_PATH_CODESCHEMES + "/" + codeSchemeCodeValue + API_PATH_EXTENSIONS + "/" + extensionCodeValue + API_PATH_MEMBERS, after, pageSize, from + pageSize));
                 }
@@ -477,7 +630,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
         if (extension != null) {
             final MemberDTO member = domain.getMember(memberId, extensionCodeValue, codeSchemeCodeValue);
             if (member != null) {
-                ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_MEMBER, expand), pretty));
+                ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_MEMBER, expand, pretty));
                 return Response.ok(member).build();
             } else {
                 throw new NotFoundException();
@@ -487,6 +640,19 @@ public class CodeRegistryResource extends AbstractBaseResource {
         }
     }
 
+    @HEAD
+    @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/extensions/{extensionCodeValue}/members/{memberId}")
+    @Operation(description = "Check if one Member exists in specific Extension.")
+    @ApiResponse(responseCode = "200", description = "Member exists.")
+    @ApiResponse(responseCode = "404", description = "Member not found.")
+    @Tag(name = "Member")
+    public Response headCodeRegistryCodeSchemeExtensionMember(@Parameter(description = "CodeRegistry CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeRegistryCodeValue") final String codeRegistryCodeValue,
+                                                              @Parameter(description = "CodeScheme CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue,
+                                                              @Parameter(description = "Extension CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("extensionCodeValue") final String extensionCodeValue,
+                                                              @Parameter(description = "Member ID.", in = ParameterIn.PATH, required = true) @PathParam("memberId") final String memberId) {
+        return existsResponse(domain.extensionExists(codeRegistryCodeValue, codeSchemeCodeValue, extensionCodeValue) && domain.memberExists(memberId, extensionCodeValue, codeSchemeCodeValue));
+    }
+
     @GET
     @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/externalreferences/")
     @Operation(description = "Return ExternalReferences for a CodeScheme.")
@@ -505,7 +671,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
         final Meta meta = new Meta(200, pageSize, from, parseDateFromString(after), parseDateFromString(before));
         final CodeSchemeDTO codeScheme = domain.getCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue);
         if (codeScheme != null) {
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_EXTERNALREFERENCE, expand), pretty));
+            ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_EXTERNALREFERENCE, expand, pretty));
             final Set<ExternalReferenceDTO> externalReferences = domain.getExternalReferences(prefLabel, codeScheme, false, meta);
             if (pageSize != null && from + pageSize < meta.getTotalResults()) {
                 meta.setNextPage(apiUtils.createNextPageUrl(API_VERSION, API_PATH_CODEREGISTRIES + "/" + codeRegistryCodeValue + API_PATH_CODESCHEMES + "/" + codeSchemeCodeValue + API_PATH_EXTERNALREFERENCES, after, pageSize, from + pageSize));
@@ -533,7 +699,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                                                   @Parameter(description = "Code code.", in = ParameterIn.PATH, required = true) @Encoded @PathParam("codeCodeValue") final String codeCodeValue,
                                                   @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                                   @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODE, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODE, expand, pretty));
         final CodeDTO code = domain.getCode(codeRegistryCodeValue, codeSchemeCodeValue, urlDecodeCodeValue(codeCodeValue));
         if (code != null) {
             return Response.ok(code).build();
@@ -541,6 +707,18 @@ public class CodeRegistryResource extends AbstractBaseResource {
         throw new NotFoundException();
     }
 
+    @HEAD
+    @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/codes/{codeCodeValue}")
+    @Operation(description = "Check if one Code exists in specific CodeScheme under specific CodeRegistry.")
+    @ApiResponse(responseCode = "200", description = "Code exists.")
+    @ApiResponse(responseCode = "404", description = "Code not found.")
+    @Tag(name = "CodeScheme")
+    public Response headCodeRegistryCodeSchemeCode(@Parameter(description = "CodeRegistry CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeRegistryCodeValue") final String codeRegistryCodeValue,
+                                                   @Parameter(description = "CodeScheme CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue,
+                                                   @Parameter(description = "Code code.", in = ParameterIn.PATH, required = true) @Encoded @PathParam("codeCodeValue") final String codeCodeValue) {
+        return existsResponse(domain.codeExists(codeRegistryCodeValue, codeSchemeCodeValue, urlDecodeCodeValue(codeCodeValue)));
+    }
+
     @GET
     @Path("{codeRegistryCodeValue}/codeschemes/{codeSchemeCodeValue}/codes/{codeCodeValue}/members/")
     @Operation(description = "Return Members for a Code.")
@@ -569,7 +747,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                 final Workbook workbook = memberExporter.createExcel(null, members, format);
                 return streamExcelMembersOutput(workbook);
             } else {
-                ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_MEMBER, expand), pretty));
+                ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_MEMBER, expand, pretty));
                 if (pageSize != null && from + pageSize < meta.getTotalResults()) {
                     meta.setNextPage(apiUtils.createNextPageUrl(API_VERSION, API_PATH_CODEREGISTRIES + "/" + codeRegistryCodeValue + API_PATH_CODESCHEMES + "/" + codeSchemeCodeValue + API_PATH_CODES + "/" + codeCodeValue + API_PATH_MEMBERS, after, pageSize, from + pageSize));
                 }
@@ -596,7 +774,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                                           @Parameter(description = "CodeScheme codevalue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue,
                                           @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                           @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODESCHEME, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODESCHEME, expand, pretty));
         final CodeSchemeDTO codeScheme = domain.getCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue);
         if (codeScheme == null) {
             throw new NotFoundException();
@@ -626,7 +804,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                                           @Parameter(description = "CodeScheme codevalue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue,
                                           @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                           @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODESCHEME, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODESCHEME, expand, pretty));
         final CodeSchemeDTO codeScheme = domain.getCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue);
         if (codeScheme == null) {
             throw new NotFoundException();
@@ -654,7 +832,7 @@ public class CodeRegistryResource extends AbstractBaseResource {
                                                 @Parameter(description = "CodeScheme codevalue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeCodeValue") final String codeSchemeCodeValue,
                                                 @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                                 @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODESCHEME, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODESCHEME, expand, pretty));
         final CodeSchemeDTO codeScheme = domain.getCodeScheme(codeRegistryCodeValue, codeSchemeCodeValue);
         if (codeScheme == null) {
             throw new NotFoundException();
@@ -687,4 +865,15 @@ public class CodeRegistryResource extends AbstractBaseResource {
             member.setExtension(null);
         });
     }
+
+    private List<String> parseUris(final String urisData) {
+        try {
+            final ObjectMapper mapper = new ObjectMapper();
+            final List<String> uris = mapper.readValue(urisData, new TypeReference<List<String>>() {
+            });
+            return uris != null ? uris : Collections.emptyList();
+        } catch (final IOException e) {
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.NOT_ACCEPTABLE.value(), "Malformed URIs in request body!"));
+        }
+    }
 }
@@ -1,7 +1,15 @@
 package fi.vm.yti.codelist.api.resource;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import javax.inject.Inject;
 import javax.ws.rs.GET;
+import javax.ws.rs.HEAD;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -10,17 +18,30 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import org.glassfish.jersey.jackson.internal.jackson.jaxrs.cfg.ObjectWriterInjector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import fi.vm.yti.codelist.api.api.ResponseWrapper;
 import fi.vm.yti.codelist.api.domain.Domain;
+import fi.vm.yti.codelist.api.domain.SourceFilter;
+import fi.vm.yti.codelist.api.dto.CodeReferencesDTO;
 import fi.vm.yti.codelist.api.exception.NotFoundException;
+import fi.vm.yti.codelist.api.exception.YtiCodeListException;
 import fi.vm.yti.codelist.common.dto.CodeDTO;
+import fi.vm.yti.codelist.common.dto.ErrorModel;
+import fi.vm.yti.codelist.common.dto.Meta;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import static fi.vm.yti.codelist.common.constants.ApiConstants.FILTER_NAME_CODE;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.FILTER_NAME_EXTENSION;
 
 @Component
 @Path("/v1/codes")
@@ -28,10 +49,37 @@ import static fi.vm.yti.codelist.common.constants.ApiConstants.FILTER_NAME_CODE;
 public class CodeResource extends AbstractBaseResource {
 
     private final Domain domain;
+    private final boolean rawSourcePassthrough;
 
     @Inject
-    public CodeResource(final Domain domain) {
+    public CodeResource(final Domain domain,
+                        @Value("${api.raw-source-passthrough.enabled:false}") final boolean rawSourcePassthrough) {
         this.domain = domain;
+        this.rawSourcePassthrough = rawSourcePassthrough;
+    }
+
+    @GET
+    @Path("references")
+    @Operation(description = "Return the Extensions and Members referencing the Codes with the given ids.")
+    @ApiResponse(responseCode = "200", description = "Returns the member count and the referencing Extensions with their member counts for each Code id.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    @Tag(name = "Code")
+    public Response getCodeReferences(@Parameter(description = "Code Id, can be repeated.", in = ParameterIn.QUERY) @QueryParam("id") final List<String> codeIds,
+                                      @Parameter(description = "Filter string (csl) for expanding specific child resources of the Extensions.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
+                                      @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+        return createCodeReferencesResponse(codeIds, expand, pretty);
+    }
+
+    @POST
+    @Path("references")
+    @Operation(description = "Return the Extensions and Members referencing the Codes with the ids given as a JSON array payload.")
+    @ApiResponse(responseCode = "200", description = "Returns the member count and the referencing Extensions with their member counts for each Code id.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    @Tag(name = "Code")
+    public Response getCodeReferencesPost(@Parameter(description = "Code ids as a JSON array payload.") @RequestBody final String codeIdsData,
+                                          @Parameter(description = "Filter string (csl) for expanding specific child resources of the Extensions.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
+                                          @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+        return createCodeReferencesResponse(parseCodeIds(codeIdsData), expand, pretty);
     }
 
     @GET
@@ -43,12 +91,60 @@ public class CodeResource extends AbstractBaseResource {
     public Response getCode(@Parameter(description = "Code Id.", in = ParameterIn.PATH, required = true) @PathParam("codeId") final String codeId,
                             @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                             @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODE, expand), pretty));
-        final CodeDTO code = domain.getCode(codeId);
+        final SourceFilter sourceFilter = SourceFilter.of(FILTER_NAME_CODE, expand);
+        if (rawSourcePassthrough) {
+            final byte[] source = domain.getCodeSource(codeId, sourceFilter);
+            if (source != null) {
+                return streamRawSourceOutput(source, sourceFilter.createTokenFilter(), pretty);
+            } else {
+                throw new NotFoundException();
+            }
+        }
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODE, expand, pretty));
+        final CodeDTO code = domain.getCode(codeId, sourceFilter);
         if (code != null) {
             return Response.ok(code).build();
         } else {
             throw new NotFoundException();
         }
     }
+
+    @HEAD
+    @Path("{codeId}")
+    @Operation(description = "Check if one specific Code exists.")
+    @ApiResponse(responseCode = "200", description = "Code exists.")
+    @ApiResponse(responseCode = "404", description = "Code not found.")
+    @Tag(name = "Code")
+    public Response headCode(@Parameter(description = "Code Id.", in = ParameterIn.PATH, required = true) @PathParam("codeId") final String codeId) {
+        return existsResponse(domain.codeExists(codeId));
+    }
+
+    /**
+     * Wraps the references in request order. The wrapper and the reference DTOs are not filtered, so the extension
+     * filter only applies to the nested Extensions and keeps their fields while reducing their children to links.
+     */
+    private Response createCodeReferencesResponse(final List<String> codeIds,
+                                                  final String expand,
+                                                  final String pretty) {
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_EXTENSION, expand, pretty));
+        final Set<CodeReferencesDTO> references = new LinkedHashSet<>(domain.getCodeReferences(codeIds != null ? codeIds : Collections.emptyList()).values());
+        final Meta meta = new Meta();
+        meta.setCode(200);
+        meta.setResultCount(references.size());
+        final ResponseWrapper<CodeReferencesDTO> wrapper = new ResponseWrapper<>();
+        wrapper.setResults(references);
+        wrapper.setMeta(meta);
+        return Response.ok(wrapper).build();
+    }
+
+    private List<String> parseCodeIds(final String codeIdsData) {
+        try {
+            final ObjectMapper mapper = new ObjectMapper();
+            final List<String> codeIds = mapper.readValue(codeIdsData, new TypeReference<List<String>>() {
+            });
+            return codeIds != null ? codeIds : Collections.emptyList();
+        } catch (final IOException e) {
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.NOT_ACCEPTABLE.value(), "Malformed code ids in request body!"));
+        }
+    }
 }
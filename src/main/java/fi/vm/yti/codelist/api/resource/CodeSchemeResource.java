@@ -6,6 +6,7 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HEAD;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -15,10 +16,13 @@ import javax.ws.rs.core.Response;
 
 import org.apache.poi.ss.usermodel.Workbook;
 import org.glassfish.jersey.jackson.internal.jackson.jaxrs.cfg.ObjectWriterInjector;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import fi.vm.yti.codelist.api.api.ResponseWrapper;
 import fi.vm.yti.codelist.api.domain.Domain;
+import fi.vm.yti.codelist.api.domain.SourceFilter;
+import fi.vm.yti.codelist.api.dto.FacetsDTO;
 import fi.vm.yti.codelist.api.exception.NotFoundException;
 import fi.vm.yti.codelist.api.export.CodeSchemeExporter;
 import fi.vm.yti.codelist.common.dto.CodeSchemeDTO;
@@ -39,12 +43,15 @@ public class CodeSchemeResource extends AbstractBaseResource {
 
     private final Domain domain;
     private final CodeSchemeExporter codeSchemeExporter;
+    private final boolean rawSourcePassthrough;
 
     @Inject
     public CodeSchemeResource(final Domain domain,
-                              final CodeSchemeExporter codeSchemeExporter) {
+                              final CodeSchemeExporter codeSchemeExporter,
+                              @Value("${api.raw-source-passthrough.enabled:false}") final boolean rawSourcePassthrough) {
         this.domain = domain;
         this.codeSchemeExporter = codeSchemeExporter;
+        this.rawSourcePassthrough = rawSourcePassthrough;
     }
 
     @GET
@@ -72,13 +79,18 @@ public class CodeSchemeResource extends AbstractBaseResource {
                                    @Parameter(description = "Organizations filtering parameter, results will be codeschemes belonging to these organizations", in = ParameterIn.QUERY) @QueryParam("organizations") final String organizationsCsv,
                                    @Parameter(description = "User organizations filtering parameter, for filtering unfinished code schemes", in = ParameterIn.QUERY) @QueryParam("userOrganizations") final String userOrganizationsCsv,
                                    @Parameter(description = "Include INCOMPLETE statused code schemes.", in = ParameterIn.QUERY) @QueryParam("includeIncomplete") @DefaultValue("false") final boolean includeIncomplete,
-                                   @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+                                   @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty,
+                                   @Parameter(description = "Return only the number of matching CodeSchemes in meta.totalResults.", in = ParameterIn.QUERY) @QueryParam("count") @DefaultValue("false") final boolean count) {
         final Meta meta = new Meta(200, pageSize, from, parseDateFromString(after), parseDateFromString(before));
         final List<String> infoDomainsList = parseInfoDomainsCls(infoDomain);
         final List<String> organizations = organizationsCsv == null ? null : asList(organizationsCsv.toLowerCase().split(","));
         final List<String> userOrganizations = userOrganizationsCsv == null ? null : asList(userOrganizationsCsv.toLowerCase().split(","));
         final List<String> statusList = parseStatusCsl(status);
-        if (FORMAT_CSV.startsWith(format.toLowerCase())) {
+        if (count) {
+            ObjectWriterInjector.set(createFilterModifier(pretty));
+            domain.countCodeSchemes(organizations, userOrganizations, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, searchTerm, searchCodes, searchExtensions, statusList, infoDomainsList, extensionPropertyType, meta);
+            return Response.ok(createCountWrapper(meta)).build();
+        } else if (FORMAT_CSV.startsWith(format.toLowerCase())) {
             final Set<CodeSchemeDTO> codeSchemes = domain.getCodeSchemes(sortMode, organizations, userOrganizations, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, language, searchTerm, searchCodes, searchExtensions, statusList, infoDomainsList, extensionPropertyType, meta);
             final String csv = codeSchemeExporter.createCsv(codeSchemes);
             return streamCsvCodeSchemesOutput(csv);
@@ -87,8 +99,8 @@ public class CodeSchemeResource extends AbstractBaseResource {
             final Workbook workbook = codeSchemeExporter.createExcel(codeSchemes, format);
             return streamExcelCodeSchemesOutput(workbook);
         } else {
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODESCHEME, expand), pretty));
-            final Set<CodeSchemeDTO> codeSchemes = domain.getCodeSchemes(sortMode, organizations, userOrganizations, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, language, searchTerm, searchCodes, searchExtensions, statusList, infoDomainsList, extensionPropertyType, meta);
+            ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODESCHEME, expand, pretty));
+            final Set<CodeSchemeDTO> codeSchemes = domain.getCodeSchemes(sortMode, organizations, userOrganizations, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, language, searchTerm, searchCodes, searchExtensions, statusList, infoDomainsList, extensionPropertyType, meta, SourceFilter.of(FILTER_NAME_CODESCHEME, expand));
             final ResponseWrapper<CodeSchemeDTO> wrapper = new ResponseWrapper<>();
             wrapper.setResults(codeSchemes);
             wrapper.setMeta(meta);
@@ -96,6 +108,35 @@ public class CodeSchemeResource extends AbstractBaseResource {
         }
     }
 
+    @GET
+    @Path("facets")
+    @Operation(description = "Return status, information domain and organization counts of the CodeSchemes matching the given filters.")
+    @ApiResponse(responseCode = "200", description = "Returns facet counts of the matching CodeSchemes in JSON format.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    public Response getCodeSchemeFacets(@Parameter(description = "CodeRegistry CodeValue.", in = ParameterIn.QUERY) @QueryParam("codeRegistryCodeValue") final String codeRegistryCodeValue,
+                                        @Parameter(description = "CodeRegistry Name.", in = ParameterIn.QUERY) @QueryParam("codeRegistryName") final String codeRegistryPrefLabel,
+                                        @Parameter(description = "Service information domain classifications in CSL format.", in = ParameterIn.QUERY) @QueryParam("infoDomain") final String infoDomain,
+                                        @Parameter(description = "CodeScheme codeValue as string value.", in = ParameterIn.QUERY) @QueryParam("codeValue") final String codeSchemeCodeValue,
+                                        @Parameter(description = "CodeScheme PrefLabel as string value.", in = ParameterIn.QUERY) @QueryParam("prefLabel") final String codeSchemePrefLabel,
+                                        @Parameter(description = "Search term for matching codeValue and prefLabel.", in = ParameterIn.QUERY) @QueryParam("searchTerm") final String searchTerm,
+                                        @Parameter(description = "Boolean that controls is search also matches codes' codeValues and prefLabels inside CodeSchemes.", in = ParameterIn.QUERY) @QueryParam("searchCodes") @DefaultValue("false") final boolean searchCodes,
+                                        @Parameter(description = "Boolean that controls is search also matches extensions' codeValues and prefLabels inside CodeSchemes.", in = ParameterIn.QUERY) @QueryParam("searchExtensions") @DefaultValue("false") final boolean searchExtensions,
+                                        @Parameter(description = "Status enumerations in CSL format.", in = ParameterIn.QUERY) @QueryParam("status") final String status,
+                                        @Parameter(description = "Extension PropertyType localName as string value for searching.", in = ParameterIn.QUERY) @QueryParam("extensionPropertyType") final String extensionPropertyType,
+                                        @Parameter(description = "After date filtering parameter, results will be codes with modified date after this ISO 8601 formatted date string.", in = ParameterIn.QUERY) @QueryParam("after") final String after,
+                                        @Parameter(description = "Before date filtering parameter, results will be codes with modified date before this ISO 8601 formatted date string.", in = ParameterIn.QUERY) @QueryParam("before") final String before,
+                                        @Parameter(description = "Organizations filtering parameter, results will be codeschemes belonging to these organizations", in = ParameterIn.QUERY) @QueryParam("organizations") final String organizationsCsv,
+                                        @Parameter(description = "User organizations filtering parameter, for filtering unfinished code schemes", in = ParameterIn.QUERY) @QueryParam("userOrganizations") final String userOrganizationsCsv,
+                                        @Parameter(description = "Include INCOMPLETE statused code schemes.", in = ParameterIn.QUERY) @QueryParam("includeIncomplete") @DefaultValue("false") final boolean includeIncomplete,
+                                        @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+        final Meta meta = new Meta(200, null, 0, parseDateFromString(after), parseDateFromString(before));
+        final List<String> organizations = organizationsCsv == null ? null : asList(organizationsCsv.toLowerCase().split(","));
+        final List<String> userOrganizations = userOrganizationsCsv == null ? null : asList(userOrganizationsCsv.toLowerCase().split(","));
+        ObjectWriterInjector.set(createFilterModifier(pretty));
+        final FacetsDTO facets = domain.getCodeSchemeFacets(organizations, userOrganizations, includeIncomplete, codeRegistryCodeValue, codeRegistryPrefLabel, codeSchemeCodeValue, codeSchemePrefLabel, searchTerm, searchCodes, searchExtensions, parseStatusCsl(status), parseInfoDomainsCls(infoDomain), extensionPropertyType, meta);
+        return Response.ok(facets).build();
+    }
+
     @GET
     @Path("{codeSchemeId}")
     @Operation(description = "Return one specific CodeScheme.")
@@ -104,12 +145,30 @@ public class CodeSchemeResource extends AbstractBaseResource {
     public Response getCodeScheme(@Parameter(description = "CodeScheme CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeId") final String codeSchemeId,
                                   @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                   @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_CODESCHEME, expand), pretty));
-        final CodeSchemeDTO codeScheme = domain.getCodeScheme(codeSchemeId);
+        final SourceFilter sourceFilter = SourceFilter.of(FILTER_NAME_CODESCHEME, expand);
+        if (rawSourcePassthrough) {
+            final byte[] source = domain.getCodeSchemeSource(codeSchemeId, sourceFilter);
+            if (source != null) {
+                return streamRawSourceOutput(source, sourceFilter.createTokenFilter(), pretty);
+            } else {
+                throw new NotFoundException();
+            }
+        }
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_CODESCHEME, expand, pretty));
+        final CodeSchemeDTO codeScheme = domain.getCodeScheme(codeSchemeId, sourceFilter);
         if (codeScheme != null) {
             return Response.ok(codeScheme).build();
         } else {
             throw new NotFoundException();
         }
     }
+
+    @HEAD
+    @Path("{codeSchemeId}")
+    @Operation(description = "Check if one specific CodeScheme exists.")
+    @ApiResponse(responseCode = "200", description = "CodeScheme exists.")
+    @ApiResponse(responseCode = "404", description = "CodeScheme not found.")
+    public Response headCodeScheme(@Parameter(description = "CodeScheme CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("codeSchemeId") final String codeSchemeId) {
+        return existsResponse(domain.codeSchemeExists(codeSchemeId));
+    }
 }
@@ -5,6 +5,7 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HEAD;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Component;
 
 import fi.vm.yti.codelist.api.api.ResponseWrapper;
 import fi.vm.yti.codelist.api.domain.Domain;
+import fi.vm.yti.codelist.api.domain.SourceFilter;
 import fi.vm.yti.codelist.api.exception.NotFoundException;
 import fi.vm.yti.codelist.api.export.ExtensionExporter;
 import fi.vm.yti.codelist.common.dto.ExtensionDTO;
@@ -58,15 +60,17 @@ public class ExtensionResource extends AbstractBaseResource {
                                   @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                   @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
         final Meta meta = new Meta(200, pageSize, from, parseDateFromString(after), parseDateFromString(before));
-        final Set<ExtensionDTO> extensions = domain.getExtensions(prefLabel, meta);
         if (FORMAT_CSV.startsWith(format.toLowerCase())) {
+            final Set<ExtensionDTO> extensions = domain.getExtensions(prefLabel, meta);
             final String csv = extensionExporter.createCsv(extensions);
             return streamCsvExtensionsOutput(csv);
         } else if (FORMAT_EXCEL.equalsIgnoreCase(format) || FORMAT_EXCEL_XLS.equalsIgnoreCase(format) || FORMAT_EXCEL_XLSX.equalsIgnoreCase(format)) {
+            final Set<ExtensionDTO> extensions = domain.getExtensions(prefLabel, meta);
             final Workbook workbook = extensionExporter.createExcel(extensions, format);
             return streamExcelExtensionsOutput(workbook);
         } else {
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_EXTENSION, expand), pretty));
+            ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_EXTENSION, expand, pretty));
+            final Set<ExtensionDTO> extensions = domain.getExtensions(prefLabel, meta, SourceFilter.of(FILTER_NAME_EXTENSION, expand));
             final ResponseWrapper<ExtensionDTO> wrapper = new ResponseWrapper<>();
             wrapper.setResults(extensions);
             wrapper.setMeta(meta);
@@ -82,7 +86,7 @@ public class ExtensionResource extends AbstractBaseResource {
     public Response getExtension(@Parameter(description = "Extension UUID.", in = ParameterIn.PATH, required = true) @PathParam("extensionId") final String extensionId,
                                  @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                  @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_EXTENSION, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_EXTENSION, expand, pretty));
         final ExtensionDTO extension = domain.getExtension(extensionId);
         if (extension != null) {
             return Response.ok(extension).build();
@@ -90,4 +94,13 @@ public class ExtensionResource extends AbstractBaseResource {
             throw new NotFoundException();
         }
     }
+
+    @HEAD
+    @Path("{extensionId}")
+    @Operation(description = "Check if one specific Extension exists.")
+    @ApiResponse(responseCode = "200", description = "Extension exists.")
+    @ApiResponse(responseCode = "404", description = "Extension not found.")
+    public Response headExtension(@Parameter(description = "Extension UUID.", in = ParameterIn.PATH, required = true) @PathParam("extensionId") final String extensionId) {
+        return existsResponse(domain.extensionExists(extensionId));
+    }
 }
@@ -76,7 +76,7 @@ public class ExternalReferenceResource extends AbstractBaseResource {
             final Workbook workbook = externalReferenceExporter.createExcel(externalReferences, format);
             return streamExcelExternalReferencesOutput(workbook);
         } else {
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_EXTERNALREFERENCE, expand), pretty));
+            ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_EXTERNALREFERENCE, expand, pretty));
             final ResponseWrapper<ExternalReferenceDTO> wrapper = new ResponseWrapper<>();
             wrapper.setResults(externalReferences);
             wrapper.setMeta(meta);
@@ -92,7 +92,7 @@ public class ExternalReferenceResource extends AbstractBaseResource {
     public Response getExternalReference(@Parameter(description = "ExternalReference CodeValue.", in = ParameterIn.PATH, required = true) @PathParam("externalReferenceId") final String externalReferenceId,
                                          @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                          @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_EXTERNALREFERENCE, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_EXTERNALREFERENCE, expand, pretty));
         final ExternalReferenceDTO externalReference = domain.getExternalReference(externalReferenceId);
         if (externalReference != null) {
             return Response.ok(externalReference).build();
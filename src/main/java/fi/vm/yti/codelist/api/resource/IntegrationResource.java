@@ -73,7 +73,7 @@ public class IntegrationResource extends AbstractBaseResource {
                                   @Parameter(description = "User organizations filtering parameter, for filtering incomplete code lists", in = ParameterIn.QUERY) @QueryParam("includeIncompleteFrom") final String includeIncompleteFrom,
                                   @Parameter(description = "Control boolean for returning all incomplete containers.", in = ParameterIn.QUERY) @QueryParam("includeIncomplete") @DefaultValue("false") final boolean includeIncomplete,
                                   @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(), pretty));
+        ObjectWriterInjector.set(createFilterModifier(pretty));
         final Meta meta = new Meta(200, pageSize, from, parseDateFromString(after), parseDateFromString(before));
         final List<String> includedContainerUris = parseAndDecodeUrisFromCsl(uri);
         final List<String> excludedContainerUris = parseAndDecodeUrisFromCsl(filter);
@@ -96,7 +96,7 @@ public class IntegrationResource extends AbstractBaseResource {
     @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
     public Response getContainersPost(@Parameter(description = "Integration resource request parameters as JSON payload.") @RequestBody final String integrationRequestData) {
         final IntegrationResourceRequestDTO request = parseIntegrationRequestDto(integrationRequestData);
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(), request.getPretty()));
+        ObjectWriterInjector.set(createFilterModifier(request.getPretty()));
         final List<String> statusList = parseStatusList(request.getStatus());
         final List<String> excludedContainerUris = convertListToLowerCase(request.getFilter());
         final List<String> includedContainerUris = convertListToLowerCase(request.getUri());
@@ -138,7 +138,7 @@ public class IntegrationResource extends AbstractBaseResource {
                                  @Parameter(description = "User organizations filtering parameter, for filtering incomplete code lists", in = ParameterIn.QUERY) @QueryParam("includeIncompleteFrom") final String includeIncompleteFrom,
                                  @Parameter(description = "Control boolean for returning resources from incomplete code lists.", in = ParameterIn.QUERY) @QueryParam("includeIncomplete") @DefaultValue("false") final boolean includeIncomplete,
                                  @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(), pretty));
+        ObjectWriterInjector.set(createFilterModifier(pretty));
         final List<String> containerUris = container == null ? null : asList(container.toLowerCase().split(","));
         final List<String> includedResourceUris = parseAndDecodeUrisFromCsl(uri);
         final List<String> excludedResourceUris = parseAndDecodeUrisFromCsl(filter);
@@ -165,7 +165,7 @@ public class IntegrationResource extends AbstractBaseResource {
     @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
     public Response getResourcesPost(@Parameter(description = "Integration resource request parameters as JSON payload.") @RequestBody final String integrationRequestData) {
         final IntegrationResourceRequestDTO request = parseIntegrationRequestDto(integrationRequestData);
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(), request.getPretty()));
+        ObjectWriterInjector.set(createFilterModifier(request.getPretty()));
         final List<String> containerUris = convertListToLowerCase(request.getContainer());
         final List<String> excludedResourceUris = convertListToLowerCase(request.getFilter());
         final List<String> includedResourceUris = convertListToLowerCase(request.getUri());
@@ -5,6 +5,7 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HEAD;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Component;
 
 import fi.vm.yti.codelist.api.api.ResponseWrapper;
 import fi.vm.yti.codelist.api.domain.Domain;
+import fi.vm.yti.codelist.api.domain.SourceFilter;
 import fi.vm.yti.codelist.api.exception.NotFoundException;
 import fi.vm.yti.codelist.api.export.MemberExporter;
 import fi.vm.yti.codelist.common.dto.MemberDTO;
@@ -57,15 +59,17 @@ public class MemberResource extends AbstractBaseResource {
                                @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
         final Meta meta = new Meta(200, pageSize, from, parseDateFromString(after), parseDateFromString(before));
-        final Set<MemberDTO> members = domain.getMembers(meta);
         if (FORMAT_CSV.startsWith(format.toLowerCase())) {
+            final Set<MemberDTO> members = domain.getMembers(meta);
             final String csv = memberExporter.createCsv(null, members);
             return streamCsvMembersOutput(csv);
         } else if (FORMAT_EXCEL.equalsIgnoreCase(format) || FORMAT_EXCEL_XLS.equalsIgnoreCase(format) || FORMAT_EXCEL_XLSX.equalsIgnoreCase(format)) {
+            final Set<MemberDTO> members = domain.getMembers(meta);
             final Workbook workbook = memberExporter.createExcel(null, members, format);
             return streamExcelMembersOutput(workbook);
         } else {
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_MEMBER, expand), pretty));
+            ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_MEMBER, expand, pretty));
+            final Set<MemberDTO> members = domain.getMembers(meta, SourceFilter.of(FILTER_NAME_MEMBER, expand));
             final ResponseWrapper<MemberDTO> wrapper = new ResponseWrapper<>();
             wrapper.setResults(members);
             wrapper.setMeta(meta);
@@ -82,7 +86,7 @@ public class MemberResource extends AbstractBaseResource {
                               @Parameter(description = "Member's extension's codeValue", required = true , in = ParameterIn.QUERY) @QueryParam("extensionCodeValue") final String extensionCodeValue,
                               @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                               @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_MEMBER, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_MEMBER, expand, pretty));
         final MemberDTO member = domain.getMember(memberId, extensionCodeValue);
         if (member != null) {
             return Response.ok(member).build();
@@ -90,4 +94,14 @@ public class MemberResource extends AbstractBaseResource {
             throw new NotFoundException();
         }
     }
+
+    @HEAD
+    @Path("{memberId}")
+    @Operation(description = "Check if one specific Member exists.")
+    @ApiResponse(responseCode = "200", description = "Member exists.")
+    @ApiResponse(responseCode = "404", description = "Member not found.")
+    public Response headMember(@Parameter(description = "Member UUID or sequenceId depending on the context of the call.", in = ParameterIn.PATH, required = true) @PathParam("memberId") final String memberId,
+                               @Parameter(description = "Member's extension's codeValue", required = true, in = ParameterIn.QUERY) @QueryParam("extensionCodeValue") final String extensionCodeValue) {
+        return existsResponse(domain.memberExists(memberId, extensionCodeValue, null));
+    }
 }
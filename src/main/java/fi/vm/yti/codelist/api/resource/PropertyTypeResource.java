@@ -69,7 +69,7 @@ public class PropertyTypeResource extends AbstractBaseResource {
             final Workbook workbook = propertyTypeExporter.createExcel(propertyTypes, format);
             return streamExcelPropertyTypesOutput(workbook);
         } else {
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_PROPERTYTYPE, expand), pretty));
+            ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_PROPERTYTYPE, expand, pretty));
             final ResponseWrapper<PropertyTypeDTO> wrapper = new ResponseWrapper<>();
             wrapper.setResults(propertyTypes);
             wrapper.setMeta(meta);
@@ -85,7 +85,7 @@ public class PropertyTypeResource extends AbstractBaseResource {
     public Response getPropertyType(@Parameter(description = "PropertyType ID.", in = ParameterIn.PATH, required = true) @PathParam("propertyTypeIdentifier") final String propertyTypeIdentifier,
                                     @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                     @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_PROPERTYTYPE, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_PROPERTYTYPE, expand, pretty));
         final PropertyTypeDTO propertyType = domain.getPropertyType(propertyTypeIdentifier);
         if (propertyType != null) {
             return Response.ok(propertyType).build();
@@ -0,0 +1,94 @@
+package fi.vm.yti.codelist.api.resource;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.jackson.internal.jackson.jaxrs.cfg.ObjectWriterInjector;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import fi.vm.yti.codelist.api.api.ResponseWrapper;
+import fi.vm.yti.codelist.api.domain.Domain;
+import fi.vm.yti.codelist.api.dto.SuggestionDTO;
+import fi.vm.yti.codelist.api.exception.YtiCodeListException;
+import fi.vm.yti.codelist.common.dto.ErrorModel;
+import fi.vm.yti.codelist.common.dto.Meta;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import static fi.vm.yti.codelist.api.domain.ResourceSuggestIndex.TYPE_CODE;
+import static fi.vm.yti.codelist.api.domain.ResourceSuggestIndex.TYPE_CODESCHEME;
+
+@Component
+@Path("/v1/suggest")
+@Produces({ MediaType.APPLICATION_JSON + ";charset=UTF-8" })
+@Tag(name = "Suggest")
+public class SuggestResource extends AbstractBaseResource {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final Domain domain;
+
+    @Inject
+    public SuggestResource(final Domain domain) {
+        this.domain = domain;
+    }
+
+    @GET
+    @Operation(description = "Typeahead suggestions of CodeSchemes and Codes whose prefLabel or codeValue, or any word of the prefLabel, starts with the term.")
+    @ApiResponse(responseCode = "200", description = "Returns the suggestions in descending status order.")
+    @Produces(MediaType.APPLICATION_JSON + ";charset=UTF-8")
+    public Response getSuggestions(@Parameter(description = "Prefix to suggest for.", in = ParameterIn.QUERY, required = true) @QueryParam("term") final String term,
+                                   @Parameter(description = "Resource types (csl), codeschemes and codes. Defaults to both.", in = ParameterIn.QUERY) @QueryParam("type") final String typeCsl,
+                                   @Parameter(description = "Language code for matching prefLabels only in that language. Code values are always matched.", in = ParameterIn.QUERY) @QueryParam("language") final String language,
+                                   @Parameter(description = "Maximum number of suggestions, at most " + MAX_LIMIT + ".", in = ParameterIn.QUERY) @QueryParam("limit") @DefaultValue("10") final int limit,
+                                   @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new YtiCodeListException(new ErrorModel(HttpStatus.NOT_ACCEPTABLE.value(), "Suggestion limit must be between 1 and " + MAX_LIMIT + "!"));
+        }
+        final List<SuggestionDTO> suggestions = domain.getSuggestions(term, parseTypes(typeCsl), language, limit);
+        ObjectWriterInjector.set(createFilterModifier(pretty));
+        final Meta meta = new Meta();
+        meta.setCode(200);
+        meta.setResultCount(suggestions.size());
+        final ResponseWrapper<SuggestionDTO> wrapper = new ResponseWrapper<>();
+        wrapper.setResults(new LinkedHashSet<>(suggestions));
+        wrapper.setMeta(meta);
+        return Response.ok(wrapper).build();
+    }
+
+    private Set<String> parseTypes(final String typeCsl) {
+        final Set<String> types = new LinkedHashSet<>();
+        if (typeCsl == null || typeCsl.trim().isEmpty()) {
+            types.add(TYPE_CODESCHEME);
+            types.add(TYPE_CODE);
+            return types;
+        }
+        for (final String type : typeCsl.split(",")) {
+            switch (type.trim().toLowerCase(Locale.ROOT)) {
+                case "codeschemes":
+                    types.add(TYPE_CODESCHEME);
+                    break;
+                case "codes":
+                    types.add(TYPE_CODE);
+                    break;
+                default:
+                    throw new YtiCodeListException(new ErrorModel(HttpStatus.BAD_REQUEST.value(), "Suggestion type is not valid: " + type));
+            }
+        }
+        return types;
+    }
+}
@@ -66,7 +66,7 @@ public class ValueTypeResource extends AbstractBaseResource {
             final Workbook workbook = valueTypeExporter.createExcel(valueTypes, format);
             return streamExcelValueTypesOutput(workbook);
         } else {
-            ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_PROPERTYTYPE, expand), pretty));
+            ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_PROPERTYTYPE, expand, pretty));
             final ResponseWrapper<ValueTypeDTO> wrapper = new ResponseWrapper<>();
             wrapper.setResults(valueTypes);
             wrapper.setMeta(meta);
@@ -82,7 +82,7 @@ public class ValueTypeResource extends AbstractBaseResource {
     public Response getValueType(@Parameter(description = "ValueType ID.", in = ParameterIn.PATH, required = true) @PathParam("valueTypeIdentifier") final String valueTypeIdentifier,
                                  @Parameter(description = "Filter string (csl) for expanding specific child resources.", in = ParameterIn.QUERY) @QueryParam("expand") final String expand,
                                  @Parameter(description = "Pretty format JSON output.", in = ParameterIn.QUERY) @QueryParam("pretty") final String pretty) {
-        ObjectWriterInjector.set(new FilterModifier(createSimpleFilterProvider(FILTER_NAME_PROPERTYTYPE, expand), pretty));
+        ObjectWriterInjector.set(createFilterModifier(FILTER_NAME_PROPERTYTYPE, expand, pretty));
         final ValueTypeDTO valueType = domain.getValueType(valueTypeIdentifier);
         if (valueType != null) {
             return Response.ok(valueType).build();
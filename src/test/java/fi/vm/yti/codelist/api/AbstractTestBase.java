@@ -2,6 +2,7 @@ package fi.vm.yti.codelist.api;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
@@ -39,6 +40,8 @@ import fi.vm.yti.codelist.common.dto.CodeDTO;
 import fi.vm.yti.codelist.common.dto.CodeRegistryDTO;
 import fi.vm.yti.codelist.common.dto.CodeSchemeDTO;
 import fi.vm.yti.codelist.common.dto.ErrorModel;
+import fi.vm.yti.codelist.common.dto.ExtensionDTO;
+import fi.vm.yti.codelist.common.dto.MemberDTO;
 import fi.vm.yti.codelist.common.model.Status;
 import static fi.vm.yti.codelist.api.util.FileUtils.loadFileFromClassPath;
 import static fi.vm.yti.codelist.common.constants.ApiConstants.*;
@@ -48,6 +51,7 @@ abstract public class AbstractTestBase {
     protected static final String TEST_CODEREGISTRY_CODEVALUE = "testregistry1";
     protected static final String TEST_CODESCHEME_CODEVALUE = "testscheme1";
     protected static final String TEST_CODE_CODEVALUE = "testcode1";
+    protected static final String TEST_EXTENSION_CODEVALUE = "testextension1";
     private static final String TEST_BASE_URL = "http://localhost";
     private static final String SOURCE_TEST = "test";
     private static final Logger LOG = LoggerFactory.getLogger(AbstractTestBase.class);
@@ -64,6 +68,7 @@ abstract public class AbstractTestBase {
         createAndIndexMockCodeSchemes(codeRegistries);
         final Set<CodeSchemeDTO> codeSchemes = domain.getCodeSchemes();
         createAndIndexMockCodes(codeSchemes);
+        createAndIndexMockExtensionAndMember(domain.getCodeScheme(TEST_CODEREGISTRY_CODEVALUE, TEST_CODESCHEME_CODEVALUE), domain.getCode(TEST_CODEREGISTRY_CODEVALUE, TEST_CODESCHEME_CODEVALUE, TEST_CODE_CODEVALUE));
         LOG.debug("Mock data indexed!");
         return true;
     }
@@ -105,6 +110,18 @@ abstract public class AbstractTestBase {
         LOG.debug("Indexed " + codes.size() + " Codes.");
     }
 
+    private void createAndIndexMockExtensionAndMember(final CodeSchemeDTO codeScheme,
+                                                      final CodeDTO code) {
+        createIndexWithNestedPrefLabel(ELASTIC_INDEX_EXTENSION, ELASTIC_TYPE_EXTENSION);
+        final ExtensionDTO extension = createExtension(codeScheme, TEST_EXTENSION_CODEVALUE);
+        indexData(Collections.singleton(extension), ELASTIC_INDEX_EXTENSION, ELASTIC_TYPE_EXTENSION);
+        refreshIndex(ELASTIC_INDEX_EXTENSION);
+        createIndexWithNestedPrefLabel(ELASTIC_INDEX_MEMBER, ELASTIC_TYPE_MEMBER);
+        indexData(Collections.singleton(createMember(extension, code, 1)), ELASTIC_INDEX_MEMBER, ELASTIC_TYPE_MEMBER);
+        refreshIndex(ELASTIC_INDEX_MEMBER);
+        LOG.debug("Indexed 1 Extension and 1 Member.");
+    }
+
     private boolean checkIfIndexExists(final String indexName) {
         final GetIndexRequest request = new GetIndexRequest();
         request.indices(indexName);
@@ -293,9 +310,34 @@ abstract public class AbstractTestBase {
         code.setCodeScheme(codeScheme);
         code.setModified(new Date(System.currentTimeMillis()));
         code.setUrl("http://localhost:9601/codelist-api/api/v1/coderegistries/" + codeScheme.getCodeRegistry().getCodeValue() + "/codeschemes/" + codeScheme.getCodeValue() + "/codes/" + code.getCodeValue() + "/");
+        code.setUri("http://uri.suomi.fi/codelist/" + codeScheme.getCodeRegistry().getCodeValue() + "/" + codeScheme.getCodeValue() + "/code/" + code.getCodeValue());
         return code;
     }
 
+    private ExtensionDTO createExtension(final CodeSchemeDTO codeScheme,
+                                         final String codeValue) {
+        final ExtensionDTO extension = new ExtensionDTO();
+        extension.setId(UUID.randomUUID());
+        extension.setCodeValue(codeValue);
+        extension.setStatus(Status.VALID.toString());
+        extension.setParentCodeScheme(codeScheme);
+        extension.setModified(new Date(System.currentTimeMillis()));
+        return extension;
+    }
+
+    private MemberDTO createMember(final ExtensionDTO extension,
+                                   final CodeDTO code,
+                                   final int sequenceId) {
+        final MemberDTO member = new MemberDTO();
+        member.setId(UUID.randomUUID());
+        member.setSequenceId(sequenceId);
+        member.setOrder(sequenceId);
+        member.setCode(code);
+        member.setExtension(extension);
+        member.setModified(new Date(System.currentTimeMillis()));
+        return member;
+    }
+
     protected String createApiUrlWithoutVersion(final int serverPort,
                                                 final String apiPath) {
         return TEST_BASE_URL + ":" + serverPort + API_CONTEXT_PATH_RESTAPI + API_BASE_PATH + apiPath + "/";
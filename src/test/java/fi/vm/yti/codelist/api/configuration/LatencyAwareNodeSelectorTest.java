@@ -0,0 +1,83 @@
+package fi.vm.yti.codelist.api.configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyAwareNodeSelectorTest {
+
+    private static final double SLOW_NODE_FACTOR = 3.0;
+    private static final Node FAST_NODE = new Node(new HttpHost("es1", 9200, "http"));
+    private static final Node SLOW_NODE = new Node(new HttpHost("es2", 9200, "http"));
+    private static final Node OTHER_NODE = new Node(new HttpHost("es3", 9200, "http"));
+
+    @Test
+    public void testSkipsSlowNodeUntilProbeIntervalExpires() {
+        final LatencyAwareNodeSelector selector = new LatencyAwareNodeSelector(30000, SLOW_NODE_FACTOR, 60000);
+        recordLatencyMillis(selector, FAST_NODE, 1);
+        recordLatencyMillis(selector, SLOW_NODE, 100);
+        assertEquals(Arrays.asList(FAST_NODE), select(selector, FAST_NODE, SLOW_NODE));
+        assertEquals(Arrays.asList(FAST_NODE), select(selector, FAST_NODE, SLOW_NODE));
+    }
+
+    @Test
+    public void testOneFastProbeTakesSlowNodeBackIntoUse() {
+        final LatencyAwareNodeSelector selector = new LatencyAwareNodeSelector(30000, SLOW_NODE_FACTOR, 0);
+        recordLatencyMillis(selector, FAST_NODE, 1);
+        recordLatencyMillis(selector, SLOW_NODE, 100);
+        assertEquals(Arrays.asList(FAST_NODE), select(selector, FAST_NODE, SLOW_NODE));
+        assertEquals(Arrays.asList(FAST_NODE, SLOW_NODE), select(selector, FAST_NODE, SLOW_NODE));
+        assertEquals(SLOW_NODE_FACTOR, selector.getNodeHealths().get(SLOW_NODE.getHost()).getLatencyMillis(), 0.001);
+        recordLatencyMillis(selector, SLOW_NODE, 1);
+        assertEquals(Arrays.asList(FAST_NODE, SLOW_NODE), select(selector, FAST_NODE, SLOW_NODE));
+        assertEquals(Arrays.asList(FAST_NODE, SLOW_NODE), select(selector, FAST_NODE, SLOW_NODE));
+    }
+
+    @Test
+    public void testNeverRejectsAllNodes() {
+        final LatencyAwareNodeSelector selector = new LatencyAwareNodeSelector(30000, SLOW_NODE_FACTOR, 60000);
+        recordLatencyMillis(selector, FAST_NODE, 400);
+        recordLatencyMillis(selector, SLOW_NODE, 500);
+        recordLatencyMillis(selector, OTHER_NODE, 5000);
+        assertEquals(Arrays.asList(FAST_NODE, SLOW_NODE), select(selector, FAST_NODE, SLOW_NODE, OTHER_NODE));
+        final LatencyAwareNodeSelector.NodeHealth health = selector.getNodeHealths().get(FAST_NODE.getHost());
+        selector.createFailureListener().onFailure(FAST_NODE);
+        selector.createFailureListener().onFailure(SLOW_NODE);
+        assertTrue(health.isDead());
+        assertEquals(Arrays.asList(OTHER_NODE), select(selector, FAST_NODE, SLOW_NODE, OTHER_NODE));
+        selector.createFailureListener().onFailure(OTHER_NODE);
+        assertEquals(Arrays.asList(FAST_NODE, SLOW_NODE, OTHER_NODE), select(selector, FAST_NODE, SLOW_NODE, OTHER_NODE));
+    }
+
+    @Test
+    public void testMeasuresSubMillisecondLatencyAndUsesUnmeasuredNodes() {
+        final LatencyAwareNodeSelector selector = new LatencyAwareNodeSelector(30000, SLOW_NODE_FACTOR, 60000);
+        selector.recordLatency(FAST_NODE.getHost(), TimeUnit.MICROSECONDS.toNanos(200));
+        recordLatencyMillis(selector, SLOW_NODE, 5);
+        final LatencyAwareNodeSelector.NodeHealth health = selector.getNodeHealths().get(FAST_NODE.getHost());
+        assertTrue(health.isMeasured());
+        assertEquals(0.2, health.getLatencyMillis(), 0.001);
+        assertEquals(Arrays.asList(FAST_NODE, OTHER_NODE), select(selector, FAST_NODE, SLOW_NODE, OTHER_NODE));
+    }
+
+    private static void recordLatencyMillis(final LatencyAwareNodeSelector selector,
+                                            final Node node,
+                                            final long latencyMillis) {
+        selector.recordLatency(node.getHost(), TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    }
+
+    private static List<Node> select(final LatencyAwareNodeSelector selector,
+                                     final Node... nodes) {
+        final List<Node> selected = new ArrayList<>(Arrays.asList(nodes));
+        selector.select(selected);
+        return selected;
+    }
+}
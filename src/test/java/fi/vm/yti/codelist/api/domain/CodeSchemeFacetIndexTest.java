@@ -0,0 +1,79 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fi.vm.yti.codelist.common.dto.CodeSchemeDTO;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CodeSchemeFacetIndexTest {
+
+    private static final String[] SOURCES = {
+        "{\"id\":\"0A1B\",\"codeValue\":\"a\",\"status\":\"VALID\",\"codeRegistry\":{\"codeValue\":\"Registry\"},\"organizations\":[{\"id\":\"o1\"}],\"infoDomains\":[{\"codeValue\":\"P1\"}]}",
+        "{\"id\":\"0c2d\",\"codeValue\":\"b\",\"status\":\"DRAFT\",\"codeRegistry\":{\"codeValue\":\"registry\"},\"organizations\":[{\"id\":\"o2\",\"parent\":{\"id\":\"o1\"}}],\"infoDomains\":[{\"codeValue\":\"P1\"},{\"codeValue\":\"P2\"}]}",
+        "{\"codeValue\":\"c\",\"status\":\"INCOMPLETE\",\"codeRegistry\":{\"codeValue\":\"other\"},\"organizations\":[{\"id\":\"o2\"}],\"extensions\":[{\"propertyType\":{\"localName\":\"calculationHierarchy\"}}]}",
+        "{\"codeValue\":\"d\",\"status\":\"INCOMPLETE\",\"codeRegistry\":{\"codeValue\":\"other\"},\"organizations\":[{\"id\":\"o3\"}]}"
+    };
+
+    private final CodeSchemeFacetIndex index;
+
+    public CodeSchemeFacetIndexTest() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<ElasticIndexReplica.Entry<CodeSchemeDTO>> entries = new ArrayList<>();
+        for (final String source : SOURCES) {
+            entries.add(new ElasticIndexReplica.Entry<>(mapper.readTree(source), null));
+        }
+        index = new CodeSchemeFacetIndex(entries);
+    }
+
+    @Test
+    public void testIncompleteCodeSchemesAreVisibleOnlyToTheirOrganizations() {
+        assertEquals(bits(0, 1), index.filter(null, null, false, null, null, null, null));
+        assertEquals(bits(0, 1, 2), index.filter(null, Collections.singletonList("o2"), false, null, null, null, null));
+        assertEquals(bits(0, 1, 2, 3), index.filter(null, null, true, null, null, null, null));
+    }
+
+    @Test
+    public void testFacetFiltersAreCombined() {
+        assertEquals(bits(0, 1), index.filter(Collections.singletonList("o1"), null, false, null, null, null, null));
+        assertEquals(bits(1), index.filter(null, null, false, "REGISTRY", Collections.singletonList("DRAFT"), Collections.singletonList("P1"), null));
+        assertEquals(bits(2), index.filter(null, null, true, null, null, null, "CalculationHierarchy"));
+        assertTrue(index.filter(null, null, false, "missing", null, null, null).isEmpty());
+    }
+
+    @Test
+    public void testFacetCountsOfFilteredCodeSchemes() {
+        final Map<String, Map<String, Long>> facets = index.getFacetCounts(index.filter(null, null, true, null, null, null, null));
+        assertEquals(Long.valueOf(2), facets.get(CodeSchemeFacetIndex.FACET_STATUS).get("INCOMPLETE"));
+        assertEquals(Long.valueOf(2), facets.get(CodeSchemeFacetIndex.FACET_INFODOMAIN).get("P1"));
+        assertEquals(Long.valueOf(2), facets.get(CodeSchemeFacetIndex.FACET_ORGANIZATION).get("o2"));
+        assertFalse(index.getFacetCounts(bits(0)).get(CodeSchemeFacetIndex.FACET_STATUS).containsKey("DRAFT"));
+    }
+
+    @Test
+    public void testFindsCodeSchemesByIdIgnoringCase() {
+        assertSame(index.getEntries().get(0), index.getById("0a1b"));
+        assertSame(index.getEntries().get(1), index.getById("0C2D"));
+        assertNull(index.getById("missing"));
+        assertNull(index.getById(null));
+    }
+
+    private static BitSet bits(final int... ordinals) {
+        final BitSet bitSet = new BitSet();
+        Arrays.stream(ordinals).forEach(bitSet::set);
+        return bitSet;
+    }
+}
@@ -0,0 +1,118 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MatchAllQueryBuilder;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import fi.vm.yti.codelist.api.PublicApiServiceApplication;
+import fi.vm.yti.codelist.common.dto.Meta;
+import fi.vm.yti.codelist.common.model.Status;
+import static fi.vm.yti.codelist.api.domain.ElasticSearchTemplates.TEMPLATE_CODESCHEMES;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Renders the code scheme search template with the _render/template API for representative parameters and checks
+ * that the rendered query equals the one DomainImpl builds client side for the same parameters.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { PublicApiServiceApplication.class }, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({ "automatedtest" })
+@TestPropertySource(locations = "classpath:test-port.properties")
+public class CodeSchemeSearchTemplateT3 {
+
+    private static final NamedXContentRegistry X_CONTENT_REGISTRY = new NamedXContentRegistry(new SearchModule(Settings.EMPTY, false, Collections.emptyList()).getNamedXContents());
+    private static final String BOOSTSTATUS = "boostStatus";
+    private static final List<String> ORGANIZATION_IDS = Arrays.asList("7d3a3c00-5a6b-489b-a3ed-63bb58c26a63", "d9c76d52-03d3-4480-8c2c-b66e6d9c57f2");
+
+    @Inject
+    private DomainImpl domain;
+
+    @Inject
+    private ElasticSearchTemplates searchTemplates;
+
+    @Test
+    public void testRendersDefaultQuery() throws IOException {
+        final SearchSourceBuilder built = domain.createCodeSchemesSearchSource(null, null, null, false, null, null, null, null, null, null, Collections.emptySet(), null, null, null, null, null);
+        final Map<String, Object> params = domain.createCodeSchemesTemplateParams(null, null, null, false, null, null, null, null, null, null, Collections.emptySet(), null, null, null, null, null);
+        assertRendersAsBuilt(built, params);
+    }
+
+    @Test
+    public void testRendersSearchTermQueryWithStatusBoostAndLanguageSort() throws IOException {
+        final Set<String> codeSchemeUuids = new HashSet<>(Collections.singletonList("0e7a4d4c-64b3-4d6e-9d2b-1f3c0e6d1a11"));
+        final SearchSourceBuilder built = domain.createCodeSchemesSearchSource(BOOSTSTATUS, null, null, false, null, null, null, null, "fi", "kunta", codeSchemeUuids, null, null, null, null, null);
+        final Map<String, Object> params = domain.createCodeSchemesTemplateParams(BOOSTSTATUS, null, null, false, null, null, null, null, "fi", "kunta", codeSchemeUuids, null, null, null, null, null);
+        assertRendersAsBuilt(built, params);
+    }
+
+    @Test
+    public void testRendersStatusesWithIncompleteOfUserOrganizations() throws IOException {
+        final List<String> statuses = Arrays.asList(Status.VALID.toString(), Status.INCOMPLETE.toString());
+        final SearchSourceBuilder built = domain.createCodeSchemesSearchSource(null, null, ORGANIZATION_IDS, false, null, null, null, null, null, null, Collections.emptySet(), new ArrayList<>(statuses), null, null, null, null);
+        final Map<String, Object> params = domain.createCodeSchemesTemplateParams(null, null, ORGANIZATION_IDS, false, null, null, null, null, null, null, Collections.emptySet(), new ArrayList<>(statuses), null, null, null, null);
+        assertRendersAsBuilt(built, params);
+    }
+
+    @Test
+    public void testRendersStatusesWithIncludedIncomplete() throws IOException {
+        final List<String> statuses = Arrays.asList(Status.VALID.toString(), Status.DRAFT.toString(), Status.INCOMPLETE.toString());
+        final SearchSourceBuilder built = domain.createCodeSchemesSearchSource(null, null, null, true, null, null, null, null, null, null, Collections.emptySet(), new ArrayList<>(statuses), null, null, null, null);
+        final Map<String, Object> params = domain.createCodeSchemesTemplateParams(null, null, null, true, null, null, null, null, null, null, Collections.emptySet(), new ArrayList<>(statuses), null, null, null, null);
+        assertRendersAsBuilt(built, params);
+    }
+
+    @Test
+    public void testRendersIncompleteOfUserOrganizationsWithoutStatuses() throws IOException {
+        final SearchSourceBuilder built = domain.createCodeSchemesSearchSource(null, null, ORGANIZATION_IDS, false, null, null, null, null, null, null, Collections.emptySet(), null, null, null, null, null);
+        final Map<String, Object> params = domain.createCodeSchemesTemplateParams(null, null, ORGANIZATION_IDS, false, null, null, null, null, null, null, Collections.emptySet(), null, null, null, null, null);
+        assertRendersAsBuilt(built, params);
+    }
+
+    @Test
+    public void testRendersFiltersAndPaging() throws IOException {
+        final List<String> infoDomains = Arrays.asList("P1", "P12");
+        final Meta meta = new Meta(200, 20, 40, new Date(1546300800000L), new Date(1577836800000L));
+        final SearchSourceBuilder built = domain.createCodeSchemesSearchSource(null, ORGANIZATION_IDS, null, false, "TestRegistry1", "rekisteri", "testscheme", "koodisto", "en", null, Collections.emptySet(), null, infoDomains, "calculationHierarchy", meta, null);
+        final Map<String, Object> params = domain.createCodeSchemesTemplateParams(null, ORGANIZATION_IDS, null, false, "TestRegistry1", "rekisteri", "testscheme", "koodisto", "en", null, Collections.emptySet(), null, infoDomains, "calculationHierarchy", meta, null);
+        assertRendersAsBuilt(built, params);
+    }
+
+    private void assertRendersAsBuilt(final SearchSourceBuilder built,
+                                      final Map<String, Object> params) throws IOException {
+        final SearchSourceBuilder rendered = parse(searchTemplates.render(TEMPLATE_CODESCHEMES, params));
+        ((BoolQueryBuilder) rendered.query()).must().removeIf(query -> query instanceof MatchAllQueryBuilder);
+        assertEquals(parse(new BytesArray(built.toString())), rendered);
+    }
+
+    private SearchSourceBuilder parse(final BytesReference source) throws IOException {
+        try (final XContentParser parser = XContentType.JSON.xContent().createParser(X_CONTENT_REGISTRY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source.streamInput())) {
+            return SearchSourceBuilder.fromXContent(parser);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CodeTreeTest {
+
+    @Test
+    public void testBuildsHierarchyInInsertionOrder() {
+        final CodeTree<String> tree = new CodeTree.Builder<String>()
+            .add("a", null, "A")
+            .add("b", "a", "B")
+            .add("c", "missing", "C")
+            .add("d", "b", "D")
+            .add("e", "a", "E")
+            .add("b", null, "duplicate")
+            .build();
+        assertEquals(5, tree.size());
+        assertArrayEquals(new int[]{ 0, 2 }, tree.getRoots());
+        assertArrayEquals(new int[]{ 1, 4 }, tree.getChildren(tree.indexOf("a")));
+        assertArrayEquals(new int[]{ 1, 3, 4 }, tree.getDescendants(0));
+        assertArrayEquals(new int[0], tree.getChildren(tree.indexOf("d")));
+        assertEquals("B", tree.get(tree.indexOf("b")));
+        assertEquals(-1, tree.indexOf("missing"));
+    }
+
+    @Test
+    public void testBreaksBroaderCodeCycles() {
+        final CodeTree<String> tree = new CodeTree.Builder<String>()
+            .add("a", "c", "A")
+            .add("b", "a", "B")
+            .add("c", "b", "C")
+            .add("d", "d", "D")
+            .build();
+        assertArrayEquals(new int[]{ 0, 3 }, tree.getRoots());
+        assertArrayEquals(new int[]{ 1, 2 }, tree.getDescendants(0));
+    }
+
+    @Test
+    public void testBuildsLargeHierarchy() {
+        final int size = 100000;
+        final String[] ids = new String[size];
+        final CodeTree.Builder<Integer> builder = new CodeTree.Builder<>();
+        for (int i = 0; i < size; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            builder.add(ids[i], i > 0 ? ids[(i - 1) / 10] : null, i);
+        }
+        final CodeTree<Integer> tree = builder.build();
+        assertEquals(size, tree.size());
+        assertEquals(1, tree.getRoots().length);
+        assertEquals(size - 1, tree.getDescendants(0).length);
+        assertEquals(10, tree.getChildren(tree.indexOf(ids[5])).length);
+        assertTrue(tree.getMemoryBytes() < 64L * size);
+    }
+
+    @Test
+    public void testWalksFlatSchemeInOnePass() {
+        final int size = 100000;
+        final CodeTree.Builder<Integer> builder = new CodeTree.Builder<>();
+        for (int i = 0; i < size; i++) {
+            builder.add("code-" + i, null, i);
+        }
+        final CodeTree<Integer> tree = builder.build();
+        final int[] roots = tree.getRoots();
+        assertEquals(size, roots.length);
+        assertArrayEquals(roots, tree.getSubtrees(roots));
+        assertArrayEquals(new int[0], tree.getDescendants(size - 1));
+    }
+
+    @Test
+    public void testWalksSubtreesInPreOrder() {
+        final CodeTree<String> tree = new CodeTree.Builder<String>()
+            .add("a", null, "A")
+            .add("b", "a", "B")
+            .add("c", null, "C")
+            .add("d", "c", "D")
+            .add("e", "b", "E")
+            .build();
+        assertArrayEquals(new int[]{ 0, 1, 4, 2, 3 }, tree.getSubtrees(tree.getRoots()));
+        assertArrayEquals(new int[]{ 1, 4 }, tree.getSubtrees(1));
+    }
+}
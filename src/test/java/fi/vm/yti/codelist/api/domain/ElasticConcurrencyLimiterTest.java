@@ -0,0 +1,111 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import fi.vm.yti.codelist.api.exception.YtiCodeListException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ElasticConcurrencyLimiterTest {
+
+    private static final int CLIENT_THREADS = 64;
+    private static final int REQUESTS_PER_THREAD = 20;
+
+    @Test
+    public void testLimitBacksOffWhenElasticSlowsDownUnderLoad() throws Exception {
+        final ElasticConcurrencyLimiter limiter = new ElasticConcurrencyLimiter(true, 40, 2, 100, 20, 10000, 0.8);
+        final LatencyInjectingElastic elastic = new LatencyInjectingElastic(2, 1);
+        runLoad(limiter, elastic);
+        assertTrue("Limit should settle below the initial limit, was " + limiter.getLimit(), limiter.getLimit() < 40);
+        assertTrue("Elastic stand-in saw " + elastic.maxConcurrency.get() + " concurrent requests", elastic.maxConcurrency.get() <= 100);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLimitGrowsWhenElasticIsFast() throws Exception {
+        final ElasticConcurrencyLimiter limiter = new ElasticConcurrencyLimiter(true, 4, 2, 100, 1000, 10000, 0.8);
+        final LatencyInjectingElastic elastic = new LatencyInjectingElastic(1, 0);
+        runLoad(limiter, elastic);
+        assertTrue("Limit should grow above the initial limit, was " + limiter.getLimit(), limiter.getLimit() > 4);
+        assertEquals(0, limiter.getRejected());
+    }
+
+    @Test
+    public void testExcessRequestsAreRejectedAfterQueueTimeout() throws Exception {
+        final ElasticConcurrencyLimiter limiter = new ElasticConcurrencyLimiter(true, 2, 2, 2, 1000, 10, 0.8);
+        final LatencyInjectingElastic elastic = new LatencyInjectingElastic(50, 0);
+        final AtomicInteger rejections = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    limiter.execute(elastic::search);
+                } catch (final YtiCodeListException e) {
+                    rejections.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(rejections.get() > 0);
+        assertEquals(rejections.get(), limiter.getRejected());
+        assertTrue(elastic.maxConcurrency.get() <= 2);
+    }
+
+    private void runLoad(final ElasticConcurrencyLimiter limiter,
+                         final LatencyInjectingElastic elastic) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        for (int i = 0; i < CLIENT_THREADS; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                    limiter.execute(elastic::search);
+                }
+                return null;
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+    }
+
+    /**
+     * Stand-in for an ElasticSearch node whose response time grows with the number of concurrent requests it serves.
+     */
+    private static class LatencyInjectingElastic {
+
+        private final long baseLatencyMillis;
+        private final long latencyPerConcurrentRequestMillis;
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+
+        LatencyInjectingElastic(final long baseLatencyMillis,
+                                final long latencyPerConcurrentRequestMillis) {
+            this.baseLatencyMillis = baseLatencyMillis;
+            this.latencyPerConcurrentRequestMillis = latencyPerConcurrentRequestMillis;
+        }
+
+        Object search() {
+            final int current = concurrency.incrementAndGet();
+            maxConcurrency.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(baseLatencyMillis + current * latencyPerConcurrentRequestMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrency.decrementAndGet();
+            }
+            return new Object();
+        }
+    }
+}
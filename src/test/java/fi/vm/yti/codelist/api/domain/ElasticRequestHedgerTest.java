@@ -0,0 +1,69 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.ActionListener;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ElasticRequestHedgerTest {
+
+    private static final int WARMUP_REQUESTS = 128;
+
+    @Test
+    public void testSlowPrimaryIsHedgedAndFirstResponseWins() throws Exception {
+        final ElasticRequestHedger hedger = new ElasticRequestHedger(true, 100, 1);
+        warmUp(hedger);
+        final long start = System.nanoTime();
+        final String response = hedger.execute((preference, listener) -> respond(listener, preference == null ? 2000 : 5, preference == null ? "primary" : "hedge"));
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals("hedge", response);
+        assertTrue("Hedged request took " + elapsedMillis + " ms", elapsedMillis < 1000);
+        assertEquals(1, hedger.getHedges());
+        assertEquals(1, hedger.getHedgeWins());
+    }
+
+    @Test
+    public void testHedgesAreLimitedToConfiguredPercentage() throws Exception {
+        final ElasticRequestHedger hedger = new ElasticRequestHedger(true, 0, 1);
+        warmUp(hedger);
+        final String response = hedger.execute((preference, listener) -> respond(listener, 100, preference == null ? "primary" : "hedge"));
+        assertEquals("primary", response);
+        assertEquals(0, hedger.getHedges());
+    }
+
+    @Test
+    public void testPrimaryFailureIsReportedWhenNoHedgeIsInFlight() {
+        final ElasticRequestHedger hedger = new ElasticRequestHedger(true, 100, 1000);
+        try {
+            hedger.execute((preference, listener) -> listener.onFailure(new IOException("node down")));
+            throw new AssertionError("Expected IOException");
+        } catch (final IOException e) {
+            assertEquals("node down", e.getMessage());
+        }
+        assertEquals(0, hedger.getHedges());
+    }
+
+    private void warmUp(final ElasticRequestHedger hedger) throws IOException {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            hedger.execute((preference, listener) -> listener.onResponse("warmup"));
+        }
+    }
+
+    private void respond(final ActionListener<String> listener,
+                         final long latencyMillis,
+                         final String response) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            listener.onResponse(response);
+        });
+    }
+}
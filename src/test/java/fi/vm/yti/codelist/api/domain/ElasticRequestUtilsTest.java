@@ -0,0 +1,42 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static fi.vm.yti.codelist.api.domain.ElasticRequestUtils.compareSortValues;
+import static fi.vm.yti.codelist.api.domain.ElasticRequestUtils.partition;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ElasticRequestUtilsTest {
+
+    @Test
+    public void testPartitionSplitsIntoChunksOfAtMostGivenSize() {
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 2501; i++) {
+            values.add(i);
+        }
+        final List<List<Integer>> chunks = partition(values, 1000);
+        assertEquals(3, chunks.size());
+        assertEquals(1000, chunks.get(0).size());
+        assertEquals(501, chunks.get(2).size());
+        assertEquals(Integer.valueOf(2500), chunks.get(2).get(500));
+        assertTrue(partition(new ArrayList<>(), 1000).isEmpty());
+    }
+
+    @Test
+    public void testCompareSortValuesOrdersFieldByFieldWithMissingValuesLast() {
+        assertTrue(compareSortValues(new Object[]{ "a", "z" }, new Object[]{ "b", "a" }) < 0);
+        assertTrue(compareSortValues(new Object[]{ "a", "b" }, new Object[]{ "a", "a" }) > 0);
+        assertTrue(compareSortValues(new Object[]{ null, "a" }, new Object[]{ "z", "z" }) > 0);
+        assertTrue(compareSortValues(new Object[]{ 2L, "a" }, new Object[]{ 10, "a" }) < 0);
+        assertEquals(0, compareSortValues(new Object[]{ "a", null }, new Object[]{ "a", null }));
+        final List<Object[]> sortValues = new ArrayList<>(Arrays.asList(new Object[]{ "b" }, new Object[]{ null }, new Object[]{ "a" }));
+        sortValues.sort(ElasticRequestUtils::compareSortValues);
+        assertEquals("a", sortValues.get(0)[0]);
+        assertEquals("b", sortValues.get(1)[0]);
+    }
+}
@@ -0,0 +1,49 @@
+package fi.vm.yti.codelist.api.domain;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KeyBloomFilterTest {
+
+    @Test
+    public void testContainsAllAddedKeys() {
+        final KeyBloomFilter.Builder builder = new KeyBloomFilter.Builder(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            builder.add("path:registry/scheme/" + i);
+        }
+        final KeyBloomFilter filter = builder.build();
+        assertEquals(10000, filter.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("path:registry/scheme/" + i));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRateStaysNearConfiguredProbability() {
+        final KeyBloomFilter.Builder builder = new KeyBloomFilter.Builder(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            builder.add("id:" + i);
+        }
+        final KeyBloomFilter filter = builder.build();
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (filter.mightContain("id:" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2000);
+        assertTrue(filter.getExpectedFpp() > 0.005 && filter.getExpectedFpp() < 0.02);
+        assertTrue(filter.getMemoryBytes() < 16 * 1024);
+    }
+
+    @Test
+    public void testEmptyFilterContainsNothing() {
+        final KeyBloomFilter filter = new KeyBloomFilter.Builder(0, 0.01).build();
+        assertFalse(filter.mightContain("id:missing"));
+        assertEquals(0, filter.size());
+        assertEquals(0.0, filter.getExpectedFpp(), 0.0);
+    }
+}
@@ -0,0 +1,59 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrefixSuggestIndexTest {
+
+    @Test
+    public void testSuggestsHighestBoostFirst() {
+        final PrefixSuggestIndex<String> index = new PrefixSuggestIndex.Builder<String>()
+            .add("retired", 500, "kunta-2019", labels("fi", "Kunnat 2019"))
+            .add("valid", 1000, "kunta-2020", labels("fi", "Kunnat 2020"))
+            .add("draft", 800, "kunta-2021", labels("fi", "Kunnat 2021"))
+            .build();
+        assertEquals(Arrays.asList("valid", "draft", "retired"), index.suggest("kun", null, 10));
+        assertEquals(Arrays.asList("valid", "draft"), index.suggest("KUN", null, 2));
+        assertEquals(Collections.singletonList("retired"), index.suggest("kunta-2019", null, 10));
+    }
+
+    @Test
+    public void testMatchesWordStartsOnce() {
+        final PrefixSuggestIndex<String> index = new PrefixSuggestIndex.Builder<String>()
+            .add("municipalities", 1000, "kunta", labels("en", "Finnish municipalities (2020)", "fi", "Suomen kunnat"))
+            .add("regions", 1000, "maakunta", labels("en", "Regions of Finland"))
+            .build();
+        assertEquals(Collections.singletonList("municipalities"), index.suggest("munic", null, 10));
+        assertEquals(Collections.singletonList("municipalities"), index.suggest("2020", null, 10));
+        assertEquals(Arrays.asList("regions", "municipalities"), index.suggest("fin", null, 10));
+        assertEquals(Collections.singletonList("municipalities"), index.suggest("kun", null, 10));
+        assertTrue(index.suggest("unic", null, 10).isEmpty());
+        assertTrue(index.suggest(" ", null, 10).isEmpty());
+    }
+
+    @Test
+    public void testFiltersLabelsByLanguage() {
+        final PrefixSuggestIndex<String> index = new PrefixSuggestIndex.Builder<String>()
+            .add("finnish", 1000, "a1", labels("fi", "Kieli"))
+            .add("swedish", 1000, "a2", labels("sv", "Kieli"))
+            .build();
+        assertEquals(Arrays.asList("finnish", "swedish"), index.suggest("kie", null, 10));
+        assertEquals(Collections.singletonList("finnish"), index.suggest("kie", "FI", 10));
+        assertEquals(Arrays.asList("finnish", "swedish"), index.suggest("a", "fi", 10));
+    }
+
+    private static Map<String, String> labels(final String... languagesAndLabels) {
+        final Map<String, String> labels = new HashMap<>();
+        for (int i = 0; i < languagesAndLabels.length; i += 2) {
+            labels.put(languagesAndLabels[i], languagesAndLabels[i + 1]);
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,70 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fi.vm.yti.codelist.common.dto.Meta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReplicaFiltersTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testPrefixSuffixMatchesAllPlainTermsAgainstTokens() {
+        final List<String> values = Arrays.asList("Koodiston laajennus", "Code list extension");
+        assertTrue(ReplicaFilters.matchesPrefixSuffix(values, "laajen"));
+        assertTrue(ReplicaFilters.matchesPrefixSuffix(values, "nnus"));
+        assertTrue(ReplicaFilters.matchesPrefixSuffix(values, "code ext"));
+        assertFalse(ReplicaFilters.matchesPrefixSuffix(values, "code member"));
+        assertTrue(ReplicaFilters.matchesPrefixSuffix(values, "member* ext*"));
+        assertFalse(ReplicaFilters.matchesPrefixSuffix(values, "member*"));
+    }
+
+    @Test
+    public void testPrefixMatchesAnyToken() throws IOException {
+        final JsonNode source = mapper.readTree("{\"context\":\"Extension\",\"type\":\"code list\"}");
+        assertTrue(ReplicaFilters.matchesPrefix(source, "context", "ext"));
+        assertTrue(ReplicaFilters.matchesPrefix(source, "type", "LIST"));
+        assertFalse(ReplicaFilters.matchesPrefix(source, "type", "member"));
+        assertFalse(ReplicaFilters.matchesPrefix(source, "localName", "a"));
+        assertTrue(ReplicaFilters.matchesPrefix(source, "localName", null));
+    }
+
+    @Test
+    public void testLanguageSortFallsBackToOtherLanguagesAndBackupField() throws IOException {
+        final List<JsonNode> sources = new ArrayList<>();
+        sources.add(mapper.readTree("{\"localName\":\"c\",\"prefLabel\":{\"en\":\"A\"}}"));
+        sources.add(mapper.readTree("{\"localName\":\"b\"}"));
+        sources.add(mapper.readTree("{\"localName\":\"a\",\"prefLabel\":{\"fi\":\"B\"}}"));
+        sources.sort(ReplicaFilters.languagePrefLabelComparator("fi", "localName", "localName"));
+        assertEquals("a", sources.get(0).get("localName").textValue());
+        assertEquals("c", sources.get(1).get("localName").textValue());
+        assertEquals("b", sources.get(2).get("localName").textValue());
+        sources.sort(ReplicaFilters.languagePrefLabelComparator(null, "localName", "localName"));
+        assertEquals("a", sources.get(0).get("localName").textValue());
+        assertEquals("c", sources.get(2).get("localName").textValue());
+    }
+
+    @Test
+    public void testPageSetsResultCountsLikeSearch() {
+        final Meta meta = new Meta();
+        meta.setFrom(2);
+        meta.setPageSize(2);
+        assertEquals(Arrays.asList("c", "d"), ReplicaFilters.page(Arrays.asList("a", "b", "c", "d", "e"), meta));
+        assertEquals(Integer.valueOf(5), meta.getTotalResults());
+        assertEquals(Integer.valueOf(2), meta.getResultCount());
+        meta.setFrom(10);
+        assertTrue(ReplicaFilters.page(Arrays.asList("a", "b"), meta).isEmpty());
+    }
+}
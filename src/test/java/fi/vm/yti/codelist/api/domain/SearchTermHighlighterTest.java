@@ -0,0 +1,43 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SearchTermHighlighterTest {
+
+    @Test
+    public void testMatchesPerWordRegexForSingleWords() {
+        final String[] texts = { "Kunnat 2020", "kuntaliitos", "maakunta", "Suomen kunnat ja maakunnat", "kunta-kunta", "(kunta)", "" };
+        for (final String word : new String[]{ "kunta", "KUN", "2020", "a.b", "nat" }) {
+            final SearchTermHighlighter highlighter = SearchTermHighlighter.compile(word);
+            for (final String text : texts) {
+                assertEquals(legacyHighlight(word, text), highlighter.highlight(text));
+            }
+        }
+    }
+
+    @Test
+    public void testHighlightsAllWordsInOnePass() {
+        final SearchTermHighlighter highlighter = SearchTermHighlighter.compile(" kunnat  b kunta ");
+        assertEquals("Suomen <b>kunnat</b> ja <b>b</b>", highlighter.highlight("Suomen kunnat ja b"));
+        assertEquals("<b>kunta</b>liitos", highlighter.highlight("kuntaliitos"));
+        assertEquals("<b>\u00c4\u00e4nestys</b>alue", SearchTermHighlighter.compile("\u00e4\u00e4nestys").highlight("\u00c4\u00e4nestysalue"));
+    }
+
+    @Test
+    public void testLeavesTextWithoutSearchTermUnchanged() {
+        assertEquals("Kunnat", SearchTermHighlighter.compile(null).highlight("Kunnat"));
+        assertEquals("Kunnat", SearchTermHighlighter.compile("  ").highlight("Kunnat"));
+        assertNull(SearchTermHighlighter.compile("kunta").highlight(null));
+    }
+
+    private static String legacyHighlight(final String word,
+                                          final String text) {
+        final String matchString = Pattern.quote(word);
+        return text.replaceAll("(?i)(?<text>\\b" + matchString + "|" + matchString + "\\b)", "<b>${text}</b>");
+    }
+}
@@ -0,0 +1,61 @@
+package fi.vm.yti.codelist.api.domain;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+
+import static fi.vm.yti.codelist.common.constants.ApiConstants.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SourceFilterTest {
+
+    @Test
+    public void testUnexpandedNestedObjectsAreReducedToIdentifiers() {
+        final List<String> excludes = Arrays.asList(SourceFilter.of(FILTER_NAME_CODE, null).getExcludes());
+        assertTrue(excludes.contains("codeScheme.prefLabel"));
+        assertTrue(excludes.contains("codeScheme.codeRegistry"));
+        assertTrue(excludes.contains("externalReferences.title"));
+        assertFalse(excludes.contains("codeScheme.uri"));
+        assertFalse(excludes.contains("prefLabel"));
+    }
+
+    @Test
+    public void testExpandedNestedObjectsAreFetchedWithTheirOwnChildrenFiltered() {
+        final List<String> excludes = Arrays.asList(SourceFilter.of(FILTER_NAME_CODE, FILTER_NAME_CODESCHEME + ", " + FILTER_NAME_EXTERNALREFERENCE).getExcludes());
+        assertFalse(excludes.contains("codeScheme.prefLabel"));
+        assertFalse(excludes.contains("codeScheme.codeRegistry"));
+        assertTrue(excludes.contains("codeScheme.codeRegistry.prefLabel"));
+        assertTrue(excludes.contains("codeScheme.organizations.prefLabel"));
+        assertFalse(excludes.contains("externalReferences.title"));
+    }
+
+    @Test
+    public void testTokenFilterReducesUnexpandedNestedObjects() throws IOException {
+        final String source = "{\"id\":\"1\",\"prefLabel\":{\"fi\":\"a\"},\"codeScheme\":{\"id\":\"2\",\"uri\":\"u\",\"url\":\"v\",\"codeRegistry\":{\"uri\":\"r\"}},\"externalReferences\":[{\"url\":\"e\",\"title\":{\"fi\":\"t\"}}]}";
+        assertEquals("{\"id\":\"1\",\"prefLabel\":{\"fi\":\"a\"},\"codeScheme\":{\"uri\":\"u\",\"url\":\"v\"},\"externalReferences\":[{\"url\":\"e\"}]}", copyFiltered(source, SourceFilter.of(FILTER_NAME_CODE, null)));
+        assertEquals("{\"id\":\"1\",\"prefLabel\":{\"fi\":\"a\"},\"codeScheme\":{\"id\":\"2\",\"uri\":\"u\",\"url\":\"v\",\"codeRegistry\":{\"uri\":\"r\"}},\"externalReferences\":[{\"url\":\"e\"}]}", copyFiltered(source, SourceFilter.of(FILTER_NAME_CODE, FILTER_NAME_CODESCHEME)));
+    }
+
+    private String copyFiltered(final String source,
+                                final SourceFilter sourceFilter) throws IOException {
+        final JsonFactory jsonFactory = new JsonFactory();
+        final StringWriter writer = new StringWriter();
+        try (final JsonParser parser = jsonFactory.createParser(source);
+             final JsonGenerator generator = new FilteringGeneratorDelegate(jsonFactory.createGenerator(writer), sourceFilter.createTokenFilter(), true, true)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package fi.vm.yti.codelist.api.domain;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UriHashIndexTest {
+
+    @Test
+    public void testNormalizeStripsHostQueryAndTrailingSlashes() {
+        assertEquals("registry/scheme", UriHashIndex.normalize("http://uri.suomi.fi/codelist/Registry/Scheme/"));
+        assertEquals("registry/scheme/code/a", UriHashIndex.normalize("https://uri.suomi.fi/codelist/registry/scheme/code/A?format=json"));
+        assertNull(UriHashIndex.normalize("http://uri.suomi.fi/terminology/registry"));
+        assertNull(UriHashIndex.normalize("http://uri.suomi.fi/codelist/"));
+        assertNull(UriHashIndex.normalize(null));
+    }
+
+    @Test
+    public void testContainsIndexedUrisOnly() {
+        final UriHashIndex index = new UriHashIndex.Builder()
+            .add("http://uri.suomi.fi/codelist/registry")
+            .add("http://uri.suomi.fi/codelist/registry/scheme")
+            .add("http://uri.suomi.fi/codelist/registry/scheme")
+            .add("http://uri.suomi.fi/codelist/registry/scheme/code/a")
+            .add("http://example.com/other")
+            .build();
+        assertEquals(3, index.size());
+        assertEquals(24, index.getMemoryBytes());
+        assertTrue(index.contains("http://uri.suomi.fi/codelist/REGISTRY/scheme/"));
+        assertTrue(index.contains("http://uri.suomi.fi/codelist/registry/scheme/code/a"));
+        assertFalse(index.contains("http://uri.suomi.fi/codelist/registry/scheme/code/b"));
+        assertFalse(index.contains("http://uri.suomi.fi/codelist/other"));
+    }
+
+    @Test
+    public void testBuilderGrowsBeyondInitialCapacity() {
+        final UriHashIndex.Builder builder = new UriHashIndex.Builder();
+        for (int i = 0; i < 5000; i++) {
+            builder.add("http://uri.suomi.fi/codelist/registry/scheme/code/" + i);
+        }
+        final UriHashIndex index = builder.build();
+        assertEquals(5000, index.size());
+        assertTrue(index.contains("http://uri.suomi.fi/codelist/registry/scheme/code/4999"));
+        assertFalse(index.contains("http://uri.suomi.fi/codelist/registry/scheme/code/5000"));
+    }
+}
@@ -1,6 +1,7 @@
 package fi.vm.yti.codelist.api.integration;
 
 import java.io.IOException;
+import java.util.UUID;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -9,14 +10,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.util.LinkedMultiValueMap;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -26,9 +30,13 @@ import fi.vm.yti.codelist.api.PublicApiServiceApplication;
 import fi.vm.yti.codelist.common.dto.CodeDTO;
 import fi.vm.yti.codelist.common.dto.CodeRegistryDTO;
 import fi.vm.yti.codelist.common.dto.CodeSchemeDTO;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.API_PATH_CODEREGISTRIES;
 import static fi.vm.yti.codelist.common.constants.ApiConstants.API_PATH_CODES;
 import static fi.vm.yti.codelist.common.constants.ApiConstants.API_PATH_CODESCHEMES;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.API_PATH_VERSION_V1;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = { PublicApiServiceApplication.class }, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -138,4 +146,140 @@ public class ResourceIntegrationT2 extends AbstractTestBase {
             Assert.fail("Exception " + e);
         }
     }
+
+    @Test
+    public void getCodeByIdTest() {
+        final String apiUrl = createApiUrl(randomServerPort) + "/" + TEST_CODEREGISTRY_CODEVALUE + API_PATH_CODESCHEMES + "/" + TEST_CODESCHEME_CODEVALUE + API_PATH_CODES + "/" + TEST_CODE_CODEVALUE + "/";
+        final LinkedMultiValueMap<String, Object> parameters = new LinkedMultiValueMap<>();
+        final HttpEntity<LinkedMultiValueMap<String, Object>> entity = new HttpEntity<>(parameters, null);
+        final ObjectMapper mapper = new ObjectMapper();
+        try {
+            final CodeDTO code = mapper.readValue(restTemplate.exchange(apiUrl, HttpMethod.GET, entity, String.class, "").getBody(), CodeDTO.class);
+            final String codeApiUrl = createApiUrlWithoutVersion(randomServerPort, API_PATH_VERSION_V1 + API_PATH_CODES);
+            final ResponseEntity<String> response = restTemplate.exchange(codeApiUrl + code.getId().toString().toUpperCase(), HttpMethod.GET, entity, String.class, "");
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(code.getId(), mapper.readValue(response.getBody(), CodeDTO.class).getId());
+            final ResponseEntity<String> notFoundResponse = restTemplate.exchange(codeApiUrl + UUID.randomUUID(), HttpMethod.GET, entity, String.class, "");
+            assertEquals(HttpStatus.NOT_FOUND, notFoundResponse.getStatusCode());
+            assertEquals(HttpStatus.OK, restTemplate.exchange(codeApiUrl + code.getId().toString().toUpperCase(), HttpMethod.HEAD, entity, String.class, "").getStatusCode());
+            assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange(codeApiUrl + UUID.randomUUID(), HttpMethod.HEAD, entity, String.class, "").getStatusCode());
+        } catch (final IOException e) {
+            Assert.fail("Exception " + e);
+        }
+    }
+
+    @Test
+    public void getCodesCountAndHeadCodeTest() {
+        final String codesApiUrl = createApiUrl(randomServerPort) + "/" + TEST_CODEREGISTRY_CODEVALUE + API_PATH_CODESCHEMES + "/" + TEST_CODESCHEME_CODEVALUE + API_PATH_CODES + "/";
+        final LinkedMultiValueMap<String, Object> parameters = new LinkedMultiValueMap<>();
+        final HttpEntity<LinkedMultiValueMap<String, Object>> entity = new HttpEntity<>(parameters, null);
+        final ResponseEntity<String> response = restTemplate.exchange(codesApiUrl + "?count=true", HttpMethod.GET, entity, String.class, "");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        final ObjectMapper mapper = new ObjectMapper();
+        try {
+            final ObjectNode jsonObject = (ObjectNode) mapper.readTree(response.getBody());
+            assertEquals(8, jsonObject.get("meta").get("totalResults").intValue());
+            assertEquals(0, jsonObject.get("results").size());
+        } catch (final IOException e) {
+            Assert.fail("Exception " + e);
+        }
+        assertEquals(HttpStatus.OK, restTemplate.exchange(codesApiUrl + TEST_CODE_CODEVALUE, HttpMethod.HEAD, entity, String.class, "").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange(codesApiUrl + "notexisting", HttpMethod.HEAD, entity, String.class, "").getStatusCode());
+    }
+
+    @Test
+    public void getCodesByUrisTest() {
+        final String codeUri = "http://uri.suomi.fi/codelist/" + TEST_CODEREGISTRY_CODEVALUE + "/" + TEST_CODESCHEME_CODEVALUE + "/code/" + TEST_CODE_CODEVALUE;
+        final String missingUri = "http://uri.suomi.fi/codelist/" + TEST_CODEREGISTRY_CODEVALUE + "/" + TEST_CODESCHEME_CODEVALUE + "/code/notexisting";
+        final String apiUrl = createApiUrl(randomServerPort) + "codes/batch";
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        final HttpEntity<String> entity = new HttpEntity<>("[\"" + codeUri + "\", \"" + missingUri + "\"]", headers);
+        final ResponseEntity<String> response = restTemplate.exchange(apiUrl, HttpMethod.POST, entity, String.class, "");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        final ObjectMapper mapper = new ObjectMapper();
+        try {
+            final ObjectNode jsonObject = (ObjectNode) mapper.readTree(response.getBody());
+            assertEquals(1, jsonObject.size());
+            assertEquals(TEST_CODE_CODEVALUE, jsonObject.get(codeUri).get("codeValue").textValue());
+            assertFalse(jsonObject.has(missingUri));
+        } catch (final IOException e) {
+            Assert.fail("Exception " + e);
+        }
+    }
+
+    @Test
+    public void executeBatchTest() {
+        final String codeSchemePath = API_PATH_VERSION_V1 + API_PATH_CODEREGISTRIES + "/" + TEST_CODEREGISTRY_CODEVALUE + API_PATH_CODESCHEMES + "/" + TEST_CODESCHEME_CODEVALUE + "/";
+        final String missingPath = API_PATH_VERSION_V1 + API_PATH_CODEREGISTRIES + "/notexisting/";
+        final String apiUrl = createApiUrlWithoutVersion(randomServerPort, API_PATH_VERSION_V1 + "/batch");
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        final HttpEntity<String> entity = new HttpEntity<>("[{\"path\": \"" + codeSchemePath + "\", \"params\": {\"expand\": \"codeRegistry\"}}, {\"path\": \"" + missingPath + "\"}, {\"path\": \"/v1/batch\"}]", headers);
+        final ResponseEntity<String> response = restTemplate.exchange(apiUrl, HttpMethod.POST, entity, String.class, "");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        final ObjectMapper mapper = new ObjectMapper();
+        try {
+            final ArrayNode results = (ArrayNode) mapper.readTree(response.getBody()).get("results");
+            assertEquals(3, results.size());
+            assertEquals(codeSchemePath, results.get(0).get("path").textValue());
+            assertEquals(200, results.get(0).get("status").intValue());
+            assertEquals(TEST_CODESCHEME_CODEVALUE, results.get(0).get("body").get("codeValue").textValue());
+            assertTrue(results.get(0).has("durationMs"));
+            assertEquals(404, results.get(1).get("status").intValue());
+            assertEquals(400, results.get(2).get("status").intValue());
+        } catch (final IOException e) {
+            Assert.fail("Exception " + e);
+        }
+    }
+
+    @Test
+    public void getCodeTreeTest() {
+        final String apiUrl = createApiUrl(randomServerPort) + "/" + TEST_CODEREGISTRY_CODEVALUE + API_PATH_CODESCHEMES + "/" + TEST_CODESCHEME_CODEVALUE + "/codetree";
+        final ResponseEntity<String> response = restTemplate.exchange(apiUrl, HttpMethod.GET, null, String.class, "");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        final ObjectMapper mapper = new ObjectMapper();
+        try {
+            final ObjectNode jsonObject = (ObjectNode) mapper.readTree(response.getBody());
+            assertTrue(jsonObject.get("results").size() > 0);
+            assertTrue(jsonObject.get("results").get(0).has("code"));
+        } catch (final IOException e) {
+            Assert.fail("Exception " + e);
+        }
+        final ResponseEntity<String> missingResponse = restTemplate.exchange(apiUrl + "?code=notexisting", HttpMethod.GET, null, String.class, "");
+        assertEquals(HttpStatus.NOT_FOUND, missingResponse.getStatusCode());
+    }
+
+    @Test
+    public void getCodeReferencesTest() {
+        final String codeUrl = createApiUrl(randomServerPort) + "/" + TEST_CODEREGISTRY_CODEVALUE + API_PATH_CODESCHEMES + "/" + TEST_CODESCHEME_CODEVALUE + API_PATH_CODES + "/" + TEST_CODE_CODEVALUE + "/";
+        final String apiUrl = createApiUrlWithoutVersion(randomServerPort, API_PATH_VERSION_V1 + API_PATH_CODES) + "references";
+        final ObjectMapper mapper = new ObjectMapper();
+        try {
+            final CodeDTO code = mapper.readValue(restTemplate.exchange(codeUrl, HttpMethod.GET, new HttpEntity<>(new LinkedMultiValueMap<String, Object>(), null), String.class, "").getBody(), CodeDTO.class);
+            final String codeId = code.getId().toString();
+            final String unreferencedCodeId = UUID.randomUUID().toString();
+            final HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            final HttpEntity<String> entity = new HttpEntity<>("[\"" + codeId + "\", \"" + unreferencedCodeId + "\"]", headers);
+            final ResponseEntity<String> response = restTemplate.exchange(apiUrl, HttpMethod.POST, entity, String.class, "");
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            final ObjectNode jsonObject = (ObjectNode) mapper.readTree(response.getBody());
+            assertEquals(200, jsonObject.get("meta").get("code").intValue());
+            assertEquals(2, jsonObject.get("meta").get("resultCount").intValue());
+            final JsonNode references = jsonObject.get("results").get(0);
+            assertEquals(codeId, references.get("codeId").textValue());
+            assertEquals(1, references.get("memberCount").intValue());
+            assertEquals(1, references.get("extensions").size());
+            final JsonNode extensionReference = references.get("extensions").get(0);
+            assertEquals(1, extensionReference.get("memberCount").intValue());
+            assertEquals(TEST_EXTENSION_CODEVALUE, extensionReference.get("extension").get("codeValue").textValue());
+            final JsonNode unreferenced = jsonObject.get("results").get(1);
+            assertEquals(unreferencedCodeId, unreferenced.get("codeId").textValue());
+            assertEquals(0, unreferenced.get("memberCount").intValue());
+            assertEquals(0, unreferenced.get("extensions").size());
+        } catch (final IOException e) {
+            Assert.fail("Exception " + e);
+        }
+    }
 }
@@ -3,8 +3,10 @@ package fi.vm.yti.codelist.api.integration;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import fi.vm.yti.codelist.api.domain.CodeSchemeSearchTemplateT3;
+
 @RunWith(Suite.class)
-@Suite.SuiteClasses({PopulateElasticTestDataT1.class, ResourceIntegrationT2.class})
+@Suite.SuiteClasses({PopulateElasticTestDataT1.class, ResourceIntegrationT2.class, CodeSchemeSearchTemplateT3.class})
 public class ResourceIntegrationTestSuiteIT {
 
 }
@@ -0,0 +1,52 @@
+package fi.vm.yti.codelist.api.resource;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import static fi.vm.yti.codelist.common.constants.ApiConstants.FILTER_NAME_CODE;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.FILTER_NAME_EXTENSION;
+import static fi.vm.yti.codelist.common.constants.ApiConstants.FILTER_NAME_MEMBER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AbstractBaseResourceTest {
+
+    private final AbstractBaseResource resource = new AbstractBaseResource() {
+    };
+
+    @Test
+    public void testCanonicalizesExpandToSortedKnownFilterNames() {
+        assertEquals(FILTER_NAME_CODE + "," + FILTER_NAME_MEMBER, AbstractBaseResource.canonicalizeExpand(" " + FILTER_NAME_MEMBER + "," + FILTER_NAME_CODE + ", " + FILTER_NAME_CODE + ",unknown"));
+        assertEquals(FILTER_NAME_EXTENSION, AbstractBaseResource.canonicalizeExpand(FILTER_NAME_EXTENSION));
+        assertNull(AbstractBaseResource.canonicalizeExpand(null));
+        assertNull(AbstractBaseResource.canonicalizeExpand(""));
+        assertNull(AbstractBaseResource.canonicalizeExpand("unknown,"));
+    }
+
+    @Test
+    public void testReusesFilterModifierForEquivalentExpands() {
+        final AbstractBaseResource.FilterModifier modifier = resource.createFilterModifier(FILTER_NAME_CODE, FILTER_NAME_MEMBER + "," + FILTER_NAME_EXTENSION, null);
+        assertSame(modifier, resource.createFilterModifier(FILTER_NAME_CODE, FILTER_NAME_EXTENSION + ", " + FILTER_NAME_MEMBER + ",unknown", null));
+        assertNotSame(modifier, resource.createFilterModifier(FILTER_NAME_CODE, FILTER_NAME_MEMBER + "," + FILTER_NAME_EXTENSION, "true"));
+        assertNotSame(modifier, resource.createFilterModifier(FILTER_NAME_EXTENSION, FILTER_NAME_MEMBER + "," + FILTER_NAME_EXTENSION, null));
+        assertSame(resource.createFilterModifier(FILTER_NAME_CODE, null, null), resource.createFilterModifier(FILTER_NAME_CODE, "unknown", null));
+    }
+
+    @Test
+    public void testKeepsFilteredWriterPerBaseWriter() {
+        final AbstractBaseResource.FilterModifier modifier = resource.createFilterModifier(FILTER_NAME_MEMBER, null, null);
+        final ObjectMapper mapper = new ObjectMapper();
+        final ObjectWriter writer = mapper.writer();
+        final ObjectWriter otherWriter = mapper.writer().with(SerializationFeature.INDENT_OUTPUT);
+        final ObjectWriter filteredWriter = modifier.modify(null, null, null, writer, null);
+        final ObjectWriter otherFilteredWriter = modifier.modify(null, null, null, otherWriter, null);
+        assertNotSame(filteredWriter, otherFilteredWriter);
+        assertSame(filteredWriter, modifier.modify(null, null, null, writer, null));
+        assertSame(otherFilteredWriter, modifier.modify(null, null, null, otherWriter, null));
+    }
+}